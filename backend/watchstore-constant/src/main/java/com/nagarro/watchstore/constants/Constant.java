@@ -25,6 +25,7 @@ public interface Constant {
 	String QUANTITY_GREATER_THAN_STOCKS = "Quantity can't be greater than stock quantity";
 	String ERROR_MESSAGE_WATCH="The 'Watch Model' parameter is required.";
 	String CART_NOT_FOUND="There is no cart with given Id: ";
+	String CART_LINE_NOT_FOUND="There is no cart line for watch model number: ";
 	String PHONE_NUMBER_REGEX = "\\d{10}";
 	String PIN_CODE_REGEX = "\\d{6}";
 	String MODEL_NUMBER = "modelNumber";
@@ -69,4 +70,33 @@ public interface Constant {
 	String ADD_ADDRESS_SUCCESSFULL = "Address added successfully!";
 	String UPDATE_ADDRESS_SUCCESSFULL = "Address updated successfully!";
 	String DELETE_ADDRESS_SUCCESSFULL = "Address deleted successfully!";
+	String INVALID_CURSOR = "Cursor is not valid: ";
+	String INVALID_PAGE_SIZE = "Page size must be between 1 and ";
+	int DEFAULT_PAGE_SIZE = 20;
+	int MAX_PAGE_SIZE = 100;
+	String WATCH_CACHE = "watches";
+	String CART_VIEW_CACHE = "cartViews";
+	String INVALID_PRICE_RANGE = "Minimum price must not be greater than maximum price";
+	String TEXT_CSV = "text/csv";
+	int MAX_IMPORT_ERRORS = 1000;
+	int MAX_STOCK_ADJUSTMENTS = 10000;
+	String TOO_MANY_STOCK_ADJUSTMENTS = "At most 10000 stock adjustments can be sent at once";
+	String STOCK_BELOW_ZERO = "Stock adjustment would take stock below zero";
+	String WATCH_ALREADY_EXISTS = "Watch already exist with this model number try updating watch";
+	String INVALID_EXPORT_FORMAT = "Export format must be csv or ndjson";
+	String INVALID_PAGE_NUMBER = "Page number must not be negative";
+	String INVALID_SINCE_VERSION = "Catalog version must not be negative";
+	int DEFAULT_SUGGESTION_LIMIT = 5;
+	String INVALID_SALES_WINDOW = "Sales window must be one of 24h, 7d or 30d";
+	int DEFAULT_TOP_SELLERS = 10;
+	int MAX_CART_OPERATIONS = 100;
+	String TOO_MANY_CART_OPERATIONS = "At most 100 cart operations can be sent at once";
+	String EMPTY_CART = "There are no watches in the cart";
+	String REQUEST_CHECKOUT = "Received request to check out the cart to address id ";
+	String CART_CHECKED_OUT = "Cart is checked out into order: ";
+	String INVALID_SUGGESTION_LIMIT = "Suggestion limit must be between 1 and ";
+	String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+	int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+	String INVALID_IDEMPOTENCY_KEY = "Idempotency key must be 1 to 64 characters long";
+	String IDEMPOTENCY_KEY_REUSED = "Idempotency key was already used for a different order";
 }
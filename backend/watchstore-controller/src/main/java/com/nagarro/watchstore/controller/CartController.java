@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 import com.nagarro.watchstore.dto.CartDto;
+import com.nagarro.watchstore.dto.CartOperationDto;
 import com.nagarro.watchstore.dto.CartSaveDto;
 import com.nagarro.watchstore.dto.CartUpdateDto;
 import com.nagarro.watchstore.response.ApiResponse;
@@ -53,6 +54,17 @@ public interface CartController {
 	@PostMapping
 	ResponseEntity<ApiResponse> createCart(@RequestBody CartSaveDto cartDto);
 
+	/**
+	 * Apply a list of add, set-quantity and remove operations to the cart of the
+	 * current user at once. Either every operation is applied or none is.
+	 *
+	 * @param cartOperationDtos the operations, applied in order
+	 * @return a ResponseEntity containing the resulting cart
+	 */
+	@Operation(summary = "Apply several changes to the cart at once")
+	@PostMapping("/batch")
+	ResponseEntity<List<CartDto>> applyCartOperations(@RequestBody List<CartOperationDto> cartOperationDtos);
+
 	/**
 	 * Update an existing cart.
 	 *
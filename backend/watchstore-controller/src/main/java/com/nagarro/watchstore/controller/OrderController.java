@@ -10,8 +10,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dto.CheckoutDto;
 import com.nagarro.watchstore.dto.OrderDto;
 import com.nagarro.watchstore.dto.OrderSaveDto;
 import com.nagarro.watchstore.dto.OrderSummaryDto;
@@ -37,10 +40,23 @@ public interface OrderController {
      * @param orderSaveDto    the order save DTO containing the order details
      * @return a ResponseEntity with the API response for the successful saved order
      */
-	@Operation(summary = "Book an order")
+	@Operation(summary = "Book an order", description = "An order sent again with the same Idempotency-Key header is not booked again: \r\n"
+			+ "the response names the order booked the first time.")
     @PostMapping
     @PreAuthorize("hasAuthority('CUSTOMER')")
-    ResponseEntity<ApiResponse> book(@RequestBody final OrderSaveDto orderSaveDto);
+    ResponseEntity<ApiResponse> book(@RequestBody final OrderSaveDto orderSaveDto,
+    		@RequestHeader(value = Constant.IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey);
+
+    /**
+     * Book one order with a line for every line of the cart of the current user and empty the cart.
+     *
+     * @param checkoutDto    the checkout DTO containing the delivery address ID
+     * @return a ResponseEntity with the summary of the booked order
+     */
+	@Operation(summary = "Book the whole cart", description = "Books one order with a line for every line of the cart in one transaction and empties the cart.")
+    @PostMapping("/checkout")
+    @PreAuthorize("hasAuthority('CUSTOMER')")
+    ResponseEntity<OrderSummaryDto> checkout(@RequestBody final CheckoutDto checkoutDto);
 
     /**
      * Retrieves all orders.
@@ -1,18 +1,35 @@
 package com.nagarro.watchstore.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dto.BrandCountDto;
+import com.nagarro.watchstore.dto.StockAdjustmentDto;
+import com.nagarro.watchstore.dto.StockAdjustmentReportDto;
+import com.nagarro.watchstore.dto.TopSellerDto;
+import com.nagarro.watchstore.dto.WatchChangesDto;
 import com.nagarro.watchstore.dto.WatchDto;
+import com.nagarro.watchstore.dto.WatchImportReportDto;
+import com.nagarro.watchstore.dto.WatchPageDto;
+import com.nagarro.watchstore.dto.WatchSuggestionDto;
 import com.nagarro.watchstore.entity.Watch;
 import com.nagarro.watchstore.response.ApiResponse;
 
@@ -40,6 +57,57 @@ public interface WatchController {
 	@GetMapping
 	public ResponseEntity<List<Watch>> getAllWatches();
 
+	/**
+	 * Retrieve a page of watches ordered by model number.
+	 *
+	 * @param cursor The cursor returned with the previous page, absent for the
+	 *               first page.
+	 * @param size   The maximum number of watches in the page.
+	 * @return A ResponseEntity containing the page and the cursor of the next one.
+	 */
+	@Operation(summary = "Retrieve a page of watches")
+	@GetMapping("/page")
+	public ResponseEntity<WatchPageDto> getWatchPage(@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "size", defaultValue = "" + Constant.DEFAULT_PAGE_SIZE) int size);
+
+	/**
+	 * Export the whole catalog as newline-delimited JSON or as CSV, in the formats
+	 * accepted by the import. The body is streamed from a database cursor while it
+	 * is being written, so the catalog is never held in memory.
+	 *
+	 * @param format The format of the export, ndjson or csv.
+	 * @return A ResponseEntity streaming the watches in model number order.
+	 */
+	@Operation(summary = "Export all watches as NDJSON or CSV")
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportWatches(
+			@RequestParam(value = "format", defaultValue = "ndjson") String format);
+
+	/**
+	 * Retrieve a page of the watches matching every given facet, ordered by model
+	 * number. Several brands or types match any one of them.
+	 *
+	 * @param brands          The brands to keep.
+	 * @param types           The watch types to keep.
+	 * @param minPrice        The lowest price to keep.
+	 * @param maxPrice        The highest price to keep.
+	 * @param availableStatus The availability status to keep.
+	 * @param cursor          The cursor returned with the previous page, absent
+	 *                        for the first page.
+	 * @param size            The maximum number of watches in the page.
+	 * @return A ResponseEntity containing the page and the cursor of the next one.
+	 */
+	@Operation(summary = "Filter watches by brand, type, price and availability")
+	@GetMapping("/filter")
+	public ResponseEntity<WatchPageDto> filterWatches(
+			@RequestParam(value = "brand", required = false) List<String> brands,
+			@RequestParam(value = "type", required = false) List<String> types,
+			@RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+			@RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+			@RequestParam(value = "available", required = false) Boolean availableStatus,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "size", defaultValue = "" + Constant.DEFAULT_PAGE_SIZE) int size);
+
 	/**
 	 * Add a new watch.
 	 *
@@ -52,6 +120,38 @@ public interface WatchController {
 	@PreAuthorize("hasAuthority('ADMIN')")
 	public ResponseEntity<ApiResponse> addWatch(@RequestBody WatchDto watchDto);
 
+	/**
+	 * Import watches in bulk from a CSV file with a header row or from
+	 * newline-delimited JSON. Every row is validated like a single added watch,
+	 * and rows that fail are reported without stopping the import.
+	 *
+	 * @param contentType The content type of the body, text/csv or
+	 *                    application/x-ndjson.
+	 * @param body        The rows to import.
+	 * @return A ResponseEntity containing the counts and the rejected rows.
+	 * @throws IOException if the body cannot be read.
+	 */
+	@Operation(summary = "Import watches from CSV or NDJSON")
+	@PostMapping(value = "/import", consumes = { Constant.TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE })
+	@PreAuthorize("hasAuthority('ADMIN')")
+	public ResponseEntity<WatchImportReportDto> importWatches(
+			@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException;
+
+	/**
+	 * Adjust the stock of several watches at once. Adjustments for the same model
+	 * are added up, and adjustments that are not possible are reported without
+	 * stopping the others.
+	 *
+	 * @param stockAdjustmentDtos The quantity to add to or remove from each watch.
+	 * @return A ResponseEntity containing the number of watches adjusted and the
+	 *         rejected adjustments.
+	 */
+	@Operation(summary = "Adjust the stock of several watches")
+	@PatchMapping("/stock")
+	@PreAuthorize("hasAuthority('ADMIN')")
+	public ResponseEntity<StockAdjustmentReportDto> adjustStock(
+			@RequestBody List<StockAdjustmentDto> stockAdjustmentDtos);
+
 	/**
 	 * Retrieve a watch by its model number.
 	 *
@@ -88,6 +188,50 @@ public interface WatchController {
 	@GetMapping(params = "query")
 	public ResponseEntity<List<Watch>> searchWatch(@RequestParam("query") String query);
 
+	/**
+	 * Search watches and return one page of the matches ranked by relevance, a
+	 * match in the model number counting more than one in the name, the brand or
+	 * the type.
+	 *
+	 * @param query The keywords to search.
+	 * @param page  The number of the page, starting at 0.
+	 * @param size  The maximum number of watches in the page.
+	 * @return A ResponseEntity containing the watches of the page, best first.
+	 */
+	@Operation(summary = "Search watches ranked by relevance")
+	@GetMapping("/search")
+	public ResponseEntity<List<WatchDto>> searchWatches(@RequestParam("query") String query,
+			@RequestParam(value = "page", defaultValue = "0") int page,
+			@RequestParam(value = "size", defaultValue = "" + Constant.DEFAULT_PAGE_SIZE) int size);
+
+	/**
+	 * Complete a partly typed search with watch names, brands and model numbers,
+	 * for use on every keystroke of a search box.
+	 *
+	 * @param prefix The text typed so far.
+	 * @param limit  The maximum number of suggestions.
+	 * @return A ResponseEntity containing the suggestions, most common first.
+	 */
+	@Operation(summary = "Suggest completions for a search")
+	@GetMapping("/suggestions")
+	public ResponseEntity<List<WatchSuggestionDto>> suggest(@RequestParam("prefix") String prefix,
+			@RequestParam(value = "limit", defaultValue = "" + Constant.DEFAULT_SUGGESTION_LIMIT) int limit);
+
+	/**
+	 * Retrieve the watches changed after a catalog version, so that a client can
+	 * keep a copy of the catalog in sync without downloading it again. Start with
+	 * since 0 and pass the returned version on the next request.
+	 *
+	 * @param since The last catalog version seen.
+	 * @param size  The maximum number of watches to return.
+	 * @return A ResponseEntity containing the changed watches and the version to
+	 *         continue from.
+	 */
+	@Operation(summary = "Retrieve watches changed since a catalog version")
+	@GetMapping("/changes")
+	public ResponseEntity<WatchChangesDto> getWatchChanges(@RequestParam(value = "since", defaultValue = "0") long since,
+			@RequestParam(value = "size", defaultValue = "" + Constant.DEFAULT_PAGE_SIZE) int size);
+
 	/**
 	 * Retrieve All brands
 	 *
@@ -97,4 +241,30 @@ public interface WatchController {
 	@GetMapping("/brands")
 	public ResponseEntity<List<String>> getBrand();
 
+	/**
+	 * Retrieve all brands with the number of watches of each.
+	 *
+	 * @return A ResponseEntity containing the watch counts per brand.
+	 */
+	@Operation(summary = "Retrieve all brands with watch counts")
+	@GetMapping(value = "/brands", params = "counts")
+	public ResponseEntity<List<BrandCountDto>> getBrandCounts();
+
+	/**
+	 * Retrieve the best-selling watches of the last 24 hours, 7 days or 30 days,
+	 * overall or within a brand, a watch type or both.
+	 *
+	 * @param window The sales window: 24h, 7d or 30d.
+	 * @param brand  The brand to rank within, all brands if absent.
+	 * @param type   The watch type to rank within, all types if absent.
+	 * @param limit  The maximum number of watches to return.
+	 * @return A ResponseEntity containing the best sellers, most units sold first.
+	 */
+	@Operation(summary = "Retrieve the best-selling watches")
+	@GetMapping("/top-sellers")
+	public ResponseEntity<List<TopSellerDto>> getTopSellers(@RequestParam(value = "window", defaultValue = "7d") String window,
+			@RequestParam(value = "brand", required = false) String brand,
+			@RequestParam(value = "type", required = false) String type,
+			@RequestParam(value = "limit", defaultValue = "" + Constant.DEFAULT_TOP_SELLERS) int limit);
+
 }
@@ -13,8 +13,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.nagarro.watchstore.cart.CartOperation;
 import com.nagarro.watchstore.controller.CartController;
+import com.nagarro.watchstore.dao.projection.CartLineView;
 import com.nagarro.watchstore.dto.CartDto;
+import com.nagarro.watchstore.dto.CartOperationDto;
 import com.nagarro.watchstore.dto.CartSaveDto;
 import com.nagarro.watchstore.dto.CartUpdateDto;
 import com.nagarro.watchstore.entity.Cart;
@@ -36,10 +39,16 @@ public class CartControllerImpl implements CartController {
 
 	private final Function<Cart, CartDto> cartTransformer;
 
+	private final Function<CartLineView, CartDto> cartLineViewTransformer;
+
 	private final Predicate<CartSaveDto> cartDtoValidator;
 
 	private final Predicate<CartUpdateDto> updateCartDtoValidator;
 
+	private final Predicate<List<CartOperationDto>> cartOperationDtoValidator;
+
+	private final Function<CartOperationDto, CartOperation> cartOperationDtoTransformer;
+
 	private final Function<String, Integer> stringToIntParser;
 	
 	private final UserDetailExtractor userDetailExactrator;
@@ -48,13 +57,19 @@ public class CartControllerImpl implements CartController {
 
 	@Autowired
 	public CartControllerImpl(CartService cartService, Function<Cart, CartDto> cartTransformer,
+			Function<CartLineView, CartDto> cartLineViewTransformer,
 			Predicate<CartSaveDto> cartDtoValidator, Predicate<CartUpdateDto> updateCartDtoValidator,
+			Predicate<List<CartOperationDto>> cartOperationDtoValidator,
+			Function<CartOperationDto, CartOperation> cartOperationDtoTransformer,
 			Function<String, Integer> stringToIntParser, UserDetailExtractor userDetailExactrator) {
 		super();
 		this.cartService = cartService;
 		this.cartTransformer = cartTransformer;
+		this.cartLineViewTransformer = cartLineViewTransformer;
 		this.cartDtoValidator = cartDtoValidator;
 		this.updateCartDtoValidator = updateCartDtoValidator;
+		this.cartOperationDtoValidator = cartOperationDtoValidator;
+		this.cartOperationDtoTransformer = cartOperationDtoTransformer;
 		this.stringToIntParser = stringToIntParser;
 		this.userDetailExactrator = userDetailExactrator;
 	}
@@ -63,7 +78,8 @@ public class CartControllerImpl implements CartController {
 	public ResponseEntity<List<CartDto>> getCartsByUserId() {
 		final String userId =this.userDetailExactrator.getUserInfo().getEmailId();
 		logger.info("Request for carts by user with ID: " + userId);
-		List<CartDto> cartsDto = cartService.retrieveCartByUserId(userId).stream().map(cartTransformer::apply)
+		List<CartDto> cartsDto = cartService.retrieveCartViewByUserId(userId).stream()
+				.map(cartLineViewTransformer::apply)
 				.collect(Collectors.toList());
 		logger.info("Returning carts response for user with ID: " + userId);
 		return new ResponseEntity<>(cartsDto, HttpStatus.OK);
@@ -81,6 +97,18 @@ public class CartControllerImpl implements CartController {
 		return new ResponseEntity<>(customResponse, HttpStatus.CREATED);
 	}
 
+	@Override
+	public ResponseEntity<List<CartDto>> applyCartOperations(List<CartOperationDto> cartOperationDtos) {
+		final String userId = this.userDetailExactrator.getUserInfo().getEmailId();
+		cartOperationDtoValidator.test(cartOperationDtos);
+		logger.info("Applying {} cart operations for user with ID: {}", cartOperationDtos.size(), userId);
+		List<CartOperation> operations = cartOperationDtos.stream().map(cartOperationDtoTransformer)
+				.collect(Collectors.toList());
+		List<CartDto> cartsDto = cartService.applyCartOperations(userId, operations).stream()
+				.map(cartTransformer::apply).collect(Collectors.toList());
+		return new ResponseEntity<>(cartsDto, HttpStatus.OK);
+	}
+
 	@Override
 	public ResponseEntity<ApiResponse> updateCart(String cartId, CartUpdateDto cartUpdateDto) {
 		logger.info("Updating cart with ID: " + cartId);
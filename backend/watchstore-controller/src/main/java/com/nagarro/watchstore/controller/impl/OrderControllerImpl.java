@@ -3,6 +3,7 @@ package com.nagarro.watchstore.controller.impl;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -12,15 +13,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.nagarro.watchstore.cache.OrderIdempotencyCache;
 import com.nagarro.watchstore.constants.Constant;
 import com.nagarro.watchstore.controller.OrderController;
+import com.nagarro.watchstore.dto.CheckoutDto;
 import com.nagarro.watchstore.dto.OrderDto;
 import com.nagarro.watchstore.dto.OrderSaveDto;
 import com.nagarro.watchstore.dto.OrderSummaryDto;
 import com.nagarro.watchstore.dto.StatusDto;
 import com.nagarro.watchstore.dtotransformer.StatusDtoTransformer;
 import com.nagarro.watchstore.entity.Order;
+import com.nagarro.watchstore.entity.OrderLine;
 import com.nagarro.watchstore.enums.UserRole;
+import com.nagarro.watchstore.exception.BadRequestException;
 import com.nagarro.watchstore.extractor.UserDetailExtractor;
 import com.nagarro.watchstore.response.ApiResponse;
 import com.nagarro.watchstore.service.OrderService;
@@ -37,43 +42,64 @@ public class OrderControllerImpl implements OrderController {
 
 	private final OrderService orderService;
 	private final Predicate<OrderSaveDto> orderSaveDtoValidator;
+	private final Predicate<CheckoutDto> checkoutDtoValidator;
 	private final Function<Order, OrderSummaryDto> orderSummaryTransformer;
 	private final Function<Order, OrderDto> orderTransformer;
 	private final Predicate<StatusDto> statusDtoValidator;
 	private final UserDetailExtractor userDetailExactrator;
 	private final StatusDtoTransformer statusDtoTransformer;
+	private final OrderIdempotencyCache orderIdempotencyCache;
 	
 	private static final Logger logger = LoggerFactory.getLogger(OrderControllerImpl.class);
 
 	@Autowired
 	public OrderControllerImpl(final OrderService orderService, final Predicate<OrderSaveDto> orderSaveDtoValidator,
+			final Predicate<CheckoutDto> checkoutDtoValidator,
 			final Function<Order, OrderSummaryDto> orderSummaryTransformer,
 			final Function<Order, OrderDto> orderTransformer, final Predicate<StatusDto> statusDtoValidator,
 			final UserDetailExtractor userDetailExactrator,
-			final StatusDtoTransformer statusDtoTransformer) {
+			final StatusDtoTransformer statusDtoTransformer,
+			final OrderIdempotencyCache orderIdempotencyCache) {
 		super();
 		this.orderService = orderService;
 		this.orderSaveDtoValidator = orderSaveDtoValidator;
+		this.checkoutDtoValidator = checkoutDtoValidator;
 		this.orderSummaryTransformer = orderSummaryTransformer;
 		this.orderTransformer = orderTransformer;
 		this.statusDtoValidator = statusDtoValidator;
 		this.userDetailExactrator=userDetailExactrator;
 		this.statusDtoTransformer=statusDtoTransformer;
+		this.orderIdempotencyCache=orderIdempotencyCache;
 	}
 
 	@Override
-	public ResponseEntity<ApiResponse> book(final OrderSaveDto orderSaveDto) {
+	public ResponseEntity<ApiResponse> book(final OrderSaveDto orderSaveDto, final String idempotencyKey) {
 		this.orderSaveDtoValidator.test(orderSaveDto);
 		final String userEmailId = this.userDetailExactrator.getUserInfo().getEmailId();
 		logger.info(Constant.REQUEST_PLACE_ORDER + orderSaveDto.getWatchModelNumber());
-		final Order order = this.orderService.add(orderSaveDto.getWatchModelNumber(),
-				orderSaveDto.getAddressId(), userEmailId, orderSaveDto.getQuantity());
+		final Supplier<Order> placement = () -> this.orderService.add(orderSaveDto.getWatchModelNumber(),
+				orderSaveDto.getAddressId(), userEmailId, orderSaveDto.getQuantity(), idempotencyKey);
+		final Order order = idempotencyKey == null ? placement.get()
+				: this.orderIdempotencyCache.placeOnce(userEmailId, idempotencyKey, placement);
+		if (order.getLines().size() != 1 || !isPlacementOf(order.getLines().get(0), orderSaveDto))
+			throw new BadRequestException(Constant.IDEMPOTENCY_KEY_HEADER, Constant.IDEMPOTENCY_KEY_REUSED);
 		logger.info(Constant.ORDER_BOOKED + order.getId());
 		final String message = Constant.ORDER_BOOKED + order.getId();
 		final ApiResponse response = new ApiResponse(message);
 		return ResponseEntity.status(HttpStatus.CREATED).body(response);
 	}
 
+	@Override
+	public ResponseEntity<OrderSummaryDto> checkout(final CheckoutDto checkoutDto) {
+		this.checkoutDtoValidator.test(checkoutDto);
+		final String userEmailId = this.userDetailExactrator.getUserInfo().getEmailId();
+		logger.info(Constant.REQUEST_CHECKOUT + checkoutDto.getAddressId());
+		final OrderSummaryDto orderSummaryDto = this.orderSummaryTransformer
+				.apply(this.orderService.checkout(checkoutDto.getAddressId(), userEmailId));
+		logger.info(Constant.CART_CHECKED_OUT + orderSummaryDto.getId());
+		return ResponseEntity.status(HttpStatus.CREATED).body(orderSummaryDto);
+	}
+
 	@Override
 	public ResponseEntity<List<OrderSummaryDto>> fetchAll() {
 		final String userEmailId = this.userDetailExactrator.getUserInfo().getEmailId();
@@ -105,4 +131,8 @@ public class OrderControllerImpl implements OrderController {
 		return ResponseEntity.ok(this.orderTransformer.apply(order));
 	}
 
+	private static boolean isPlacementOf(final OrderLine line, final OrderSaveDto orderSaveDto) {
+		return line.getWatch().getModelNumber().equals(orderSaveDto.getWatchModelNumber())
+				&& line.getQuantity() == orderSaveDto.getQuantity();
+	}
 }
@@ -1,23 +1,52 @@
 package com.nagarro.watchstore.controller.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.nagarro.watchstore.constants.Constant;
 import com.nagarro.watchstore.controller.WatchController;
+import com.nagarro.watchstore.dao.projection.BrandCount;
+import com.nagarro.watchstore.dto.BrandCountDto;
+import com.nagarro.watchstore.dto.StockAdjustmentDto;
+import com.nagarro.watchstore.dto.StockAdjustmentReportDto;
+import com.nagarro.watchstore.dto.TopSellerDto;
+import com.nagarro.watchstore.dto.WatchChangesDto;
 import com.nagarro.watchstore.dto.WatchDto;
-
+import com.nagarro.watchstore.dto.WatchImportReportDto;
+import com.nagarro.watchstore.dto.WatchPageDto;
+import com.nagarro.watchstore.dto.WatchSuggestionDto;
 import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.exception.BadRequestException;
+import com.nagarro.watchstore.exporter.WatchExporter;
+import com.nagarro.watchstore.importer.WatchImporter;
+import com.nagarro.watchstore.index.CatalogFilter;
+import com.nagarro.watchstore.index.SalesWindow;
+import com.nagarro.watchstore.index.WatchSuggestion;
 import com.nagarro.watchstore.response.ApiResponse;
 import com.nagarro.watchstore.service.NotificationService;
 import com.nagarro.watchstore.service.WatchService;
+import com.nagarro.watchstore.util.CursorCodec;
+import com.nagarro.watchstore.version.WatchChanges;
 
 /**
  * Implementation of the WatchController interface that handles watch-related
@@ -39,18 +68,39 @@ public class WatchControllerImpl implements WatchController {
 
 	private Predicate<WatchDto> watchUpdateDtoValidator;
 
+	private Function<Watch, WatchDto> watchTransformer;
+
+	private Function<BrandCount, BrandCountDto> brandCountTransformer;
+
+	private Function<WatchSuggestion, WatchSuggestionDto> watchSuggestionTransformer;
+
+	private WatchImporter watchImporter;
+
+	private WatchExporter watchExporter;
+
+	private Predicate<List<StockAdjustmentDto>> stockAdjustmentDtoValidator;
+
 	private static final Logger logger = LoggerFactory.getLogger(WatchControllerImpl.class);
 
 	@Autowired
 	public WatchControllerImpl(WatchService watchService, Function<WatchDto, Watch> watchDtoTransformer,
 			Predicate<WatchDto> watchDtoValidator, Predicate<WatchDto> watchUpdateDtoValidator,
-			NotificationService notificationService) {
+			NotificationService notificationService, Function<Watch, WatchDto> watchTransformer,
+			Function<BrandCount, BrandCountDto> brandCountTransformer,
+			Function<WatchSuggestion, WatchSuggestionDto> watchSuggestionTransformer, WatchImporter watchImporter,
+			WatchExporter watchExporter, Predicate<List<StockAdjustmentDto>> stockAdjustmentDtoValidator) {
 		super();
 		this.watchService = watchService;
 		this.watchDtoTransformer = watchDtoTransformer;
 		this.watchDtoValidator = watchDtoValidator;
 		this.watchUpdateDtoValidator = watchUpdateDtoValidator;
 		this.notificationService = notificationService;
+		this.watchTransformer = watchTransformer;
+		this.brandCountTransformer = brandCountTransformer;
+		this.watchSuggestionTransformer = watchSuggestionTransformer;
+		this.watchImporter = watchImporter;
+		this.watchExporter = watchExporter;
+		this.stockAdjustmentDtoValidator = stockAdjustmentDtoValidator;
 	}
 
 	@Override
@@ -60,6 +110,47 @@ public class WatchControllerImpl implements WatchController {
 		return new ResponseEntity<>(watches, HttpStatus.OK);
 	}
 
+	@Override
+	public ResponseEntity<WatchPageDto> getWatchPage(String cursor, int size) {
+		logger.info("Getting watch page of size {} after cursor: {}", size, cursor);
+		Slice<Watch> slice = watchService.getWatchPage(CursorCodec.decode(cursor), size);
+		return new ResponseEntity<>(toWatchPage(slice), HttpStatus.OK);
+	}
+
+	@Override
+	public ResponseEntity<WatchPageDto> filterWatches(List<String> brands, List<String> types, BigDecimal minPrice,
+			BigDecimal maxPrice, Boolean availableStatus, String cursor, int size) {
+		logger.info("Filtering watches by brands {}, types {}, price {} to {}, available {}", brands, types, minPrice,
+				maxPrice, availableStatus);
+		CatalogFilter filter = new CatalogFilter();
+		if (brands != null) {
+			filter.setBrands(new HashSet<>(brands));
+		}
+		if (types != null) {
+			filter.setTypes(types.stream().map(WatchType::typeOfWatch).collect(Collectors.toSet()));
+		}
+		filter.setMinPrice(minPrice);
+		filter.setMaxPrice(maxPrice);
+		filter.setAvailableStatus(availableStatus);
+		Slice<Watch> slice = watchService.filterWatches(filter, CursorCodec.decode(cursor), size);
+		return new ResponseEntity<>(toWatchPage(slice), HttpStatus.OK);
+	}
+
+	@Override
+	public ResponseEntity<StreamingResponseBody> exportWatches(String format) {
+		MediaType mediaType;
+		if ("ndjson".equalsIgnoreCase(format)) {
+			mediaType = MediaType.APPLICATION_NDJSON;
+		} else if ("csv".equalsIgnoreCase(format)) {
+			mediaType = new MediaType(MediaType.parseMediaType(Constant.TEXT_CSV), StandardCharsets.UTF_8);
+		} else {
+			throw new BadRequestException("format", Constant.INVALID_EXPORT_FORMAT);
+		}
+		logger.info("Exporting watches as {}", mediaType);
+		StreamingResponseBody body = outputStream -> watchExporter.exportWatches(mediaType, outputStream);
+		return ResponseEntity.ok().contentType(mediaType).body(body);
+	}
+
 	@Override
 	public ResponseEntity<ApiResponse> addWatch(WatchDto watchDto) {
 		this.watchDtoValidator.test(watchDto);
@@ -71,6 +162,28 @@ public class WatchControllerImpl implements WatchController {
 		return new ResponseEntity<>(customResponse, HttpStatus.CREATED);
 	}
 
+	@Override
+	public ResponseEntity<WatchImportReportDto> importWatches(String contentType, InputStream body)
+			throws IOException {
+		logger.info("Importing watches from {}", contentType);
+		WatchImportReportDto report = watchImporter.importWatches(contentType, body);
+		return new ResponseEntity<>(report, HttpStatus.OK);
+	}
+
+	@Override
+	public ResponseEntity<StockAdjustmentReportDto> adjustStock(List<StockAdjustmentDto> stockAdjustmentDtos) {
+		this.stockAdjustmentDtoValidator.test(stockAdjustmentDtos);
+		logger.info("Adjusting stock of {} watches", stockAdjustmentDtos.size());
+		Map<String, Integer> deltas = new LinkedHashMap<>();
+		stockAdjustmentDtos.forEach(
+				adjustment -> deltas.merge(adjustment.getModelNumber(), adjustment.getDelta(), Integer::sum));
+		Map<String, String> rejected = watchService.adjustStock(deltas);
+		StockAdjustmentReportDto report = new StockAdjustmentReportDto();
+		report.setAdjusted(deltas.size() - rejected.size());
+		report.setRejected(rejected);
+		return new ResponseEntity<>(report, HttpStatus.OK);
+	}
+
 	@Override
 	public ResponseEntity<Watch> getWatchByModel(String modelNumber) {
 		logger.info("Getting Watch for Model Number: {}", modelNumber);
@@ -98,6 +211,32 @@ public class WatchControllerImpl implements WatchController {
 		return new ResponseEntity<>(watches, HttpStatus.OK);
 	}
 
+	@Override
+	public ResponseEntity<List<WatchDto>> searchWatches(String query, int page, int size) {
+		logger.info("Searching page {} of watches with query: {}", page, query);
+		List<WatchDto> watches = watchService.searchWatches(query, page, size).stream().map(watchTransformer)
+				.collect(Collectors.toList());
+		return new ResponseEntity<>(watches, HttpStatus.OK);
+	}
+
+	@Override
+	public ResponseEntity<List<WatchSuggestionDto>> suggest(String prefix, int limit) {
+		List<WatchSuggestionDto> suggestions = watchService.suggest(prefix, limit).stream()
+				.map(watchSuggestionTransformer).collect(Collectors.toList());
+		return new ResponseEntity<>(suggestions, HttpStatus.OK);
+	}
+
+	@Override
+	public ResponseEntity<WatchChangesDto> getWatchChanges(long since, int size) {
+		logger.info("Getting {} watch changes since catalog version {}", size, since);
+		WatchChanges changes = watchService.getWatchChanges(since, size);
+		WatchChangesDto changesDto = new WatchChangesDto();
+		changesDto.setWatches(changes.getWatches().stream().map(watchTransformer).collect(Collectors.toList()));
+		changesDto.setVersion(changes.getVersion());
+		changesDto.setHasMore(changes.isHasMore());
+		return new ResponseEntity<>(changesDto, HttpStatus.OK);
+	}
+
 	@Override
 	public ResponseEntity<List<String>> getBrand() {
 		logger.info("Getting watch brands");
@@ -106,4 +245,38 @@ public class WatchControllerImpl implements WatchController {
 
 	}
 
+	@Override
+	public ResponseEntity<List<BrandCountDto>> getBrandCounts() {
+		logger.info("Getting watch counts per brand");
+		List<BrandCountDto> brandCounts = watchService.getBrandCounts().stream().map(brandCountTransformer)
+				.collect(Collectors.toList());
+		return new ResponseEntity<>(brandCounts, HttpStatus.OK);
+	}
+
+	@Override
+	public ResponseEntity<List<TopSellerDto>> getTopSellers(String window, String brand, String type, int limit) {
+		logger.info("Getting {} top sellers of the last {} for brand {} and type {}", limit, window, brand, type);
+		SalesWindow salesWindow = SalesWindow.fromValue(window)
+				.orElseThrow(() -> new BadRequestException("window", Constant.INVALID_SALES_WINDOW));
+		WatchType watchType = type == null ? null : WatchType.typeOfWatch(type);
+		List<TopSellerDto> topSellers = watchService.getTopSellers(salesWindow, brand, watchType, limit).stream()
+				.map(topSeller -> {
+					TopSellerDto topSellerDto = new TopSellerDto();
+					topSellerDto.setWatch(watchTransformer.apply(topSeller.getWatch()));
+					topSellerDto.setUnitsSold(topSeller.getUnitsSold());
+					return topSellerDto;
+				}).collect(Collectors.toList());
+		return new ResponseEntity<>(topSellers, HttpStatus.OK);
+	}
+
+	private WatchPageDto toWatchPage(Slice<Watch> slice) {
+		WatchPageDto page = new WatchPageDto();
+		page.setWatches(slice.getContent().stream().map(watchTransformer::apply).collect(Collectors.toList()));
+		page.setHasMore(slice.hasNext());
+		if (slice.hasNext()) {
+			page.setNextCursor(CursorCodec.encode(slice.getContent().get(slice.getNumberOfElements() - 1).getModelNumber()));
+		}
+		return page;
+	}
+
 }
@@ -0,0 +1,28 @@
+package com.nagarro.watchstore.dto;
+
+import lombok.Data;
+
+/**
+ * Represents the number of watches of a brand.
+ * 
+ * @author karan
+ */
+@Data
+public class BrandCountDto {
+
+	/**
+	 * The brand of the watches.
+	 */
+	private String watchBrand;
+
+	/**
+	 * The number of watches of the brand.
+	 */
+	private long total;
+
+	/**
+	 * The number of watches of the brand that can currently be ordered.
+	 */
+	private long inStock;
+
+}
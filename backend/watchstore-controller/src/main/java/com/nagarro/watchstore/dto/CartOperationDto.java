@@ -0,0 +1,29 @@
+package com.nagarro.watchstore.dto;
+
+import lombok.Data;
+
+/**
+ * Represents one change to the cart line of a watch in a bulk cart update.
+ * 
+ * @author karan
+ */
+@Data
+public class CartOperationDto {
+
+	/**
+	 * ADD to add the quantity to the line, SET to replace the quantity of the
+	 * line or REMOVE to remove the line.
+	 */
+	private String operation;
+
+	/**
+	 * The model number of the watch of the line.
+	 */
+	private String watchModel;
+
+	/**
+	 * The quantity to add or set, ignored by REMOVE.
+	 */
+	private int watchQty;
+
+}
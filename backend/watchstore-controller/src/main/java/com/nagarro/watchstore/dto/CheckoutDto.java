@@ -0,0 +1,15 @@
+package com.nagarro.watchstore.dto;
+
+import lombok.Data;
+
+/**
+ * The CheckoutDto class represents the DTO (Data Transfer Object) for checking
+ * out the cart. It contains the ID of the address every order of the cart is
+ * delivered to.
+ * 
+ * @author tushar01
+ */
+@Data
+public class CheckoutDto {
+	private long addressId;
+}
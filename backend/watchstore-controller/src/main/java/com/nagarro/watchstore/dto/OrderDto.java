@@ -1,6 +1,7 @@
 package com.nagarro.watchstore.dto;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.time.LocalDateTime;
 
 import lombok.Data;
@@ -9,6 +10,10 @@ import lombok.Data;
  * The OrderDto class represents the DTO (Data Transfer Object) for an order.
  * It contains the order details such as ID, quantity, status, amount, timestamps,
  * user details, delivery address, and watch details.
+ * <p>
+ * The lines of the order are in lines and its total in totalAmount. The watch,
+ * quantity and amount are those of the first line, amount being the price of
+ * one unit, for clients reading an order as a single watch.
  * 
  * @author tushar01
  */
@@ -24,4 +29,6 @@ public class OrderDto {
 	private UserProfileDto user;
 	private AddressDto deliveryAddress;
 	private WatchDto watch;
+	private List<OrderLineDto> lines;
+	private BigDecimal totalAmount;
 }
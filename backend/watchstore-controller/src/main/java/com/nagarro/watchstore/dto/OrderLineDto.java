@@ -0,0 +1,20 @@
+package com.nagarro.watchstore.dto;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+
+/**
+ * The OrderLineDto class represents the DTO (Data Transfer Object) for one line
+ * of an order. It contains the watch bought, the quantity and the price of one
+ * unit when the order was placed.
+ * 
+ * @author tushar01
+ */
+@Data
+public class OrderLineDto {
+
+	private WatchDto watch;
+	private int quantity;
+	private BigDecimal amount;
+}
@@ -1,6 +1,7 @@
 package com.nagarro.watchstore.dto;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import lombok.Data;
 
@@ -8,6 +9,10 @@ import lombok.Data;
  * The OrderSummaryDto class represents the DTO (Data Transfer Object) for an order.
  * It contains the summarized order details such as ID, quantity, status, amount,
  * user details, and watch details.
+ * <p>
+ * The lines of the order are in lines and its total in totalAmount. The watch,
+ * quantity and amount are those of the first line, amount being the price of
+ * one unit, for clients reading an order as a single watch.
  * 
  * @author tushar01
  */
@@ -20,4 +25,6 @@ public class OrderSummaryDto {
 	private BigDecimal amount;
 	private UserProfileDto user;
 	private WatchDto watch;
+	private List<OrderLineDto> lines;
+	private BigDecimal totalAmount;
 }
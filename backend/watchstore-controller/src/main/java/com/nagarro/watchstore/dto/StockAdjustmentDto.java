@@ -0,0 +1,23 @@
+package com.nagarro.watchstore.dto;
+
+import lombok.Data;
+
+/**
+ * Represents a change to the stock of a watch.
+ * 
+ * @author karan
+ */
+@Data
+public class StockAdjustmentDto {
+
+	/**
+	 * The model number of the watch.
+	 */
+	private String modelNumber;
+
+	/**
+	 * The quantity to add to the stock, negative to remove.
+	 */
+	private int delta;
+
+}
@@ -0,0 +1,25 @@
+package com.nagarro.watchstore.dto;
+
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Represents the outcome of a bulk stock adjustment.
+ * 
+ * @author karan
+ */
+@Data
+public class StockAdjustmentReportDto {
+
+	/**
+	 * The number of watches whose stock was adjusted.
+	 */
+	private int adjusted;
+
+	/**
+	 * The reason each rejected adjustment was rejected, by model number.
+	 */
+	private Map<String, String> rejected;
+
+}
@@ -0,0 +1,24 @@
+package com.nagarro.watchstore.dto;
+
+import lombok.Data;
+
+/**
+ * Represents a best-selling watch with the number of units sold within the
+ * requested sales window.
+ * 
+ * @author karan
+ */
+@Data
+public class TopSellerDto {
+
+	/**
+	 * The watch sold.
+	 */
+	private WatchDto watch;
+
+	/**
+	 * The number of units sold within the window.
+	 */
+	private long unitsSold;
+
+}
@@ -0,0 +1,32 @@
+package com.nagarro.watchstore.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Represents the watches changed after a catalog version together with the
+ * version to ask for changes after next time.
+ * 
+ * @author karan
+ */
+@Data
+public class WatchChangesDto {
+
+	/**
+	 * The changed watches, oldest change first. A watch no longer sold is
+	 * returned with its available status false.
+	 */
+	private List<WatchDto> watches;
+
+	/**
+	 * The catalog version to pass as since on the next request.
+	 */
+	private long version;
+
+	/**
+	 * Whether more changes follow this page.
+	 */
+	private boolean hasMore;
+
+}
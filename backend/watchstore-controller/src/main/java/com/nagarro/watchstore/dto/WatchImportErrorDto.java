@@ -0,0 +1,37 @@
+package com.nagarro.watchstore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a row of an import file that was not imported, and why.
+ * 
+ * @author karan
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchImportErrorDto {
+
+	/**
+	 * The line of the file the row was read from, starting at 1.
+	 */
+	private long line;
+
+	/**
+	 * The model number of the row, null if it could not be read.
+	 */
+	private String modelNumber;
+
+	/**
+	 * The field that was rejected.
+	 */
+	private String field;
+
+	/**
+	 * The reason the row was rejected.
+	 */
+	private String message;
+
+}
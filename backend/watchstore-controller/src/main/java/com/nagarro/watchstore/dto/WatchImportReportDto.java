@@ -0,0 +1,42 @@
+package com.nagarro.watchstore.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Represents the outcome of a bulk watch import.
+ * 
+ * @author karan
+ */
+@Data
+public class WatchImportReportDto {
+
+	/**
+	 * The number of rows read from the file.
+	 */
+	private long received;
+
+	/**
+	 * The number of watches added.
+	 */
+	private long imported;
+
+	/**
+	 * The number of rows rejected.
+	 */
+	private long rejected;
+
+	/**
+	 * The rejected rows in file order, limited to the first ones so that the
+	 * report stays small whatever the size of the file.
+	 */
+	private List<WatchImportErrorDto> errors = new ArrayList<>();
+
+	/**
+	 * Whether more rows were rejected than are listed in errors.
+	 */
+	private boolean errorsTruncated;
+
+}
@@ -0,0 +1,31 @@
+package com.nagarro.watchstore.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Represents one page of the watch catalog together with the cursor to fetch
+ * the next page.
+ * 
+ * @author karan
+ */
+@Data
+public class WatchPageDto {
+
+	/**
+	 * The watches of this page, ordered by model number.
+	 */
+	private List<WatchDto> watches;
+
+	/**
+	 * The opaque cursor of the next page, null on the last page.
+	 */
+	private String nextCursor;
+
+	/**
+	 * Whether more watches follow this page.
+	 */
+	private boolean hasMore;
+
+}
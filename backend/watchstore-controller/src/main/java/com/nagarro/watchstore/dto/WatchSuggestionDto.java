@@ -0,0 +1,28 @@
+package com.nagarro.watchstore.dto;
+
+import lombok.Data;
+
+/**
+ * Represents a completion offered for a partly typed search.
+ * 
+ * @author karan
+ */
+@Data
+public class WatchSuggestionDto {
+
+	/**
+	 * The suggested text.
+	 */
+	private String text;
+
+	/**
+	 * The field the text comes from: NAME, BRAND or MODEL.
+	 */
+	private String type;
+
+	/**
+	 * The number of watches carrying the text.
+	 */
+	private int watches;
+
+}
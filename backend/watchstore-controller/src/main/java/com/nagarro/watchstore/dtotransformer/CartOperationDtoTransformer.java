@@ -0,0 +1,26 @@
+package com.nagarro.watchstore.dtotransformer;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.nagarro.watchstore.cart.CartOperation;
+import com.nagarro.watchstore.dto.CartOperationDto;
+
+/**
+ * Transforms a validated CartOperationDto into the CartOperation applied by the
+ * cart service.
+ * 
+ * @author karan
+ */
+@Component
+public class CartOperationDtoTransformer implements Function<CartOperationDto, CartOperation> {
+
+	@Override
+	public CartOperation apply(CartOperationDto cartOperationDto) {
+		return new CartOperation(CartOperation.Type.valueOf(cartOperationDto.getOperation().toUpperCase(Locale.ROOT)),
+				cartOperationDto.getWatchModel(), cartOperationDto.getWatchQty());
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.nagarro.watchstore.entitytransformer;
+
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.nagarro.watchstore.dao.projection.BrandCount;
+import com.nagarro.watchstore.dto.BrandCountDto;
+
+@Component
+public class BrandCountTransformer implements Function<BrandCount, BrandCountDto> {
+
+	@Override
+	public BrandCountDto apply(BrandCount brandCount) {
+		BrandCountDto brandCountDto = new BrandCountDto();
+		brandCountDto.setWatchBrand(brandCount.getWatchBrand());
+		brandCountDto.setTotal(brandCount.getTotal());
+		brandCountDto.setInStock(brandCount.getInStock());
+		return brandCountDto;
+	}
+
+}
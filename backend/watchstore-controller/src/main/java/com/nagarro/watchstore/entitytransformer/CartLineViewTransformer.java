@@ -0,0 +1,40 @@
+package com.nagarro.watchstore.entitytransformer;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.nagarro.watchstore.dao.projection.CartLineView;
+import com.nagarro.watchstore.dto.CartDto;
+import com.nagarro.watchstore.dto.WatchDto;
+
+/**
+ * The CartLineViewTransformer class is responsible for transforming CartLineView
+ * objects into CartDto objects. The watch of the line carries its first image
+ * only, or none if the watch has no image.
+ * 
+ * @author yogesh04
+ */
+@Component
+public class CartLineViewTransformer implements Function<CartLineView, CartDto> {
+
+	@Override
+	public CartDto apply(CartLineView view) {
+		WatchDto watchDto = new WatchDto();
+		CartDto cartDto = new CartDto();
+		cartDto.setCartId(view.getCartId());
+		cartDto.setWatchQty(view.getWatchQty());
+		watchDto.setModelNumber(view.getModelNumber());
+		watchDto.setWatchName(view.getWatchName());
+		watchDto.setWatchBrand(view.getWatchBrand());
+		watchDto.setPrice(view.getPrice());
+		watchDto.setStockQuantity(view.getStockQuantity());
+		watchDto.setWatchType(view.getWatchType().toString());
+		watchDto.setAvailableStatus(view.isAvailableStatus());
+		watchDto.setImagePathList(view.getImagePath() == null ? List.of() : List.of(view.getImagePath()));
+		cartDto.setWatch(watchDto);
+		return cartDto;
+	}
+
+}
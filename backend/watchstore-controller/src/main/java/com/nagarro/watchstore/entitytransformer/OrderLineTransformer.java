@@ -0,0 +1,37 @@
+package com.nagarro.watchstore.entitytransformer;
+
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.nagarro.watchstore.dto.OrderLineDto;
+import com.nagarro.watchstore.dto.WatchDto;
+import com.nagarro.watchstore.entity.OrderLine;
+import com.nagarro.watchstore.entity.Watch;
+
+/**
+ * The OrderLineTransformer class is a functional component that transforms an OrderLine entity into an OrderLineDto.
+ * 
+ * @author tushar01
+ */
+@Component
+public class OrderLineTransformer implements Function<OrderLine, OrderLineDto> {
+
+	private final Function<Watch, WatchDto> watchTransformer;
+
+	@Autowired
+	public OrderLineTransformer(Function<Watch, WatchDto> watchTransformer) {
+		super();
+		this.watchTransformer = watchTransformer;
+	}
+
+	@Override
+	public OrderLineDto apply(final OrderLine orderLine) {
+		final OrderLineDto orderLineDto = new OrderLineDto();
+		orderLineDto.setWatch(this.watchTransformer.apply(orderLine.getWatch()));
+		orderLineDto.setQuantity(orderLine.getQuantity());
+		orderLineDto.setAmount(orderLine.getAmount());
+		return orderLineDto;
+	}
+}
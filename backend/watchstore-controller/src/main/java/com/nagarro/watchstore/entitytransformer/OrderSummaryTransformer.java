@@ -1,17 +1,18 @@
 package com.nagarro.watchstore.entitytransformer;
 
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.nagarro.watchstore.dto.OrderLineDto;
 import com.nagarro.watchstore.dto.OrderStatusDto;
 import com.nagarro.watchstore.dto.OrderSummaryDto;
 import com.nagarro.watchstore.dto.UserProfileDto;
-import com.nagarro.watchstore.dto.WatchDto;
 import com.nagarro.watchstore.entity.Order;
+import com.nagarro.watchstore.entity.OrderLine;
 import com.nagarro.watchstore.entity.User;
-import com.nagarro.watchstore.entity.Watch;
 
 /**
  * The OrderSummaryTransformer class is a functional component that transforms an Order entity into an OrderSummaryDto.
@@ -21,26 +22,32 @@ import com.nagarro.watchstore.entity.Watch;
 @Component
 public class OrderSummaryTransformer implements Function<Order, OrderSummaryDto> {
 
-	private final Function<Watch, WatchDto> watchTransformer;
+	private final Function<OrderLine, OrderLineDto> orderLineTransformer;
 	private final Function<User, UserProfileDto> userProfileTransformer;
 
 	@Autowired
-	public OrderSummaryTransformer(Function<Watch, WatchDto> watchTransformer,
+	public OrderSummaryTransformer(Function<OrderLine, OrderLineDto> orderLineTransformer,
 			Function<User, UserProfileDto> userProfileTransformer) {
 		super();
-		this.watchTransformer = watchTransformer;
+		this.orderLineTransformer = orderLineTransformer;
 		this.userProfileTransformer = userProfileTransformer;
 	}
 
 	@Override
 	public OrderSummaryDto apply(final Order order) {
 		final OrderSummaryDto orderSummarytDto = new OrderSummaryDto();
-		orderSummarytDto.setAmount(order.getAmount());
+		orderSummarytDto.setTotalAmount(order.getAmount());
+		orderSummarytDto.setLines(
+				order.getLines().stream().map(orderLineTransformer::apply).collect(Collectors.toList()));
+		if (!orderSummarytDto.getLines().isEmpty()) {
+			final OrderLineDto firstLine = orderSummarytDto.getLines().get(0);
+			orderSummarytDto.setWatch(firstLine.getWatch());
+			orderSummarytDto.setQuantity(firstLine.getQuantity());
+			orderSummarytDto.setAmount(firstLine.getAmount());
+		}
 		orderSummarytDto.setId(order.getId());
 		orderSummarytDto.setOrderStatus(OrderStatusDto.valueOf(order.getStatus().toString()));
 		orderSummarytDto.setUser(this.userProfileTransformer.apply(order.getUser()));
-		orderSummarytDto.setQuantity(order.getQuantiy());
-		orderSummarytDto.setWatch(this.watchTransformer.apply(order.getWatch()));
 		return orderSummarytDto;
 	}
 }
@@ -1,19 +1,20 @@
 package com.nagarro.watchstore.entitytransformer;
 
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.nagarro.watchstore.dto.AddressDto;
 import com.nagarro.watchstore.dto.OrderDto;
+import com.nagarro.watchstore.dto.OrderLineDto;
 import com.nagarro.watchstore.dto.OrderStatusDto;
 import com.nagarro.watchstore.dto.UserProfileDto;
-import com.nagarro.watchstore.dto.WatchDto;
 import com.nagarro.watchstore.entity.DeliveryAddress;
 import com.nagarro.watchstore.entity.Order;
+import com.nagarro.watchstore.entity.OrderLine;
 import com.nagarro.watchstore.entity.User;
-import com.nagarro.watchstore.entity.Watch;
 
 /**
  * The OrderTransformer class is a functional component that transforms an Order entity into an OrderDto.
@@ -24,29 +25,34 @@ import com.nagarro.watchstore.entity.Watch;
 public class OrderTransformer implements Function<Order, OrderDto> {
 
 	private final Function<User, UserProfileDto> userProfileTransformer;
-	private final Function<Watch, WatchDto> watchTransformer;
+	private final Function<OrderLine, OrderLineDto> orderLineTransformer;
 
 	@Autowired
 	public OrderTransformer(Function<User, UserProfileDto> userProfileTransformer,
-			Function<Watch, WatchDto> watchTransformer) {
+			Function<OrderLine, OrderLineDto> orderLineTransformer) {
 		super();
 		this.userProfileTransformer = userProfileTransformer;
-		this.watchTransformer = watchTransformer;
+		this.orderLineTransformer = orderLineTransformer;
 	}
 	
 
 	@Override
 	public OrderDto apply(final Order order) {
 		final OrderDto orderDto = new OrderDto();
-		orderDto.setAmount(order.getAmount());
+		orderDto.setTotalAmount(order.getAmount());
+		orderDto.setLines(order.getLines().stream().map(orderLineTransformer::apply).collect(Collectors.toList()));
+		if (!orderDto.getLines().isEmpty()) {
+			final OrderLineDto firstLine = orderDto.getLines().get(0);
+			orderDto.setWatch(firstLine.getWatch());
+			orderDto.setQuantity(firstLine.getQuantity());
+			orderDto.setAmount(firstLine.getAmount());
+		}
 		AddressDto addressDto= convertDeliveryAddressToAddressDto(order.getDeliveryAddress());
 		orderDto.setDeliveryAddress(addressDto);
 		orderDto.setId(order.getId());
 		OrderStatusDto orderStatusDto=OrderStatusDto.valueOf(order.getStatus().toString());
 		orderDto.setOrderStatus(orderStatusDto);
 		orderDto.setUser(this.userProfileTransformer.apply(order.getUser()));
-		orderDto.setWatch(this.watchTransformer.apply(order.getWatch()));
-		orderDto.setQuantity(order.getQuantiy());
 		orderDto.setTimestamp(order.getTimestamp());
 		orderDto.setStatusTimestamp(order.getStatusTimestamp());
 		return orderDto;
@@ -0,0 +1,22 @@
+package com.nagarro.watchstore.entitytransformer;
+
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.nagarro.watchstore.dto.WatchSuggestionDto;
+import com.nagarro.watchstore.index.WatchSuggestion;
+
+@Component
+public class WatchSuggestionTransformer implements Function<WatchSuggestion, WatchSuggestionDto> {
+
+	@Override
+	public WatchSuggestionDto apply(WatchSuggestion watchSuggestion) {
+		WatchSuggestionDto watchSuggestionDto = new WatchSuggestionDto();
+		watchSuggestionDto.setText(watchSuggestion.getText());
+		watchSuggestionDto.setType(watchSuggestion.getType().name());
+		watchSuggestionDto.setWatches(watchSuggestion.getWatches());
+		return watchSuggestionDto;
+	}
+
+}
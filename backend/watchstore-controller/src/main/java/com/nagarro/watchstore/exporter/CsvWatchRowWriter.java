@@ -0,0 +1,65 @@
+package com.nagarro.watchstore.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.nagarro.watchstore.dto.WatchDto;
+
+/**
+ * Writes comma separated rows, one watch per line, after a header naming the
+ * columns, in the format read back by the CSV import. Image paths are separated
+ * by '|'. Fields containing a comma, a double quote or a line break are
+ * enclosed in double quotes, a double quote inside them being written twice.
+ * 
+ * @author karan
+ */
+public class CsvWatchRowWriter implements WatchRowWriter {
+
+	private static final String HEADER = "modelNumber,watchName,watchBrand,watchType,stockQuantity,price,"
+			+ "availableStatus,imagePaths";
+
+	private static final String IMAGE_PATH_SEPARATOR = "|";
+
+	private final Writer writer;
+
+	public CsvWatchRowWriter(Writer writer) throws IOException {
+		this.writer = writer;
+		writer.write(HEADER);
+		writer.write('\n');
+	}
+
+	@Override
+	public void write(WatchDto watchDto) throws IOException {
+		writeField(watchDto.getModelNumber());
+		writer.write(',');
+		writeField(watchDto.getWatchName());
+		writer.write(',');
+		writeField(watchDto.getWatchBrand());
+		writer.write(',');
+		writeField(watchDto.getWatchType());
+		writer.write(',');
+		writer.write(Integer.toString(watchDto.getStockQuantity()));
+		writer.write(',');
+		writeField(watchDto.getPrice() == null ? null : watchDto.getPrice().toPlainString());
+		writer.write(',');
+		writeField(watchDto.getAvailableStatus() == null ? null : watchDto.getAvailableStatus().toString());
+		writer.write(',');
+		writeField(watchDto.getImagePathList() == null ? null
+				: String.join(IMAGE_PATH_SEPARATOR, watchDto.getImagePathList()));
+		writer.write('\n');
+	}
+
+	private void writeField(String value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+				&& value.indexOf('\r') < 0) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
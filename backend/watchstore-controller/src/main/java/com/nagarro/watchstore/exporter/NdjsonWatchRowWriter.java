@@ -0,0 +1,31 @@
+package com.nagarro.watchstore.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nagarro.watchstore.dto.WatchDto;
+
+/**
+ * Writes newline-delimited JSON, one watch object per line with the same fields
+ * as the watch API, as read back by the NDJSON import.
+ * 
+ * @author karan
+ */
+public class NdjsonWatchRowWriter implements WatchRowWriter {
+
+	private final Writer writer;
+
+	private final ObjectMapper objectMapper;
+
+	public NdjsonWatchRowWriter(Writer writer, ObjectMapper objectMapper) {
+		this.writer = writer;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public void write(WatchDto watchDto) throws IOException {
+		writer.write(objectMapper.writeValueAsString(watchDto));
+		writer.write('\n');
+	}
+}
@@ -0,0 +1,91 @@
+package com.nagarro.watchstore.exporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nagarro.watchstore.datasource.ReadYourWritesTracker;
+import com.nagarro.watchstore.dto.WatchDto;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.service.WatchService;
+
+/**
+ * Exports the whole catalog as CSV or NDJSON. Watches are read through a
+ * database cursor and written as soon as they are read, so memory use does not
+ * grow with the size of the catalog. If the client goes away the write fails
+ * and the cursor is closed.
+ * <p>
+ * The export runs on its own thread, after the request has been tagged with
+ * the catalog version, so it pins that thread to the primary database itself.
+ * 
+ * @author karan
+ */
+@Component
+public class WatchExporter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WatchExporter.class);
+
+	private final WatchService watchService;
+
+	private final Function<Watch, WatchDto> watchTransformer;
+
+	private final ObjectMapper objectMapper;
+
+	private final ReadYourWritesTracker readYourWritesTracker;
+
+	@Autowired
+	public WatchExporter(WatchService watchService, Function<Watch, WatchDto> watchTransformer,
+			ObjectMapper objectMapper, ReadYourWritesTracker readYourWritesTracker) {
+		super();
+		this.watchService = watchService;
+		this.watchTransformer = watchTransformer;
+		this.objectMapper = objectMapper;
+		this.readYourWritesTracker = readYourWritesTracker;
+	}
+
+	/**
+	 * Writes every watch to a stream in UTF-8.
+	 *
+	 * @param mediaType the format to write, text/csv or application/x-ndjson
+	 * @param body      the stream to write to
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void exportWatches(MediaType mediaType, OutputStream body) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+		WatchRowWriter rowWriter = mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+				? new NdjsonWatchRowWriter(writer, objectMapper)
+				: new CsvWatchRowWriter(writer);
+		AtomicLong exported = new AtomicLong();
+		readYourWritesTracker.pinThread();
+		try {
+			watchService.exportWatches(watch -> {
+				try {
+					rowWriter.write(watchTransformer.apply(watch));
+					exported.incrementAndGet();
+				} catch (IOException exception) {
+					throw new UncheckedIOException(exception);
+				}
+			});
+		} catch (UncheckedIOException exception) {
+			LOGGER.warn("Watch export stopped after {} rows", exported.get());
+			throw exception.getCause();
+		} finally {
+			readYourWritesTracker.releaseThread();
+		}
+		writer.flush();
+		LOGGER.info("Watch export wrote {} rows", exported.get());
+	}
+}
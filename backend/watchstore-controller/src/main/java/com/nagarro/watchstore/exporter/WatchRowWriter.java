@@ -0,0 +1,22 @@
+package com.nagarro.watchstore.exporter;
+
+import java.io.IOException;
+
+import com.nagarro.watchstore.dto.WatchDto;
+
+/**
+ * Writes the rows of an export one at a time, so that the catalog never has to
+ * be held in memory.
+ * 
+ * @author karan
+ */
+public interface WatchRowWriter {
+
+	/**
+	 * Writes one row.
+	 *
+	 * @param watchDto the watch to write
+	 * @throws IOException if the row cannot be written
+	 */
+	void write(WatchDto watchDto) throws IOException;
+}
@@ -0,0 +1,164 @@
+package com.nagarro.watchstore.filter;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nagarro.watchstore.datasource.ReadYourWritesTracker;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers catalog reads (GET /watches and GET /watches/{anything}) from
+ * serialized bodies kept per URI and query string, tagged with a strong ETag
+ * derived from the stable version of the {@link CatalogVersionClock}.
+ * <p>
+ * A request whose If-None-Match carries the current tag is answered with 304
+ * straight away, and a request for a body already serialized at the current
+ * version is answered from memory. Neither reaches the controller, the service
+ * or the database. Only successful responses are kept, in a bounded LRU cache.
+ * Streamed responses such as the catalog export, and typeahead suggestions,
+ * which are cheap to produce but would flood the cache with one body per
+ * keystroke, are tagged and answered with 304 the same way but never buffered.
+ * The best sellers are left alone: they also change as sales age out of their
+ * window, which the catalog version knows nothing of.
+ * <p>
+ * The catalog version describes the primary database, so the requests this
+ * filter tags are kept off the replica: a lagging replica would otherwise
+ * produce an old body under a new tag, which clients would then keep
+ * revalidating as current.
+ * 
+ * @author karan
+ */
+@Component
+public class CatalogEtagFilter extends OncePerRequestFilter {
+
+	private static final String[] CATALOG_PATHS = { "/watches", "/watches/*" };
+
+	private static final String[] UNBUFFERED_PATHS = { "/watches/export", "/watches/suggestions" };
+
+	private static final String[] UNTAGGED_PATHS = { "/watches/top-sellers" };
+
+	private final PathMatcher pathMatcher = new AntPathMatcher();
+
+	private final CatalogVersionClock catalogVersionClock;
+
+	private final ReadYourWritesTracker readYourWritesTracker;
+
+	private final Cache<String, CachedBody> bodies;
+
+	@Autowired
+	public CatalogEtagFilter(CatalogVersionClock catalogVersionClock, ReadYourWritesTracker readYourWritesTracker,
+			@Value("${watchstore.catalog.etag.max-bodies:500}") long maxBodies) {
+		super();
+		this.catalogVersionClock = catalogVersionClock;
+		this.readYourWritesTracker = readYourWritesTracker;
+		this.bodies = Caffeine.newBuilder().maximumSize(maxBodies).build();
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		if (!HttpMethod.GET.matches(request.getMethod())) {
+			return true;
+		}
+		return !matchesAny(CATALOG_PATHS, request) || matchesAny(UNTAGGED_PATHS, request);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		long version = catalogVersionClock.stable();
+		String etag = "\"" + catalogVersionClock.getBootEpoch() + "-" + version + "\"";
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+		if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+			response.setHeader(HttpHeaders.ETAG, etag);
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		if (matchesAny(UNBUFFERED_PATHS, request)) {
+			response.setHeader(HttpHeaders.ETAG, etag);
+			onPrimary(request, response, filterChain);
+			return;
+		}
+
+		String key = request.getQueryString() == null ? request.getRequestURI()
+				: request.getRequestURI() + "?" + request.getQueryString();
+		CachedBody cached = bodies.getIfPresent(key);
+		if (cached != null && cached.version == version) {
+			response.setHeader(HttpHeaders.ETAG, etag);
+			response.setContentType(cached.contentType);
+			response.setContentLength(cached.body.length);
+			response.getOutputStream().write(cached.body);
+			return;
+		}
+
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		onPrimary(request, wrapper, filterChain);
+		if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+			bodies.put(key, new CachedBody(version, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+			wrapper.setHeader(HttpHeaders.ETAG, etag);
+		}
+		wrapper.copyBodyToResponse();
+	}
+
+	private void onPrimary(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		readYourWritesTracker.pinThread();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			readYourWritesTracker.releaseThread();
+		}
+	}
+
+	private boolean matchesAny(String[] patterns, HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		for (String pattern : patterns) {
+			if (pathMatcher.match(pattern, path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String trimmed = candidate.trim();
+			if (trimmed.equals(etag) || trimmed.equals("*")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static final class CachedBody {
+		private final long version;
+		private final String contentType;
+		private final byte[] body;
+
+		private CachedBody(long version, String contentType, byte[] body) {
+			this.version = version;
+			this.contentType = contentType;
+			this.body = body;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package com.nagarro.watchstore.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.nagarro.watchstore.dto.WatchDto;
+import com.nagarro.watchstore.exception.BadRequestException;
+
+/**
+ * Reads comma separated rows, one watch per line. The first line is a header
+ * naming the columns, in any order and ignoring case: modelNumber, watchName,
+ * watchBrand, watchType, stockQuantity, price, availableStatus and imagePaths.
+ * Image paths are separated by '|'. Fields may be enclosed in double quotes, a
+ * double quote inside a quoted field being written twice. Blank lines are
+ * skipped.
+ * 
+ * @author karan
+ */
+public class CsvWatchRowReader implements WatchRowReader {
+
+	private static final String IMAGE_PATH_SEPARATOR = "\\|";
+
+	private final BufferedReader reader;
+
+	private Map<String, Integer> columns;
+
+	private long line;
+
+	public CsvWatchRowReader(BufferedReader reader) {
+		this.reader = reader;
+	}
+
+	@Override
+	public WatchDto next() throws IOException {
+		if (columns == null && !readHeader()) {
+			return null;
+		}
+		String text = nextLine();
+		if (text == null) {
+			return null;
+		}
+		List<String> fields = split(text);
+		WatchDto watchDto = new WatchDto();
+		watchDto.setModelNumber(field(fields, "modelnumber"));
+		watchDto.setWatchName(field(fields, "watchname"));
+		watchDto.setWatchBrand(field(fields, "watchbrand"));
+		watchDto.setWatchType(field(fields, "watchtype"));
+		watchDto.setStockQuantity(parseStockQuantity(field(fields, "stockquantity")));
+		watchDto.setPrice(parsePrice(field(fields, "price")));
+		watchDto.setAvailableStatus(parseAvailableStatus(field(fields, "availablestatus")));
+		watchDto.setImagePathList(parseImagePaths(field(fields, "imagepaths")));
+		return watchDto;
+	}
+
+	@Override
+	public long getLine() {
+		return line;
+	}
+
+	private boolean readHeader() throws IOException {
+		String header = nextLine();
+		if (header == null) {
+			return false;
+		}
+		columns = new HashMap<>();
+		List<String> names = split(header);
+		for (int i = 0; i < names.size(); i++) {
+			columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+		}
+		return true;
+	}
+
+	private String nextLine() throws IOException {
+		String text;
+		do {
+			text = reader.readLine();
+			if (text == null) {
+				return null;
+			}
+			line++;
+		} while (text.isBlank());
+		return text;
+	}
+
+	private String field(List<String> fields, String column) {
+		Integer index = columns.get(column);
+		if (index == null || index >= fields.size()) {
+			return null;
+		}
+		String value = fields.get(index).trim();
+		return value.isEmpty() ? null : value;
+	}
+
+	private static List<String> split(String text) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		if (quoted) {
+			throw new BadRequestException("Row", "Row has an unterminated quoted field");
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private static int parseStockQuantity(String value) {
+		if (value == null) {
+			return 0;
+		}
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException exception) {
+			throw new BadRequestException("Stock quantity", "Stock quantity must be a whole number");
+		}
+	}
+
+	private static BigDecimal parsePrice(String value) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			return new BigDecimal(value);
+		} catch (NumberFormatException exception) {
+			throw new BadRequestException("Watch price", "Watch price must be a number");
+		}
+	}
+
+	private static Boolean parseAvailableStatus(String value) {
+		if (value == null) {
+			return null;
+		}
+		if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+			return Boolean.valueOf(value);
+		}
+		throw new BadRequestException("Available status", "Available status must be true or false");
+	}
+
+	private static List<String> parseImagePaths(String value) {
+		List<String> imagePaths = new ArrayList<>();
+		if (value != null) {
+			for (String imagePath : value.split(IMAGE_PATH_SEPARATOR)) {
+				if (!imagePath.isBlank()) {
+					imagePaths.add(imagePath.trim());
+				}
+			}
+		}
+		return imagePaths;
+	}
+}
@@ -0,0 +1,52 @@
+package com.nagarro.watchstore.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nagarro.watchstore.dto.WatchDto;
+import com.nagarro.watchstore.exception.BadRequestException;
+
+/**
+ * Reads newline-delimited JSON, one watch object per line with the same fields
+ * as the watch API. Blank lines are skipped.
+ * 
+ * @author karan
+ */
+public class NdjsonWatchRowReader implements WatchRowReader {
+
+	private final BufferedReader reader;
+
+	private final ObjectMapper objectMapper;
+
+	private long line;
+
+	public NdjsonWatchRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+		this.reader = reader;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public WatchDto next() throws IOException {
+		String text;
+		do {
+			text = reader.readLine();
+			if (text == null) {
+				return null;
+			}
+			line++;
+		} while (text.isBlank());
+		try {
+			return objectMapper.readValue(text, WatchDto.class);
+		} catch (JsonProcessingException exception) {
+			throw new BadRequestException("Row", "Row is not a valid watch JSON object: "
+					+ exception.getOriginalMessage());
+		}
+	}
+
+	@Override
+	public long getLine() {
+		return line;
+	}
+}
@@ -0,0 +1,156 @@
+package com.nagarro.watchstore.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dto.WatchDto;
+import com.nagarro.watchstore.dto.WatchImportErrorDto;
+import com.nagarro.watchstore.dto.WatchImportReportDto;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.exception.GenericException;
+import com.nagarro.watchstore.service.WatchService;
+
+/**
+ * Imports watches from a CSV or NDJSON stream. Rows are read one at a time,
+ * checked with the same rules as a single added watch and saved in chunks, each
+ * chunk in its own transaction. A rejected row is reported and skipped without
+ * affecting the other rows, so only the current chunk and the listed errors are
+ * ever held in memory.
+ * 
+ * @author karan
+ */
+@Component
+public class WatchImporter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WatchImporter.class);
+
+	private final WatchService watchService;
+
+	private final Function<WatchDto, Watch> watchDtoTransformer;
+
+	private final Predicate<WatchDto> watchDtoValidator;
+
+	private final ObjectMapper objectMapper;
+
+	private final int chunkSize;
+
+	@Autowired
+	public WatchImporter(WatchService watchService, Function<WatchDto, Watch> watchDtoTransformer,
+			Predicate<WatchDto> watchDtoValidator, ObjectMapper objectMapper,
+			@Value("${watchstore.import.chunk-size:500}") int chunkSize) {
+		super();
+		this.watchService = watchService;
+		this.watchDtoTransformer = watchDtoTransformer;
+		this.watchDtoValidator = watchDtoValidator;
+		this.objectMapper = objectMapper;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Imports every row of a stream.
+	 *
+	 * @param contentType the content type of the stream, text/csv or
+	 *                    application/x-ndjson
+	 * @param body        the stream to read
+	 * @return the report of the import
+	 * @throws IOException if the stream cannot be read
+	 */
+	public WatchImportReportDto importWatches(String contentType, InputStream body) throws IOException {
+		MediaType mediaType = MediaType.parseMediaType(contentType);
+		Charset charset = mediaType.getCharset() == null ? StandardCharsets.UTF_8 : mediaType.getCharset();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+		WatchRowReader rowReader = mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+				? new NdjsonWatchRowReader(reader, objectMapper)
+				: new CsvWatchRowReader(reader);
+
+		WatchImportReportDto report = new WatchImportReportDto();
+		List<Watch> chunk = new ArrayList<>(chunkSize);
+		List<Long> chunkLines = new ArrayList<>(chunkSize);
+		while (true) {
+			WatchDto watchDto;
+			try {
+				watchDto = rowReader.next();
+			} catch (GenericException exception) {
+				report.setReceived(report.getReceived() + 1);
+				reject(report, rowReader.getLine(), null, exception.getFieldName(), exception.getMessage());
+				continue;
+			}
+			if (watchDto == null) {
+				break;
+			}
+			report.setReceived(report.getReceived() + 1);
+			try {
+				watchDtoValidator.test(watchDto);
+				chunk.add(watchDtoTransformer.apply(watchDto));
+				chunkLines.add(rowReader.getLine());
+			} catch (GenericException exception) {
+				reject(report, rowReader.getLine(), watchDto.getModelNumber(), exception.getFieldName(),
+						exception.getMessage());
+			}
+			if (chunk.size() == chunkSize) {
+				saveChunk(chunk, chunkLines, report);
+			}
+		}
+		saveChunk(chunk, chunkLines, report);
+		LOGGER.info("Watch import read {} rows, imported {}, rejected {}", report.getReceived(), report.getImported(),
+				report.getRejected());
+		return report;
+	}
+
+	private void saveChunk(List<Watch> chunk, List<Long> chunkLines, WatchImportReportDto report) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		try {
+			Set<Watch> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+			skipped.addAll(watchService.addWatches(chunk));
+			for (int i = 0; i < chunk.size(); i++) {
+				if (skipped.contains(chunk.get(i))) {
+					reject(report, chunkLines.get(i), chunk.get(i).getModelNumber(), "Watch model",
+							Constant.WATCH_ALREADY_EXISTS);
+				} else {
+					report.setImported(report.getImported() + 1);
+				}
+			}
+		} catch (DataAccessException exception) {
+			LOGGER.error("Could not save import chunk starting at line {}", chunkLines.get(0), exception);
+			for (int i = 0; i < chunk.size(); i++) {
+				reject(report, chunkLines.get(i), chunk.get(i).getModelNumber(), "Row",
+						"Row could not be saved: " + exception.getMostSpecificCause().getMessage());
+			}
+		}
+		chunk.clear();
+		chunkLines.clear();
+	}
+
+	private static void reject(WatchImportReportDto report, long line, String modelNumber, String field,
+			String message) {
+		report.setRejected(report.getRejected() + 1);
+		if (report.getErrors().size() < Constant.MAX_IMPORT_ERRORS) {
+			report.getErrors().add(new WatchImportErrorDto(line, modelNumber, field, message));
+		} else {
+			report.setErrorsTruncated(true);
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package com.nagarro.watchstore.importer;
+
+import java.io.IOException;
+
+import com.nagarro.watchstore.dto.WatchDto;
+
+/**
+ * Reads the rows of an import file one at a time, so that the file never has
+ * to be held in memory.
+ * 
+ * @author karan
+ */
+public interface WatchRowReader {
+
+	/**
+	 * Reads the next row. A row that cannot be parsed is consumed and reported
+	 * with a BadRequestException, so that reading can go on with the next row.
+	 *
+	 * @return the next row, or null once the file is exhausted
+	 * @throws IOException if the file cannot be read
+	 */
+	WatchDto next() throws IOException;
+
+	/**
+	 * Returns the line of the file the last row was read from.
+	 *
+	 * @return the line number, starting at 1
+	 */
+	long getLine();
+}
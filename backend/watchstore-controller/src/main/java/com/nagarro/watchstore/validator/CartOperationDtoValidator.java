@@ -0,0 +1,54 @@
+package com.nagarro.watchstore.validator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+
+import com.nagarro.watchstore.cart.CartOperation;
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dto.CartOperationDto;
+import com.nagarro.watchstore.exception.BadRequestException;
+
+/**
+ * Validator class for a bulk cart update. Checks that the request is not empty
+ * nor too large, that every operation is known and names a watch, and that
+ * adding or setting a quantity comes with a positive quantity.
+ */
+@Component
+public class CartOperationDtoValidator implements Predicate<List<CartOperationDto>> {
+
+	@Override
+	public boolean test(List<CartOperationDto> cartOperationDtos) {
+
+		if (cartOperationDtos == null || cartOperationDtos.isEmpty()) {
+			throw new BadRequestException("Cart operations", "At least one cart operation is required");
+		}
+
+		if (cartOperationDtos.size() > Constant.MAX_CART_OPERATIONS) {
+			throw new BadRequestException("Cart operations", Constant.TOO_MANY_CART_OPERATIONS);
+		}
+
+		for (CartOperationDto cartOperationDto : cartOperationDtos) {
+			String operation = cartOperationDto.getOperation();
+			if (operation == null || Arrays.stream(CartOperation.Type.values())
+					.noneMatch(type -> type.name().equalsIgnoreCase(operation))) {
+				throw new BadRequestException("Operation", "Operation must be ADD, SET or REMOVE");
+			}
+			if (cartOperationDto.getWatchModel() == null || cartOperationDto.getWatchModel().isBlank()) {
+				throw new BadRequestException("Watch model", "Watch model is required");
+			}
+			if (!CartOperation.Type.REMOVE.name().equalsIgnoreCase(operation)) {
+				if (cartOperationDto.getWatchQty() < 0) {
+					throw new BadRequestException("CartQty", Constant.INVALID_QUANTITY);
+				}
+				if (cartOperationDto.getWatchQty() == 0) {
+					throw new BadRequestException("CartQty", Constant.QUANTITY_REQUIRED);
+				}
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.nagarro.watchstore.validator;
+
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dto.CheckoutDto;
+import com.nagarro.watchstore.exception.BadRequestException;
+
+
+/**
+ * The CheckoutDtoValidator class is a validator that validates a CheckoutDto object.
+ * It checks that the addressId is given, and throws a BadRequestException otherwise.
+ * 
+ * @author tushar01
+ */
+@Component
+public class CheckoutDtoValidator implements Predicate<CheckoutDto> {
+
+	@Override
+	public boolean test(CheckoutDto checkoutDto) {
+		if (checkoutDto.getAddressId() == 0)
+			throw new BadRequestException("addressId", Constant.ADRESS_ID_REQUIRED);
+		return true;
+	}
+
+}
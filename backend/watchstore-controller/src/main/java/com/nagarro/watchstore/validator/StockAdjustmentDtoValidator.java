@@ -0,0 +1,38 @@
+package com.nagarro.watchstore.validator;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dto.StockAdjustmentDto;
+import com.nagarro.watchstore.exception.BadRequestException;
+
+/**
+ * Validator class for a bulk stock adjustment. Checks that the request is not
+ * empty nor too large and that every adjustment names a watch.
+ */
+@Component
+public class StockAdjustmentDtoValidator implements Predicate<List<StockAdjustmentDto>> {
+
+	@Override
+	public boolean test(List<StockAdjustmentDto> stockAdjustmentDtos) {
+
+		if (stockAdjustmentDtos == null || stockAdjustmentDtos.isEmpty()) {
+			throw new BadRequestException("Stock adjustments", "At least one stock adjustment is required");
+		}
+
+		if (stockAdjustmentDtos.size() > Constant.MAX_STOCK_ADJUSTMENTS) {
+			throw new BadRequestException("Stock adjustments", Constant.TOO_MANY_STOCK_ADJUSTMENTS);
+		}
+
+		for (StockAdjustmentDto stockAdjustmentDto : stockAdjustmentDtos) {
+			if (stockAdjustmentDto.getModelNumber() == null || stockAdjustmentDto.getModelNumber().isBlank()) {
+				throw new BadRequestException("Watch model", "Watch model is required");
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,51 @@
+-- One-off MySQL migration from orders of one watch each to orders with lines.
+--
+-- Run it once against an existing watchstore database, before or right after
+-- the first start of the version with order lines, and before orders are placed:
+--
+--   mysql -u root -p watchstore < order-lines-migration.sql
+--
+-- ddl-auto=update creates order_lines but keeps the old orders.quantiy and
+-- orders.watch_model_number columns NOT NULL, so every new order fails until
+-- they are gone. Each old order becomes one line priced at its old amount, the
+-- price of one unit, and the order amount becomes the line total.
+
+create table if not exists order_lines (
+	id bigint not null,
+	amount decimal(38,2),
+	quantity integer not null,
+	order_id varchar(255) not null,
+	watch_model_number varchar(255) not null,
+	primary key (id),
+	constraint fk_order_lines_order foreign key (order_id) references orders (id),
+	constraint fk_order_lines_watch foreign key (watch_model_number) references watches (model_number)
+) engine=InnoDB;
+
+create table if not exists order_lines_seq (
+	next_val bigint
+) engine=InnoDB;
+
+insert into order_lines_seq (next_val) select 1 from dual where not exists (select * from order_lines_seq);
+
+set @first_line = (select coalesce(max(id), 0) from order_lines);
+
+insert into order_lines (id, order_id, watch_model_number, quantity, amount)
+	select @first_line + row_number() over (order by timestamp, id), id, watch_model_number, quantiy, amount
+	from orders where watch_model_number is not null;
+
+-- Line IDs are handed out in blocks of 50 ending at next_val.
+update order_lines_seq set next_val = (select coalesce(max(id), 0) + 50 from order_lines);
+
+update orders set amount = amount * quantiy where watch_model_number is not null;
+
+-- The foreign key on the old watch column was named by Hibernate.
+set @old_watch_key = (select constraint_name from information_schema.key_column_usage
+	where table_schema = database() and table_name = 'orders' and column_name = 'watch_model_number'
+	and referenced_table_name is not null limit 1);
+set @drop_old_watch_key = if(@old_watch_key is null, 'do 0',
+	concat('alter table orders drop foreign key `', @old_watch_key, '`'));
+prepare drop_old_watch_key from @drop_old_watch_key;
+execute drop_old_watch_key;
+deallocate prepare drop_old_watch_key;
+
+alter table orders drop column quantiy, drop column watch_model_number;
@@ -0,0 +1,110 @@
+package com.nagarro.watchstore.exporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nagarro.watchstore.datasource.ReadYourWritesTracker;
+import com.nagarro.watchstore.dto.WatchDto;
+import com.nagarro.watchstore.entity.Image;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.entitytransformer.WatchTransformer;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.importer.CsvWatchRowReader;
+import com.nagarro.watchstore.importer.NdjsonWatchRowReader;
+import com.nagarro.watchstore.service.WatchService;
+
+/**
+ * Junit test cases for WatchExporter class, reading every export back with the
+ * matching import reader.
+ */
+public class WatchExporterTest {
+
+	@Mock
+	private WatchService watchService;
+
+	private WatchExporter watchExporter;
+
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		watchExporter = new WatchExporter(watchService, new WatchTransformer(), objectMapper,
+				new ReadYourWritesTracker(Duration.ZERO));
+		doAnswer(invocation -> {
+			Consumer<Watch> consumer = invocation.getArgument(0);
+			consumer.accept(watch("A1", "Diver, \"Blue\"", "/a.png", "/b.png"));
+			consumer.accept(watch("A2", "Field"));
+			return null;
+		}).when(watchService).exportWatches(any());
+	}
+
+	@Test
+	void testCsvExportCanBeImportedBack() throws Exception {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		watchExporter.exportWatches(MediaType.parseMediaType("text/csv"), body);
+
+		CsvWatchRowReader reader = new CsvWatchRowReader(
+				new BufferedReader(new StringReader(body.toString(StandardCharsets.UTF_8))));
+		WatchDto first = reader.next();
+		assertEquals("A1", first.getModelNumber());
+		assertEquals("Diver, \"Blue\"", first.getWatchName());
+		assertEquals(0, new BigDecimal("1200.50").compareTo(first.getPrice()));
+		assertEquals(List.of("/a.png", "/b.png"), first.getImagePathList());
+		assertEquals("A2", reader.next().getModelNumber());
+		assertNull(reader.next());
+	}
+
+	@Test
+	void testNdjsonExportWritesOneWatchPerLine() throws Exception {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		watchExporter.exportWatches(MediaType.APPLICATION_NDJSON, body);
+
+		NdjsonWatchRowReader reader = new NdjsonWatchRowReader(
+				new BufferedReader(new StringReader(body.toString(StandardCharsets.UTF_8))), objectMapper);
+		assertEquals(List.of("/a.png", "/b.png"), reader.next().getImagePathList());
+		assertEquals("Field", reader.next().getWatchName());
+		assertNull(reader.next());
+		assertEquals(2, reader.getLine());
+	}
+
+	private static Watch watch(String modelNumber, String watchName, String... imagePaths) {
+		Watch watch = new Watch();
+		watch.setModelNumber(modelNumber);
+		watch.setWatchName(watchName);
+		watch.setWatchBrand("Seiko");
+		watch.setWatchType(WatchType.AUTOMATIC);
+		watch.setStockQuantity(4);
+		watch.setPrice(new BigDecimal("1200.50"));
+		watch.setAvailableStatus(true);
+		List<Image> images = new ArrayList<>();
+		for (String imagePath : imagePaths) {
+			Image image = new Image();
+			image.setImagePath(imagePath);
+			images.add(image);
+		}
+		watch.setImages(images);
+		return watch;
+	}
+}
@@ -0,0 +1,137 @@
+package com.nagarro.watchstore.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.nagarro.watchstore.datasource.ReadYourWritesTracker;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+
+import jakarta.servlet.FilterChain;
+
+/**
+ * Junit test cases for CatalogEtagFilter class.
+ */
+public class CatalogEtagFilterTest {
+
+	private CatalogVersionClock catalogVersionClock;
+
+	private ReadYourWritesTracker readYourWritesTracker;
+
+	private CatalogEtagFilter filter;
+
+	private AtomicInteger primaryCalls;
+
+	private AtomicInteger controllerCalls;
+
+	private FilterChain chain;
+
+	@BeforeEach
+	void setUp() {
+		catalogVersionClock = mock(CatalogVersionClock.class);
+		when(catalogVersionClock.stable()).thenReturn(10L);
+		when(catalogVersionClock.getBootEpoch()).thenReturn(1L);
+		readYourWritesTracker = new ReadYourWritesTracker(Duration.ZERO);
+		filter = new CatalogEtagFilter(catalogVersionClock, readYourWritesTracker, 10);
+		controllerCalls = new AtomicInteger();
+		primaryCalls = new AtomicInteger();
+		chain = (request, response) -> {
+			controllerCalls.incrementAndGet();
+			if (readYourWritesTracker.isPinnedToPrimary()) {
+				primaryCalls.incrementAndGet();
+			}
+			response.setContentType("application/json");
+			response.getWriter().write("[\"Casio\"]");
+		};
+	}
+
+	@Test
+	void testFirstReadServedByControllerThenFromMemory() throws Exception {
+		MockHttpServletResponse first = get("/watches/brands", null);
+		MockHttpServletResponse second = get("/watches/brands", null);
+
+		assertEquals(1, controllerCalls.get());
+		assertEquals("[\"Casio\"]", second.getContentAsString());
+		assertEquals(first.getHeader(HttpHeaders.ETAG), second.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void testMatchingIfNoneMatchAnsweredWithNotModified() throws Exception {
+		String etag = get("/watches", null).getHeader(HttpHeaders.ETAG);
+
+		MockHttpServletResponse response = get("/watches", etag);
+
+		assertEquals(304, response.getStatus());
+		assertEquals(0, response.getContentLength());
+		assertEquals(1, controllerCalls.get());
+	}
+
+	@Test
+	void testCatalogChangeInvalidatesTagAndBody() throws Exception {
+		String etag = get("/watches/SKX007", null).getHeader(HttpHeaders.ETAG);
+
+		when(catalogVersionClock.stable()).thenReturn(11L);
+		MockHttpServletResponse response = get("/watches/SKX007", etag);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(2, controllerCalls.get());
+		assertNotNull(response.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void testTaggedReadsKeptOnPrimary() throws Exception {
+		get("/watches/SKX007", null);
+		get("/watches/suggestions", null);
+		get("/watches/top-sellers", null);
+
+		assertEquals(3, controllerCalls.get());
+		assertEquals(2, primaryCalls.get());
+		assertFalse(readYourWritesTracker.isPinnedToPrimary());
+	}
+
+	@Test
+	void testExportTaggedButNeverServedFromMemory() throws Exception {
+		String etag = get("/watches/export", null).getHeader(HttpHeaders.ETAG);
+		get("/watches/export", null);
+
+		assertEquals(304, get("/watches/export", etag).getStatus());
+		assertEquals(2, controllerCalls.get());
+	}
+
+	@Test
+	void testNonCatalogPathNotTagged() throws Exception {
+		MockHttpServletResponse response = get("/carts", null);
+
+		assertNull(response.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void testTopSellersNotTaggedAndAlwaysServedByController() throws Exception {
+		assertNull(get("/watches/top-sellers", null).getHeader(HttpHeaders.ETAG));
+		get("/watches/top-sellers", null);
+
+		assertEquals(2, controllerCalls.get());
+	}
+
+	private MockHttpServletResponse get(String uri, String ifNoneMatch) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, chain);
+		return response;
+	}
+}
@@ -0,0 +1,85 @@
+package com.nagarro.watchstore.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nagarro.watchstore.dto.WatchImportReportDto;
+import com.nagarro.watchstore.dtotransformer.WatchDtoTransformer;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.service.WatchService;
+import com.nagarro.watchstore.validator.WatchDtoValidator;
+
+/**
+ * Junit test cases for WatchImporter class.
+ */
+public class WatchImporterTest {
+
+	@Mock
+	private WatchService watchService;
+
+	private WatchImporter watchImporter;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		watchImporter = new WatchImporter(watchService, new WatchDtoTransformer(), new WatchDtoValidator(),
+				new ObjectMapper(), 2);
+	}
+
+	@Test
+	void testCsvImportReportsInvalidAndExistingRows() throws Exception {
+		String csv = "modelNumber,watchName,watchBrand,watchType,stockQuantity,price,availableStatus,imagePaths\n"
+				+ "A1,\"Diver, Blue\",Seiko,AUTOMATIC,5,1200,true,/a.png|/b.png\n"
+				+ "A2,Chrono,Seiko,QUARTZ,5,-3,true,/c.png\n"
+				+ "A3,Square,Casio,DIGITAL,five,99,true,/d.png\n"
+				+ "\n"
+				+ "A4,Solar,Casio,SOLAR,0,150,true,/e.png\n"
+				+ "A5,Old,Casio,SOLAR,1,150,true,/f.png\n";
+		when(watchService.addWatches(anyList())).thenAnswer(invocation -> {
+			List<Watch> chunk = invocation.getArgument(0);
+			return chunk.stream().filter(watch -> watch.getModelNumber().equals("A5")).toList();
+		});
+
+		WatchImportReportDto report = watchImporter.importWatches("text/csv",
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(5, report.getReceived());
+		assertEquals(2, report.getImported());
+		assertEquals(3, report.getRejected());
+		assertEquals(3, report.getErrors().get(0).getLine());
+		assertEquals("Watch price", report.getErrors().get(0).getField());
+		assertEquals(4, report.getErrors().get(1).getLine());
+		assertEquals("Stock quantity", report.getErrors().get(1).getField());
+		assertEquals("A5", report.getErrors().get(2).getModelNumber());
+		verify(watchService, times(2)).addWatches(anyList());
+	}
+
+	@Test
+	void testNdjsonImportReportsMalformedLine() throws Exception {
+		String ndjson = "{\"modelNumber\":\"B1\",\"watchName\":\"Field\",\"watchBrand\":\"Hamilton\","
+				+ "\"watchType\":\"AUTOMATIC\",\"stockQuantity\":2,\"price\":500,\"availableStatus\":true,"
+				+ "\"imagePathList\":[\"/g.png\"]}\n"
+				+ "{not json\n";
+		when(watchService.addWatches(anyList())).thenReturn(List.of());
+
+		WatchImportReportDto report = watchImporter.importWatches("application/x-ndjson",
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(2, report.getReceived());
+		assertEquals(1, report.getImported());
+		assertEquals(2, report.getErrors().get(0).getLine());
+	}
+}
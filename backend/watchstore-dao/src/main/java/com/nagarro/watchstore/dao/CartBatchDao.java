@@ -0,0 +1,116 @@
+package com.nagarro.watchstore.dao;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Writes cart line quantities in JDBC batches, bypassing the persistence
+ * context, for stores that keep the carts in memory and write them back in
+ * bulk. It joins the surrounding transaction like the JPA repositories do.
+ * 
+ * @author yogesh04
+ */
+@Repository
+public class CartBatchDao {
+
+	private static final String UPDATE_QUANTITY = "update carts set watch_qty = ?, last_touched = ? where cart_id = ?";
+
+	private static final String DELETE_LINE = "delete from carts where cart_id = ?";
+
+	private static final String FIND_UNTOUCHED = "select cart_id, user_id from carts where last_touched < ? limit ?";
+
+	private static final String DELETE_UNTOUCHED = "delete from carts where last_touched < ? and cart_id in (%s)";
+
+	private static final String TOUCH_UNTRACKED = "update carts set last_touched = ? where last_touched is null limit ?";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public CartBatchDao(JdbcTemplate jdbcTemplate) {
+		super();
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Sets the quantities of cart lines, using one batch for the lines to update
+	 * and one for the lines to delete. The updated lines are touched now. Lines
+	 * that no longer exist are skipped.
+	 *
+	 * @param quantities the new quantities by cart line ID, 0 deleting the line
+	 */
+	public void writeQuantities(Map<Integer, Integer> quantities) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		List<Object[]> updates = new ArrayList<>();
+		List<Object[]> deletes = new ArrayList<>();
+		quantities.forEach((cartId, watchQty) -> {
+			if (watchQty > 0) {
+				updates.add(new Object[] { watchQty, now, cartId });
+			} else {
+				deletes.add(new Object[] { cartId });
+			}
+		});
+		if (!updates.isEmpty()) {
+			jdbcTemplate.batchUpdate(UPDATE_QUANTITY, updates);
+		}
+		if (!deletes.isEmpty()) {
+			jdbcTemplate.batchUpdate(DELETE_LINE, deletes);
+		}
+	}
+
+	/**
+	 * Finds at most a given number of the cart lines last touched before a time.
+	 *
+	 * @param cutoff the time before which lines are found
+	 * @param limit  the most lines to find
+	 * @return the users of the lines found by cart line ID, fewer than the limit
+	 *         once no more are left
+	 */
+	public Map<Integer, String> findUntouchedSince(LocalDateTime cutoff, int limit) {
+		Map<Integer, String> lines = new HashMap<>();
+		jdbcTemplate.query(FIND_UNTOUCHED, rs -> {
+			lines.put(rs.getInt(1), rs.getString(2));
+		}, Timestamp.valueOf(cutoff), limit);
+		return lines;
+	}
+
+	/**
+	 * Deletes cart lines found by {@link #findUntouchedSince}, in one statement.
+	 * A line touched again since then is kept.
+	 *
+	 * @param cartIds the IDs of the cart lines
+	 * @param cutoff  the time the lines were found untouched since
+	 * @return the number of lines deleted
+	 */
+	public int deleteUntouchedSince(Collection<Integer> cartIds, LocalDateTime cutoff) {
+		if (cartIds.isEmpty()) {
+			return 0;
+		}
+		List<Object> args = new ArrayList<>(cartIds.size() + 1);
+		args.add(Timestamp.valueOf(cutoff));
+		args.addAll(cartIds);
+		String placeholders = String.join(", ", Collections.nCopies(cartIds.size(), "?"));
+		return jdbcTemplate.update(String.format(DELETE_UNTOUCHED, placeholders), args.toArray());
+	}
+
+	/**
+	 * Touches now at most a given number of the cart lines saved before touch
+	 * times were kept, so that they age from now on like the other lines.
+	 *
+	 * @param now   the time to set
+	 * @param limit the most lines to touch
+	 * @return the number of lines touched, below the limit once none are left
+	 */
+	public int touchUntracked(LocalDateTime now, int limit) {
+		return jdbcTemplate.update(TOUCH_UNTRACKED, Timestamp.valueOf(now), limit);
+	}
+}
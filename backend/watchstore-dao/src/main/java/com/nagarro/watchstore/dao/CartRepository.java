@@ -1,13 +1,22 @@
 package com.nagarro.watchstore.dao;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.nagarro.watchstore.dao.projection.CartLineView;
 import com.nagarro.watchstore.entity.Cart;
-import com.nagarro.watchstore.entity.Watch;
+
+import jakarta.persistence.LockModeType;
 
 /**
  * The CartRepository interface provides CRUD operations for managing Cart
@@ -20,20 +29,92 @@ import com.nagarro.watchstore.entity.Watch;
 public interface CartRepository extends CrudRepository<Cart, Integer> {
 
 	/**
-	 * Retrieve a list of carts by user ID.
+	 * Retrieve a list of carts by user ID, together with their watches and the
+	 * images of those watches in a single statement.
 	 *
 	 * @param userId the user ID
 	 * @return a list of Cart objects matching the user ID
 	 */
+	@EntityGraph(attributePaths = { "watch", "watch.images" })
 	List<Cart> findByUserId(String userId);
 
 	/**
-	 * Retrieve a cart by user ID and watch.
+	 * Retrieve the cart of a user as shown to the user, every line with the
+	 * scalar fields and the first image of its watch, in a single statement
+	 * served by the index of the user and watch unique key.
 	 *
 	 * @param userId the user ID
-	 * @param watch  the Watch object associated with the cart
-	 * @return an Optional containing the Cart object matching the user ID and
-	 *         watch, or an empty Optional if not found
+	 * @return the cart lines of the user in the order they were created
+	 */
+	@Query("select new com.nagarro.watchstore.dao.projection.CartLineView(c.cartId, c.watchQty, w.modelNumber, "
+			+ "w.watchName, w.watchBrand, w.watchType, w.price, w.stockQuantity, w.availableStatus, i.imagePath) "
+			+ "from Cart c join c.watch w left join w.images i "
+			+ "on i.imageID = (select min(f.imageID) from Watch o join o.images f where o = w) "
+			+ "where c.userId = :userId order by c.cartId")
+	List<CartLineView> findViewsByUserId(@Param("userId") String userId);
+
+	/**
+	 * Retrieve and lock the cart lines of a user for the given watches, so that
+	 * they can be changed together without losing a concurrent change. The
+	 * watches are not fetched: load them first and the lines pick them up from
+	 * the persistence context.
+	 *
+	 * @param userId      the user ID
+	 * @param watchModels the model numbers of the watches
+	 * @return the cart lines found
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	List<Cart> findByUserIdAndWatchModelNumberIn(String userId, Collection<String> watchModels);
+
+	/**
+	 * Retrieve the model numbers of the watches in the cart of a user, without
+	 * loading the lines themselves.
+	 *
+	 * @param userId the user ID
+	 * @return the model numbers of the watches in the cart
+	 */
+	@Query("select c.watch.modelNumber from Cart c where c.userId = :userId")
+	List<String> findWatchModelsByUserId(@Param("userId") String userId);
+
+	/**
+	 * Delete the given cart lines in a single statement.
+	 *
+	 * @param cartIds the IDs of the cart lines
+	 * @return the number of lines deleted
+	 */
+	@Modifying
+	@Query("delete from Cart c where c.cartId in :cartIds")
+	int deleteByCartIdIn(@Param("cartIds") Collection<Integer> cartIds);
+
+	/**
+	 * Add one unit of a watch to the cart line of a user in a single statement,
+	 * provided the line exists and the stock of the watch covers one more unit.
+	 *
+	 * @param userId     the user ID
+	 * @param watchModel the model number of the watch
+	 * @return 1 if the line was incremented, 0 if there is no such line or no
+	 *         stock left for it
+	 */
+	default int incrementWatchQty(String userId, String watchModel) {
+		return incrementWatchQty(userId, watchModel, LocalDateTime.now());
+	}
+
+	/**
+	 * Add one unit of a watch to the cart line of a user in a single statement,
+	 * provided the line exists and the stock of the watch covers one more unit,
+	 * and record when the line was touched.
+	 *
+	 * @param userId      the user ID
+	 * @param watchModel  the model number of the watch
+	 * @param lastTouched the time of the change
+	 * @return 1 if the line was incremented, 0 if there is no such line or no
+	 *         stock left for it
 	 */
-	Optional<Cart> findByUserIdAndWatch(String userId, Watch watch);
+	@Transactional
+	@Modifying
+	@Query("update Cart c set c.watchQty = c.watchQty + 1, c.lastTouched = :lastTouched where c.userId = :userId "
+			+ "and c.watch.modelNumber = :watchModel "
+			+ "and c.watchQty < (select w.stockQuantity from Watch w where w.modelNumber = :watchModel)")
+	int incrementWatchQty(@Param("userId") String userId, @Param("watchModel") String watchModel,
+			@Param("lastTouched") LocalDateTime lastTouched);
 }
@@ -3,7 +3,10 @@ package com.nagarro.watchstore.dao;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.nagarro.watchstore.entity.Notifications;
@@ -29,6 +32,7 @@ public interface NotificationsDao extends JpaRepository<Notifications, Integer>
 	 * @param emailId
 	 * @return list of notifications
 	 */
+	@EntityGraph(attributePaths = { "watch", "watch.images" })
 	List<Notifications> findByEmailId(String emailId);
 
 	/**
@@ -36,6 +40,28 @@ public interface NotificationsDao extends JpaRepository<Notifications, Integer>
 	 * @param modelNumber
 	 * @return list of notifications
 	 */
+	@EntityGraph(attributePaths = { "watch", "watch.images" })
 	List<Notifications> findByWatchModelNumber(String modelNumber);
 
+	/**
+	 * Marks every notification of a watch not yet sent by the admin as sent, in a
+	 * single statement.
+	 * 
+	 * @param modelNumber
+	 * @param message     the message shown to the user
+	 * @return number of notifications updated
+	 */
+	@Modifying
+	@Query("update Notifications n set n.notificationMessage = :message, n.seenByAdmin = true, "
+			+ "n.seenByUser = false where n.watch.modelNumber = :modelNumber and n.seenByAdmin = false")
+	int markInStock(String modelNumber, String message);
+
+	/**
+	 * 
+	 * @return list of all notifications with their watches
+	 */
+	@Override
+	@EntityGraph(attributePaths = { "watch", "watch.images" })
+	List<Notifications> findAll();
+
 }
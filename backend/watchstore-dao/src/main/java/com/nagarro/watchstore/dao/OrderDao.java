@@ -1,16 +1,26 @@
 package com.nagarro.watchstore.dao;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.nagarro.watchstore.dao.projection.OrderSale;
+import com.nagarro.watchstore.dao.projection.WatchSales;
 import com.nagarro.watchstore.entity.Order;
+import com.nagarro.watchstore.enums.WatchType;
 
 /**
  * The OrderDao interface provides data access methods for the Order entity.
  * It extends the JpaRepository interface, providing CRUD operations for the Order entity
- * with the primary key of type String.
+ * with the primary key of type String. Order lists are fetched together with
+ * the user and the delivery address in a single statement, followed by a single
+ * statement for the lines of all the orders with their watches and images.
  *
  * @author tushar01
  */
@@ -21,6 +31,7 @@ public interface OrderDao extends JpaRepository<Order, String> {
      *
      * @return a list of orders ordered by timestamp in descending order
      */
+	@EntityGraph(attributePaths = { "user", "deliveryAddress" })
 	List<Order> findAllByOrderByTimestampDesc();
 	
 	 /**
@@ -29,6 +40,7 @@ public interface OrderDao extends JpaRepository<Order, String> {
      * @param userEmailId the email ID of the user
      * @return a list of orders associated with the user email ID ordered by timestamp in descending order
      */
+	@EntityGraph(attributePaths = { "user", "deliveryAddress" })
 	List<Order> findByUserEmailIdOrderByTimestampDesc(final String userEmailId);
 
 	 /**
@@ -39,4 +51,47 @@ public interface OrderDao extends JpaRepository<Order, String> {
      * @return an Optional containing the order if found, or empty if not found
      */
 	Optional<Order> findByIdAndUserEmailId(final String id,final String userEmailId);
+
+	/**
+	 * Retrieves the order a user placed with an idempotency key.
+	 *
+	 * @param userEmailId    the email ID of the user
+	 * @param idempotencyKey the idempotency key sent with the order
+	 * @return an Optional containing the order if found, or empty if not found
+	 */
+	Optional<Order> findByUserEmailIdAndIdempotencyKey(final String userEmailId, final String idempotencyKey);
+
+	/**
+	 * Retrieves the sales of every order line placed in a period, without
+	 * loading the orders themselves.
+	 *
+	 * @param since the time from which orders are included
+	 * @param until the time from which orders are no longer included
+	 * @return the sales of the order lines placed in the period
+	 */
+	@Query("select w.modelNumber as modelNumber, w.watchBrand as watchBrand, w.watchType as watchType, "
+			+ "l.quantity as quantity, o.timestamp as timestamp from Order o join o.lines l join l.watch w "
+			+ "where o.timestamp >= :since and o.timestamp < :until")
+	List<OrderSale> findSalesBetween(@Param("since") final LocalDateTime since,
+			@Param("until") final LocalDateTime until);
+
+	/**
+	 * Ranks the watches by the units sold since a given time, most units first
+	 * and then by model number.
+	 *
+	 * @param since      the time from which orders are counted
+	 * @param watchBrand the brand to rank within, in any case, or null for every
+	 *                   brand
+	 * @param watchType  the type to rank within, or null for every type
+	 * @param pageable   the number of watches to return
+	 * @return the units sold of the best sellers
+	 */
+	@Query("select w.modelNumber as modelNumber, sum(l.quantity) as unitsSold "
+			+ "from Order o join o.lines l join l.watch w where o.timestamp >= :since "
+			+ "and (:watchBrand is null or lower(w.watchBrand) = lower(:watchBrand)) "
+			+ "and (:watchType is null or w.watchType = :watchType) "
+			+ "group by w.modelNumber order by sum(l.quantity) desc, w.modelNumber")
+	List<WatchSales> findTopSellersSince(@Param("since") final LocalDateTime since,
+			@Param("watchBrand") final String watchBrand, @Param("watchType") final WatchType watchType,
+			final Pageable pageable);
 }
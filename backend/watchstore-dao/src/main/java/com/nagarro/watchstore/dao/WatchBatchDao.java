@@ -0,0 +1,184 @@
+package com.nagarro.watchstore.dao;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.nagarro.watchstore.dao.projection.StockLevel;
+import com.nagarro.watchstore.entity.Image;
+import com.nagarro.watchstore.entity.Watch;
+
+/**
+ * Writes watches in JDBC batches, bypassing the persistence context, for bulk
+ * operations where loading and saving one entity at a time is too slow. It
+ * joins the surrounding transaction like the JPA repositories do.
+ * 
+ * @author karan
+ */
+@Repository
+public class WatchBatchDao {
+
+	private static final String INSERT_WATCH = "insert into watches (model_number, watch_name, watch_brand, "
+			+ "watch_type, stock_quantity, price, available_status, date_of_arrival, catalog_version) "
+			+ "values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final String INSERT_IMAGE = "insert into image (image_path) values (?)";
+
+	private static final String INSERT_WATCH_IMAGE = "insert into watches_images (watch_model_number, images_imageid) "
+			+ "values (?, ?)";
+
+	private static final String UPDATE_STOCK = "update watches set stock_quantity = ?, available_status = ?, "
+			+ "catalog_version = ? where model_number = ?";
+
+	private static final int MAX_IN_LIST = 1000;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+	@Autowired
+	public WatchBatchDao(JdbcTemplate jdbcTemplate) {
+		super();
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+	}
+
+	/**
+	 * Finds which of the given model numbers already exist.
+	 *
+	 * @param modelNumbers the model numbers to look for
+	 * @return the model numbers that exist
+	 */
+	public Set<String> findExistingModelNumbers(Collection<String> modelNumbers) {
+		if (modelNumbers.isEmpty()) {
+			return new HashSet<>();
+		}
+		return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+				"select model_number from watches where model_number in (:modelNumbers)",
+				Map.of("modelNumbers", modelNumbers), String.class));
+	}
+
+	/**
+	 * Inserts new watches with their images, using one batch for the watches, one
+	 * for the images and one for the links between them. The watches keep the
+	 * catalog version they carry.
+	 *
+	 * @param watches the watches to insert, none of which may exist yet
+	 */
+	public void insertWatches(List<Watch> watches) {
+		Date today = new Date(System.currentTimeMillis());
+		jdbcTemplate.batchUpdate(INSERT_WATCH, watches, watches.size(), (ps, watch) -> {
+			ps.setString(1, watch.getModelNumber());
+			ps.setString(2, watch.getWatchName());
+			ps.setString(3, watch.getWatchBrand());
+			ps.setString(4, watch.getWatchType().name());
+			ps.setInt(5, watch.getStockQuantity());
+			ps.setBigDecimal(6, watch.getPrice());
+			ps.setBoolean(7, watch.isAvailableStatus());
+			ps.setDate(8, today);
+			ps.setLong(9, watch.getCatalogVersion());
+		});
+
+		List<Image> images = new ArrayList<>();
+		List<String> owners = new ArrayList<>();
+		for (Watch watch : watches) {
+			if (watch.getImages() != null) {
+				for (Image image : watch.getImages()) {
+					images.add(image);
+					owners.add(watch.getModelNumber());
+				}
+			}
+		}
+		if (images.isEmpty()) {
+			return;
+		}
+		insertImages(images);
+		List<Object[]> links = new ArrayList<>(images.size());
+		for (int i = 0; i < images.size(); i++) {
+			links.add(new Object[] { owners.get(i), images.get(i).getImageID() });
+		}
+		jdbcTemplate.batchUpdate(INSERT_WATCH_IMAGE, links);
+	}
+
+	/**
+	 * Reads the stock levels of the given watches and locks their rows until the
+	 * end of the surrounding transaction. The rows are locked in model number
+	 * order, chunk after chunk, as {@link WatchDao#findAllForUpdate(Collection)}
+	 * locks them, so that the two never wait for each other in a cycle.
+	 *
+	 * @param modelNumbers the model numbers of the watches
+	 * @return the stock levels by model number, for the watches that exist
+	 */
+	public Map<String, StockLevel> lockStockLevels(Collection<String> modelNumbers) {
+		Map<String, StockLevel> levels = new HashMap<>();
+		List<String> remaining = new ArrayList<>(new TreeSet<>(modelNumbers));
+		for (int from = 0; from < remaining.size(); from += MAX_IN_LIST) {
+			List<String> part = remaining.subList(from, Math.min(remaining.size(), from + MAX_IN_LIST));
+			namedParameterJdbcTemplate.query(
+					"select model_number, stock_quantity, available_status from watches "
+							+ "where model_number in (:modelNumbers) order by model_number for update",
+					Map.of("modelNumbers", part),
+					rs -> {
+						String modelNumber = rs.getString(1);
+						levels.put(modelNumber, new StockLevel(modelNumber, rs.getInt(2), rs.getBoolean(3)));
+					});
+		}
+		return levels;
+	}
+
+	/**
+	 * Sets new stock levels in a single batch. The rows should have been locked
+	 * with {@link #lockStockLevels(Collection)} in the same transaction.
+	 *
+	 * @param levels       the new stock levels
+	 * @param firstVersion the catalog version to stamp on the first watch, the
+	 *                     following watches getting the following versions
+	 */
+	public void updateStockLevels(List<StockLevel> levels, long firstVersion) {
+		List<Object[]> rows = new ArrayList<>(levels.size());
+		for (int i = 0; i < levels.size(); i++) {
+			StockLevel level = levels.get(i);
+			rows.add(new Object[] { level.getStockQuantity(), level.isAvailableStatus(), firstVersion + i,
+					level.getModelNumber() });
+		}
+		jdbcTemplate.batchUpdate(UPDATE_STOCK, rows);
+	}
+
+	private void insertImages(List<Image> images) {
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			try (PreparedStatement ps = connection.prepareStatement(INSERT_IMAGE, Statement.RETURN_GENERATED_KEYS)) {
+				for (Image image : images) {
+					ps.setString(1, image.getImagePath());
+					ps.addBatch();
+				}
+				ps.executeBatch();
+				try (ResultSet keys = ps.getGeneratedKeys()) {
+					int index = 0;
+					while (keys.next()) {
+						images.get(index++).setImageID(keys.getInt(1));
+					}
+					if (index != images.size()) {
+						throw new IllegalStateException(
+								"Expected " + images.size() + " generated image ids but got " + index);
+					}
+				}
+			}
+			return null;
+		});
+	}
+}
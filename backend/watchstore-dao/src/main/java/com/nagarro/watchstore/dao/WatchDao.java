@@ -1,12 +1,25 @@
 package com.nagarro.watchstore.dao;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.nagarro.watchstore.dao.projection.BrandCount;
+import com.nagarro.watchstore.dao.projection.WatchSummary;
 import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+
+import jakarta.persistence.LockModeType;
 
 /**
  * Repository interface for managing watch data. Provides CRUD operations for
@@ -23,9 +36,65 @@ public interface WatchDao extends JpaRepository<Watch, String> {
 	 * @param query the search query
 	 * @return a list of watches matching the query
 	 */
+	@EntityGraph(attributePaths = "images")
 	@Query("select w from Watch w where w.watchName LIKE CONCAT('%',:query, '%') or w.modelNumber LIKE CONCAT('%',:query, '%') or w.watchType LIKE CONCAT('%',:query, '%')or w.watchBrand LIKE CONCAT('%',:query, '%')")
 	List<Watch> searchWatch(String query);
 
+	/**
+	 * Retrieves all watches together with their images in a single statement.
+	 *
+	 * @return a list of all watches
+	 */
+	@Override
+	@EntityGraph(attributePaths = "images")
+	List<Watch> findAll();
+
+	/**
+	 * Retrieves the watches with the given model numbers together with their
+	 * images in a single statement.
+	 *
+	 * @param modelNumbers the model numbers of the watches
+	 * @return a list of the watches found
+	 */
+	@Override
+	@EntityGraph(attributePaths = "images")
+	List<Watch> findAllById(Iterable<String> modelNumbers);
+
+	/**
+	 * Retrieves and locks the watches with the given model numbers until the end
+	 * of the surrounding transaction. The rows are locked in model number order,
+	 * so that two transactions locking overlapping watches cannot deadlock.
+	 *
+	 * @param modelNumbers the model numbers of the watches
+	 * @return the watches found, ordered by model number
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select w from Watch w where w.modelNumber in :modelNumbers order by w.modelNumber")
+	List<Watch> findAllForUpdate(@Param("modelNumbers") Collection<String> modelNumbers);
+
+	/**
+	 * Takes a quantity of a watch out of stock in a single statement, provided
+	 * the stock covers it, so that concurrent orders can neither oversell the
+	 * watch nor lose each other's decrements. The watch is marked unavailable
+	 * when its last unit goes, and stamped with the given catalog version. The
+	 * persistence context is flushed before and cleared after, so that the
+	 * watch is read back as updated.
+	 *
+	 * @param modelNumber    the model number of the watch
+	 * @param quantity       the quantity to take out of stock
+	 * @param catalogVersion the catalog version of the change
+	 * @return 1 if the stock was taken, 0 if there is no such watch or not enough
+	 *         stock
+	 */
+	// availableStatus is assigned first: MySQL assigns in order and would see
+	// the decremented stock otherwise
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Watch w set w.availableStatus = case when w.stockQuantity = :quantity then false "
+			+ "else w.availableStatus end, w.stockQuantity = w.stockQuantity - :quantity, "
+			+ "w.catalogVersion = :catalogVersion where w.modelNumber = :modelNumber and w.stockQuantity >= :quantity")
+	int reserveStock(@Param("modelNumber") String modelNumber, @Param("quantity") int quantity,
+			@Param("catalogVersion") long catalogVersion);
+
 	/**
 	 * Retrieves a list of distinct watch brands.
 	 *
@@ -33,4 +102,85 @@ public interface WatchDao extends JpaRepository<Watch, String> {
 	 */
 	@Query("select distinct(watchBrand) from Watch")
 	List<String> getBrand();
+
+	/**
+	 * Retrieves the next page of watches after the given model number, ordered by
+	 * model number. No count query is issued, the returned slice only tells
+	 * whether more watches follow.
+	 *
+	 * @param modelNumber the model number to continue after, empty for the first
+	 *                    page
+	 * @param pageable    the page size to fetch
+	 * @return a slice of watches ordered by model number
+	 */
+	Slice<Watch> findByModelNumberGreaterThanOrderByModelNumberAsc(String modelNumber, Pageable pageable);
+
+	/**
+	 * Retrieves the next page of watches matching the catalog facets after the
+	 * given model number, ordered by model number. A facet is skipped when its
+	 * flag says so or its bound is null. No count query is issued.
+	 *
+	 * @param modelNumber     the model number to continue after, empty for the
+	 *                        first page
+	 * @param anyBrand        true to keep every brand
+	 * @param brands          the lower-case brands to keep
+	 * @param anyType         true to keep every watch type
+	 * @param types           the watch types to keep
+	 * @param availableStatus the availability status to keep, or null
+	 * @param minPrice        the lowest price to keep, or null
+	 * @param maxPrice        the highest price to keep, or null
+	 * @param pageable        the page size to fetch
+	 * @return a slice of matching watches ordered by model number
+	 */
+	@Query("select w from Watch w where w.modelNumber > :modelNumber"
+			+ " and (:anyBrand = true or lower(w.watchBrand) in :brands)"
+			+ " and (:anyType = true or w.watchType in :types)"
+			+ " and (:availableStatus is null or w.availableStatus = :availableStatus)"
+			+ " and (:minPrice is null or w.price >= :minPrice)"
+			+ " and (:maxPrice is null or w.price <= :maxPrice) order by w.modelNumber")
+	Slice<Watch> findFacetMatchesAfter(@Param("modelNumber") String modelNumber, @Param("anyBrand") boolean anyBrand,
+			@Param("brands") Collection<String> brands, @Param("anyType") boolean anyType,
+			@Param("types") Collection<WatchType> types, @Param("availableStatus") Boolean availableStatus,
+			@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
+
+	/**
+	 * Retrieves the watches whose last change falls in a range of catalog
+	 * versions, oldest change first. No count query is issued.
+	 *
+	 * @param fromVersion the lowest version to include
+	 * @param toVersion   the highest version to include
+	 * @param pageable    the page size to fetch
+	 * @return a slice of watches ordered by catalog version
+	 */
+	Slice<Watch> findByCatalogVersionBetweenOrderByCatalogVersionAsc(long fromVersion, long toVersion,
+			Pageable pageable);
+
+	/**
+	 * Finds the highest catalog version stamped on any watch.
+	 *
+	 * @return the highest version, 0 if no watch was ever stamped
+	 */
+	@Query("select coalesce(max(w.catalogVersion), 0) from Watch w")
+	long findMaxCatalogVersion();
+
+	/**
+	 * Retrieves the scalar fields of every watch without loading any image.
+	 *
+	 * @return a list of watch summaries
+	 */
+	@Query("select w.modelNumber as modelNumber, w.watchName as watchName, w.watchBrand as watchBrand, "
+			+ "w.watchType as watchType, w.price as price, w.stockQuantity as stockQuantity, "
+			+ "w.availableStatus as availableStatus from Watch w")
+	List<WatchSummary> findAllSummaries();
+
+	/**
+	 * Counts the watches of every brand, in total and in stock. A watch is in
+	 * stock when it is available and its stock quantity is positive.
+	 *
+	 * @return the counts per brand ordered by brand
+	 */
+	@Query("select w.watchBrand as watchBrand, count(w) as total, "
+			+ "sum(case when w.availableStatus = true and w.stockQuantity > 0 then 1 else 0 end) as inStock "
+			+ "from Watch w group by w.watchBrand order by w.watchBrand")
+	List<BrandCount> countByBrand();
 }
@@ -0,0 +1,104 @@
+package com.nagarro.watchstore.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.nagarro.watchstore.entity.Image;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+
+/**
+ * Reads the whole catalog through a single forward-only cursor, handing each
+ * watch to a consumer as soon as its rows have been read. Only the current
+ * watch and one fetch of rows are held in memory, whatever the size of the
+ * catalog. The returned watches are not managed by the persistence context.
+ * 
+ * @author karan
+ */
+@Repository
+public class WatchExportDao {
+
+	private static final String SELECT_CATALOG = "select w.model_number, w.watch_name, w.watch_brand, w.watch_type, "
+			+ "w.stock_quantity, w.price, w.available_status, w.date_of_arrival, i.imageid, i.image_path "
+			+ "from watches w left join watches_images wi on wi.watch_model_number = w.model_number "
+			+ "left join image i on i.imageid = wi.images_imageid order by w.model_number, i.imageid";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public WatchExportDao(DataSource dataSource, @Value("${watchstore.export.fetch-size:1000}") int fetchSize) {
+		super();
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.jdbcTemplate.setFetchSize(fetchSize);
+	}
+
+	/**
+	 * Streams every watch with its images, in model number order.
+	 *
+	 * @param consumer receives each watch once all of its images have been read
+	 */
+	public void streamWatches(Consumer<Watch> consumer) {
+		WatchFolder folder = new WatchFolder(consumer);
+		jdbcTemplate.query(SELECT_CATALOG, folder);
+		folder.finish();
+	}
+
+	/**
+	 * Folds the joined rows of one watch, which are adjacent thanks to the
+	 * ordering, into a single watch.
+	 */
+	private static final class WatchFolder implements RowCallbackHandler {
+
+		private final Consumer<Watch> consumer;
+
+		private Watch current;
+
+		private WatchFolder(Consumer<Watch> consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void processRow(ResultSet rs) throws SQLException {
+			String modelNumber = rs.getString(1);
+			if (current == null || !current.getModelNumber().equals(modelNumber)) {
+				if (current != null) {
+					consumer.accept(current);
+				}
+				current = new Watch();
+				current.setModelNumber(modelNumber);
+				current.setWatchName(rs.getString(2));
+				current.setWatchBrand(rs.getString(3));
+				current.setWatchType(WatchType.valueOf(rs.getString(4)));
+				current.setStockQuantity(rs.getInt(5));
+				current.setPrice(rs.getBigDecimal(6));
+				current.setAvailableStatus(rs.getBoolean(7));
+				current.setDateOfArrival(rs.getDate(8));
+				current.setImages(new ArrayList<>());
+			}
+			int imageId = rs.getInt(9);
+			if (!rs.wasNull()) {
+				Image image = new Image();
+				image.setImageID(imageId);
+				image.setImagePath(rs.getString(10));
+				current.getImages().add(image);
+			}
+		}
+
+		private void finish() {
+			if (current != null) {
+				consumer.accept(current);
+				current = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package com.nagarro.watchstore.dao.projection;
+
+/**
+ * Number of watches of a brand, in total and currently in stock.
+ * 
+ * @author karan
+ */
+public interface BrandCount {
+
+	String getWatchBrand();
+
+	long getTotal();
+
+	long getInStock();
+}
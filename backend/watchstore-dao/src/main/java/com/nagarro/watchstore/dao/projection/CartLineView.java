@@ -0,0 +1,42 @@
+package com.nagarro.watchstore.dao.projection;
+
+import java.math.BigDecimal;
+
+import com.nagarro.watchstore.enums.WatchType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A cart line as shown in the cart: the line, the scalar fields of its watch
+ * and the first image of the watch, read together in a single statement.
+ * 
+ * @author yogesh04
+ */
+@Getter
+@AllArgsConstructor
+public class CartLineView {
+
+	private final int cartId;
+
+	private final int watchQty;
+
+	private final String modelNumber;
+
+	private final String watchName;
+
+	private final String watchBrand;
+
+	private final WatchType watchType;
+
+	private final BigDecimal price;
+
+	private final int stockQuantity;
+
+	private final boolean availableStatus;
+
+	/**
+	 * The path of the first image of the watch, null if it has no image.
+	 */
+	private final String imagePath;
+}
@@ -0,0 +1,24 @@
+package com.nagarro.watchstore.dao.projection;
+
+import java.time.LocalDateTime;
+
+import com.nagarro.watchstore.enums.WatchType;
+
+/**
+ * Read-only projection of an order as a sale: which watch was sold, how many
+ * and when.
+ * 
+ * @author karan
+ */
+public interface OrderSale {
+
+	String getModelNumber();
+
+	String getWatchBrand();
+
+	WatchType getWatchType();
+
+	int getQuantity();
+
+	LocalDateTime getTimestamp();
+}
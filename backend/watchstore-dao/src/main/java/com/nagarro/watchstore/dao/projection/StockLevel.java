@@ -0,0 +1,20 @@
+package com.nagarro.watchstore.dao.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Stock quantity and availability status of a watch.
+ * 
+ * @author karan
+ */
+@Getter
+@AllArgsConstructor
+public class StockLevel {
+
+	private final String modelNumber;
+
+	private final int stockQuantity;
+
+	private final boolean availableStatus;
+}
@@ -0,0 +1,13 @@
+package com.nagarro.watchstore.dao.projection;
+
+/**
+ * Read-only projection of the units of a watch sold over a period.
+ * 
+ * @author karan
+ */
+public interface WatchSales {
+
+	String getModelNumber();
+
+	long getUnitsSold();
+}
@@ -0,0 +1,28 @@
+package com.nagarro.watchstore.dao.projection;
+
+import java.math.BigDecimal;
+
+import com.nagarro.watchstore.enums.WatchType;
+
+/**
+ * Read-only projection of the scalar columns of a watch. It is used where the
+ * images of a watch are not needed, so that they are never loaded.
+ * 
+ * @author karan
+ */
+public interface WatchSummary {
+
+	String getModelNumber();
+
+	String getWatchName();
+
+	String getWatchBrand();
+
+	WatchType getWatchType();
+
+	BigDecimal getPrice();
+
+	int getStockQuantity();
+
+	boolean isAvailableStatus();
+}
@@ -0,0 +1,12 @@
+package com.nagarro.watchstore;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Boot configuration for the repository tests of this module, which has no
+ * application class of its own.
+ */
+@SpringBootApplication
+public class DaoTestApplication {
+
+}
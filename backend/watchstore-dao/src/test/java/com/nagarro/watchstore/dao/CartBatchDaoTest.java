@@ -0,0 +1,144 @@
+package com.nagarro.watchstore.dao;
+
+import com.nagarro.watchstore.entity.Cart;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test cases for CartBatchDao class, checking the touch times it leaves on the
+ * cart lines.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CartBatchDao.class)
+class CartBatchDaoTest {
+
+    @Autowired
+    private CartBatchDao cartBatchDao;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findAndDeleteUntouchedSince_ShouldDeleteOnlyOldLinesInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(30);
+        for (int i = 0; i < 5; i++) {
+            line("old@mail.com", "SWEEP-" + i, now.minusDays(40));
+        }
+        Cart recent = line("recent@mail.com", "SWEEP-0", now.minusDays(1));
+
+        int deleted = 0;
+        Map<Integer, String> found;
+        do {
+            found = cartBatchDao.findUntouchedSince(cutoff, 2);
+            Assertions.assertTrue(found.values().stream().allMatch("old@mail.com"::equals));
+            deleted += cartBatchDao.deleteUntouchedSince(found.keySet(), cutoff);
+        } while (found.size() == 2);
+        entityManager.clear();
+
+        Assertions.assertEquals(5, deleted);
+        Assertions.assertTrue(cartRepository.findByUserId("old@mail.com").isEmpty());
+        Assertions.assertEquals(recent.getCartId(), cartRepository.findByUserId("recent@mail.com").get(0).getCartId());
+    }
+
+    @Test
+    void deleteUntouchedSince_WithLineTouchedSinceFound_ShouldKeepIt() {
+        LocalDateTime now = LocalDateTime.now();
+        Cart cart = line("old@mail.com", "SWEEP-5", now.minusDays(40));
+        Map<Integer, String> found = cartBatchDao.findUntouchedSince(now.minusDays(30), 10);
+
+        cartBatchDao.writeQuantities(Map.of(cart.getCartId(), 2));
+
+        Assertions.assertEquals(0, cartBatchDao.deleteUntouchedSince(found.keySet(), now.minusDays(30)));
+        Assertions.assertEquals(0, cartBatchDao.deleteUntouchedSince(List.of(), now.minusDays(30)));
+    }
+
+    @Test
+    void touchUntracked_ShouldTouchOnlyLinesWithoutTouchTime() {
+        LocalDateTime now = LocalDateTime.now();
+        Cart untracked = line("old@mail.com", "SWEEP-6", now.minusDays(40));
+        Cart tracked = line("old@mail.com", "SWEEP-7", now.minusDays(40));
+        jdbcTemplate.update("update carts set last_touched = null where cart_id = ?", untracked.getCartId());
+
+        Assertions.assertEquals(1, cartBatchDao.touchUntracked(now, 10));
+        Assertions.assertEquals(0, cartBatchDao.touchUntracked(now, 10));
+        entityManager.clear();
+
+        Assertions.assertEquals(Map.of(tracked.getCartId(), "old@mail.com"),
+                cartBatchDao.findUntouchedSince(now.minusDays(30), 10));
+    }
+
+    @Test
+    void writeQuantities_ShouldTouchUpdatedLines() {
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+        Cart cart = line("buyer@mail.com", "TOUCH-1", before.minusDays(40));
+
+        cartBatchDao.writeQuantities(Map.of(cart.getCartId(), 3));
+        entityManager.clear();
+
+        Cart written = cartRepository.findById(cart.getCartId()).orElseThrow();
+        Assertions.assertEquals(3, written.getWatchQty());
+        Assertions.assertTrue(written.getLastTouched().isAfter(before));
+    }
+
+    @Test
+    void incrementWatchQty_ShouldTouchTheLine() {
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+        Cart cart = line("buyer@mail.com", "TOUCH-2", before.minusDays(40));
+
+        Assertions.assertEquals(1, cartRepository.incrementWatchQty("buyer@mail.com", "TOUCH-2"));
+        entityManager.clear();
+
+        Assertions.assertTrue(cartRepository.findById(cart.getCartId()).orElseThrow().getLastTouched().isAfter(before));
+    }
+
+    /**
+     * Saves a cart line of one unit and backdates its touch time, which saving
+     * through JPA sets to now.
+     */
+    private Cart line(String userId, String modelNumber, LocalDateTime lastTouched) {
+        Watch watch = entityManager.find(Watch.class, modelNumber);
+        if (watch == null) {
+            watch = new Watch();
+            watch.setModelNumber(modelNumber);
+            watch.setWatchName("Sweep " + modelNumber);
+            watch.setWatchBrand("Brand");
+            watch.setWatchType(WatchType.QUARTZ);
+            watch.setPrice(BigDecimal.TEN);
+            watch.setStockQuantity(10);
+            watch.setAvailableStatus(true);
+            watch.setImages(new ArrayList<>());
+            entityManager.persist(watch);
+        }
+        Cart cart = new Cart();
+        cart.setUserId(userId);
+        cart.setWatch(watch);
+        cart.setWatchQty(1);
+        entityManager.persistAndFlush(cart);
+        jdbcTemplate.update("update carts set last_touched = ? where cart_id = ?", Timestamp.valueOf(lastTouched),
+                cart.getCartId());
+        return cart;
+    }
+}
@@ -0,0 +1,276 @@
+package com.nagarro.watchstore.dao;
+
+import com.nagarro.watchstore.dao.projection.CartLineView;
+import com.nagarro.watchstore.dao.projection.OrderSale;
+import com.nagarro.watchstore.dao.projection.WatchSales;
+import com.nagarro.watchstore.entity.Cart;
+import com.nagarro.watchstore.entity.DeliveryAddress;
+import com.nagarro.watchstore.entity.Image;
+import com.nagarro.watchstore.entity.Notifications;
+import com.nagarro.watchstore.entity.Order;
+import com.nagarro.watchstore.entity.User;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.OrderStatus;
+import com.nagarro.watchstore.enums.UserRole;
+import com.nagarro.watchstore.enums.WatchType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Asserts that every list query issues a fixed number of SQL statements, however
+ * many rows it returns, once the returned entities are walked the way the
+ * transformers walk them.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ListQueryStatementCountTest {
+
+    private static final int ROWS = 12;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WatchDao watchDao;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderDao orderDao;
+
+    @Autowired
+    private NotificationsDao notificationsDao;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        User user = new User("buyer@mail.com", "Buyer", "secret", UserRole.CUSTOMER, "9999999999");
+        entityManager.persist(user);
+        DeliveryAddress deliveryAddress = new DeliveryAddress();
+        deliveryAddress.setId(1);
+        deliveryAddress.setCity("Gurugram");
+        entityManager.persist(deliveryAddress);
+        for (int i = 0; i < ROWS; i++) {
+            Watch watch = new Watch();
+            watch.setModelNumber("MODEL-" + i);
+            watch.setWatchName("Diver " + i);
+            watch.setWatchBrand("Brand" + (i % 3));
+            watch.setWatchType(WatchType.AUTOMATIC);
+            watch.setPrice(BigDecimal.valueOf(1000 + i));
+            watch.setStockQuantity(5);
+            watch.setAvailableStatus(true);
+            watch.setCatalogVersion(ROWS - i);
+            List<Image> images = new ArrayList<>();
+            for (int j = 0; j < 2; j++) {
+                Image image = new Image();
+                image.setImagePath("/images/" + i + "/" + j);
+                images.add(image);
+            }
+            watch.setImages(images);
+            entityManager.persist(watch);
+
+            Cart cart = new Cart();
+            cart.setUserId(user.getEmailId());
+            cart.setWatch(watch);
+            cart.setWatchQty(1);
+            entityManager.persist(cart);
+
+            Order order = new Order();
+            order.setUser(user);
+            order.setDeliveryAddress(deliveryAddress);
+            order.addLine(watch, 1);
+            order.setStatus(OrderStatus.BOOKED);
+            order.setTimestamp(LocalDateTime.now().minusDays(i));
+            entityManager.persist(order);
+
+            entityManager.persist(new Notifications(0, false, false, "Back in stock", user.getEmailId(), watch));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void catalogQueries_ShouldUseOneStatement() {
+        Assertions.assertEquals(1, countStatements(() -> watchImages(watchDao.findAll())));
+        Assertions.assertEquals(1, countStatements(() -> watchImages(watchDao.searchWatch("Diver"))));
+        Assertions.assertEquals(1, countStatements(
+                () -> watchImages(watchDao.findAllById(List.of("MODEL-1", "MODEL-2", "MODEL-3")))));
+    }
+
+    @Test
+    void catalogPage_ShouldBatchImagesIntoOneStatement() {
+        Assertions.assertEquals(2, countStatements(() -> watchImages(watchDao
+                .findByModelNumberGreaterThanOrderByModelNumberAsc("", PageRequest.ofSize(ROWS)).getContent())));
+    }
+
+    @Test
+    void catalogFacetPage_ShouldFilterAfterTheCursorAndBatchImages() {
+        Assertions.assertEquals(2, countStatements(() -> {
+            List<Watch> page = watchDao.findFacetMatchesAfter("MODEL-1", false, Set.of("brand0", "brand1"), true,
+                    Set.of(WatchType.AUTOMATIC), true, new BigDecimal("1002"), null, PageRequest.ofSize(4))
+                    .getContent();
+            Assertions.assertEquals(List.of("MODEL-10", "MODEL-3", "MODEL-4", "MODEL-6"),
+                    page.stream().map(Watch::getModelNumber).toList());
+            return watchImages(page);
+        }));
+    }
+
+    @Test
+    void catalogChanges_ShouldReturnVersionOrderAndBatchImages() {
+        Assertions.assertEquals(2, countStatements(() -> {
+            List<Watch> changes = watchDao.findByCatalogVersionBetweenOrderByCatalogVersionAsc(3, 8,
+                    PageRequest.ofSize(ROWS)).getContent();
+            Assertions.assertEquals(List.of("MODEL-9", "MODEL-8", "MODEL-7", "MODEL-6", "MODEL-5", "MODEL-4"),
+                    changes.stream().map(Watch::getModelNumber).toList());
+            return watchImages(changes);
+        }));
+        Assertions.assertEquals(ROWS, watchDao.findMaxCatalogVersion());
+    }
+
+    @Test
+    void cartList_ShouldUseOneStatement() {
+        Assertions.assertEquals(1, countStatements(() -> {
+            List<Watch> watches = new ArrayList<>();
+            cartRepository.findByUserId("buyer@mail.com").forEach(cart -> watches.add(cart.getWatch()));
+            return watchImages(watches);
+        }));
+    }
+
+    @Test
+    void cartView_ShouldUseOneStatementWithFirstImage() {
+        Assertions.assertEquals(1, countStatements(() -> {
+            List<CartLineView> views = cartRepository.findViewsByUserId("buyer@mail.com");
+            Assertions.assertEquals(ROWS, views.size());
+            for (int i = 0; i < ROWS; i++) {
+                Assertions.assertEquals("MODEL-" + i, views.get(i).getModelNumber());
+                Assertions.assertEquals("/images/" + i + "/0", views.get(i).getImagePath());
+            }
+            return views.size();
+        }));
+    }
+
+    @Test
+    void cartOperations_ShouldLoadWatchesAndLinesWithOneStatementEach() {
+        List<String> models = List.of("MODEL-1", "MODEL-2", "MODEL-3");
+        Assertions.assertEquals(2, countStatements(() -> {
+            List<Watch> watches = watchDao.findAllById(models);
+            List<Cart> lines = cartRepository.findByUserIdAndWatchModelNumberIn("buyer@mail.com", models);
+            Assertions.assertEquals(models.size(), lines.size());
+            lines.forEach(cart -> watches.add(cart.getWatch()));
+            return watchImages(watches);
+        }));
+    }
+
+    @Test
+    void checkout_ShouldLockWatchesInModelOrderAndClearLinesInOneStatement() {
+        List<String> models = cartRepository.findWatchModelsByUserId("buyer@mail.com");
+        Assertions.assertEquals(ROWS, models.size());
+        Assertions.assertEquals(3, countStatements(() -> {
+            List<Watch> watches = watchDao.findAllForUpdate(models);
+            Assertions.assertEquals(models.stream().sorted().toList(),
+                    watches.stream().map(Watch::getModelNumber).toList());
+            List<Cart> lines = cartRepository.findByUserIdAndWatchModelNumberIn("buyer@mail.com", models);
+            lines.forEach(cart -> watches.add(cart.getWatch()));
+            return watchImages(watches);
+        }));
+        Assertions.assertEquals(ROWS, cartRepository.deleteByCartIdIn(
+                cartRepository.findByUserId("buyer@mail.com").stream().map(Cart::getCartId).toList()));
+        Assertions.assertTrue(cartRepository.findWatchModelsByUserId("buyer@mail.com").isEmpty());
+    }
+
+    @Test
+    void orderLists_ShouldLoadLinesOfAllOrdersInOneStatement() {
+        Assertions.assertEquals(2, countStatements(() -> orderGraph(orderDao.findAllByOrderByTimestampDesc())));
+        Assertions.assertEquals(2, countStatements(
+                () -> orderGraph(orderDao.findByUserEmailIdOrderByTimestampDesc("buyer@mail.com"))));
+    }
+
+    @Test
+    void orderSales_ShouldUseOneStatementAndSkipOlderOrders() {
+        Assertions.assertEquals(1, countStatements(() -> {
+            List<OrderSale> sales = orderDao.findSalesBetween(LocalDateTime.now().minusDays(5).minusHours(1),
+                    LocalDateTime.now().plusMinutes(1));
+            Assertions.assertEquals(Set.of("MODEL-0", "MODEL-1", "MODEL-2", "MODEL-3", "MODEL-4", "MODEL-5"),
+                    sales.stream().map(OrderSale::getModelNumber).collect(Collectors.toSet()));
+            Assertions.assertTrue(sales.stream().allMatch(sale -> sale.getQuantity() == 1
+                    && sale.getWatchType() == WatchType.AUTOMATIC && sale.getWatchBrand().startsWith("Brand")));
+            return sales.size();
+        }));
+    }
+
+    @Test
+    void topSellers_ShouldRankInOneStatementAndSkipOlderOrders() {
+        LocalDateTime since = LocalDateTime.now().minusDays(5).minusHours(1);
+        Assertions.assertEquals(1, countStatements(() -> {
+            List<WatchSales> sales = orderDao.findTopSellersSince(since, null, WatchType.AUTOMATIC,
+                    PageRequest.ofSize(4));
+            Assertions.assertEquals(List.of("MODEL-0", "MODEL-1", "MODEL-2", "MODEL-3"),
+                    sales.stream().map(WatchSales::getModelNumber).toList());
+            Assertions.assertTrue(sales.stream().allMatch(sale -> sale.getUnitsSold() == 1));
+            return sales.size();
+        }));
+        Assertions.assertEquals(List.of("MODEL-0", "MODEL-3"), orderDao
+                .findTopSellersSince(since, "brand0", null, PageRequest.ofSize(10)).stream()
+                .map(WatchSales::getModelNumber).toList());
+    }
+
+    @Test
+    void notificationLists_ShouldUseOneStatement() {
+        Assertions.assertEquals(1, countStatements(() -> {
+            List<Watch> watches = new ArrayList<>();
+            notificationsDao.findByEmailId("buyer@mail.com").forEach(n -> watches.add(n.getWatch()));
+            return watchImages(watches);
+        }));
+        Assertions.assertEquals(1, countStatements(() -> {
+            List<Watch> watches = new ArrayList<>();
+            notificationsDao.findAll().forEach(n -> watches.add(n.getWatch()));
+            return watchImages(watches);
+        }));
+    }
+
+    private long countStatements(Supplier<Integer> query) {
+        entityManager.clear();
+        statistics.clear();
+        int rows = query.get();
+        Assertions.assertTrue(rows >= 3, "query returned too few rows to detect an N+1");
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static int watchImages(List<Watch> watches) {
+        watches.forEach(watch -> watch.getImages().forEach(Image::getImagePath));
+        return watches.size();
+    }
+
+    private static int orderGraph(List<Order> orders) {
+        Assertions.assertEquals(ROWS, orders.size());
+        orders.forEach(order -> {
+            order.getUser().getName();
+            order.getDeliveryAddress().getCity();
+            order.getLines().forEach(line -> line.getWatch().getImages().forEach(Image::getImagePath));
+        });
+        return orders.size();
+    }
+}
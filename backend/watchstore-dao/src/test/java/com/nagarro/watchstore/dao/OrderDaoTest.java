@@ -0,0 +1,103 @@
+package com.nagarro.watchstore.dao;
+
+import com.nagarro.watchstore.entity.Order;
+import com.nagarro.watchstore.entity.OrderLine;
+import com.nagarro.watchstore.entity.User;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.OrderStatus;
+import com.nagarro.watchstore.enums.UserRole;
+import com.nagarro.watchstore.enums.WatchType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test cases for OrderDao class, checking how the lines of an order are written
+ * and read back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderDaoTest {
+
+    private static final int LINES = 5;
+
+    @Autowired
+    private OrderDao orderDao;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Watch> watches = new ArrayList<>();
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        user = new User("buyer@mail.com", "Buyer", "secret", UserRole.CUSTOMER, "9999999999");
+        entityManager.persist(user);
+        for (int i = 0; i < LINES; i++) {
+            Watch watch = new Watch();
+            watch.setModelNumber("LINE-" + i);
+            watch.setWatchName("Diver " + i);
+            watch.setWatchBrand("Brand");
+            watch.setWatchType(WatchType.AUTOMATIC);
+            watch.setPrice(BigDecimal.valueOf(100 + i));
+            watch.setStockQuantity(5);
+            watch.setAvailableStatus(true);
+            watch.setImages(new ArrayList<>());
+            watches.add(entityManager.persist(watch));
+        }
+        // Draw the first block of line IDs, so the save below needs no sequence call.
+        orderDao.saveAndFlush(order(1));
+    }
+
+    @Test
+    void save_ShouldInsertAllLinesInOneBatch() {
+        Order order = order(LINES);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        orderDao.saveAndFlush(order);
+
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+        entityManager.clear();
+        Order saved = orderDao.findById(order.getId()).orElseThrow();
+        Assertions.assertEquals(watches.stream().map(Watch::getModelNumber).toList(),
+                saved.getLines().stream().map(line -> line.getWatch().getModelNumber()).toList());
+        Assertions.assertEquals(0, BigDecimal.valueOf(2 * (100 + 101 + 102 + 103 + 104)).compareTo(saved.getAmount()));
+    }
+
+    @Test
+    void addLine_ShouldPriceTheLineAndTotalTheOrder() {
+        Order order = new Order();
+        OrderLine line = order.addLine(watches.get(3), 4);
+
+        Assertions.assertSame(order, line.getOrder());
+        Assertions.assertEquals(0, BigDecimal.valueOf(103).compareTo(line.getAmount()));
+        Assertions.assertEquals(0, BigDecimal.valueOf(412).compareTo(order.getAmount()));
+    }
+
+    private Order order(int lines) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setStatus(OrderStatus.BOOKED);
+        for (int i = 0; i < lines; i++) {
+            order.addLine(watches.get(i), 2);
+        }
+        return order;
+    }
+}
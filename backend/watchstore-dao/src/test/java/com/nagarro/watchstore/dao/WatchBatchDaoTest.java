@@ -0,0 +1,110 @@
+package com.nagarro.watchstore.dao;
+
+import com.nagarro.watchstore.dao.projection.StockLevel;
+import com.nagarro.watchstore.entity.Image;
+import com.nagarro.watchstore.entity.Notifications;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Test cases for WatchBatchDao class, checking that batch-inserted rows are
+ * read back through the JPA mapping.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(WatchBatchDao.class)
+class WatchBatchDaoTest {
+
+    @Autowired
+    private WatchBatchDao watchBatchDao;
+
+    @Autowired
+    private WatchDao watchDao;
+
+    @Autowired
+    private NotificationsDao notificationsDao;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void insertWatches_ShouldBeReadableAsEntitiesWithImages() {
+        watchBatchDao.insertWatches(List.of(watch("BULK-1", "/a.png", "/b.png"), watch("BULK-2", "/c.png")));
+        entityManager.clear();
+
+        Watch first = watchDao.findById("BULK-1").orElseThrow();
+        Assertions.assertEquals("Brand", first.getWatchBrand());
+        Assertions.assertEquals(WatchType.QUARTZ, first.getWatchType());
+        Assertions.assertNotNull(first.getDateOfArrival());
+        Assertions.assertEquals(Set.of("/a.png", "/b.png"),
+                first.getImages().stream().map(Image::getImagePath).collect(Collectors.toSet()));
+        Assertions.assertEquals(1, watchDao.findById("BULK-2").orElseThrow().getImages().size());
+    }
+
+    @Test
+    void findExistingModelNumbers_ShouldReturnOnlyStoredModels() {
+        watchBatchDao.insertWatches(List.of(watch("BULK-3", "/d.png")));
+
+        Assertions.assertEquals(Set.of("BULK-3"), watchBatchDao.findExistingModelNumbers(List.of("BULK-3", "NEW")));
+    }
+
+    @Test
+    void updateStockLevels_ShouldApplyLockedLevels() {
+        watchBatchDao.insertWatches(List.of(watch("BULK-4", "/e.png"), watch("BULK-5", "/f.png")));
+
+        StockLevel level = watchBatchDao.lockStockLevels(List.of("BULK-4", "NONE")).get("BULK-4");
+        watchBatchDao.updateStockLevels(List.of(new StockLevel("BULK-4", level.getStockQuantity() + 7, false)), 42);
+        entityManager.clear();
+
+        Watch updated = watchDao.findById("BULK-4").orElseThrow();
+        Assertions.assertEquals(10, updated.getStockQuantity());
+        Assertions.assertFalse(updated.isAvailableStatus());
+        Assertions.assertEquals(42, updated.getCatalogVersion());
+        Assertions.assertEquals(3, watchDao.findById("BULK-5").orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void markInStock_ShouldUpdateOnlyPendingNotificationsOfTheWatch() {
+        watchBatchDao.insertWatches(List.of(watch("BULK-6", "/g.png"), watch("BULK-7", "/h.png")));
+        Watch waited = entityManager.find(Watch.class, "BULK-6");
+        entityManager.persist(new Notifications(0, false, true, "waiting", "a@mail.com", waited));
+        entityManager.persist(new Notifications(0, true, false, "sent", "b@mail.com", waited));
+        entityManager.persist(new Notifications(0, false, true, "waiting",  "c@mail.com",
+                entityManager.find(Watch.class, "BULK-7")));
+        entityManager.flush();
+
+        Assertions.assertEquals(1, notificationsDao.markInStock("BULK-6", "Name added in stock"));
+    }
+
+    private static Watch watch(String modelNumber, String... imagePaths) {
+        Watch watch = new Watch();
+        watch.setModelNumber(modelNumber);
+        watch.setWatchName("Name");
+        watch.setWatchBrand("Brand");
+        watch.setWatchType(WatchType.QUARTZ);
+        watch.setPrice(new BigDecimal("2500.00"));
+        watch.setStockQuantity(3);
+        watch.setAvailableStatus(true);
+        List<Image> images = new ArrayList<>();
+        for (String imagePath : imagePaths) {
+            Image image = new Image();
+            image.setImagePath(imagePath);
+            images.add(image);
+        }
+        watch.setImages(images);
+        return watch;
+    }
+}
@@ -0,0 +1,78 @@
+package com.nagarro.watchstore.dao;
+
+import com.nagarro.watchstore.entity.Image;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Test cases for WatchExportDao class, checking that the joined rows are folded
+ * back into one watch each, across fetch boundaries.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ WatchBatchDao.class, WatchExportDao.class })
+@TestPropertySource(properties = "watchstore.export.fetch-size=2")
+class WatchExportDaoTest {
+
+    @Autowired
+    private WatchBatchDao watchBatchDao;
+
+    @Autowired
+    private WatchExportDao watchExportDao;
+
+    @Test
+    void streamWatches_ShouldFoldImagesIntoTheirWatchInModelOrder() {
+        watchBatchDao.insertWatches(List.of(watch("EXP-3", "/e.png"), watch("EXP-1", "/a.png", "/b.png", "/c.png"),
+                watch("EXP-2")));
+
+        List<Watch> exported = new ArrayList<>();
+        watchExportDao.streamWatches(exported::add);
+
+        Assertions.assertEquals(List.of("EXP-1", "EXP-2", "EXP-3"),
+                exported.stream().map(Watch::getModelNumber).collect(Collectors.toList()));
+        Assertions.assertEquals(List.of("/a.png", "/b.png", "/c.png"),
+                exported.get(0).getImages().stream().map(Image::getImagePath).collect(Collectors.toList()));
+        Assertions.assertTrue(exported.get(1).getImages().isEmpty());
+        Assertions.assertEquals(WatchType.DIGITAL, exported.get(2).getWatchType());
+        Assertions.assertEquals(0, new BigDecimal("99.50").compareTo(exported.get(2).getPrice()));
+    }
+
+    @Test
+    void streamWatches_ShouldNotCallConsumerForEmptyCatalog() {
+        List<Watch> exported = new ArrayList<>();
+        watchExportDao.streamWatches(exported::add);
+
+        Assertions.assertTrue(exported.isEmpty());
+    }
+
+    private static Watch watch(String modelNumber, String... imagePaths) {
+        Watch watch = new Watch();
+        watch.setModelNumber(modelNumber);
+        watch.setWatchName("Name " + modelNumber);
+        watch.setWatchBrand("Brand");
+        watch.setWatchType(WatchType.DIGITAL);
+        watch.setPrice(new BigDecimal("99.50"));
+        watch.setStockQuantity(1);
+        watch.setAvailableStatus(true);
+        List<Image> images = new ArrayList<>();
+        for (String imagePath : imagePaths) {
+            Image image = new Image();
+            image.setImagePath(imagePath);
+            images.add(image);
+        }
+        watch.setImages(images);
+        return watch;
+    }
+}
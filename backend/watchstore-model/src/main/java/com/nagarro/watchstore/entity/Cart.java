@@ -1,23 +1,32 @@
 package com.nagarro.watchstore.entity;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
 /**
  * The Cart class represents a shopping cart entity. 
  * It contains information about the cart ID, user ID, watch quantity, and the associated watch.
+ * A user has at most one cart line per watch. Every change to a line records
+ * when it was last touched, so that abandoned lines can be swept.
  * 
  * @author yogesh04
  * @version 1.0
  */
 @Entity
 @Data
-@Table(name = "Carts")
+@Table(name = "Carts", uniqueConstraints = @UniqueConstraint(name = "uk_carts_user_watch", columnNames = {
+		"userId", "watch_model_number" }), indexes = @Index(name = "idx_carts_last_touched", columnList = "lastTouched"))
 public class Cart {
 	@Id
 	@GeneratedValue(strategy = GenerationType.AUTO)
@@ -26,4 +35,11 @@ public class Cart {
 	private int watchQty;
 	@ManyToOne
 	private Watch watch;
+	private LocalDateTime lastTouched;
+
+	@PrePersist
+	@PreUpdate
+	void touch() {
+		lastTouched = LocalDateTime.now();
+	}
 }
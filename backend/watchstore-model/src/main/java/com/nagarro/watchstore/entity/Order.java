@@ -2,6 +2,11 @@ package com.nagarro.watchstore.entity;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -9,6 +14,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import com.nagarro.watchstore.enums.OrderStatus;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
@@ -17,7 +23,10 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
 import lombok.AccessLevel;
@@ -25,13 +34,18 @@ import lombok.Data;
 import lombok.Setter;
 
 /**
- * The Order entity represents an order in the watch store.
+ * The Order entity represents an order in the watch store. An order carries
+ * one line per watch bought, and its amount is the total of its lines. The
+ * lines of every order a query returned are loaded together, in one query,
+ * rather than order by order. An order placed with an idempotency key keeps
+ * it, and a user cannot place two orders with the same key.
  *
  * @author tushar01
  */
 @Data
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", uniqueConstraints = @UniqueConstraint(name = "uk_orders_user_idempotency_key", columnNames = {
+		"user_email_id", "idempotencyKey" }))
 @EntityListeners(AuditingEntityListener.class)
 public class Order {
 
@@ -39,10 +53,6 @@ public class Order {
 	@GeneratedValue(strategy = GenerationType.UUID)
 	@Setter(value = AccessLevel.NONE)
 	private String id;
-	
-	
-	private int quantiy;
-	
 
 	@Enumerated(EnumType.STRING)
 	private OrderStatus status;
@@ -58,8 +68,10 @@ public class Order {
 	private LocalDateTime statusTimestamp;
 
 	
-	@ManyToOne(cascade = CascadeType.MERGE)
-	private Watch watch;
+	@OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+	@Fetch(FetchMode.SUBSELECT)
+	@OrderBy("id")
+	private List<OrderLine> lines = new ArrayList<>();
 	
 	@ManyToOne
 	private User user;
@@ -67,4 +79,27 @@ public class Order {
 	@ManyToOne
 	private DeliveryAddress deliveryAddress;
 
+	@Column(length = 64)
+	private String idempotencyKey;
+
+	/**
+	 * Adds a line for a watch to the order, priced at the current price of the
+	 * watch, and adds it to the amount of the order.
+	 *
+	 * @param watch    the watch bought
+	 * @param quantity the number of units bought
+	 * @return the new line
+	 */
+	public OrderLine addLine(Watch watch, int quantity) {
+		OrderLine line = new OrderLine();
+		line.setOrder(this);
+		line.setWatch(watch);
+		line.setQuantity(quantity);
+		line.setAmount(watch.getPrice());
+		lines.add(line);
+		BigDecimal lineTotal = watch.getPrice().multiply(BigDecimal.valueOf(quantity));
+		amount = amount == null ? lineTotal : amount.add(lineTotal);
+		return line;
+	}
+
 }
@@ -0,0 +1,43 @@
+package com.nagarro.watchstore.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * The OrderLine entity represents one watch of an order, with the quantity
+ * ordered and the price of one unit when the order was placed. Its ID comes
+ * from a pooled generator rather than the insert, so that the lines of an
+ * order are inserted in one JDBC batch.
+ *
+ * @author tushar01
+ */
+@Data
+@Entity
+@Table(name = "order_lines")
+public class OrderLine {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.AUTO)
+	private long id;
+
+	@ManyToOne(optional = false)
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private Order order;
+
+	@ManyToOne(optional = false)
+	private Watch watch;
+
+	private int quantity;
+
+	private BigDecimal amount;
+}
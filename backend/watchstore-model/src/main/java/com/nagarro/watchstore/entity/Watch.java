@@ -4,18 +4,21 @@ import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import com.nagarro.watchstore.enums.WatchType;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
@@ -31,7 +34,7 @@ import lombok.Data;
  */
 @Data
 @Entity
-@Table(name = "watches")
+@Table(name = "watches", indexes = @Index(name = "idx_watches_catalog_version", columnList = "catalogVersion"))
 @EntityListeners(AuditingEntityListener.class)
 public class Watch {
 
@@ -80,9 +83,19 @@ public class Watch {
 	private Date dateOfArrival;
 
 	/**
-	 * The list of images associated with the watch.
+	 * The catalog version of the last change to the watch. Every change is
+	 * stamped with a new, higher version, so clients can ask for the watches
+	 * changed since the version they last saw.
+	 */
+	@Column(columnDefinition = "bigint not null default 0")
+	private long catalogVersion;
+
+	/**
+	 * The list of images associated with the watch. Queries without a fetch plan
+	 * load the images of up to a full page of watches in one statement.
 	 */
 	@OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+	@BatchSize(size = 100)
 	List<Image> images;
 
 }
@@ -65,7 +65,7 @@ public class SecurityConfig {
             corsConfiguration.addAllowedHeader("*");
             corsConfiguration.setAllowCredentials(true);
             corsConfiguration.setMaxAge(3600L);
-            corsConfiguration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+            corsConfiguration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
             corsConfiguration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
             corsConfiguration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
 
@@ -73,7 +73,8 @@ public class SecurityConfig {
         })
 				.authorizeHttpRequests(auth -> auth.requestMatchers("/login", "/watches/brand", "/watches").permitAll()
 						.requestMatchers(HttpMethod.GET, "/watches/{modelNumber}").permitAll().requestMatchers(SWAGGGER)
-						.permitAll().requestMatchers(HttpMethod.POST, "/users").permitAll().requestMatchers(AUTH_NEEDED)
+						.permitAll().requestMatchers(HttpMethod.POST, "/users").permitAll().requestMatchers("/actuator/**")
+						.hasAuthority("ADMIN").requestMatchers(AUTH_NEEDED)
 						.authenticated())
 				.authenticationProvider(authenticationProvider())
 				.addFilterBefore(authFilter, UsernamePasswordAuthenticationFilter.class).build();
@@ -0,0 +1,72 @@
+package com.nagarro.watchstore.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.event.CartChangedEvent;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+
+/**
+ * Evicts cart views from the cart view cache once the transaction that changed
+ * them has completed. A changed cart evicts the view of its user; a changed
+ * watch evicts the views showing it, as found in the {@link CartViewIndex}, so
+ * that an order, which changes the stock of each watch it buys, leaves the
+ * carts of the other users cached.
+ * 
+ * @author yogesh04
+ */
+@Component
+public class CartViewCacheEvictionListener {
+
+	private final CacheManager cacheManager;
+
+	private final CartViewIndex cartViewIndex;
+
+	@Autowired
+	public CartViewCacheEvictionListener(CacheManager cacheManager, CartViewIndex cartViewIndex) {
+		super();
+		this.cacheManager = cacheManager;
+		this.cartViewIndex = cartViewIndex;
+	}
+
+	/**
+	 * Evicts the view of the changed cart.
+	 *
+	 * @param event the event carrying the user of the changed cart
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+	public void onCartChanged(CartChangedEvent event) {
+		Cache cache = cacheManager.getCache(Constant.CART_VIEW_CACHE);
+		if (cache != null) {
+			cartViewIndex.forget(event.getUserId());
+			cache.evict(event.getUserId());
+		}
+	}
+
+	/**
+	 * Evicts the views holding the changed watch, as the price, stock or images
+	 * they show for it may be out of date. A watch just created is in no cart
+	 * yet.
+	 *
+	 * @param event the event carrying the changed watch
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+	@Order(CatalogVersionClock.LISTENER_ORDER)
+	public void onWatchChanged(WatchChangedEvent event) {
+		Cache cache = cacheManager.getCache(Constant.CART_VIEW_CACHE);
+		if (cache == null || event.isCreated()) {
+			return;
+		}
+		for (String userId : cartViewIndex.findUsersShowing(event.getWatch().getModelNumber())) {
+			cartViewIndex.forget(userId);
+			cache.evict(userId);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.nagarro.watchstore.cache;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.nagarro.watchstore.dao.projection.CartLineView;
+
+/**
+ * Tells which users have a cached cart view showing a watch, so that a changed
+ * watch evicts those views alone without walking the cart view cache. A view
+ * is recorded as it is built for the cache, and forgotten as it is evicted,
+ * whether by a change or by the cache itself.
+ * <p>
+ * A view is forgotten before it is evicted, so that a view built again in
+ * between is still recorded once cached. A recorded user whose view is gone
+ * only costs an eviction that finds nothing.
+ *
+ * @author yogesh04
+ */
+@Component
+public class CartViewIndex {
+
+	private final Map<String, Set<String>> usersByModelNumber = new HashMap<>();
+
+	private final Map<String, List<CartLineView>> viewsByUser = new HashMap<>();
+
+	/**
+	 * Records the view of a cart about to be cached, replacing the view recorded
+	 * before for the user.
+	 *
+	 * @param userId the user ID
+	 * @param views  the cart lines of the user as cached
+	 */
+	public synchronized void record(String userId, List<CartLineView> views) {
+		forget(userId);
+		viewsByUser.put(userId, views);
+		for (CartLineView view : views) {
+			usersByModelNumber.computeIfAbsent(view.getModelNumber(), key -> new HashSet<>()).add(userId);
+		}
+	}
+
+	/**
+	 * Forgets the view of a user.
+	 *
+	 * @param userId the user ID
+	 */
+	public synchronized void forget(String userId) {
+		List<CartLineView> views = viewsByUser.remove(userId);
+		if (views == null) {
+			return;
+		}
+		for (CartLineView view : views) {
+			Set<String> userIds = usersByModelNumber.get(view.getModelNumber());
+			if (userIds != null) {
+				userIds.remove(userId);
+				if (userIds.isEmpty()) {
+					usersByModelNumber.remove(view.getModelNumber());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forgets the view of a user, provided it is still the view recorded for the
+	 * user and not one built again since.
+	 *
+	 * @param userId the user ID
+	 * @param views  the cart lines of the user as they were cached
+	 */
+	public synchronized void forget(String userId, Object views) {
+		if (viewsByUser.get(userId) == views) {
+			forget(userId);
+		}
+	}
+
+	/**
+	 * Finds the users whose recorded view shows a watch.
+	 *
+	 * @param modelNumber the model number of the watch
+	 * @return the IDs of the users, empty if there are none
+	 */
+	public synchronized Set<String> findUsersShowing(String modelNumber) {
+		Set<String> userIds = usersByModelNumber.get(modelNumber);
+		return userIds == null ? Set.of() : new HashSet<>(userIds);
+	}
+}
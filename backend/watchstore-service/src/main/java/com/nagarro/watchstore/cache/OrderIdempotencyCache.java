@@ -0,0 +1,79 @@
+package com.nagarro.watchstore.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dao.OrderDao;
+import com.nagarro.watchstore.entity.Order;
+import com.nagarro.watchstore.exception.BadRequestException;
+
+/**
+ * Places an order at most once per user and idempotency key, so that a client
+ * retrying an order it got no answer for gets back the order already placed.
+ * Recent keys are answered from a bounded cache whose entries expire; older
+ * keys, and keys placed by another instance, from the key kept on the order.
+ * Two requests racing with the same key are settled by the unique key of the
+ * orders table: the loser's transaction is rolled back and it answers with the
+ * winner's order.
+ * 
+ * @author tushar01
+ */
+@Component
+public class OrderIdempotencyCache {
+
+	private final OrderDao orderDao;
+
+	private final Cache<String, Order> orders;
+
+	@Autowired
+	public OrderIdempotencyCache(OrderDao orderDao,
+			@Value("${watchstore.orders.idempotency.max-keys:10000}") long maxKeys,
+			@Value("${watchstore.orders.idempotency.ttl:24h}") Duration ttl) {
+		super();
+		this.orderDao = orderDao;
+		this.orders = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterWrite(ttl).build();
+	}
+
+	/**
+	 * Returns the order a user placed with an idempotency key, placing it first
+	 * if there is none.
+	 *
+	 * @param userEmailId    the email ID of the user
+	 * @param idempotencyKey the idempotency key sent with the order
+	 * @param placement      places the order, keeping the key on it
+	 * @return the order placed with the key
+	 * @throws BadRequestException if the key is blank or too long
+	 */
+	public Order placeOnce(String userEmailId, String idempotencyKey, Supplier<Order> placement) {
+		if (idempotencyKey.isBlank() || idempotencyKey.length() > Constant.MAX_IDEMPOTENCY_KEY_LENGTH) {
+			throw new BadRequestException(Constant.IDEMPOTENCY_KEY_HEADER, Constant.INVALID_IDEMPOTENCY_KEY);
+		}
+		String cacheKey = userEmailId + '\n' + idempotencyKey;
+		Order order = orders.getIfPresent(cacheKey);
+		if (order == null) {
+			order = find(userEmailId, idempotencyKey).orElse(null);
+		}
+		if (order == null) {
+			try {
+				order = placement.get();
+			} catch (DataIntegrityViolationException exception) {
+				order = find(userEmailId, idempotencyKey).orElseThrow(() -> exception);
+			}
+		}
+		orders.put(cacheKey, order);
+		return order;
+	}
+
+	private Optional<Order> find(String userEmailId, String idempotencyKey) {
+		return orderDao.findByUserEmailIdAndIdempotencyKey(userEmailId, idempotencyKey);
+	}
+}
@@ -0,0 +1,46 @@
+package com.nagarro.watchstore.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+
+/**
+ * Evicts a watch from the watch cache once the transaction that changed it has
+ * completed. Eviction also happens on rollback, since the cached instance may
+ * already have been modified in memory.
+ * 
+ * @author karan
+ */
+@Component
+public class WatchCacheEvictionListener {
+
+	private final CacheManager cacheManager;
+
+	@Autowired
+	public WatchCacheEvictionListener(CacheManager cacheManager) {
+		super();
+		this.cacheManager = cacheManager;
+	}
+
+	/**
+	 * Evicts the changed watch.
+	 *
+	 * @param event the event carrying the changed watch
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+	@Order(CatalogVersionClock.LISTENER_ORDER)
+	public void onWatchChanged(WatchChangedEvent event) {
+		Cache cache = cacheManager.getCache(Constant.WATCH_CACHE);
+		if (cache != null) {
+			cache.evict(event.getWatch().getModelNumber());
+		}
+	}
+}
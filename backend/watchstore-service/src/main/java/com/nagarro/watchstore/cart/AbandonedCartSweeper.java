@@ -0,0 +1,111 @@
+package com.nagarro.watchstore.cart;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.nagarro.watchstore.dao.CartBatchDao;
+import com.nagarro.watchstore.event.CartChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Deletes the cart lines nobody has touched for a while, so that the carts
+ * table only holds the carts in use. Lines are deleted in bounded chunks, each
+ * its own statement and transaction, so that a sweep never holds many locks
+ * for long. The carts holding the lines of a chunk are flushed from the
+ * {@link CartStore} before the chunk is deleted, so a line changed in memory
+ * is written back and touched first and survives the delete, which keeps the
+ * same cutoff. The store then reads those carts again, and a
+ * {@link CartChangedEvent} is published for each, evicting its cached view.
+ * Lines saved before touch times were kept are touched at the start of a
+ * sweep, so that they age from then on. The rows swept and the time spent are
+ * published as the {@value #ROWS_METER} and {@value #TIMER} metrics.
+ * 
+ * @author yogesh04
+ */
+@Component
+public class AbandonedCartSweeper {
+
+	static final String ROWS_METER = "watchstore.cart.sweep.rows";
+
+	static final String TIMER = "watchstore.cart.sweep";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+
+	private final CartBatchDao cartBatchDao;
+
+	private final CartStore cartStore;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final Duration maxAge;
+
+	private final int batchSize;
+
+	private final Counter sweptRows;
+
+	private final Timer sweepTimer;
+
+	@Autowired
+	public AbandonedCartSweeper(CartBatchDao cartBatchDao, CartStore cartStore,
+			ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+			@Value("${watchstore.cart.sweep.max-age:30d}") Duration maxAge,
+			@Value("${watchstore.cart.sweep.batch-size:500}") int batchSize) {
+		super();
+		this.cartBatchDao = cartBatchDao;
+		this.cartStore = cartStore;
+		this.eventPublisher = eventPublisher;
+		this.maxAge = maxAge;
+		this.batchSize = batchSize;
+		this.sweptRows = Counter.builder(ROWS_METER).description("Abandoned cart lines deleted")
+				.register(meterRegistry);
+		this.sweepTimer = Timer.builder(TIMER).description("Time spent sweeping abandoned cart lines")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Deletes the cart lines last touched longer ago than the maximum age, chunk
+	 * by chunk until a chunk comes back short.
+	 *
+	 * @return the number of lines deleted
+	 */
+	@Scheduled(fixedDelayString = "${watchstore.cart.sweep.interval:PT1H}")
+	public int sweep() {
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime cutoff = now.minus(maxAge);
+		int swept = sweepTimer.record(() -> {
+			int touched;
+			do {
+				touched = cartBatchDao.touchUntracked(now, batchSize);
+			} while (touched == batchSize);
+			int total = 0;
+			Map<Integer, String> found;
+			do {
+				found = cartBatchDao.findUntouchedSince(cutoff, batchSize);
+				Set<String> userIds = new HashSet<>(found.values());
+				userIds.forEach(cartStore::flush);
+				total += cartBatchDao.deleteUntouchedSince(found.keySet(), cutoff);
+				userIds.forEach(userId -> eventPublisher.publishEvent(new CartChangedEvent(userId)));
+			} while (found.size() == batchSize);
+			return total;
+		});
+		sweptRows.increment(swept);
+		if (swept > 0) {
+			LOGGER.info("Swept {} cart lines untouched since {}", swept, cutoff);
+		}
+		return swept;
+	}
+}
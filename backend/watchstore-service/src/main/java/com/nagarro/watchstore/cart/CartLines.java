@@ -0,0 +1,97 @@
+package com.nagarro.watchstore.cart;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.entity.Cart;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.exception.BadRequestException;
+
+/**
+ * The cart rules shared by the cart stores: how bulk operations change the
+ * lines of a cart, and how much of a watch a line may hold.
+ * 
+ * @author yogesh04
+ */
+public final class CartLines {
+
+	private CartLines() {
+	}
+
+	/**
+	 * Applies bulk operations to the lines of a cart. A line removed and then
+	 * added again is kept, with the quantity added after the removal. New lines
+	 * are created without an ID.
+	 *
+	 * @param userId     the user ID
+	 * @param lines      the lines of the cart by watch model number, changed in
+	 *                   place
+	 * @param watches    the watches the operations refer to by model number
+	 * @param operations the operations to apply, in order
+	 * @return the removed lines by watch model number
+	 * @throws BadRequestException if an operation refers to an unknown watch or
+	 *                             changes a line not in the cart
+	 */
+	public static Map<String, Cart> applyOperations(final String userId, final Map<String, Cart> lines,
+			final Map<String, Watch> watches, final List<CartOperation> operations) {
+		final Map<String, Cart> removedLines = new HashMap<>();
+		for (final CartOperation operation : operations) {
+			final String watchModel = operation.getWatchModel();
+			Cart line = lines.get(watchModel);
+			switch (operation.getType()) {
+			case ADD:
+				if (line == null) {
+					line = removedLines.remove(watchModel);
+					if (line == null) {
+						line = newLine(userId, watches.get(watchModel), watchModel);
+					} else {
+						line.setWatchQty(0);
+					}
+					lines.put(watchModel, line);
+				}
+				line.setWatchQty(line.getWatchQty() + operation.getQuantity());
+				break;
+			case SET:
+				requireLine(line, watchModel).setWatchQty(operation.getQuantity());
+				break;
+			case REMOVE:
+				removedLines.put(watchModel, requireLine(line, watchModel));
+				lines.remove(watchModel);
+				break;
+			}
+		}
+		return removedLines;
+	}
+
+	/**
+	 * Checks that the stock of a watch covers a quantity.
+	 *
+	 * @param watch    the watch
+	 * @param quantity the quantity in the cart
+	 * @throws BadRequestException if the quantity is greater than the stock
+	 */
+	public static void validateStock(final Watch watch, final int quantity) {
+		final int updatedStockQuantity = watch.getStockQuantity() - quantity;
+		if (updatedStockQuantity < 0)
+			throw new BadRequestException("Quantity", Constant.QUANTITY_GREATER_THAN_STOCKS);
+	}
+
+	private static Cart newLine(final String userId, final Watch watch, final String watchModel) {
+		if (watch == null) {
+			throw new BadRequestException("watchModel", Constant.WATCH_NOT_FOUND + watchModel);
+		}
+		final Cart cart = new Cart();
+		cart.setWatch(watch);
+		cart.setUserId(userId);
+		return cart;
+	}
+
+	private static Cart requireLine(final Cart line, final String watchModel) {
+		if (line == null) {
+			throw new BadRequestException("watchModel", Constant.CART_LINE_NOT_FOUND + watchModel);
+		}
+		return line;
+	}
+}
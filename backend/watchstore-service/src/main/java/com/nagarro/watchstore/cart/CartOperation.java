@@ -0,0 +1,38 @@
+package com.nagarro.watchstore.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One change to the cart line of a watch, as applied by a bulk cart update.
+ * 
+ * @author karan
+ */
+@Getter
+@AllArgsConstructor
+public class CartOperation {
+
+	/**
+	 * What an operation does to the cart line.
+	 */
+	public enum Type {
+		/**
+		 * Adds the quantity to the line, creating it if needed.
+		 */
+		ADD,
+		/**
+		 * Replaces the quantity of an existing line.
+		 */
+		SET,
+		/**
+		 * Removes an existing line.
+		 */
+		REMOVE
+	}
+
+	private final Type type;
+
+	private final String watchModel;
+
+	private final int quantity;
+}
@@ -0,0 +1,101 @@
+package com.nagarro.watchstore.cart;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.nagarro.watchstore.dao.projection.CartLineView;
+import com.nagarro.watchstore.entity.Cart;
+import com.nagarro.watchstore.entity.Watch;
+
+/**
+ * Keeps the cart lines of the users. The cart service reads and writes every
+ * line through a store, so that the lines can either be kept in the Carts
+ * table directly or in memory in front of it. Set watchstore.cart.store to jpa
+ * (the default) or write-behind to choose the store.
+ * 
+ * @author yogesh04
+ */
+public interface CartStore {
+
+	/**
+	 * Retrieve the cart lines of a user.
+	 *
+	 * @param userId the user ID
+	 * @return the cart lines of the user, empty if the cart is empty
+	 */
+	List<Cart> findByUserId(String userId);
+
+	/**
+	 * Retrieve the cart of a user as shown to the user.
+	 *
+	 * @param userId the user ID
+	 * @return the cart lines of the user with their watches, empty if the cart is
+	 *         empty
+	 */
+	List<CartLineView> findViewsByUserId(String userId);
+
+	/**
+	 * Retrieve a cart line by its ID.
+	 *
+	 * @param cartId the ID of the cart line
+	 * @return the cart line, or empty if there is no such line
+	 */
+	Optional<Cart> findById(int cartId);
+
+	/**
+	 * Add one unit of a watch to the cart line of a user, provided the line
+	 * exists and the stock of the watch covers one more unit.
+	 *
+	 * @param userId     the user ID
+	 * @param watchModel the model number of the watch
+	 * @return true if the line was incremented, false if there is no such line or
+	 *         no stock left for it
+	 */
+	boolean incrementWatchQty(String userId, String watchModel);
+
+	/**
+	 * Create the cart line of a watch with one unit.
+	 *
+	 * @param userId the user ID
+	 * @param watch  the watch
+	 * @return true if the line was created, false if the user already has a line
+	 *         for the watch
+	 */
+	boolean addLine(String userId, Watch watch);
+
+	/**
+	 * Set the quantity of a cart line.
+	 *
+	 * @param line     the cart line, as found by this store
+	 * @param watchQty the new quantity
+	 * @return the updated cart line
+	 */
+	Cart updateWatchQty(Cart line, int watchQty);
+
+	/**
+	 * Delete a cart line.
+	 *
+	 * @param line the cart line, as found by this store
+	 */
+	void delete(Cart line);
+
+	/**
+	 * Apply a list of operations to the cart of a user, in order and all or
+	 * nothing.
+	 *
+	 * @param userId     the user ID
+	 * @param operations the operations to apply
+	 * @return the cart lines of the user once the operations are applied
+	 */
+	List<Cart> applyOperations(String userId, List<CartOperation> operations);
+
+	/**
+	 * Make every change to the cart of a user durable in the Carts table, for
+	 * the callers that read or change that table directly, such as checkout or
+	 * the abandoned cart sweep. A store keeping carts in memory reads the cart
+	 * from the table again on its next use.
+	 *
+	 * @param userId the user ID
+	 */
+	void flush(String userId);
+}
@@ -0,0 +1,181 @@
+package com.nagarro.watchstore.cart;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the cart line quantities a write-behind store has not written to the
+ * database yet, so that they survive a crash. Every change is appended as the
+ * new quantity of a line, so replaying a log twice, or a change already in the
+ * database, is harmless.
+ * <p>
+ * The log is a directory of numbered segments. Changes go to the open segment;
+ * a flush rotates to a new segment and, once the flushed changes are committed,
+ * releases the segments it covered. Every append is written through to the
+ * operating system, so a crash of the application loses nothing and a crash of
+ * the machine loses what the operating system had not written to disk yet.
+ *
+ * @author yogesh04
+ */
+public class CartWriteAheadLog implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CartWriteAheadLog.class);
+
+	private static final String SEGMENT_PREFIX = "cart-";
+
+	private static final String SEGMENT_SUFFIX = ".wal";
+
+	private final Path directory;
+
+	private long sequence;
+
+	private BufferedWriter writer;
+
+	/**
+	 * Opens the log in a directory, keeping the segments left by a previous run
+	 * for {@link #read(long)} and appending to a new segment.
+	 *
+	 * @param directory the directory of the segments, created if missing
+	 * @throws UncheckedIOException if the directory cannot be opened
+	 */
+	public CartWriteAheadLog(Path directory) {
+		this.directory = directory;
+		try {
+			Files.createDirectories(directory);
+			sequence = segments().stream().mapToLong(CartWriteAheadLog::sequenceOf).max().orElse(0) + 1;
+			writer = open(sequence);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Appends the new quantity of a cart line.
+	 *
+	 * @param cartId   the ID of the cart line
+	 * @param watchQty the new quantity, 0 when the line is deleted
+	 * @throws UncheckedIOException if the change cannot be written
+	 */
+	public synchronized void append(int cartId, int watchQty) {
+		try {
+			writer.write(cartId + " " + watchQty + "\n");
+			writer.flush();
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Closes the open segment and appends to a new one from now on.
+	 *
+	 * @return the sequence number of the closed segment
+	 * @throws UncheckedIOException if the new segment cannot be opened
+	 */
+	public synchronized long rotate() {
+		try {
+			writer.close();
+			writer = open(sequence + 1);
+			return sequence++;
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Reads the closed segments up to a sequence number, oldest first. An entry
+	 * without its line end, left by a crash in the middle of an append, is
+	 * skipped.
+	 *
+	 * @param upTo the sequence number of the last segment to read
+	 * @return the last quantity of every cart line changed, 0 for deleted lines
+	 * @throws UncheckedIOException if a segment cannot be read
+	 */
+	public Map<Integer, Integer> read(long upTo) {
+		Map<Integer, Integer> quantities = new LinkedHashMap<>();
+		try {
+			for (Path segment : closedSegments(upTo)) {
+				String content = Files.readString(segment, StandardCharsets.UTF_8);
+				int end = content.lastIndexOf('\n') + 1;
+				if (end < content.length()) {
+					LOGGER.warn("Skipping torn cart log entry '{}' in {}", content.substring(end), segment);
+				}
+				content.substring(0, end).lines().forEach(line -> {
+					String[] fields = line.split(" ");
+					quantities.put(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]));
+				});
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return quantities;
+	}
+
+	/**
+	 * Deletes the closed segments up to a sequence number, once their changes
+	 * are in the database.
+	 *
+	 * @param upTo the sequence number of the last segment to delete
+	 * @throws UncheckedIOException if a segment cannot be deleted
+	 */
+	public void release(long upTo) {
+		try {
+			for (Path segment : closedSegments(upTo)) {
+				Files.deleteIfExists(segment);
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		try {
+			writer.close();
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	private BufferedWriter open(long segment) throws IOException {
+		return Files.newBufferedWriter(directory.resolve(SEGMENT_PREFIX + segment + SEGMENT_SUFFIX),
+				StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+	}
+
+	private List<Path> closedSegments(long upTo) throws IOException {
+		List<Path> closed = new ArrayList<>();
+		for (Path segment : segments()) {
+			if (sequenceOf(segment) <= upTo) {
+				closed.add(segment);
+			}
+		}
+		closed.sort((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)));
+		return closed;
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> {
+				String name = file.getFileName().toString();
+				return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+			}).toList();
+		}
+	}
+
+	private static long sequenceOf(Path segment) {
+		String name = segment.getFileName().toString();
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+	}
+}
@@ -0,0 +1,114 @@
+package com.nagarro.watchstore.cart;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nagarro.watchstore.dao.CartRepository;
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.dao.projection.CartLineView;
+import com.nagarro.watchstore.entity.Cart;
+import com.nagarro.watchstore.entity.Watch;
+
+/**
+ * Keeps the cart lines in the Carts table, every change being written as it
+ * is made. Adds are single conditional statements and bulk operations lock the
+ * lines they change, so concurrent requests never lose a change.
+ * 
+ * @author yogesh04
+ */
+@Component
+@ConditionalOnProperty(name = "watchstore.cart.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaCartStore implements CartStore {
+
+	private final CartRepository cartRepository;
+
+	private final WatchDao watchDao;
+
+	@Autowired
+	public JpaCartStore(final CartRepository cartRepository, final WatchDao watchDao) {
+		super();
+		this.cartRepository = cartRepository;
+		this.watchDao = watchDao;
+	}
+
+	@Override
+	public List<Cart> findByUserId(final String userId) {
+		return cartRepository.findByUserId(userId);
+	}
+
+	@Override
+	public List<CartLineView> findViewsByUserId(final String userId) {
+		return cartRepository.findViewsByUserId(userId);
+	}
+
+	@Override
+	public Optional<Cart> findById(final int cartId) {
+		return cartRepository.findById(cartId);
+	}
+
+	@Override
+	public boolean incrementWatchQty(final String userId, final String watchModel) {
+		return cartRepository.incrementWatchQty(userId, watchModel) == 1;
+	}
+
+	@Override
+	public boolean addLine(final String userId, final Watch watch) {
+		final Cart cart = new Cart();
+		cart.setWatch(watch);
+		cart.setUserId(userId);
+		cart.setWatchQty(1);
+		try {
+			cartRepository.save(cart);
+			return true;
+		} catch (DataIntegrityViolationException exception) {
+			// the line exists, possibly just created by a parallel add
+			return false;
+		}
+	}
+
+	@Override
+	public Cart updateWatchQty(final Cart line, final int watchQty) {
+		line.setWatchQty(watchQty);
+		return cartRepository.save(line);
+	}
+
+	@Override
+	public void delete(final Cart line) {
+		cartRepository.deleteById(line.getCartId());
+	}
+
+	@Override
+	@Transactional
+	public List<Cart> applyOperations(final String userId, final List<CartOperation> operations) {
+		final Set<String> watchModels = operations.stream().map(CartOperation::getWatchModel)
+				.collect(Collectors.toSet());
+		// Load the watches first, so the locked lines pick them up from the
+		// persistence context instead of loading them one by one.
+		final Map<String, Watch> watches = new HashMap<>();
+		watchDao.findAllById(watchModels).forEach(watch -> watches.put(watch.getModelNumber(), watch));
+		final Map<String, Cart> lines = new HashMap<>();
+		cartRepository.findByUserIdAndWatchModelNumberIn(userId, watchModels)
+				.forEach(cart -> lines.put(cart.getWatch().getModelNumber(), cart));
+
+		final Map<String, Cart> removedLines = CartLines.applyOperations(userId, lines, watches, operations);
+		lines.values().forEach(line -> CartLines.validateStock(line.getWatch(), line.getWatchQty()));
+		cartRepository.saveAll(lines.values());
+		cartRepository.deleteAll(removedLines.values());
+		return cartRepository.findByUserId(userId);
+	}
+
+	@Override
+	public void flush(final String userId) {
+		// every change is already in the table
+	}
+}
@@ -0,0 +1,440 @@
+package com.nagarro.watchstore.cart;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dao.CartBatchDao;
+import com.nagarro.watchstore.dao.CartRepository;
+import com.nagarro.watchstore.dao.projection.CartLineView;
+import com.nagarro.watchstore.entity.Cart;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.exception.NotFoundException;
+import com.nagarro.watchstore.service.WatchService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the carts in memory in front of the Carts table. A cart is loaded on
+ * its first use, then quantity changes and deletions are applied in memory,
+ * recorded in a {@link CartWriteAheadLog} and written back on an interval,
+ * however many times a line changed in between. New lines are still inserted
+ * as they are created, so that every line has its ID from the start. A line
+ * added again before its deletion is written back takes its old row back
+ * instead, as the row is still in the table.
+ * <p>
+ * Every cart is guarded by its own lock, so the changes of a user never race
+ * while different users never wait for each other. The pending changes of the
+ * last run are written back at startup from the log.
+ *
+ * @author yogesh04
+ */
+@Component
+@ConditionalOnProperty(name = "watchstore.cart.store", havingValue = "write-behind")
+public class WriteBehindCartStore implements CartStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindCartStore.class);
+
+	private final CartRepository cartRepository;
+
+	private final CartBatchDao cartBatchDao;
+
+	private final WatchService watchService;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final CartWriteAheadLog writeAheadLog;
+
+	private final long idleEvictionNanos;
+
+	private final Map<String, UserCart> carts = new ConcurrentHashMap<>();
+
+	private final Map<Integer, String> owners = new ConcurrentHashMap<>();
+
+	private final Object flushLock = new Object();
+
+	@Autowired
+	public WriteBehindCartStore(CartRepository cartRepository, CartBatchDao cartBatchDao, WatchService watchService,
+			PlatformTransactionManager transactionManager,
+			@Value("${watchstore.cart.write-behind.log-dir:cart-log}") String logDirectory,
+			@Value("${watchstore.cart.write-behind.idle-eviction:10m}") Duration idleEviction) {
+		super();
+		this.cartRepository = cartRepository;
+		this.cartBatchDao = cartBatchDao;
+		this.watchService = watchService;
+		// Written back on its own, so that a write-back made for a caller is not
+		// undone when that caller's transaction rolls back.
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.idleEvictionNanos = idleEviction.toNanos();
+		this.writeAheadLog = new CartWriteAheadLog(Paths.get(logDirectory));
+		recover();
+	}
+
+	@Override
+	public List<Cart> findByUserId(String userId) {
+		return withCart(userId, cart -> cart.lines.values().stream().map(this::copy).toList());
+	}
+
+	@Override
+	public List<CartLineView> findViewsByUserId(String userId) {
+		return withCart(userId, cart -> cart.lines.values().stream()
+				.sorted(Comparator.comparingInt(Cart::getCartId)).map(line -> {
+					Watch watch = currentWatch(line);
+					String imagePath = watch.getImages() == null || watch.getImages().isEmpty() ? null
+							: watch.getImages().get(0).getImagePath();
+					return new CartLineView(line.getCartId(), line.getWatchQty(), watch.getModelNumber(),
+							watch.getWatchName(), watch.getWatchBrand(), watch.getWatchType(), watch.getPrice(),
+							watch.getStockQuantity(), watch.isAvailableStatus(), imagePath);
+				}).toList());
+	}
+
+	@Override
+	public Optional<Cart> findById(int cartId) {
+		String userId = owners.get(cartId);
+		if (userId == null) {
+			Optional<Cart> stored = cartRepository.findById(cartId);
+			if (stored.isEmpty()) {
+				return Optional.empty();
+			}
+			userId = stored.get().getUserId();
+		}
+		return withCart(userId, cart -> cart.find(cartId).map(this::copy));
+	}
+
+	@Override
+	public boolean incrementWatchQty(String userId, String watchModel) {
+		return withCart(userId, cart -> {
+			Cart line = cart.lines.get(watchModel);
+			if (line == null || line.getWatchQty() >= currentWatch(line).getStockQuantity()) {
+				return false;
+			}
+			setWatchQty(cart, line, line.getWatchQty() + 1);
+			return true;
+		});
+	}
+
+	@Override
+	public boolean addLine(String userId, Watch watch) {
+		return withCart(userId, cart -> {
+			if (cart.lines.containsKey(watch.getModelNumber())) {
+				return false;
+			}
+			Optional<Cart> removed = reclaim(cart, watch.getModelNumber());
+			if (removed.isPresent()) {
+				setWatchQty(cart, removed.get(), 1);
+				return true;
+			}
+			Cart line = new Cart();
+			line.setWatch(watch);
+			line.setUserId(userId);
+			line.setWatchQty(1);
+			try {
+				insert(cart, List.of(line));
+			} catch (DataIntegrityViolationException exception) {
+				return false;
+			}
+			return true;
+		});
+	}
+
+	@Override
+	public Cart updateWatchQty(Cart line, int watchQty) {
+		return withCart(line.getUserId(), cart -> {
+			Cart stored = cart.find(line.getCartId())
+					.orElseThrow(() -> new NotFoundException("CartId", Constant.CART_NOT_FOUND + line.getCartId()));
+			setWatchQty(cart, stored, watchQty);
+			return copy(stored);
+		});
+	}
+
+	@Override
+	public void delete(Cart line) {
+		withCart(line.getUserId(), cart -> {
+			cart.find(line.getCartId()).ifPresent(stored -> remove(cart, stored));
+			return null;
+		});
+	}
+
+	@Override
+	public List<Cart> applyOperations(String userId, List<CartOperation> operations) {
+		Map<String, Watch> watches = new HashMap<>();
+		for (CartOperation operation : operations) {
+			try {
+				watches.put(operation.getWatchModel(), watchService.getWatchByModel(operation.getWatchModel()));
+			} catch (NotFoundException exception) {
+				// an add of this watch is rejected when applied
+			}
+		}
+		return withCart(userId, cart -> {
+			// Work on copies, so the cart is left as it was if an operation fails.
+			Map<String, Cart> lines = new HashMap<>();
+			cart.lines.forEach((watchModel, line) -> lines.put(watchModel, copy(line)));
+			Map<String, Cart> removedLines = CartLines.applyOperations(userId, lines, watches, operations);
+			lines.values().forEach(line -> CartLines.validateStock(line.getWatch(), line.getWatchQty()));
+
+			removedLines.values().stream().filter(line -> line.getCartId() != 0)
+					.forEach(line -> remove(cart, cart.lines.get(line.getWatch().getModelNumber())));
+			List<Cart> newLines = new ArrayList<>();
+			for (Cart line : lines.values()) {
+				if (line.getCartId() == 0) {
+					Optional<Cart> removed = reclaim(cart, line.getWatch().getModelNumber());
+					if (removed.isPresent()) {
+						setWatchQty(cart, removed.get(), line.getWatchQty());
+					} else {
+						newLines.add(line);
+					}
+					continue;
+				}
+				Cart stored = cart.lines.get(line.getWatch().getModelNumber());
+				if (stored.getWatchQty() != line.getWatchQty()) {
+					setWatchQty(cart, stored, line.getWatchQty());
+				}
+			}
+			if (!newLines.isEmpty()) {
+				insert(cart, newLines);
+			}
+			return cart.lines.values().stream().map(this::copy).toList();
+		});
+	}
+
+	@Override
+	public void flush(String userId) {
+		synchronized (flushLock) {
+			UserCart cart = carts.get(userId);
+			if (cart == null) {
+				return;
+			}
+			synchronized (cart) {
+				if (!cart.dirty.isEmpty()) {
+					write(cart.dirty);
+					cart.dirty.clear();
+					cart.removed.clear();
+				}
+				// The caller changes the table next, so the cart is read again.
+				evict(userId, cart);
+			}
+		}
+	}
+
+	/**
+	 * Writes the pending changes of every cart back to the Carts table in one
+	 * transaction, then drops the carts that have been idle for a while. If the
+	 * write fails, the changes stay pending and in the log for the next flush.
+	 */
+	@Scheduled(fixedDelayString = "${watchstore.cart.write-behind.flush-interval:PT1S}")
+	public void flush() {
+		synchronized (flushLock) {
+			long segment = writeAheadLog.rotate();
+			Map<String, Map<Integer, Integer>> pending = new HashMap<>();
+			Map<Integer, Integer> quantities = new HashMap<>();
+			carts.forEach((userId, cart) -> {
+				synchronized (cart) {
+					if (!cart.dirty.isEmpty()) {
+						pending.put(userId, new HashMap<>(cart.dirty));
+						quantities.putAll(cart.dirty);
+						cart.dirty.clear();
+						cart.deleting.putAll(cart.removed);
+						cart.removed.clear();
+					}
+				}
+			});
+			try {
+				if (!quantities.isEmpty()) {
+					write(quantities);
+				}
+				writeAheadLog.release(segment);
+			} catch (RuntimeException exception) {
+				LOGGER.error("Writing back {} cart lines failed, retrying on the next flush", quantities.size(),
+						exception);
+				pending.forEach((userId, changes) -> {
+					UserCart cart = carts.get(userId);
+					synchronized (cart) {
+						changes.forEach(cart.dirty::putIfAbsent);
+						cart.deleting.forEach(cart.removed::putIfAbsent);
+						cart.deleting.clear();
+						cart.notifyAll();
+					}
+				});
+				return;
+			}
+			pending.keySet().forEach(userId -> {
+				UserCart cart = carts.get(userId);
+				synchronized (cart) {
+					cart.deleting.clear();
+					cart.notifyAll();
+				}
+			});
+			evictIdle();
+		}
+	}
+
+	/**
+	 * Writes every pending change back and closes the log on shutdown.
+	 */
+	@PreDestroy
+	public void close() {
+		flush();
+		writeAheadLog.close();
+	}
+
+	private void recover() {
+		long segment = writeAheadLog.rotate();
+		Map<Integer, Integer> quantities = writeAheadLog.read(segment);
+		if (!quantities.isEmpty()) {
+			write(quantities);
+			LOGGER.info("Recovered {} cart lines from the cart log", quantities.size());
+		}
+		writeAheadLog.release(segment);
+	}
+
+	private <T> T withCart(String userId, Function<UserCart, T> action) {
+		while (true) {
+			UserCart cart = carts.get(userId);
+			if (cart == null) {
+				UserCart loaded = new UserCart();
+				cartRepository.findByUserId(userId)
+						.forEach(line -> loaded.lines.put(line.getWatch().getModelNumber(), line));
+				cart = carts.putIfAbsent(userId, loaded);
+				if (cart == null) {
+					cart = loaded;
+					loaded.lines.values().forEach(line -> owners.put(line.getCartId(), userId));
+				}
+			}
+			synchronized (cart) {
+				if (!cart.evicted) {
+					cart.lastUsed = System.nanoTime();
+					return action.apply(cart);
+				}
+			}
+		}
+	}
+
+	private void setWatchQty(UserCart cart, Cart line, int watchQty) {
+		writeAheadLog.append(line.getCartId(), watchQty);
+		line.setWatchQty(watchQty);
+		cart.dirty.put(line.getCartId(), watchQty);
+	}
+
+	private void remove(UserCart cart, Cart line) {
+		writeAheadLog.append(line.getCartId(), 0);
+		cart.lines.remove(line.getWatch().getModelNumber());
+		cart.removed.put(line.getWatch().getModelNumber(), line);
+		cart.dirty.put(line.getCartId(), 0);
+		owners.remove(line.getCartId());
+	}
+
+	/**
+	 * Takes back the removed line of a watch whose row is still in the table, so
+	 * that adding the watch again reuses the row rather than inserting a second
+	 * one. If the deletion of the row is being written back, waits for it first.
+	 */
+	private Optional<Cart> reclaim(UserCart cart, String watchModel) {
+		while (cart.deleting.containsKey(watchModel)) {
+			try {
+				cart.wait();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while the cart was written back", exception);
+			}
+		}
+		Cart line = cart.removed.remove(watchModel);
+		if (line == null) {
+			return Optional.empty();
+		}
+		cart.lines.put(watchModel, line);
+		owners.put(line.getCartId(), line.getUserId());
+		return Optional.of(line);
+	}
+
+	private void insert(UserCart cart, List<Cart> lines) {
+		cartRepository.saveAll(lines).forEach(line -> {
+			cart.lines.put(line.getWatch().getModelNumber(), line);
+			owners.put(line.getCartId(), line.getUserId());
+		});
+	}
+
+	private void write(Map<Integer, Integer> quantities) {
+		transactionTemplate.executeWithoutResult(status -> cartBatchDao.writeQuantities(quantities));
+	}
+
+	private void evictIdle() {
+		long now = System.nanoTime();
+		carts.forEach((userId, cart) -> {
+			synchronized (cart) {
+				if (cart.dirty.isEmpty() && now - cart.lastUsed > idleEvictionNanos) {
+					evict(userId, cart);
+				}
+			}
+		});
+	}
+
+	private void evict(String userId, UserCart cart) {
+		cart.evicted = true;
+		carts.remove(userId);
+		cart.lines.values().forEach(line -> owners.remove(line.getCartId()));
+	}
+
+	/**
+	 * Copies a line for a caller, with the watch as currently cached so that the
+	 * stock shown and checked is up to date.
+	 */
+	private Cart copy(Cart line) {
+		Cart copy = new Cart();
+		copy.setCartId(line.getCartId());
+		copy.setUserId(line.getUserId());
+		copy.setWatchQty(line.getWatchQty());
+		copy.setWatch(currentWatch(line));
+		return copy;
+	}
+
+	private Watch currentWatch(Cart line) {
+		try {
+			return watchService.getWatchByModel(line.getWatch().getModelNumber());
+		} catch (NotFoundException exception) {
+			return line.getWatch();
+		}
+	}
+
+	/**
+	 * The lines of a user in memory, with the changes not written back yet.
+	 */
+	private static final class UserCart {
+
+		private final Map<String, Cart> lines = new HashMap<>();
+
+		private final Map<Integer, Integer> dirty = new HashMap<>();
+
+		private final Map<String, Cart> removed = new HashMap<>();
+
+		private final Map<String, Cart> deleting = new HashMap<>();
+
+		private boolean evicted;
+
+		private long lastUsed;
+
+		private Optional<Cart> find(int cartId) {
+			return lines.values().stream().filter(line -> line.getCartId() == cartId).findFirst();
+		}
+	}
+}
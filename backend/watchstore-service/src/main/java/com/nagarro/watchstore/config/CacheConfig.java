@@ -0,0 +1,42 @@
+package com.nagarro.watchstore.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nagarro.watchstore.cache.CartViewIndex;
+import com.nagarro.watchstore.constants.Constant;
+
+/**
+ * Enables the Spring cache abstraction. The caches themselves are Caffeine
+ * caches configured through the spring.cache properties, so that their size
+ * and expiry can be tuned without a rebuild.
+ *
+ * @author karan
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	/**
+	 * Builds the cart view cache from the same properties, telling the
+	 * {@link CartViewIndex} about the views the cache drops on its own as they
+	 * expire or make room.
+	 *
+	 * @param cacheProperties the spring.cache properties
+	 * @param cartViewIndex   the index of the cached cart views
+	 * @return the customizer registering the cart view cache
+	 */
+	@Bean
+	public CacheManagerCustomizer<CaffeineCacheManager> cartViewCacheCustomizer(CacheProperties cacheProperties,
+			CartViewIndex cartViewIndex) {
+		String spec = cacheProperties.getCaffeine().getSpec();
+		return cacheManager -> cacheManager.registerCustomCache(Constant.CART_VIEW_CACHE,
+				(spec == null ? Caffeine.newBuilder() : Caffeine.from(spec))
+						.evictionListener((key, views, cause) -> cartViewIndex.forget((String) key, views)).build());
+	}
+}
@@ -0,0 +1,51 @@
+package com.nagarro.watchstore.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.nagarro.watchstore.datasource.ReadYourWritesTracker;
+import com.nagarro.watchstore.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Splits reads from writes once a replica is configured: read-only
+ * transactions, such as order history and notifications, are served by the
+ * replica and leave the primary to checkout and the other writes. Catalog
+ * reads tagged with the catalog version stay on the primary, see
+ * {@link ReadYourWritesTracker}. Without the
+ * watchstore.datasource.replica properties the single spring.datasource is
+ * left as it is.
+ * 
+ * @author karan
+ */
+@Configuration
+@ConditionalOnProperty("watchstore.datasource.replica.jdbc-url")
+public class ReplicaDataSourceConfig {
+
+	@Bean(autowireCandidate = false)
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	@Bean(autowireCandidate = false)
+	@ConfigurationProperties("watchstore.datasource.replica")
+	public HikariDataSource replicaDataSource() {
+		return DataSourceBuilder.create().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(DataSourceProperties properties, ReadYourWritesTracker readYourWritesTracker) {
+		return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource(properties),
+				replicaDataSource(), readYourWritesTracker));
+	}
+}
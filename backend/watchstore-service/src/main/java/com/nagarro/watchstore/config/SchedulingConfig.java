@@ -0,0 +1,17 @@
+package com.nagarro.watchstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled background jobs, such as writing back the carts kept
+ * in memory and sweeping abandoned cart lines. Their intervals are set through
+ * properties.
+ * 
+ * @author karan
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
@@ -0,0 +1,109 @@
+package com.nagarro.watchstore.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which users wrote to the primary database recently, so that their
+ * own reads can be kept off the replica until it has caught up with their
+ * writes. Anonymous requests are never tracked: they have no writes of their
+ * own to read back.
+ * <p>
+ * A thread can also be pinned to the primary whoever the user is, for reads
+ * whose answer is labelled with a version of the primary, such as catalog
+ * responses tagged with the catalog version: read from a lagging replica they
+ * would carry a version their content does not have yet.
+ * 
+ * @author karan
+ */
+@Component
+public class ReadYourWritesTracker {
+
+	private static final int PRUNE_THRESHOLD = 10_000;
+
+	private final long stickinessNanos;
+
+	private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+	private final ThreadLocal<Boolean> pinnedThreads = new ThreadLocal<>();
+
+	@Autowired
+	public ReadYourWritesTracker(@Value("${watchstore.datasource.replica.stickiness:5s}") Duration stickiness) {
+		super();
+		this.stickinessNanos = stickiness.toNanos();
+	}
+
+	/**
+	 * Records that the current user has just committed a write.
+	 */
+	public void recordWrite() {
+		String user = currentUser();
+		if (user == null) {
+			return;
+		}
+		long now = System.nanoTime();
+		lastWrites.put(user, now);
+		if (lastWrites.size() > PRUNE_THRESHOLD) {
+			lastWrites.values().removeIf(writtenAt -> now - writtenAt >= stickinessNanos);
+		}
+	}
+
+	/**
+	 * Keeps the reads of the current thread on the primary until
+	 * {@link #releaseThread()} is called.
+	 */
+	public void pinThread() {
+		pinnedThreads.set(Boolean.TRUE);
+	}
+
+	/**
+	 * Lets the reads of the current thread go back to the replica.
+	 */
+	public void releaseThread() {
+		pinnedThreads.remove();
+	}
+
+	/**
+	 * Tells whether the reads of the current user must go to the primary because
+	 * the replica may not have their last write yet, or because the current
+	 * thread is pinned to it.
+	 *
+	 * @return true if the current thread is pinned or the current user wrote
+	 *         within the stickiness window
+	 */
+	public boolean isPinnedToPrimary() {
+		if (pinnedThreads.get() != null) {
+			return true;
+		}
+		String user = currentUser();
+		if (user == null) {
+			return false;
+		}
+		Long writtenAt = lastWrites.get(user);
+		if (writtenAt == null) {
+			return false;
+		}
+		if (System.nanoTime() - writtenAt < stickinessNanos) {
+			return true;
+		}
+		lastWrites.remove(user, writtenAt);
+		return false;
+	}
+
+	private static String currentUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()
+				|| authentication instanceof AnonymousAuthenticationToken) {
+			return null;
+		}
+		return authentication.getName();
+	}
+}
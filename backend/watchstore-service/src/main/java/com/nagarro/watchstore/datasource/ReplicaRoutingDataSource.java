@@ -0,0 +1,61 @@
+package com.nagarro.watchstore.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends the connections of read-only transactions to a replica and everything
+ * else to the primary. A user who has just written is kept on the primary for
+ * a while, see {@link ReadYourWritesTracker}, and each read-write transaction
+ * that commits records such a write.
+ * <p>
+ * The route is chosen when the connection is fetched, so the routing data
+ * source must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction managers fetch the connection before they publish the
+ * read-only flag of the transaction, the lazy proxy delays the fetch until the
+ * first statement.
+ * 
+ * @author karan
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	/**
+	 * The data sources a connection can be routed to.
+	 */
+	public enum Route {
+		PRIMARY, REPLICA
+	}
+
+	private final ReadYourWritesTracker readYourWritesTracker;
+
+	public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+			ReadYourWritesTracker readYourWritesTracker) {
+		super();
+		this.readYourWritesTracker = readYourWritesTracker;
+		setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Route determineCurrentLookupKey() {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return readYourWritesTracker.isPinnedToPrimary() ? Route.PRIMARY : Route.REPLICA;
+		}
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					readYourWritesTracker.recordWrite();
+				}
+			});
+		}
+		return Route.PRIMARY;
+	}
+}
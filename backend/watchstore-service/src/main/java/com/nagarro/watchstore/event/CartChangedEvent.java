@@ -0,0 +1,20 @@
+package com.nagarro.watchstore.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever the cart of a user changes, so that what is kept about
+ * that cart, such as the cached cart view, can be dropped.
+ * 
+ * @author yogesh04
+ */
+@Getter
+@AllArgsConstructor
+public class CartChangedEvent {
+
+	/**
+	 * The ID of the user whose cart changed.
+	 */
+	private final String userId;
+}
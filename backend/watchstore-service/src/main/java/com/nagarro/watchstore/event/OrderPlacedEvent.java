@@ -0,0 +1,22 @@
+package com.nagarro.watchstore.event;
+
+import com.nagarro.watchstore.entity.Order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever an order is placed, so that sales figures can be kept up
+ * to date without reading the orders back.
+ * 
+ * @author karan
+ */
+@Getter
+@AllArgsConstructor
+public class OrderPlacedEvent {
+
+	/**
+	 * The order as it was saved.
+	 */
+	private final Order order;
+}
@@ -0,0 +1,36 @@
+package com.nagarro.watchstore.event;
+
+import com.nagarro.watchstore.entity.Watch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a watch is added or its details or stock change, so that
+ * in-memory views of the catalog can bring themselves up to date.
+ * 
+ * @author karan
+ */
+@Getter
+@AllArgsConstructor
+public class WatchChangedEvent {
+
+	/**
+	 * The watch as it was saved.
+	 */
+	private final Watch watch;
+
+	/**
+	 * Whether the change created the watch, which no cart can hold yet.
+	 */
+	private final boolean created;
+
+	/**
+	 * Creates the event of a change to an existing watch.
+	 *
+	 * @param watch the watch as it was saved
+	 */
+	public WatchChangedEvent(Watch watch) {
+		this(watch, false);
+	}
+}
@@ -0,0 +1,167 @@
+package com.nagarro.watchstore.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.dao.projection.BrandCount;
+import com.nagarro.watchstore.dao.projection.WatchSummary;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * In-memory count of watches per brand, in total and in stock. It is built once
+ * the application is ready and then only adjusted by the difference each
+ * {@link WatchChangedEvent} makes, so listing brands never reads the database.
+ * 
+ * @author karan
+ */
+@Component
+public class BrandFacetIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BrandFacetIndex.class);
+
+	private final WatchDao watchDao;
+
+	private final Map<String, Counts> countsByBrand = new TreeMap<>();
+
+	private final Map<String, Entry> entriesByModel = new HashMap<>();
+
+	private volatile boolean ready;
+
+	@Autowired
+	public BrandFacetIndex(WatchDao watchDao) {
+		super();
+		this.watchDao = watchDao;
+	}
+
+	/**
+	 * Loads every watch from the database and recounts all brands.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		countsByBrand.clear();
+		entriesByModel.clear();
+		List<WatchSummary> summaries = watchDao.findAllSummaries();
+		for (WatchSummary summary : summaries) {
+			put(summary.getModelNumber(), summary.getWatchBrand(),
+					isInStock(summary.isAvailableStatus(), summary.getStockQuantity()));
+		}
+		ready = true;
+		LOGGER.info("Brand facet built with {} brands", countsByBrand.size());
+	}
+
+	/**
+	 * Moves the counts of a watch once the change to it is committed.
+	 *
+	 * @param event the event carrying the changed watch
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(CatalogVersionClock.LISTENER_ORDER)
+	public void onWatchChanged(WatchChangedEvent event) {
+		Watch watch = event.getWatch();
+		update(watch.getModelNumber(), watch.getWatchBrand(),
+				isInStock(watch.isAvailableStatus(), watch.getStockQuantity()));
+	}
+
+	/**
+	 * Records the current brand and stock state of a watch.
+	 *
+	 * @param modelNumber the model number of the watch
+	 * @param watchBrand  the brand of the watch
+	 * @param inStock     whether the watch can currently be ordered
+	 */
+	public synchronized void update(String modelNumber, String watchBrand, boolean inStock) {
+		put(modelNumber, watchBrand, inStock);
+	}
+
+	/**
+	 * Lists the brands having at least one watch.
+	 *
+	 * @return the brands in alphabetical order
+	 */
+	public synchronized List<String> getBrands() {
+		return new ArrayList<>(countsByBrand.keySet());
+	}
+
+	/**
+	 * Lists the watch counts of every brand.
+	 *
+	 * @return the counts in alphabetical order of brand
+	 */
+	public synchronized List<BrandCount> getBrandCounts() {
+		List<BrandCount> brandCounts = new ArrayList<>(countsByBrand.size());
+		countsByBrand.forEach((brand, counts) -> brandCounts.add(new Snapshot(brand, counts.total, counts.inStock)));
+		return brandCounts;
+	}
+
+	/**
+	 * Tells whether the facet has been built and can answer.
+	 *
+	 * @return true once the facet is built
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	private static boolean isInStock(boolean availableStatus, int stockQuantity) {
+		return availableStatus && stockQuantity > 0;
+	}
+
+	private void put(String modelNumber, String watchBrand, boolean inStock) {
+		Entry previous = entriesByModel.put(modelNumber, new Entry(watchBrand, inStock));
+		if (previous != null && previous.watchBrand != null) {
+			Counts counts = countsByBrand.get(previous.watchBrand);
+			counts.total--;
+			if (previous.inStock) {
+				counts.inStock--;
+			}
+			if (counts.total == 0) {
+				countsByBrand.remove(previous.watchBrand);
+			}
+		}
+		if (watchBrand == null) {
+			return;
+		}
+		Counts counts = countsByBrand.computeIfAbsent(watchBrand, brand -> new Counts());
+		counts.total++;
+		if (inStock) {
+			counts.inStock++;
+		}
+	}
+
+	private static final class Counts {
+		private long total;
+		private long inStock;
+	}
+
+	@AllArgsConstructor
+	private static final class Entry {
+		private final String watchBrand;
+		private final boolean inStock;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	private static final class Snapshot implements BrandCount {
+		private final String watchBrand;
+		private final long total;
+		private final long inStock;
+	}
+}
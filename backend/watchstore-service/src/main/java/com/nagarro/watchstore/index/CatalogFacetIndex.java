@@ -0,0 +1,367 @@
+package com.nagarro.watchstore.index;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.dao.projection.WatchSummary;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+
+/**
+ * Bitmap indexes over the filterable facets of the catalog. Every watch gets a
+ * dense document number, and every brand, watch type, availability status and
+ * price band keeps a bitmap of the documents having it. A filter is answered by
+ * OR-ing the bitmaps of the values asked for within a facet and AND-ing the
+ * facets together.
+ * <p>
+ * Document numbers are handed out in the order watches are indexed and never
+ * change, so a new watch only appends to the bitmaps. A page is cut from the
+ * matches by keeping the lowest model numbers after the cursor in a heap the
+ * size of the page, and only that page is sorted.
+ * <p>
+ * Price bands are fixed ranges between the configured edges. Bands lying fully
+ * inside the requested price range are taken as a whole, the at most two bands
+ * cut by its bounds are checked watch by watch.
+ * <p>
+ * The index is built once the application is ready and kept current through
+ * {@link WatchChangedEvent}. Until it is built {@link #isReady()} is false and
+ * callers are expected to fall back to the database.
+ * 
+ * @author karan
+ */
+@Component
+public class CatalogFacetIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CatalogFacetIndex.class);
+
+	private final WatchDao watchDao;
+
+	private final BigDecimal[] priceBandEdges;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final List<Doc> docs = new ArrayList<>();
+
+	private final Map<String, Integer> docByModelNumber = new HashMap<>();
+
+	private final BitSet allDocs = new BitSet();
+
+	private final BitSet availableDocs = new BitSet();
+
+	private final Map<String, BitSet> docsByBrand = new HashMap<>();
+
+	private final Map<WatchType, BitSet> docsByType = new EnumMap<>(WatchType.class);
+
+	private final BitSet[] docsByPriceBand;
+
+	private volatile boolean ready;
+
+	/**
+	 * The changes indexed while a rebuild reads the database, replayed over its
+	 * snapshot, which may have been read before they were committed; null when
+	 * no rebuild is running.
+	 */
+	private List<Runnable> changesDuringRebuild;
+
+	@Autowired
+	public CatalogFacetIndex(WatchDao watchDao,
+			@Value("${watchstore.catalog.price-bands:1000,2500,5000,10000,25000,50000,100000}") BigDecimal[] priceBandEdges) {
+		super();
+		this.watchDao = watchDao;
+		this.priceBandEdges = priceBandEdges.clone();
+		this.docsByPriceBand = new BitSet[priceBandEdges.length + 1];
+		for (int band = 0; band < docsByPriceBand.length; band++) {
+			docsByPriceBand[band] = new BitSet();
+		}
+	}
+
+	/**
+	 * Loads every watch from the database and replaces the content of the index.
+	 * A watch changed while the database is read keeps the facet values of the
+	 * change rather than those of the snapshot.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		lock.writeLock().lock();
+		try {
+			changesDuringRebuild = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		List<WatchSummary> summaries;
+		try {
+			summaries = watchDao.findAllSummaries();
+		} catch (RuntimeException exception) {
+			lock.writeLock().lock();
+			try {
+				changesDuringRebuild = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw exception;
+		}
+		lock.writeLock().lock();
+		try {
+			docs.clear();
+			docByModelNumber.clear();
+			allDocs.clear();
+			availableDocs.clear();
+			docsByBrand.clear();
+			docsByType.clear();
+			for (BitSet bits : docsByPriceBand) {
+				bits.clear();
+			}
+			for (WatchSummary summary : summaries) {
+				put(summary.getModelNumber(), summary.getWatchBrand(), summary.getWatchType(), summary.getPrice(),
+						summary.isAvailableStatus());
+			}
+			changesDuringRebuild.forEach(Runnable::run);
+			changesDuringRebuild = null;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		LOGGER.info("Catalog facets built with {} watches", summaries.size());
+	}
+
+	/**
+	 * Re-indexes a watch once the change to it is committed.
+	 *
+	 * @param event the event carrying the changed watch
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(CatalogVersionClock.LISTENER_ORDER)
+	public void onWatchChanged(WatchChangedEvent event) {
+		Watch watch = event.getWatch();
+		index(watch.getModelNumber(), watch.getWatchBrand(), watch.getWatchType(), watch.getPrice(),
+				watch.isAvailableStatus());
+	}
+
+	/**
+	 * Adds a watch to the index or moves it to its new facet values.
+	 *
+	 * @param modelNumber     the model number of the watch
+	 * @param watchBrand      the brand of the watch
+	 * @param watchType       the type of the watch
+	 * @param price           the price of the watch
+	 * @param availableStatus the availability status of the watch
+	 */
+	public void index(String modelNumber, String watchBrand, WatchType watchType, BigDecimal price,
+			boolean availableStatus) {
+		lock.writeLock().lock();
+		try {
+			put(modelNumber, watchBrand, watchType, price, availableStatus);
+			if (changesDuringRebuild != null) {
+				changesDuringRebuild.add(() -> put(modelNumber, watchBrand, watchType, price, availableStatus));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds a page of the watches matching a filter.
+	 *
+	 * @param filter           the criteria to match
+	 * @param afterModelNumber the model number to continue after, null for the
+	 *                         first page
+	 * @param limit            the most model numbers to return
+	 * @return the model numbers of the matching watches after the cursor, in
+	 *         ascending order
+	 */
+	public List<String> filter(CatalogFilter filter, String afterModelNumber, int limit) {
+		lock.readLock().lock();
+		try {
+			BitSet result = (BitSet) allDocs.clone();
+			if (filter.getBrands() != null && !filter.getBrands().isEmpty()) {
+				result.and(unionOfBrands(filter.getBrands()));
+			}
+			if (filter.getTypes() != null && !filter.getTypes().isEmpty()) {
+				result.and(unionOfTypes(filter.getTypes()));
+			}
+			if (filter.getAvailableStatus() != null) {
+				if (filter.getAvailableStatus()) {
+					result.and(availableDocs);
+				} else {
+					result.andNot(availableDocs);
+				}
+			}
+			if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+				result.and(inPriceRange(filter.getMinPrice(), filter.getMaxPrice()));
+			}
+			return page(result, afterModelNumber, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Picks the lowest model numbers after the cursor among the matches, keeping
+	 * the highest of those picked so far on top of the heap to be replaced.
+	 */
+	private List<String> page(BitSet result, String afterModelNumber, int limit) {
+		if (limit <= 0) {
+			return new ArrayList<>();
+		}
+		PriorityQueue<String> lowest = new PriorityQueue<>(Math.min(limit, docs.size()) + 1,
+				Comparator.reverseOrder());
+		for (int doc = result.nextSetBit(0); doc >= 0; doc = result.nextSetBit(doc + 1)) {
+			String modelNumber = docs.get(doc).modelNumber;
+			if (afterModelNumber != null && modelNumber.compareTo(afterModelNumber) <= 0) {
+				continue;
+			}
+			if (lowest.size() < limit) {
+				lowest.add(modelNumber);
+			} else if (modelNumber.compareTo(lowest.peek()) < 0) {
+				lowest.poll();
+				lowest.add(modelNumber);
+			}
+		}
+		List<String> modelNumbers = new ArrayList<>(lowest);
+		Collections.sort(modelNumbers);
+		return modelNumbers;
+	}
+
+	private BitSet unionOfBrands(Set<String> brands) {
+		BitSet union = new BitSet();
+		for (String brand : brands) {
+			BitSet bits = docsByBrand.get(brandKey(brand));
+			if (bits != null) {
+				union.or(bits);
+			}
+		}
+		return union;
+	}
+
+	private BitSet unionOfTypes(Set<WatchType> types) {
+		BitSet union = new BitSet();
+		for (WatchType type : types) {
+			BitSet bits = docsByType.get(type);
+			if (bits != null) {
+				union.or(bits);
+			}
+		}
+		return union;
+	}
+
+	private BitSet inPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+		BitSet union = new BitSet();
+		int lowBand = minPrice == null ? 0 : priceBand(minPrice);
+		int highBand = maxPrice == null ? docsByPriceBand.length - 1 : priceBand(maxPrice);
+		for (int band = lowBand; band <= highBand; band++) {
+			if ((band == lowBand && minPrice != null) || (band == highBand && maxPrice != null)) {
+				BitSet bits = docsByPriceBand[band];
+				for (int doc = bits.nextSetBit(0); doc >= 0; doc = bits.nextSetBit(doc + 1)) {
+					BigDecimal price = docs.get(doc).price;
+					if ((minPrice == null || price.compareTo(minPrice) >= 0)
+							&& (maxPrice == null || price.compareTo(maxPrice) <= 0)) {
+						union.set(doc);
+					}
+				}
+			} else {
+				union.or(docsByPriceBand[band]);
+			}
+		}
+		return union;
+	}
+
+	/**
+	 * Tells whether the index has been built and can answer filters.
+	 *
+	 * @return true once the index is built
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	private int priceBand(BigDecimal price) {
+		int band = 0;
+		while (band < priceBandEdges.length && price.compareTo(priceBandEdges[band]) >= 0) {
+			band++;
+		}
+		return band;
+	}
+
+	private static String brandKey(String watchBrand) {
+		return watchBrand.toLowerCase(Locale.ROOT);
+	}
+
+	private void put(String modelNumber, String watchBrand, WatchType watchType, BigDecimal price,
+			boolean availableStatus) {
+		Integer known = docByModelNumber.get(modelNumber);
+		int doc;
+		if (known != null) {
+			doc = known;
+			clear(doc, docs.get(doc));
+		} else {
+			doc = docs.size();
+			docs.add(null);
+			docByModelNumber.put(modelNumber, doc);
+		}
+		Doc entry = new Doc(modelNumber, watchBrand == null ? null : brandKey(watchBrand), watchType,
+				price == null ? BigDecimal.ZERO : price);
+		docs.set(doc, entry);
+		allDocs.set(doc);
+		availableDocs.set(doc, availableStatus);
+		if (entry.brandKey != null) {
+			docsByBrand.computeIfAbsent(entry.brandKey, key -> new BitSet()).set(doc);
+		}
+		if (watchType != null) {
+			docsByType.computeIfAbsent(watchType, key -> new BitSet()).set(doc);
+		}
+		docsByPriceBand[priceBand(entry.price)].set(doc);
+	}
+
+	private void clear(int doc, Doc entry) {
+		if (entry.brandKey != null) {
+			BitSet bits = docsByBrand.get(entry.brandKey);
+			bits.clear(doc);
+			if (bits.isEmpty()) {
+				docsByBrand.remove(entry.brandKey);
+			}
+		}
+		if (entry.watchType != null) {
+			docsByType.get(entry.watchType).clear(doc);
+		}
+		docsByPriceBand[priceBand(entry.price)].clear(doc);
+	}
+
+	private static final class Doc {
+		private final String modelNumber;
+		private final String brandKey;
+		private final WatchType watchType;
+		private final BigDecimal price;
+
+		private Doc(String modelNumber, String brandKey, WatchType watchType, BigDecimal price) {
+			this.modelNumber = modelNumber;
+			this.brandKey = brandKey;
+			this.watchType = watchType;
+			this.price = price;
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.nagarro.watchstore.index;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import com.nagarro.watchstore.enums.WatchType;
+
+import lombok.Data;
+
+/**
+ * Criteria to narrow the catalog with. A watch matches when it satisfies every
+ * criterion that is set; within brands and types any one value is enough.
+ * Criteria left null or empty are not applied.
+ * 
+ * @author karan
+ */
+@Data
+public class CatalogFilter {
+
+	/**
+	 * The brands to keep, compared ignoring case.
+	 */
+	private Set<String> brands;
+
+	/**
+	 * The watch types to keep.
+	 */
+	private Set<WatchType> types;
+
+	/**
+	 * The lowest price to keep, inclusive.
+	 */
+	private BigDecimal minPrice;
+
+	/**
+	 * The highest price to keep, inclusive.
+	 */
+	private BigDecimal maxPrice;
+
+	/**
+	 * The availability status to keep.
+	 */
+	private Boolean availableStatus;
+
+}
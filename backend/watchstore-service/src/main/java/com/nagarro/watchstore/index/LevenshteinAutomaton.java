@@ -0,0 +1,147 @@
+package com.nagarro.watchstore.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+
+/**
+ * Accepts the terms within a maximum number of edits of a given term, an edit
+ * being the insertion, deletion or substitution of one character or the
+ * transposition of two adjacent ones.
+ * <p>
+ * The automaton is run as the rows of the edit distance table, one row per
+ * character read, and a state is dead once every cell of its row exceeds the
+ * maximum number of edits: no continuation can be accepted any more. Walking a
+ * sorted dictionary, the rows of the prefix shared with the previous term are
+ * reused, and when a prefix dies the walk seeks straight past every term
+ * starting with it. Only the neighbourhood of the term is visited, not the
+ * whole dictionary.
+ *
+ * @author karan
+ */
+public final class LevenshteinAutomaton {
+
+	private final String term;
+
+	private final int maxEdits;
+
+	private final int prefixLength;
+
+	private final List<int[]> rows = new ArrayList<>();
+
+	private int visited;
+
+	public LevenshteinAutomaton(String term, int maxEdits, int prefixLength) {
+		this.term = term;
+		this.maxEdits = maxEdits;
+		this.prefixLength = Math.min(prefixLength, term.length());
+		int[] first = new int[term.length() + 1];
+		for (int j = 0; j < first.length; j++) {
+			first[j] = j;
+		}
+		rows.add(first);
+	}
+
+	/**
+	 * Finds the terms of a dictionary accepted by the automaton.
+	 *
+	 * @param dictionary the terms to walk, in natural order
+	 * @return the accepted terms, in dictionary order
+	 */
+	public List<String> intersect(NavigableSet<String> dictionary) {
+		List<String> accepted = new ArrayList<>();
+		visited = 0;
+		String previous = "";
+		int valid = 0;
+		String prefix = term.substring(0, prefixLength);
+		String end = prefix.isEmpty() ? null : successor(prefix);
+		String candidate = dictionary.ceiling(prefix);
+		while (candidate != null && (end == null || candidate.compareTo(end) < 0)) {
+			visited++;
+			int depth = Math.min(valid, commonPrefix(previous, candidate));
+			int dead = -1;
+			for (int i = depth; i < candidate.length(); i++) {
+				if (!step(candidate, i)) {
+					dead = i;
+					break;
+				}
+			}
+			previous = candidate;
+			if (dead >= 0) {
+				valid = dead + 1;
+				String successor = successor(candidate.substring(0, dead + 1));
+				candidate = successor == null ? null : dictionary.ceiling(successor);
+			} else {
+				valid = candidate.length();
+				if (rows.get(candidate.length())[term.length()] <= maxEdits) {
+					accepted.add(candidate);
+				}
+				candidate = dictionary.higher(candidate);
+			}
+		}
+		return accepted;
+	}
+
+	/**
+	 * Returns the number of dictionary terms the last
+	 * {@link #intersect(NavigableSet)} looked at.
+	 *
+	 * @return the number of terms visited
+	 */
+	public int getVisited() {
+		return visited;
+	}
+
+	/**
+	 * Computes the row after reading character i of the candidate and tells
+	 * whether it is still alive.
+	 */
+	private boolean step(String candidate, int i) {
+		int[] previous = rows.get(i);
+		int[] row = i + 1 < rows.size() ? rows.get(i + 1) : new int[term.length() + 1];
+		if (i + 1 == rows.size()) {
+			rows.add(row);
+		}
+		char c = candidate.charAt(i);
+		row[0] = i + 1;
+		int min = row[0];
+		for (int j = 1; j <= term.length(); j++) {
+			int cost = term.charAt(j - 1) == c ? 0 : 1;
+			int value = Math.min(Math.min(previous[j] + 1, row[j - 1] + 1), previous[j - 1] + cost);
+			if (i > 0 && j > 1 && term.charAt(j - 1) == candidate.charAt(i - 1)
+					&& term.charAt(j - 2) == c) {
+				value = Math.min(value, rows.get(i - 1)[j - 2] + 1);
+			}
+			row[j] = value;
+			min = Math.min(min, value);
+		}
+		return min <= maxEdits;
+	}
+
+	private static int commonPrefix(String a, String b) {
+		int max = Math.min(a.length(), b.length());
+		int i = 0;
+		while (i < max && a.charAt(i) == b.charAt(i)) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Returns the smallest string greater than every string starting with the
+	 * prefix, or null if there is none.
+	 */
+	private static String successor(String prefix) {
+		StringBuilder builder = new StringBuilder(prefix);
+		while (builder.length() > 0) {
+			int last = builder.length() - 1;
+			char c = builder.charAt(last);
+			if (c < Character.MAX_VALUE) {
+				builder.setCharAt(last, (char) (c + 1));
+				return builder.toString();
+			}
+			builder.setLength(last);
+		}
+		return null;
+	}
+}
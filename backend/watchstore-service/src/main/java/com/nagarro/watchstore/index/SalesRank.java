@@ -0,0 +1,18 @@
+package com.nagarro.watchstore.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The number of units of a watch sold within a sales window.
+ * 
+ * @author karan
+ */
+@Getter
+@AllArgsConstructor
+public class SalesRank {
+
+	private final String modelNumber;
+
+	private final long unitsSold;
+}
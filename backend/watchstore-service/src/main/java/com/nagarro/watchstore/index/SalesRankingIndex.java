@@ -0,0 +1,391 @@
+package com.nagarro.watchstore.index;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nagarro.watchstore.dao.OrderDao;
+import com.nagarro.watchstore.dao.projection.OrderSale;
+import com.nagarro.watchstore.entity.Order;
+import com.nagarro.watchstore.entity.OrderLine;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.event.OrderPlacedEvent;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+
+/**
+ * In-memory ranking of the best-selling watches over each {@link SalesWindow},
+ * overall, per brand, per watch type and per brand and type together.
+ * <p>
+ * Every watch sold keeps one ring of bucket counts per window and the total of
+ * each ring. The rings of all watches turn together: when a bucket falls out of
+ * a window its counts are subtracted from the totals and it is reused for the
+ * newest bucket. The totals are kept sorted in one tree per window and scope,
+ * so the top k sellers are simply the first k entries of a tree. The index is
+ * built from the orders of the longest window once the application is ready and
+ * then only updated by the {@link OrderPlacedEvent} of each committed order.
+ * Until it is built {@link #isReady()} is false and callers are expected to
+ * fall back to the database.
+ * 
+ * @author karan
+ */
+@Component
+public class SalesRankingIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SalesRankingIndex.class);
+
+	private static final SalesWindow[] WINDOWS = SalesWindow.values();
+
+	private final OrderDao orderDao;
+
+	private final Clock clock;
+
+	private final Map<String, Sales> salesByModel = new HashMap<>();
+
+	private final long[] heads = new long[WINDOWS.length];
+
+	private final List<Map<String, NavigableSet<Sales>>> rankings = new ArrayList<>(WINDOWS.length);
+
+	private final List<Comparator<Sales>> comparators = new ArrayList<>(WINDOWS.length);
+
+	private final Object rebuildLock = new Object();
+
+	private volatile boolean ready;
+
+	/**
+	 * The sales and changes recorded while a rebuild reads the database,
+	 * replayed over its snapshot; null when no rebuild is running. Only the
+	 * sales made from the time of the snapshot on are kept, the snapshot holding
+	 * the orders placed before it.
+	 */
+	private List<Runnable> changesDuringRebuild;
+
+	private Instant snapshotTime;
+
+	@Autowired
+	public SalesRankingIndex(OrderDao orderDao) {
+		this(orderDao, Clock.systemDefaultZone());
+	}
+
+	public SalesRankingIndex(OrderDao orderDao, Clock clock) {
+		super();
+		this.orderDao = orderDao;
+		this.clock = clock;
+		for (SalesWindow window : WINDOWS) {
+			int w = window.ordinal();
+			heads[w] = window.bucketOf(clock.millis());
+			rankings.add(new HashMap<>());
+			comparators.add(Comparator.<Sales>comparingLong(sales -> sales.totals[w]).reversed()
+					.thenComparing(sales -> sales.modelNumber));
+		}
+	}
+
+	/**
+	 * Loads the sales of the longest window up to now from the database and
+	 * ranks them again. An order placed from now on is counted from its
+	 * {@link OrderPlacedEvent} alone, even if the database already shows it.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		synchronized (rebuildLock) {
+			Instant snapshot;
+			synchronized (this) {
+				snapshot = clock.instant();
+				snapshotTime = snapshot;
+				changesDuringRebuild = new ArrayList<>();
+			}
+			List<OrderSale> sales;
+			try {
+				sales = orderDao.findSalesBetween(
+						LocalDateTime.ofInstant(snapshot.minus(SalesWindow.MONTH.getLength()), clock.getZone()),
+						LocalDateTime.ofInstant(snapshot, clock.getZone()));
+			} catch (RuntimeException exception) {
+				synchronized (this) {
+					changesDuringRebuild = null;
+				}
+				throw exception;
+			}
+			synchronized (this) {
+				salesByModel.clear();
+				rankings.forEach(Map::clear);
+				for (SalesWindow window : WINDOWS) {
+					heads[window.ordinal()] = window.bucketOf(snapshot.toEpochMilli());
+				}
+				for (OrderSale sale : sales) {
+					add(sale.getModelNumber(), sale.getWatchBrand(), sale.getWatchType(), sale.getQuantity(),
+							toEpochMillis(sale.getTimestamp()));
+				}
+				advance(clock.millis());
+				changesDuringRebuild.forEach(Runnable::run);
+				changesDuringRebuild = null;
+				ready = true;
+				LOGGER.info("Sales ranking built from {} order lines of {} watches", sales.size(),
+						salesByModel.size());
+			}
+		}
+	}
+
+	/**
+	 * Counts the watches of an order once the order is committed.
+	 *
+	 * @param event the event carrying the placed order
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderPlaced(OrderPlacedEvent event) {
+		Order order = event.getOrder();
+		Instant soldAt = order.getTimestamp() == null ? clock.instant()
+				: Instant.ofEpochMilli(toEpochMillis(order.getTimestamp()));
+		for (OrderLine line : order.getLines()) {
+			Watch watch = line.getWatch();
+			record(watch.getModelNumber(), watch.getWatchBrand(), watch.getWatchType(), line.getQuantity(), soldAt);
+		}
+	}
+
+	/**
+	 * Moves the sales of a watch to its new brand or type once the change to it
+	 * is committed.
+	 *
+	 * @param event the event carrying the changed watch
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	@org.springframework.core.annotation.Order(CatalogVersionClock.LISTENER_ORDER)
+	public synchronized void onWatchChanged(WatchChangedEvent event) {
+		Watch watch = event.getWatch();
+		move(watch.getModelNumber(), watch.getWatchBrand(), watch.getWatchType());
+		if (changesDuringRebuild != null) {
+			changesDuringRebuild.add(() -> move(watch.getModelNumber(), watch.getWatchBrand(), watch.getWatchType()));
+		}
+	}
+
+	/**
+	 * Counts units of a watch sold at a given time.
+	 *
+	 * @param modelNumber the model number of the watch
+	 * @param watchBrand  the brand of the watch
+	 * @param watchType   the type of the watch
+	 * @param quantity    the number of units sold
+	 * @param soldAt      the time of the sale
+	 */
+	public synchronized void record(String modelNumber, String watchBrand, WatchType watchType, int quantity,
+			Instant soldAt) {
+		advance(clock.millis());
+		add(modelNumber, watchBrand, watchType, quantity, soldAt.toEpochMilli());
+		if (changesDuringRebuild != null && !soldAt.isBefore(snapshotTime)) {
+			changesDuringRebuild.add(() -> add(modelNumber, watchBrand, watchType, quantity, soldAt.toEpochMilli()));
+		}
+	}
+
+	/**
+	 * Lists the best sellers of a window, reading no more entries than asked
+	 * for.
+	 *
+	 * @param window     the window to rank over
+	 * @param watchBrand the brand to rank within, or null for every brand
+	 * @param watchType  the type to rank within, or null for every type
+	 * @param limit      the maximum number of watches to return
+	 * @return the best sellers, most units sold first
+	 */
+	public synchronized List<SalesRank> getTopSellers(SalesWindow window, String watchBrand, WatchType watchType,
+			int limit) {
+		advance(clock.millis());
+		NavigableSet<Sales> ranking = rankings.get(window.ordinal()).get(scope(watchBrand, watchType));
+		if (ranking == null) {
+			return List.of();
+		}
+		List<SalesRank> topSellers = new ArrayList<>(Math.min(limit, ranking.size()));
+		for (Sales sales : ranking) {
+			if (topSellers.size() == limit) {
+				break;
+			}
+			topSellers.add(new SalesRank(sales.modelNumber, sales.totals[window.ordinal()]));
+		}
+		return topSellers;
+	}
+
+	/**
+	 * Tells whether the ranking has been built and can answer.
+	 *
+	 * @return true once the ranking is built
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	private void move(String modelNumber, String watchBrand, WatchType watchType) {
+		Sales sales = salesByModel.get(modelNumber);
+		if (sales == null || Objects.equals(sales.watchBrand, watchBrand) && sales.watchType == watchType) {
+			return;
+		}
+		unrank(sales);
+		sales.watchBrand = watchBrand;
+		sales.watchType = watchType;
+		rank(sales);
+	}
+
+	private void add(String modelNumber, String watchBrand, WatchType watchType, int quantity, long soldAtMillis) {
+		Sales sales = salesByModel.computeIfAbsent(modelNumber, Sales::new);
+		unrank(sales);
+		sales.watchBrand = watchBrand;
+		sales.watchType = watchType;
+		for (SalesWindow window : WINDOWS) {
+			int w = window.ordinal();
+			long bucket = Math.min(window.bucketOf(soldAtMillis), heads[w]);
+			if (bucket > heads[w] - window.getBuckets()) {
+				sales.buckets[w][Math.floorMod(bucket, window.getBuckets())] += quantity;
+				sales.totals[w] += quantity;
+			}
+		}
+		rank(sales);
+	}
+
+	/**
+	 * Turns the rings up to the bucket of the given time, taking the counts of
+	 * the buckets left behind out of the totals.
+	 */
+	private void advance(long nowMillis) {
+		boolean expired = false;
+		for (SalesWindow window : WINDOWS) {
+			int w = window.ordinal();
+			long target = window.bucketOf(nowMillis);
+			if (target <= heads[w]) {
+				continue;
+			}
+			expired = true;
+			if (target - heads[w] >= window.getBuckets()) {
+				rankings.get(w).clear();
+				for (Sales sales : salesByModel.values()) {
+					Arrays.fill(sales.buckets[w], 0);
+					sales.totals[w] = 0;
+				}
+			} else {
+				for (long bucket = heads[w] + 1; bucket <= target; bucket++) {
+					int slot = Math.floorMod(bucket, window.getBuckets());
+					for (Sales sales : salesByModel.values()) {
+						int dropped = sales.buckets[w][slot];
+						if (dropped != 0) {
+							unrank(sales, w);
+							sales.buckets[w][slot] = 0;
+							sales.totals[w] -= dropped;
+							rank(sales, w);
+						}
+					}
+				}
+			}
+			heads[w] = target;
+		}
+		if (expired) {
+			salesByModel.values().removeIf(Sales::isEmpty);
+		}
+	}
+
+	private void rank(Sales sales) {
+		for (SalesWindow window : WINDOWS) {
+			rank(sales, window.ordinal());
+		}
+	}
+
+	private void unrank(Sales sales) {
+		for (SalesWindow window : WINDOWS) {
+			unrank(sales, window.ordinal());
+		}
+	}
+
+	private void rank(Sales sales, int w) {
+		if (sales.totals[w] == 0) {
+			return;
+		}
+		Map<String, NavigableSet<Sales>> scopes = rankings.get(w);
+		for (String scope : scopes(sales)) {
+			scopes.computeIfAbsent(scope, key -> new TreeSet<>(comparators.get(w))).add(sales);
+		}
+	}
+
+	private void unrank(Sales sales, int w) {
+		if (sales.totals[w] == 0) {
+			return;
+		}
+		Map<String, NavigableSet<Sales>> scopes = rankings.get(w);
+		for (String scope : scopes(sales)) {
+			NavigableSet<Sales> ranking = scopes.get(scope);
+			if (ranking != null && ranking.remove(sales) && ranking.isEmpty()) {
+				scopes.remove(scope);
+			}
+		}
+	}
+
+	private static List<String> scopes(Sales sales) {
+		List<String> scopes = new ArrayList<>(4);
+		scopes.add(scope(null, null));
+		if (sales.watchBrand != null) {
+			scopes.add(scope(sales.watchBrand, null));
+		}
+		if (sales.watchType != null) {
+			scopes.add(scope(null, sales.watchType));
+		}
+		if (sales.watchBrand != null && sales.watchType != null) {
+			scopes.add(scope(sales.watchBrand, sales.watchType));
+		}
+		return scopes;
+	}
+
+	private static String scope(String watchBrand, WatchType watchType) {
+		return (watchBrand == null ? "" : watchBrand.toLowerCase(Locale.ROOT)) + '\u0000'
+				+ (watchType == null ? "" : watchType.name());
+	}
+
+	private long toEpochMillis(LocalDateTime timestamp) {
+		return timestamp.atZone(clock.getZone()).toInstant().toEpochMilli();
+	}
+
+	/**
+	 * The bucket counts and totals of one watch, a few hundred bytes whatever
+	 * the number of orders.
+	 */
+	private static final class Sales {
+
+		private final String modelNumber;
+
+		private final int[][] buckets = new int[WINDOWS.length][];
+
+		private final long[] totals = new long[WINDOWS.length];
+
+		private String watchBrand;
+
+		private WatchType watchType;
+
+		private Sales(String modelNumber) {
+			this.modelNumber = modelNumber;
+			for (SalesWindow window : WINDOWS) {
+				buckets[window.ordinal()] = new int[window.getBuckets()];
+			}
+		}
+
+		private boolean isEmpty() {
+			for (long total : totals) {
+				if (total != 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
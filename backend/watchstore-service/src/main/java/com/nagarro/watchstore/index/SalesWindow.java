@@ -0,0 +1,62 @@
+package com.nagarro.watchstore.index;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The sliding windows over which watch sales are ranked. Each window is kept as
+ * a ring of buckets, so it slides one bucket at a time: the last 24 hours, for
+ * instance, are the current hour and the 23 before it.
+ * 
+ * @author karan
+ */
+public enum SalesWindow {
+
+	DAY("24h", Duration.ofHours(1), 24), WEEK("7d", Duration.ofHours(6), 28), MONTH("30d", Duration.ofDays(1), 30);
+
+	private final String value;
+
+	private final long bucketMillis;
+
+	private final int buckets;
+
+	SalesWindow(String value, Duration bucket, int buckets) {
+		this.value = value;
+		this.bucketMillis = bucket.toMillis();
+		this.buckets = buckets;
+	}
+
+	/**
+	 * Returns the window written as in a request parameter, such as 24h.
+	 *
+	 * @param value the written window
+	 * @return the window, or empty if there is none such
+	 */
+	public static Optional<SalesWindow> fromValue(String value) {
+		return Arrays.stream(values()).filter(window -> window.value.equalsIgnoreCase(value)).findFirst();
+	}
+
+	/**
+	 * Returns the number of the bucket holding a time.
+	 *
+	 * @param epochMillis the time, in milliseconds since the epoch
+	 * @return the bucket number, increasing with time
+	 */
+	long bucketOf(long epochMillis) {
+		return Math.floorDiv(epochMillis, bucketMillis);
+	}
+
+	int getBuckets() {
+		return buckets;
+	}
+
+	/**
+	 * Returns the span of the window.
+	 *
+	 * @return the number of buckets times their length
+	 */
+	public Duration getLength() {
+		return Duration.ofMillis(bucketMillis * buckets);
+	}
+}
@@ -0,0 +1,20 @@
+package com.nagarro.watchstore.index;
+
+import com.nagarro.watchstore.entity.Watch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A best-selling watch with the number of units sold within a sales window.
+ * 
+ * @author karan
+ */
+@Getter
+@AllArgsConstructor
+public class TopSeller {
+
+	private final Watch watch;
+
+	private final long unitsSold;
+}
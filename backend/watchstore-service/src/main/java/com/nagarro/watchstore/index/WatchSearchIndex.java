@@ -0,0 +1,422 @@
+package com.nagarro.watchstore.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.dao.projection.WatchSummary;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * In-memory inverted index over the searchable fields of the catalog (model
+ * number, name, brand and type). Every term maps to the model numbers of the
+ * watches containing it. A query matches a watch when each of its terms is a
+ * prefix of at least one term of the watch.
+ * <p>
+ * Matches can be ranked with BM25F: each query term is weighted by how rare it
+ * is in the catalog, and its occurrences in a watch are weighted by field, a
+ * hit in the model number counting more than one in the name, the brand or the
+ * type, in that order, and normalized by the length of the field. Only the best
+ * matches are kept while scoring, in a heap bounded by the requested number.
+ * <p>
+ * A query finding nothing is retried tolerating typos in model numbers and
+ * names, one edit being allowed in terms of three to five characters and two
+ * in longer ones, as long as the first character is right. The terms within
+ * reach are found with a
+ * {@link LevenshteinAutomaton} walking the sorted term dictionary.
+ * <p>
+ * The index is built once the application is ready and kept current through
+ * {@link WatchChangedEvent}. Until it is built {@link #isReady()} is false and
+ * callers are expected to fall back to the database.
+ * 
+ * @author karan
+ */
+@Component
+public class WatchSearchIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WatchSearchIndex.class);
+
+	private static final int MODEL = 0;
+	private static final int NAME = 1;
+	private static final int BRAND = 2;
+	private static final int TYPE = 3;
+
+	private static final double[] FIELD_BOOSTS = { 4.0, 3.0, 2.0, 1.0 };
+
+	private static final double K1 = 1.2;
+
+	private static final double B = 0.75;
+
+	private static final int MIN_ONE_EDIT_LENGTH = 3;
+
+	private static final int MIN_TWO_EDITS_LENGTH = 6;
+
+	private static final int FUZZY_PREFIX_LENGTH = 1;
+
+	private static final Comparator<ScoredModel> WORST_FIRST = Comparator.comparingDouble(ScoredModel::getScore)
+			.thenComparing(ScoredModel::getModelNumber, Comparator.reverseOrder());
+
+	private final WatchDao watchDao;
+
+	private final boolean enabled;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final NavigableMap<String, Set<String>> postings = new TreeMap<>();
+
+	private final Map<String, Set<String>> termsByModel = new HashMap<>();
+
+	private final Map<String, String[][]> fieldTermsByModel = new HashMap<>();
+
+	private final long[] fieldLengths = new long[FIELD_BOOSTS.length];
+
+	private final NavigableMap<String, Integer> fuzzyTerms = new TreeMap<>();
+
+	private volatile boolean ready;
+
+	/**
+	 * The changes indexed while a rebuild reads the database, replayed over its
+	 * snapshot, which may have been read before they were committed; null when
+	 * no rebuild is running.
+	 */
+	private List<Runnable> changesDuringRebuild;
+
+	@Autowired
+	public WatchSearchIndex(WatchDao watchDao, @Value("${watchstore.search.index.enabled:true}") boolean enabled) {
+		super();
+		this.watchDao = watchDao;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Loads every watch from the database and replaces the content of the index.
+	 * Watches changed while the database is read are indexed again over what was
+	 * read, so the rebuild never brings back an older version of them.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		if (!enabled) {
+			LOGGER.info("Watch search index is disabled, searches go to the database");
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			changesDuringRebuild = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		Collection<WatchSummary> summaries;
+		try {
+			summaries = watchDao.findAllSummaries();
+		} catch (RuntimeException exception) {
+			lock.writeLock().lock();
+			try {
+				changesDuringRebuild = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw exception;
+		}
+		lock.writeLock().lock();
+		try {
+			postings.clear();
+			termsByModel.clear();
+			fieldTermsByModel.clear();
+			fuzzyTerms.clear();
+			Arrays.fill(fieldLengths, 0);
+			for (WatchSummary summary : summaries) {
+				put(summary.getModelNumber(), summary.getWatchName(), summary.getWatchBrand(),
+						summary.getWatchType());
+			}
+			changesDuringRebuild.forEach(Runnable::run);
+			changesDuringRebuild = null;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		LOGGER.info("Watch search index built with {} watches and {} terms", summaries.size(), postings.size());
+	}
+
+	/**
+	 * Re-indexes a watch once the change to it is committed.
+	 *
+	 * @param event the event carrying the changed watch
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(CatalogVersionClock.LISTENER_ORDER)
+	public void onWatchChanged(WatchChangedEvent event) {
+		Watch watch = event.getWatch();
+		index(watch.getModelNumber(), watch.getWatchName(), watch.getWatchBrand(), watch.getWatchType());
+	}
+
+	/**
+	 * Adds a watch to the index or replaces the terms it was indexed with.
+	 *
+	 * @param modelNumber the model number of the watch
+	 * @param watchName   the name of the watch
+	 * @param watchBrand  the brand of the watch
+	 * @param watchType   the type of the watch
+	 */
+	public void index(String modelNumber, String watchName, String watchBrand, WatchType watchType) {
+		lock.writeLock().lock();
+		try {
+			put(modelNumber, watchName, watchBrand, watchType);
+			if (changesDuringRebuild != null) {
+				changesDuringRebuild.add(() -> put(modelNumber, watchName, watchBrand, watchType));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Searches the index.
+	 *
+	 * @param query the search query
+	 * @return the model numbers of the matching watches, empty if none match
+	 */
+	public Set<String> search(String query) {
+		lock.readLock().lock();
+		try {
+			Match match = match(query);
+			return match == null ? Collections.emptySet() : match.candidates;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Searches the index and ranks the matches by relevance.
+	 *
+	 * @param query the search query
+	 * @param limit the maximum number of matches to return
+	 * @return the model numbers of the best matches, best first, empty if none
+	 *         match
+	 */
+	public List<String> rank(String query, int limit) {
+		if (limit < 1) {
+			return Collections.emptyList();
+		}
+		lock.readLock().lock();
+		try {
+			Match match = match(query);
+			if (match == null) {
+				return Collections.emptyList();
+			}
+			double documents = termsByModel.size();
+			double[] averageLengths = new double[FIELD_BOOSTS.length];
+			for (int field = 0; field < FIELD_BOOSTS.length; field++) {
+				averageLengths[field] = Math.max(1.0, fieldLengths[field] / documents);
+			}
+			PriorityQueue<ScoredModel> best = new PriorityQueue<>(Math.min(limit, match.candidates.size()),
+					WORST_FIRST);
+			for (String modelNumber : match.candidates) {
+				ScoredModel scored = new ScoredModel(modelNumber,
+						score(fieldTermsByModel.get(modelNumber), match, averageLengths));
+				if (best.size() < limit) {
+					best.add(scored);
+				} else if (WORST_FIRST.compare(scored, best.peek()) > 0) {
+					best.poll();
+					best.add(scored);
+				}
+			}
+			String[] ranked = new String[best.size()];
+			for (int i = ranked.length - 1; i >= 0; i--) {
+				ranked[i] = best.poll().getModelNumber();
+			}
+			return Arrays.asList(ranked);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Tells whether the index has been built and can answer searches.
+	 *
+	 * @return true once the index is built
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Finds the watches matching every term of a query, first by prefix and, if
+	 * that finds nothing, tolerating typos: a term without prefix matches is
+	 * replaced by the model number and name terms within a few edits of it, and
+	 * a query of several terms is also tried as a single compacted model number.
+	 */
+	private Match match(String query) {
+		Set<String> queryTerms = WatchTokenizer.tokenize(query);
+		if (queryTerms.isEmpty()) {
+			return null;
+		}
+		Match match = match(queryTerms, false);
+		if (match == null) {
+			match = match(queryTerms, true);
+		}
+		if (match == null && queryTerms.size() > 1) {
+			match = match(Set.of(WatchTokenizer.compact(query)), true);
+		}
+		return match;
+	}
+
+	private Match match(Set<String> queryTerms, boolean fuzzy) {
+		Match match = new Match();
+		double documents = termsByModel.size();
+		for (String queryTerm : queryTerms) {
+			Set<String> terms = postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).keySet();
+			if (terms.isEmpty() && fuzzy) {
+				terms = fuzzyMatches(queryTerm);
+			}
+			Set<String> models = new HashSet<>();
+			for (String term : terms) {
+				models.addAll(postings.get(term));
+			}
+			if (match.candidates == null) {
+				match.candidates = models;
+			} else {
+				match.candidates.retainAll(models);
+			}
+			if (match.candidates.isEmpty()) {
+				return null;
+			}
+			match.terms.add(terms);
+			match.idfs.add(Math.log(1 + (documents - models.size() + 0.5) / (models.size() + 0.5)));
+		}
+		return match;
+	}
+
+	private Set<String> fuzzyMatches(String term) {
+		int maxEdits = term.length() < MIN_ONE_EDIT_LENGTH ? 0 : term.length() < MIN_TWO_EDITS_LENGTH ? 1 : 2;
+		if (maxEdits == 0) {
+			return Collections.emptySet();
+		}
+		return new HashSet<>(new LevenshteinAutomaton(term, maxEdits, FUZZY_PREFIX_LENGTH).intersect(fuzzyTerms.navigableKeySet()));
+	}
+
+	private static double score(String[][] fieldTerms, Match match, double[] averageLengths) {
+		double score = 0;
+		for (int q = 0; q < match.terms.size(); q++) {
+			Set<String> terms = match.terms.get(q);
+			double frequency = 0;
+			for (int field = 0; field < fieldTerms.length; field++) {
+				int hits = 0;
+				for (String term : fieldTerms[field]) {
+					if (terms.contains(term)) {
+						hits++;
+					}
+				}
+				if (hits > 0) {
+					double norm = 1 - B + B * fieldTerms[field].length / averageLengths[field];
+					frequency += FIELD_BOOSTS[field] * hits / norm;
+				}
+			}
+			score += match.idfs.get(q) * frequency * (K1 + 1) / (frequency + K1);
+		}
+		return score;
+	}
+
+	private void put(String modelNumber, String watchName, String watchBrand, WatchType watchType) {
+		remove(modelNumber);
+		Set<String> modelTerms = WatchTokenizer.tokenize(modelNumber);
+		String compactModel = WatchTokenizer.compact(modelNumber);
+		if (!compactModel.isEmpty()) {
+			modelTerms.add(compactModel);
+		}
+		String[][] fieldTerms = new String[FIELD_BOOSTS.length][];
+		fieldTerms[MODEL] = modelTerms.toArray(new String[0]);
+		fieldTerms[NAME] = WatchTokenizer.tokenize(watchName).toArray(new String[0]);
+		fieldTerms[BRAND] = WatchTokenizer.tokenize(watchBrand).toArray(new String[0]);
+		fieldTerms[TYPE] = watchType == null ? new String[0]
+				: WatchTokenizer.tokenize(watchType.name()).toArray(new String[0]);
+
+		Set<String> terms = new HashSet<>();
+		for (int field = 0; field < fieldTerms.length; field++) {
+			terms.addAll(Arrays.asList(fieldTerms[field]));
+			fieldLengths[field] += fieldTerms[field].length;
+		}
+		for (String term : terms) {
+			postings.computeIfAbsent(term, key -> new HashSet<>()).add(modelNumber);
+		}
+		termsByModel.put(modelNumber, terms);
+		fieldTermsByModel.put(modelNumber, fieldTerms);
+		for (String term : fuzzyFieldTerms(fieldTerms)) {
+			fuzzyTerms.merge(term, 1, Integer::sum);
+		}
+	}
+
+	private void remove(String modelNumber) {
+		Set<String> terms = termsByModel.remove(modelNumber);
+		if (terms == null) {
+			return;
+		}
+		String[][] fieldTerms = fieldTermsByModel.remove(modelNumber);
+		for (int field = 0; field < fieldTerms.length; field++) {
+			fieldLengths[field] -= fieldTerms[field].length;
+		}
+		for (String term : fuzzyFieldTerms(fieldTerms)) {
+			fuzzyTerms.computeIfPresent(term, (key, count) -> count == 1 ? null : count - 1);
+		}
+		for (String term : terms) {
+			Set<String> models = postings.get(term);
+			if (models != null) {
+				models.remove(modelNumber);
+				if (models.isEmpty()) {
+					postings.remove(term);
+				}
+			}
+		}
+	}
+
+	private static Set<String> fuzzyFieldTerms(String[][] fieldTerms) {
+		Set<String> terms = new HashSet<>(Arrays.asList(fieldTerms[MODEL]));
+		terms.addAll(Arrays.asList(fieldTerms[NAME]));
+		return terms;
+	}
+
+	/**
+	 * The index terms each query term stands for, with its inverse document
+	 * frequency, and the watches matching all of them.
+	 */
+	private static final class Match {
+		private final List<Set<String>> terms = new ArrayList<>();
+		private final List<Double> idfs = new ArrayList<>();
+		private Set<String> candidates;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	private static final class ScoredModel {
+		private final String modelNumber;
+		private final double score;
+	}
+}
@@ -0,0 +1,28 @@
+package com.nagarro.watchstore.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One completion offered for a partly typed search: the name, brand or model
+ * number of watches in the catalog, with the number of watches carrying it.
+ * 
+ * @author karan
+ */
+@Getter
+@AllArgsConstructor
+public class WatchSuggestion {
+
+	/**
+	 * The field a suggestion comes from.
+	 */
+	public enum Type {
+		NAME, BRAND, MODEL
+	}
+
+	private final String text;
+
+	private final Type type;
+
+	private final int watches;
+}
@@ -0,0 +1,508 @@
+package com.nagarro.watchstore.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.dao.projection.WatchSummary;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+
+/**
+ * Typeahead over watch names, brands and model numbers, held in a radix trie
+ * (a prefix trie whose single-child chains are collapsed into one edge). Every
+ * suggestion is reachable from the start of each of its words, so "prosp"
+ * completes "Seiko Prospex Diver", and model numbers are also reachable with
+ * their punctuation removed.
+ * <p>
+ * Each node keeps the best suggestions of its whole subtree, ranked by the
+ * number of watches carrying them, so a lookup only walks the typed prefix and
+ * copies that list. A {@link WatchChangedEvent} re-ranks only the paths of the
+ * suggestions the watch added or dropped; a change that leaves the name, brand
+ * and model of the watch alone, such as a stock update, costs nothing.
+ * 
+ * @author karan
+ */
+@Component
+public class WatchSuggestionIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WatchSuggestionIndex.class);
+
+	private static final int MAX_KEY_LENGTH = 64;
+
+	private static final Comparator<Entry> RANKING = Comparator.comparingInt((Entry entry) -> -entry.watches)
+			.thenComparing(entry -> entry.text, String.CASE_INSENSITIVE_ORDER)
+			.thenComparing(entry -> entry.type);
+
+	private final WatchDao watchDao;
+
+	private final int maxSuggestions;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	private final Map<String, List<Entry>> entriesByModel = new HashMap<>();
+
+	private Node root = new Node("");
+
+	private volatile boolean ready;
+
+	/**
+	 * The changes indexed while a rebuild reads the database, replayed over its
+	 * snapshot, which may have been read before they were committed; null when
+	 * no rebuild is running.
+	 */
+	private List<Runnable> changesDuringRebuild;
+
+	@Autowired
+	public WatchSuggestionIndex(WatchDao watchDao,
+			@Value("${watchstore.suggest.max-results:10}") int maxSuggestions) {
+		super();
+		this.watchDao = watchDao;
+		this.maxSuggestions = maxSuggestions;
+	}
+
+	/**
+	 * Loads every watch from the database and replaces the content of the index.
+	 * Watches indexed while the database is read are put again over the
+	 * snapshot, which may predate them.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		lock.writeLock().lock();
+		try {
+			changesDuringRebuild = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		List<WatchSummary> summaries;
+		try {
+			summaries = watchDao.findAllSummaries();
+		} catch (RuntimeException exception) {
+			lock.writeLock().lock();
+			try {
+				changesDuringRebuild = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw exception;
+		}
+		lock.writeLock().lock();
+		try {
+			root = new Node("");
+			entries.clear();
+			entriesByModel.clear();
+			for (WatchSummary summary : summaries) {
+				put(summary.getModelNumber(), summary.getWatchName(), summary.getWatchBrand());
+			}
+			changesDuringRebuild.forEach(Runnable::run);
+			changesDuringRebuild = null;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		LOGGER.info("Watch suggestion index built with {} suggestions", entries.size());
+	}
+
+	/**
+	 * Re-indexes a watch once the change to it is committed.
+	 *
+	 * @param event the event carrying the changed watch
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(CatalogVersionClock.LISTENER_ORDER)
+	public void onWatchChanged(WatchChangedEvent event) {
+		Watch watch = event.getWatch();
+		index(watch.getModelNumber(), watch.getWatchName(), watch.getWatchBrand());
+	}
+
+	/**
+	 * Adds a watch to the index or replaces what it was indexed with.
+	 *
+	 * @param modelNumber the model number of the watch
+	 * @param watchName   the name of the watch
+	 * @param watchBrand  the brand of the watch
+	 */
+	public void index(String modelNumber, String watchName, String watchBrand) {
+		lock.writeLock().lock();
+		try {
+			put(modelNumber, watchName, watchBrand);
+			if (changesDuringRebuild != null) {
+				changesDuringRebuild.add(() -> put(modelNumber, watchName, watchBrand));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Completes a partly typed search.
+	 *
+	 * @param prefix the text typed so far
+	 * @param limit  the maximum number of suggestions, at most
+	 *               {@link #getMaxSuggestions()}
+	 * @return the best suggestions, most common first, empty if none match
+	 */
+	public List<WatchSuggestion> suggest(String prefix, int limit) {
+		String key = normalize(prefix);
+		if (key.isEmpty()) {
+			return Collections.emptyList();
+		}
+		lock.readLock().lock();
+		try {
+			Node node = find(key);
+			if (node == null) {
+				return Collections.emptyList();
+			}
+			int size = Math.min(limit, node.top.length);
+			List<WatchSuggestion> suggestions = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				Entry entry = node.top[i];
+				suggestions.add(new WatchSuggestion(entry.text, entry.type, entry.watches));
+			}
+			return suggestions;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of suggestions kept per prefix.
+	 *
+	 * @return the largest limit {@link #suggest(String, int)} honours
+	 */
+	public int getMaxSuggestions() {
+		return maxSuggestions;
+	}
+
+	/**
+	 * Tells whether the index has been built and can answer.
+	 *
+	 * @return true once the index is built
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Lower-cases the text and replaces every run of characters that are not
+	 * letters or digits by a single space.
+	 */
+	static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+		StringBuilder builder = new StringBuilder(Math.min(text.length(), MAX_KEY_LENGTH));
+		boolean space = false;
+		for (int i = 0; i < text.length() && builder.length() < MAX_KEY_LENGTH; i++) {
+			char c = text.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				if (space && builder.length() > 0) {
+					builder.append(' ');
+				}
+				builder.append(Character.toLowerCase(c));
+				space = false;
+			} else {
+				space = true;
+			}
+		}
+		return builder.toString();
+	}
+
+	private void put(String modelNumber, String watchName, String watchBrand) {
+		List<Entry> current = new ArrayList<>(3);
+		addEntry(current, WatchSuggestion.Type.MODEL, modelNumber);
+		addEntry(current, WatchSuggestion.Type.NAME, watchName);
+		addEntry(current, WatchSuggestion.Type.BRAND, watchBrand);
+		List<Entry> previous = entriesByModel.put(modelNumber, current);
+		if (current.equals(previous)) {
+			return;
+		}
+		// Entries the watch keeps are left alone: dropping them to no watches
+		// would remove them while their trie keys are inserted again.
+		for (Entry entry : current) {
+			if (previous != null && previous.contains(entry)) {
+				continue;
+			}
+			entry.watches++;
+			if (entry.watches == 1) {
+				for (String key : entry.keys) {
+					insertKey(key, entry);
+				}
+			} else {
+				rerank(entry);
+			}
+		}
+		if (previous != null) {
+			for (Entry entry : previous) {
+				if (current.contains(entry)) {
+					continue;
+				}
+				entry.watches--;
+				if (entry.watches == 0) {
+					entries.remove(entry.id);
+					for (String key : entry.keys) {
+						removeKey(key, entry);
+					}
+				} else {
+					rerank(entry);
+				}
+			}
+		}
+	}
+
+	private void addEntry(List<Entry> current, WatchSuggestion.Type type, String text) {
+		String normalized = normalize(text);
+		if (normalized.isEmpty()) {
+			return;
+		}
+		String id = type + ":" + normalized;
+		Entry entry = entries.get(id);
+		if (entry == null) {
+			entry = new Entry(id, text.trim(), type, keys(type, normalized));
+			entries.put(id, entry);
+		}
+		current.add(entry);
+	}
+
+	private static List<String> keys(WatchSuggestion.Type type, String normalized) {
+		Set<String> keys = new LinkedHashSet<>();
+		keys.add(normalized);
+		for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+			keys.add(normalized.substring(i + 1));
+		}
+		if (type == WatchSuggestion.Type.MODEL) {
+			keys.add(normalized.replace(" ", ""));
+		}
+		return new ArrayList<>(keys);
+	}
+
+	private Node find(String key) {
+		Node node = root;
+		int i = 0;
+		while (i < key.length()) {
+			Node child = node.child(key.charAt(i));
+			if (child == null) {
+				return null;
+			}
+			int common = commonPrefix(child.label, key, i);
+			if (i + common == key.length()) {
+				return child;
+			}
+			if (common < child.label.length()) {
+				return null;
+			}
+			node = child;
+			i += common;
+		}
+		return node;
+	}
+
+	private void insertKey(String key, Entry entry) {
+		List<Node> path = new ArrayList<>();
+		path.add(root);
+		Node node = root;
+		int i = 0;
+		while (i < key.length()) {
+			Node child = node.child(key.charAt(i));
+			if (child == null) {
+				child = new Node(key.substring(i));
+				node.addChild(child);
+				i = key.length();
+			} else {
+				int common = commonPrefix(child.label, key, i);
+				if (common < child.label.length()) {
+					Node middle = new Node(child.label.substring(0, common));
+					child.label = child.label.substring(common);
+					middle.addChild(child);
+					middle.top = child.top;
+					node.replaceChild(middle);
+					child = middle;
+				}
+				i += common;
+			}
+			path.add(child);
+			node = child;
+		}
+		if (node.entries == null) {
+			node.entries = new ArrayList<>(1);
+		}
+		node.entries.add(entry);
+		for (int j = path.size() - 1; j >= 0; j--) {
+			path.get(j).rank(maxSuggestions);
+		}
+	}
+
+	private void removeKey(String key, Entry entry) {
+		List<Node> path = path(key);
+		Node last = path.get(path.size() - 1);
+		last.entries.remove(entry);
+		if (last.entries.isEmpty()) {
+			last.entries = null;
+		}
+		for (int j = path.size() - 1; j > 0; j--) {
+			Node node = path.get(j);
+			Node parent = path.get(j - 1);
+			if (node.entries == null && node.children.length == 0) {
+				parent.removeChild(node.label.charAt(0));
+			} else if (node.entries == null && node.children.length == 1) {
+				Node only = node.children[0];
+				only.label = node.label + only.label;
+				parent.replaceChild(only);
+			} else {
+				node.rank(maxSuggestions);
+			}
+		}
+		root.rank(maxSuggestions);
+	}
+
+	private void rerank(Entry entry) {
+		for (String key : entry.keys) {
+			List<Node> path = path(key);
+			for (int j = path.size() - 1; j >= 0; j--) {
+				path.get(j).rank(maxSuggestions);
+			}
+		}
+	}
+
+	private List<Node> path(String key) {
+		List<Node> path = new ArrayList<>();
+		path.add(root);
+		Node node = root;
+		int i = 0;
+		while (i < key.length()) {
+			node = node.child(key.charAt(i));
+			i += node.label.length();
+			path.add(node);
+		}
+		return path;
+	}
+
+	private static int commonPrefix(String label, String key, int offset) {
+		int max = Math.min(label.length(), key.length() - offset);
+		int i = 0;
+		while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * A suggestion and the number of watches carrying it.
+	 */
+	private static final class Entry {
+		private final String id;
+		private final String text;
+		private final WatchSuggestion.Type type;
+		private final List<String> keys;
+		private int watches;
+
+		private Entry(String id, String text, WatchSuggestion.Type type, List<String> keys) {
+			this.id = id;
+			this.text = text;
+			this.type = type;
+			this.keys = keys;
+		}
+	}
+
+	/**
+	 * A node of the trie. Children are kept sorted by the first character of
+	 * their label, which is unique among siblings.
+	 */
+	private static final class Node {
+		private static final char[] NO_FIRSTS = new char[0];
+		private static final Node[] NO_CHILDREN = new Node[0];
+		private static final Entry[] NO_ENTRIES = new Entry[0];
+
+		private String label;
+		private char[] firsts = NO_FIRSTS;
+		private Node[] children = NO_CHILDREN;
+		private List<Entry> entries;
+		private Entry[] top = NO_ENTRIES;
+
+		private Node(String label) {
+			this.label = label;
+		}
+
+		private Node child(char first) {
+			int index = Arrays.binarySearch(firsts, first);
+			return index < 0 ? null : children[index];
+		}
+
+		private void addChild(Node child) {
+			int index = -Arrays.binarySearch(firsts, child.label.charAt(0)) - 1;
+			char[] newFirsts = new char[firsts.length + 1];
+			Node[] newChildren = new Node[children.length + 1];
+			System.arraycopy(firsts, 0, newFirsts, 0, index);
+			System.arraycopy(children, 0, newChildren, 0, index);
+			newFirsts[index] = child.label.charAt(0);
+			newChildren[index] = child;
+			System.arraycopy(firsts, index, newFirsts, index + 1, firsts.length - index);
+			System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+			firsts = newFirsts;
+			children = newChildren;
+		}
+
+		private void replaceChild(Node child) {
+			children[Arrays.binarySearch(firsts, child.label.charAt(0))] = child;
+		}
+
+		private void removeChild(char first) {
+			int index = Arrays.binarySearch(firsts, first);
+			char[] newFirsts = new char[firsts.length - 1];
+			Node[] newChildren = new Node[children.length - 1];
+			System.arraycopy(firsts, 0, newFirsts, 0, index);
+			System.arraycopy(children, 0, newChildren, 0, index);
+			System.arraycopy(firsts, index + 1, newFirsts, index, firsts.length - index - 1);
+			System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+			firsts = newFirsts;
+			children = newChildren;
+		}
+
+		/**
+		 * Recomputes the best suggestions of the subtree from the entries ending
+		 * here and the best suggestions of the children, which must be current.
+		 */
+		private void rank(int maxSuggestions) {
+			List<Entry> candidates = new ArrayList<>();
+			if (entries != null) {
+				candidates.addAll(entries);
+			}
+			for (Node child : children) {
+				candidates.addAll(Arrays.asList(child.top));
+			}
+			candidates.sort(RANKING);
+			List<Entry> best = new ArrayList<>(Math.min(maxSuggestions, candidates.size()));
+			for (Entry candidate : candidates) {
+				if (best.size() == maxSuggestions) {
+					break;
+				}
+				if (!best.contains(candidate)) {
+					best.add(candidate);
+				}
+			}
+			top = best.toArray(NO_ENTRIES);
+		}
+	}
+}
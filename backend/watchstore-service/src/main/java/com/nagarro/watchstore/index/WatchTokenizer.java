@@ -0,0 +1,79 @@
+package com.nagarro.watchstore.index;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits catalog text into lower-case search terms. Words are separated on any
+ * character that is not a letter or digit, and a word mixing letters and digits
+ * (such as a model number) is additionally split where letters and digits
+ * meet, so that "SKX007" yields "skx007", "skx" and "007".
+ * 
+ * @author karan
+ */
+public final class WatchTokenizer {
+
+	private WatchTokenizer() {
+	}
+
+	/**
+	 * Tokenizes the given text.
+	 *
+	 * @param text the text to tokenize, may be null
+	 * @return the distinct terms of the text in order of appearance
+	 */
+	public static Set<String> tokenize(String text) {
+		Set<String> terms = new LinkedHashSet<>();
+		if (text == null) {
+			return terms;
+		}
+		String lower = text.toLowerCase(Locale.ROOT);
+		int start = -1;
+		for (int i = 0; i <= lower.length(); i++) {
+			boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+			if (wordChar && start < 0) {
+				start = i;
+			} else if (!wordChar && start >= 0) {
+				addWord(lower.substring(start, i), terms);
+				start = -1;
+			}
+		}
+		return terms;
+	}
+
+	/**
+	 * Returns the text lower-cased with every character that is not a letter or
+	 * digit removed, so that "SKX-007" and "skx 007" both compact to "skx007".
+	 *
+	 * @param text the text to compact, may be null
+	 * @return the compacted text, empty if nothing remains
+	 */
+	public static String compact(String text) {
+		if (text == null) {
+			return "";
+		}
+		StringBuilder builder = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				builder.append(Character.toLowerCase(c));
+			}
+		}
+		return builder.toString();
+	}
+
+	private static void addWord(String word, Set<String> terms) {
+		terms.add(word);
+		int runStart = 0;
+		for (int i = 1; i < word.length(); i++) {
+			if (Character.isDigit(word.charAt(i)) != Character.isDigit(word.charAt(i - 1))) {
+				terms.add(word.substring(runStart, i));
+				runStart = i;
+			}
+		}
+		if (runStart > 0) {
+			terms.add(word.substring(runStart));
+		}
+	}
+}
@@ -2,6 +2,8 @@ package com.nagarro.watchstore.service;
 
 import java.util.List;
 
+import com.nagarro.watchstore.cart.CartOperation;
+import com.nagarro.watchstore.dao.projection.CartLineView;
 import com.nagarro.watchstore.entity.Cart;
 
 /**
@@ -21,13 +23,34 @@ public interface CartService {
 	List<Cart> retrieveCartByUserId(String userId);
 
 	/**
-	 * Add a cart for the specified user and watch model.
+	 * Retrieve the cart of a user as shown to the user, each line with a summary
+	 * of its watch and the first image of the watch. Views are cached per user
+	 * until the cart or a watch changes.
+	 *
+	 * @param userId the user ID
+	 * @return the cart lines of the user in the order they were added
+	 */
+	List<CartLineView> retrieveCartViewByUserId(String userId);
+
+	/**
+	 * Add one unit of a watch to the cart of the specified user, creating the
+	 * cart line on the first unit. Concurrent adds of the same watch by the same
+	 * user are all counted, in a single cart line.
 	 *
 	 * @param userId     the user ID
 	 * @param watchModel the model of the watch to add to the cart
-	 * @return the Cart object representing the added cart
 	 */
-	Cart addCart(String userId, String watchModel);
+	void addCart(String userId, String watchModel);
+
+	/**
+	 * Apply a list of operations to the cart of the specified user, in order and
+	 * all or nothing.
+	 *
+	 * @param userId     the user ID
+	 * @param operations the operations to apply
+	 * @return the cart lines of the user once the operations are applied
+	 */
+	List<Cart> applyCartOperations(String userId, List<CartOperation> operations);
 
 	/**
 	 * Delete a cart by its ID.
@@ -1,8 +1,10 @@
 package com.nagarro.watchstore.service;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.nagarro.watchstore.entity.Notifications;
+import com.nagarro.watchstore.entity.Watch;
 
 /**
  * 
@@ -27,6 +29,13 @@ public interface NotificationService {
 	 *           watch is in stock
 	 */
 	public String updateNotification(String modelNumber);
+
+	/**
+	 * @param watches the watches back in stock
+	 * @implNote This method is used to notify the users waiting for several
+	 *           watches at once, with one update per watch
+	 */
+	public void updateNotifications(Collection<Watch> watches);
 	
 	/**
 	 * @param userId
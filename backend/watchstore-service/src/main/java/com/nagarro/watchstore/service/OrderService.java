@@ -19,10 +19,24 @@ public interface OrderService {
 	 * @param deliveryAddressId the ID of the delivery address for the order
 	 * @param userEmailId       the email ID of the user placing the order
      * @param quantity          the quantity of watches
+	 * @param idempotencyKey    the idempotency key sent with the order, kept on
+	 *                          the order, or null
      * @return the added order
      */
-	Order add(final String watchModel, final long deliveryAddressId, final String userEmailId, final int quantity);	
+	Order add(final String watchModel, final long deliveryAddressId, final String userEmailId, final int quantity,
+			final String idempotencyKey);
 	
+	/**
+	 * Places one order with a line for every line of the cart of a user and
+	 * empties the cart, all in one transaction. The stock of every watch is
+	 * locked and decremented together.
+	 *
+	 * @param deliveryAddressId the ID of the delivery address for the order
+	 * @param userEmailId       the email ID of the user checking out
+	 * @return the placed order, its lines in watch model number order
+	 */
+	Order checkout(final long deliveryAddressId, final String userEmailId);
+
 	/**
      * Retrieves all orders if user has admin access otherwise 
      * retrieves all orders associated with the given user.
@@ -1,9 +1,20 @@
 package com.nagarro.watchstore.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import org.springframework.data.domain.Slice;
+
+import com.nagarro.watchstore.dao.projection.BrandCount;
 import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.index.CatalogFilter;
+import com.nagarro.watchstore.index.SalesWindow;
+import com.nagarro.watchstore.index.TopSeller;
+import com.nagarro.watchstore.index.WatchSuggestion;
+import com.nagarro.watchstore.version.WatchChanges;
 
 /**
  * Service interface for managing watch-related endpoints. This interface
@@ -31,6 +42,17 @@ public interface WatchService {
 	 */
 	public List<Watch> getallWatch();
 
+	/**
+	 * Retrieve a page of watches ordered by model number, continuing after the
+	 * given model number.
+	 *
+	 * @param afterModelNumber The last model number of the previous page, or null
+	 *                         for the first page.
+	 * @param pageSize         The maximum number of watches to return.
+	 * @return A slice of watches telling whether more watches follow.
+	 */
+	public Slice<Watch> getWatchPage(String afterModelNumber, int pageSize);
+
 	/**
 	 * Retrieve a Watch By Model Number.
 	 *
@@ -52,10 +74,30 @@ public interface WatchService {
 	 * Search watches based on the provided query.
 	 *
 	 * @param query The keyword to search.
-	 * @return A list of watches matching the query.
+	 * @return A list of watches matching the query, most relevant first.
 	 */
 	public List<Watch> searchWatch(String query);
 
+	/**
+	 * Retrieves one page of the watches matching a query, most relevant first.
+	 * Only the watches of the requested page are loaded.
+	 *
+	 * @param query    The keywords to search.
+	 * @param page     The number of the page, starting at 0.
+	 * @param pageSize The maximum number of watches in the page.
+	 * @return The watches of the page, empty past the last match.
+	 */
+	public List<Watch> searchWatches(String query, int page, int pageSize);
+
+	/**
+	 * Completes a partly typed search with watch names, brands and model numbers.
+	 *
+	 * @param prefix The text typed so far.
+	 * @param limit  The maximum number of suggestions.
+	 * @return The suggestions, those shared by the most watches first.
+	 */
+	public List<WatchSuggestion> suggest(String prefix, int limit);
+
 	/**
 	 * Retrieve all watch brands.
 	 *
@@ -63,4 +105,75 @@ public interface WatchService {
 	 */
 	public List<String> getBrand();
 
+	/**
+	 * Retrieves the number of watches of every brand, in total and in stock.
+	 *
+	 * @return A list of brand counts ordered by brand.
+	 */
+	public List<BrandCount> getBrandCounts();
+
+	/**
+	 * Retrieves the best-selling watches of a sales window, overall or within a
+	 * brand, a watch type or both.
+	 *
+	 * @param window     The window to rank the sales over.
+	 * @param watchBrand The brand to rank within, or null for every brand.
+	 * @param watchType  The watch type to rank within, or null for every type.
+	 * @param limit      The maximum number of watches to return.
+	 * @return The best sellers, most units sold first.
+	 */
+	public List<TopSeller> getTopSellers(SalesWindow window, String watchBrand, WatchType watchType, int limit);
+
+	/**
+	 * Retrieves a page of the watches matching a filter, ordered by model number.
+	 *
+	 * @param filter           The criteria the watches must match.
+	 * @param afterModelNumber The model number to continue after, or null for
+	 *                         the first page.
+	 * @param pageSize         The maximum number of watches in the page.
+	 * @return A slice of matching watches ordered by model number.
+	 */
+	public Slice<Watch> filterWatches(CatalogFilter filter, String afterModelNumber, int pageSize);
+
+	/**
+	 * Adds a chunk of new watches in a single transaction using JDBC batches.
+	 * Watches whose model number already exists, or repeats one earlier in the
+	 * chunk, are skipped.
+	 *
+	 * @param watches The watches to add.
+	 * @return The skipped watches, in their order in the chunk.
+	 */
+	public List<Watch> addWatches(List<Watch> watches);
+
+	/**
+	 * Adds a signed quantity to the stock of several watches in one transaction.
+	 * A watch whose stock drops to zero becomes unavailable, and one whose stock
+	 * rises from zero becomes available again, in which case the users waiting
+	 * for it are notified. Adjustments that are not possible are skipped.
+	 *
+	 * @param deltas The quantity to add by model number, negative to remove.
+	 * @return The reason each skipped adjustment was skipped, by model number.
+	 */
+	public Map<String, String> adjustStock(Map<String, Integer> deltas);
+
+	/**
+	 * Retrieves the watches changed after a catalog version, oldest change first.
+	 * Only changes below every change still in progress are returned, so asking
+	 * again with the returned version never misses a change.
+	 *
+	 * @param sinceVersion The last version the client has seen, 0 for all
+	 *                     watches.
+	 * @param pageSize     The maximum number of watches to return.
+	 * @return The changed watches and the version to continue from.
+	 */
+	public WatchChanges getWatchChanges(long sinceVersion, int pageSize);
+
+	/**
+	 * Passes every watch with its images to a consumer, in model number order,
+	 * reading them through a database cursor instead of loading the whole catalog.
+	 *
+	 * @param consumer Receives the watches one at a time.
+	 */
+	public void exportWatches(Consumer<Watch> consumer);
+
 }
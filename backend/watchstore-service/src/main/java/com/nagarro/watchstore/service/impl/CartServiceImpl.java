@@ -1,15 +1,22 @@
 package com.nagarro.watchstore.service.impl;
 
 import java.util.List;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import com.nagarro.watchstore.cache.CartViewIndex;
+import com.nagarro.watchstore.cart.CartLines;
+import com.nagarro.watchstore.cart.CartOperation;
+import com.nagarro.watchstore.cart.CartStore;
 import com.nagarro.watchstore.constants.Constant;
-import com.nagarro.watchstore.dao.CartRepository;
+import com.nagarro.watchstore.dao.projection.CartLineView;
 import com.nagarro.watchstore.entity.Cart;
 import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.event.CartChangedEvent;
 import com.nagarro.watchstore.exception.BadRequestException;
 import com.nagarro.watchstore.exception.NotFoundException;
 import com.nagarro.watchstore.service.CartService;
@@ -18,7 +25,10 @@ import com.nagarro.watchstore.service.WatchService;
 
 /**
  * The CartServiceImpl class provides an implementation of the CartService interface.
- * It handles the logic for managing shopping carts.
+ * It handles the logic for managing shopping carts, the lines themselves being
+ * kept by the configured {@link CartStore}. Every change to a cart publishes a
+ * {@link CartChangedEvent}, evicting the cached view of the cart. A view is
+ * recorded in the {@link CartViewIndex} as it is built for the cache.
  * 
  * @author yogesh04
  * @version 1.0
@@ -26,19 +36,26 @@ import com.nagarro.watchstore.service.WatchService;
 @Service
 public class CartServiceImpl implements CartService {
 
-	private final CartRepository cartRepository;
+	private final CartStore cartStore;
 
 	private final WatchService watchService;
 
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final CartViewIndex cartViewIndex;
+
 	@Autowired
-	public CartServiceImpl(final WatchService watchService, final CartRepository cartRepository) {
-		this.cartRepository = cartRepository;
+	public CartServiceImpl(final WatchService watchService, final CartStore cartStore,
+			final ApplicationEventPublisher eventPublisher, final CartViewIndex cartViewIndex) {
+		this.cartStore = cartStore;
 		this.watchService = watchService;
+		this.eventPublisher = eventPublisher;
+		this.cartViewIndex = cartViewIndex;
 	}
 
 	@Override
 	public List<Cart> retrieveCartByUserId(final String userId) {
-		final List<Cart> carts = cartRepository.findByUserId(userId);
+		final List<Cart> carts = cartStore.findByUserId(userId);
 		if (carts.isEmpty()) {
 			throw new NotFoundException("UserId", Constant.CART_NOT_FOUND + userId);
 		}
@@ -46,52 +63,64 @@ public class CartServiceImpl implements CartService {
 	}
 
 	@Override
-	public Cart addCart(String userId, String watchModel) {
-		Cart cart = null;
+	@Cacheable(cacheNames = Constant.CART_VIEW_CACHE, key = "#userId")
+	public List<CartLineView> retrieveCartViewByUserId(final String userId) {
+		final List<CartLineView> views = cartStore.findViewsByUserId(userId);
+		if (views.isEmpty()) {
+			throw new NotFoundException("UserId", Constant.CART_NOT_FOUND + userId);
+		}
+		cartViewIndex.record(userId, views);
+		return views;
+	}
+
+	@Override
+	public void addCart(final String userId, final String watchModel) {
+		if (cartStore.incrementWatchQty(userId, watchModel)) {
+			eventPublisher.publishEvent(new CartChangedEvent(userId));
+			return;
+		}
+		final Watch watch;
 		try {
-			Watch watch = watchService.getWatchByModel(watchModel);
-			Optional<Cart> cartOptional = cartRepository.findByUserIdAndWatch(userId, watch);
-			if (cartOptional.isEmpty()) {
-				cart = new Cart();
-				cart.setWatch(watch);
-				cart.setUserId(userId);
-				cart.setWatchQty(1);
-			} else {
-				cart = cartOptional.get();
-				validateWatchStock(watch, cart.getWatchQty() + 1);
-				cart.setWatchQty(cart.getWatchQty() + 1);
-			}
-			cart = cartRepository.save(cart);
+			watch = watchService.getWatchByModel(watchModel);
 		} catch (NotFoundException exception) {
 			throw new BadRequestException("watchModel", Constant.WATCH_NOT_FOUND + watchModel);
 		}
+		CartLines.validateStock(watch, 1);
+		// the line exists, out of stock or just created by a parallel add
+		if (!cartStore.addLine(userId, watch) && !cartStore.incrementWatchQty(userId, watchModel)) {
+			throw new BadRequestException("Quantity", Constant.QUANTITY_GREATER_THAN_STOCKS);
+		}
+		eventPublisher.publishEvent(new CartChangedEvent(userId));
+	}
 
-		return cart;
+	@Override
+	public List<Cart> applyCartOperations(final String userId, final List<CartOperation> operations) {
+		List<Cart> carts;
+		try {
+			carts = cartStore.applyOperations(userId, operations);
+		} catch (DataIntegrityViolationException exception) {
+			// a parallel request created a line this one adds, which is now found and incremented
+			carts = cartStore.applyOperations(userId, operations);
+		}
+		eventPublisher.publishEvent(new CartChangedEvent(userId));
+		return carts;
 	}
 
 	@Override
 	public void deleteCartById(final int cartId) throws NotFoundException {
-		Optional<Cart> cartOptional = cartRepository.findById(cartId);
-		cartOptional.ifPresentOrElse(cart -> cartRepository.deleteById(cart.getCartId()), () -> {
-			throw new NotFoundException("CartId", Constant.CART_NOT_FOUND + cartId);
-		});
+		final Cart cart = cartStore.findById(cartId)
+				.orElseThrow(() -> new NotFoundException("CartId", Constant.CART_NOT_FOUND + cartId));
+		cartStore.delete(cart);
+		eventPublisher.publishEvent(new CartChangedEvent(cart.getUserId()));
 	}
 
 	@Override
 	public Cart updateCartQty(final int cartId, final int watchQty) throws NotFoundException {
-		Optional<Cart> cartOptional = cartRepository.findById(cartId);
-		cartOptional.ifPresentOrElse(cart -> {
-			validateWatchStock(cart.getWatch(), watchQty);
-			cart.setWatchQty(watchQty);
-		}, () -> {
-			throw new NotFoundException("CartId", Constant.CART_NOT_FOUND + cartId);
-		});
-		return cartRepository.save(cartOptional.get());
-	}
-
-	private void validateWatchStock(final Watch watch, final int quantity) {
-		final int updatedStockQuantity = watch.getStockQuantity() - quantity;
-		if (updatedStockQuantity < 0)
-			throw new BadRequestException("Quantity", Constant.QUANTITY_GREATER_THAN_STOCKS);
+		final Cart cart = cartStore.findById(cartId)
+				.orElseThrow(() -> new NotFoundException("CartId", Constant.CART_NOT_FOUND + cartId));
+		CartLines.validateStock(cart.getWatch(), watchQty);
+		final Cart updated = cartStore.updateWatchQty(cart, watchQty);
+		eventPublisher.publishEvent(new CartChangedEvent(cart.getUserId()));
+		return updated;
 	}
 }
@@ -1,10 +1,12 @@
 package com.nagarro.watchstore.service.impl;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.nagarro.watchstore.constants.Constant;
 import com.nagarro.watchstore.dao.NotificationsDao;
@@ -75,24 +77,24 @@ public class NotificationServiceImpl implements NotificationService {
 	}
 
 	@Override
+	@Transactional
 	public String updateNotification(String modelNumber) {
 
-		List<Notifications> findByModelNumber = notificationDao.findByWatchModelNumber(modelNumber);
-
-		findByModelNumber.stream()
-				.filter(notification -> notification.getWatch().isAvailableStatus() && !notification.isSeenByAdmin())
-				.forEach(notification -> {
-					notification
-							.setNotificationMessage(notification.getWatch().getWatchName() + Constant.ADDED_IN_STOCK);
-					notification.setSeenByAdmin(true);
-					notification.setSeenByUser(false);
-					notificationDao.save(notification);
-				});
+		watchDao.findById(modelNumber).filter(Watch::isAvailableStatus)
+				.ifPresent(watch -> updateNotifications(List.of(watch)));
 
 		return Constant.NOTIFICATION_UPDATE_SUCCESS;
 	}
 
 	@Override
+	@Transactional
+	public void updateNotifications(Collection<Watch> watches) {
+		watches.forEach(watch -> notificationDao.markInStock(watch.getModelNumber(),
+				watch.getWatchName() + Constant.ADDED_IN_STOCK));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public List<Notifications> getNotificationByUserId(String emailId) {
 		List<Notifications> findbyuserId = notificationDao.findByEmailId(emailId);
 
@@ -1,28 +1,41 @@
 package com.nagarro.watchstore.service.impl;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.nagarro.watchstore.cart.CartStore;
 import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dao.CartRepository;
 import com.nagarro.watchstore.dao.OrderDao;
+import com.nagarro.watchstore.dao.WatchDao;
 import com.nagarro.watchstore.entity.Address;
+import com.nagarro.watchstore.entity.Cart;
 import com.nagarro.watchstore.entity.DeliveryAddress;
 import com.nagarro.watchstore.entity.Order;
 import com.nagarro.watchstore.entity.User;
 import com.nagarro.watchstore.entity.Watch;
 import com.nagarro.watchstore.enums.OrderStatus;
 import com.nagarro.watchstore.enums.UserRole;
+import com.nagarro.watchstore.event.CartChangedEvent;
+import com.nagarro.watchstore.event.OrderPlacedEvent;
+import com.nagarro.watchstore.event.WatchChangedEvent;
 import com.nagarro.watchstore.exception.BadRequestException;
 import com.nagarro.watchstore.exception.NotFoundException;
 import com.nagarro.watchstore.service.AddressService;
 import com.nagarro.watchstore.service.DeliveryAddressService;
 import com.nagarro.watchstore.service.OrderService;
 import com.nagarro.watchstore.service.UserService;
-import com.nagarro.watchstore.service.WatchService;
+import com.nagarro.watchstore.version.CatalogVersionClock;
 
 
 /**
@@ -34,55 +47,122 @@ import com.nagarro.watchstore.service.WatchService;
 @Service
 public class OrderServiceImpl implements OrderService {
 	
-	private final WatchService watchService;
 	private final UserService userService;
 	private final AddressService addressService;
 	private final DeliveryAddressService deliveryAddressService;
 	private final OrderDao orderDao;
+	private final WatchDao watchDao;
+	private final CartRepository cartRepository;
+	private final CartStore cartStore;
+	private final CatalogVersionClock catalogVersionClock;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
-	public OrderServiceImpl(final OrderDao orderDao, final WatchService watchService, final UserService userService,
-			final AddressService addressService, final DeliveryAddressService deliveryAddressService) {
+	public OrderServiceImpl(final OrderDao orderDao, final UserService userService,
+			final AddressService addressService, final DeliveryAddressService deliveryAddressService,
+			final WatchDao watchDao, final CartRepository cartRepository, final CartStore cartStore,
+			final CatalogVersionClock catalogVersionClock, final ApplicationEventPublisher eventPublisher) {
 		this.orderDao = orderDao;
-		this.watchService = watchService;
+		this.watchDao = watchDao;
+		this.cartRepository = cartRepository;
+		this.cartStore = cartStore;
+		this.catalogVersionClock = catalogVersionClock;
+		this.eventPublisher = eventPublisher;
 		this.addressService = addressService;
 		this.userService = userService;
 		this.deliveryAddressService = deliveryAddressService;
 	}
 
 	@Override
-	public Order add(final String watchModel,final long deliveryAddressId, final String userEmailId, final int quantity) {
+	@Transactional
+	public Order add(final String watchModel,final long deliveryAddressId, final String userEmailId, final int quantity,
+			final String idempotencyKey) {
+
+		// Take the stock first, in one conditional statement, and read the watch
+		// back as updated: two orders racing for the last units cannot both win.
+		if (this.watchDao.reserveStock(watchModel, quantity, catalogVersionClock.next()) == 0) {
+			if (!this.watchDao.existsById(watchModel))
+				throw new BadRequestException("modelNumber", Constant.WATCH_NOT_FOUND + watchModel);
+			throw new BadRequestException("quantity", Constant.QUANTITY_GREATER_THAN_STOCKS);
+		}
+		final Watch watch = this.watchDao.findById(watchModel)
+				.orElseThrow(() -> new BadRequestException("modelNumber", Constant.WATCH_NOT_FOUND + watchModel));
+		this.eventPublisher.publishEvent(new WatchChangedEvent(watch));
 
 		Order order=null;
 		try {
-			final Watch watch = this.watchService.getWatchByModel(watchModel);
 			final Address address = this.addressService.findByIdAndUserId(deliveryAddressId, userEmailId);
 			final User user = this.userService.findUserById(userEmailId);
 
-			updateWatch(watch, quantity);
-			
 			order=new Order();
-			order.setAmount(watch.getPrice());
-			order.setQuantiy(quantity);
+			order.addLine(watch, quantity);
 			order.setStatus(OrderStatus.BOOKED);
-			order.setWatch(watch);
 			order.setUser(user);
+			order.setIdempotencyKey(idempotencyKey);
 
-			DeliveryAddress deliveryAddress = addDeliveryAddress(address);
-			Optional<DeliveryAddress> optionalDeliveryAddress = this.deliveryAddressService
-					.findByAddressId(deliveryAddress.getId());
-			if (optionalDeliveryAddress.isEmpty()) {
-				this.deliveryAddressService.save(deliveryAddress);
-			}
-			order.setDeliveryAddress(deliveryAddress);
+			order.setDeliveryAddress(saveDeliveryAddress(address));
 
 		} catch (NotFoundException exception) {
 			throw new BadRequestException(exception.getFieldName(), exception.getMessage());
 		}
-		return this.orderDao.save(order);
+		final Order savedOrder = this.orderDao.save(order);
+		this.eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder));
+		return savedOrder;
 	}
 
 	@Override
+	@Transactional
+	public Order checkout(final long deliveryAddressId, final String userEmailId) {
+		this.cartStore.flush(userEmailId);
+		final List<String> watchModels = this.cartRepository.findWatchModelsByUserId(userEmailId);
+		if (watchModels.isEmpty())
+			throw new BadRequestException("cart", Constant.EMPTY_CART);
+
+		final User user;
+		final DeliveryAddress deliveryAddress;
+		try {
+			user = this.userService.findUserById(userEmailId);
+			deliveryAddress = saveDeliveryAddress(this.addressService.findByIdAndUserId(deliveryAddressId, userEmailId));
+		} catch (NotFoundException exception) {
+			throw new BadRequestException(exception.getFieldName(), exception.getMessage());
+		}
+
+		// Lock the watches before reading the lines, so the lines pick up the
+		// locked and current watches from the persistence context.
+		final List<Watch> watches = this.watchDao.findAllForUpdate(watchModels);
+		final Map<String, Cart> lines = new HashMap<>();
+		this.cartRepository.findByUserIdAndWatchModelNumberIn(userEmailId, watchModels)
+				.forEach(line -> lines.put(line.getWatch().getModelNumber(), line));
+
+		// One order carries a line per watch; the lines are inserted together in
+		// one JDBC batch when the order is saved.
+		final long firstVersion = catalogVersionClock.reserve(watches.size());
+		final Order order = new Order();
+		order.setStatus(OrderStatus.BOOKED);
+		order.setUser(user);
+		order.setDeliveryAddress(deliveryAddress);
+		for (int i = 0; i < watches.size(); i++) {
+			final Watch watch = watches.get(i);
+			final Cart line = lines.get(watch.getModelNumber());
+			if (line == null)
+				continue;
+			updateWatch(watch, line.getWatchQty(), firstVersion + i);
+			order.addLine(watch, line.getWatchQty());
+		}
+		if (order.getLines().isEmpty())
+			throw new BadRequestException("cart", Constant.EMPTY_CART);
+
+		final Order savedOrder = this.orderDao.save(order);
+		this.cartRepository.deleteByCartIdIn(lines.values().stream().map(Cart::getCartId).toList());
+		resetCartAfterCommit(userEmailId);
+		this.eventPublisher.publishEvent(new CartChangedEvent(userEmailId));
+		savedOrder.getLines().forEach(line -> this.eventPublisher.publishEvent(new WatchChangedEvent(line.getWatch())));
+		this.eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder));
+		return savedOrder;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public List<Order> findAllByUser(final String userEmailId, final UserRole role) {
 		final List<Order> orders=getAllOrdersBasedOnUserRole(userEmailId,role);
 		if(orders.isEmpty())
@@ -116,6 +196,35 @@ public class OrderServiceImpl implements OrderService {
 	}
 
 
+	/**
+	 * A change to the cart made while the checkout runs reads the lines still
+	 * committed, ordered ones included, into the cart store. Once the ordered
+	 * lines are deleted for good the store writes such changes back and reads
+	 * the cart again.
+	 */
+	private void resetCartAfterCommit(final String userEmailId) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.cartStore.flush(userEmailId);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				cartStore.flush(userEmailId);
+			}
+		});
+	}
+
+	private DeliveryAddress saveDeliveryAddress(final Address address) {
+		final DeliveryAddress deliveryAddress = addDeliveryAddress(address);
+		final Optional<DeliveryAddress> optionalDeliveryAddress = this.deliveryAddressService
+				.findByAddressId(deliveryAddress.getId());
+		if (optionalDeliveryAddress.isEmpty()) {
+			this.deliveryAddressService.save(deliveryAddress);
+		}
+		return deliveryAddress;
+	}
+
 	private DeliveryAddress addDeliveryAddress(final Address address) {
 		final DeliveryAddress deliverAddress = new DeliveryAddress();
 		deliverAddress.setCity(address.getCity());
@@ -129,13 +238,14 @@ public class OrderServiceImpl implements OrderService {
 		return deliverAddress;
 	}
 
-	private void updateWatch(final Watch watch, final int quantity) {
+	private void updateWatch(final Watch watch, final int quantity, final long catalogVersion) {
 		final int updatedStockQuantity = watch.getStockQuantity() - quantity;
 		if (updatedStockQuantity < 0)
 			throw new BadRequestException("quantity", Constant.QUANTITY_GREATER_THAN_STOCKS);
 		watch.setStockQuantity(updatedStockQuantity);
 		if (updatedStockQuantity == 0)
 			watch.setAvailableStatus(false);
+		watch.setCatalogVersion(catalogVersion);
 	}
 
 	private boolean isValidOrderStatus(final OrderStatus orderStatus, final Order order) {
@@ -1,16 +1,56 @@
 package com.nagarro.watchstore.service.impl;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dao.OrderDao;
+import com.nagarro.watchstore.dao.WatchBatchDao;
 import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.dao.WatchExportDao;
+import com.nagarro.watchstore.dao.projection.BrandCount;
+import com.nagarro.watchstore.dao.projection.StockLevel;
+import com.nagarro.watchstore.dao.projection.WatchSales;
 import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.event.WatchChangedEvent;
 import com.nagarro.watchstore.exception.BadRequestException;
 import com.nagarro.watchstore.exception.NotFoundException;
+import com.nagarro.watchstore.index.BrandFacetIndex;
+import com.nagarro.watchstore.index.CatalogFacetIndex;
+import com.nagarro.watchstore.index.CatalogFilter;
+import com.nagarro.watchstore.index.SalesRank;
+import com.nagarro.watchstore.index.SalesRankingIndex;
+import com.nagarro.watchstore.index.SalesWindow;
+import com.nagarro.watchstore.index.TopSeller;
+import com.nagarro.watchstore.index.WatchSearchIndex;
+import com.nagarro.watchstore.index.WatchSuggestion;
+import com.nagarro.watchstore.index.WatchSuggestionIndex;
+import com.nagarro.watchstore.service.NotificationService;
 import com.nagarro.watchstore.service.WatchService;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+import com.nagarro.watchstore.version.WatchChanges;
 
 
 /**
@@ -26,23 +66,65 @@ public class WatchServiceImpl implements WatchService {
 
 	private WatchDao watchDao;
 
+	private WatchBatchDao watchBatchDao;
+
+	private WatchExportDao watchExportDao;
+
+	private OrderDao orderDao;
+
+	private WatchSearchIndex watchSearchIndex;
+
+	private WatchSuggestionIndex watchSuggestionIndex;
+
+	private BrandFacetIndex brandFacetIndex;
+
+	private CatalogFacetIndex catalogFacetIndex;
+
+	private SalesRankingIndex salesRankingIndex;
+
+	private NotificationService notificationService;
+
+	private CatalogVersionClock catalogVersionClock;
+
+	private ApplicationEventPublisher eventPublisher;
+
 	@Autowired
-	public WatchServiceImpl(WatchDao watchDao) {
+	public WatchServiceImpl(WatchDao watchDao, WatchBatchDao watchBatchDao, WatchExportDao watchExportDao,
+			OrderDao orderDao, WatchSearchIndex watchSearchIndex, WatchSuggestionIndex watchSuggestionIndex,
+			BrandFacetIndex brandFacetIndex, CatalogFacetIndex catalogFacetIndex, SalesRankingIndex salesRankingIndex,
+			NotificationService notificationService, CatalogVersionClock catalogVersionClock,
+			ApplicationEventPublisher eventPublisher) {
 		super();
 		this.watchDao = watchDao;
+		this.watchBatchDao = watchBatchDao;
+		this.watchExportDao = watchExportDao;
+		this.orderDao = orderDao;
+		this.watchSearchIndex = watchSearchIndex;
+		this.watchSuggestionIndex = watchSuggestionIndex;
+		this.brandFacetIndex = brandFacetIndex;
+		this.catalogFacetIndex = catalogFacetIndex;
+		this.salesRankingIndex = salesRankingIndex;
+		this.notificationService = notificationService;
+		this.catalogVersionClock = catalogVersionClock;
+		this.eventPublisher = eventPublisher;
 	}
 
 	@Override
+	@Transactional
 	public Watch addWatch(Watch watch) {
 		Optional<Watch> optionalWatch = watchDao.findById(watch.getModelNumber());
 		if (optionalWatch.isPresent()) {
 			throw new BadRequestException("Watch model",
-					"Watch already exist with this model number try updating watch");
+					Constant.WATCH_ALREADY_EXISTS);
 		}
-		return watchDao.save(watch);
+		watch.setCatalogVersion(catalogVersionClock.next());
+		Watch savedWatch = watchDao.save(watch);
+		eventPublisher.publishEvent(new WatchChangedEvent(savedWatch, true));
+		return savedWatch;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Watch> getallWatch() {
 		List<Watch> watch = watchDao.findAll();
 		if (watch.isEmpty()) {
@@ -53,6 +135,14 @@ public class WatchServiceImpl implements WatchService {
 	}
 
 	@Override
+	public Slice<Watch> getWatchPage(String afterModelNumber, int pageSize) {
+		validatePageSize(pageSize);
+		String after = afterModelNumber == null ? "" : afterModelNumber;
+		return watchDao.findByModelNumberGreaterThanOrderByModelNumberAsc(after, PageRequest.ofSize(pageSize));
+	}
+
+	@Override
+	@Cacheable(cacheNames = Constant.WATCH_CACHE)
 	public Watch getWatchByModel(String modelNumber) {
 		Optional<Watch> optionalWatch = watchDao.findById(modelNumber);
 		if (optionalWatch.isPresent()) {
@@ -63,6 +153,7 @@ public class WatchServiceImpl implements WatchService {
 	}
 
 	@Override
+	@Transactional
 	public Watch updateWatch(String modelNumber, Watch watch) {
 		Optional<Watch> optionalWatch = watchDao.findById(modelNumber);
 		if (optionalWatch.isPresent()) {
@@ -74,7 +165,9 @@ public class WatchServiceImpl implements WatchService {
 			updateWatch.setWatchType(watch.getWatchType());
 			updateWatch.setAvailableStatus(watch.isAvailableStatus());
 			updateWatch.setImages(watch.getImages());
+			updateWatch.setCatalogVersion(catalogVersionClock.next());
 			watchDao.save(updateWatch);
+			eventPublisher.publishEvent(new WatchChangedEvent(updateWatch));
 			return updateWatch;
 		} else {
 			throw new NotFoundException("In update watch", "Watch not found");
@@ -82,8 +175,14 @@ public class WatchServiceImpl implements WatchService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Watch> searchWatch(String query) {
-		List<Watch> watches = watchDao.searchWatch(query);
+		List<Watch> watches;
+		if (watchSearchIndex.isReady()) {
+			watches = findInOrder(watchSearchIndex.rank(query, Integer.MAX_VALUE));
+		} else {
+			watches = watchDao.searchWatch(query);
+		}
 		if (watches.isEmpty()) {
 			throw new NotFoundException("In search watch", "Watch not found");
 		} else {
@@ -91,9 +190,38 @@ public class WatchServiceImpl implements WatchService {
 		}
 	}
 
+	@Override
+	public List<Watch> searchWatches(String query, int page, int pageSize) {
+		validatePageSize(pageSize);
+		if (page < 0) {
+			throw new BadRequestException("page", Constant.INVALID_PAGE_NUMBER);
+		}
+		long end = (long) (page + 1) * pageSize;
+		if (end > Integer.MAX_VALUE) {
+			return List.of();
+		}
+		if (!watchSearchIndex.isReady()) {
+			List<Watch> watches = watchDao.searchWatch(query);
+			int from = (int) Math.min(watches.size(), end - pageSize);
+			return new ArrayList<>(watches.subList(from, (int) Math.min(watches.size(), end)));
+		}
+		List<String> ranked = watchSearchIndex.rank(query, (int) end);
+		int from = (int) Math.min(ranked.size(), end - pageSize);
+		return findInOrder(ranked.subList(from, ranked.size()));
+	}
+
+	@Override
+	public List<WatchSuggestion> suggest(String prefix, int limit) {
+		if (limit < 1 || limit > watchSuggestionIndex.getMaxSuggestions()) {
+			throw new BadRequestException("limit",
+					Constant.INVALID_SUGGESTION_LIMIT + watchSuggestionIndex.getMaxSuggestions());
+		}
+		return watchSuggestionIndex.suggest(prefix, limit);
+	}
+
 	@Override
 	public List<String> getBrand() {
-		List<String> brand = watchDao.getBrand();
+		List<String> brand = brandFacetIndex.isReady() ? brandFacetIndex.getBrands() : watchDao.getBrand();
 		if (brand.isEmpty()) {
 			throw new NotFoundException("In get brand", "Brands are not available");
 		} else {
@@ -101,6 +229,176 @@ public class WatchServiceImpl implements WatchService {
 		}
 	}
 
+	@Override
+	public List<BrandCount> getBrandCounts() {
+		List<BrandCount> brandCounts = brandFacetIndex.isReady() ? brandFacetIndex.getBrandCounts()
+				: watchDao.countByBrand();
+		if (brandCounts.isEmpty()) {
+			throw new NotFoundException("In get brand counts", "Brands are not available");
+		}
+		return brandCounts;
+	}
+
+	@Override
+	public Slice<Watch> filterWatches(CatalogFilter filter, String afterModelNumber, int pageSize) {
+		validatePageSize(pageSize);
+		if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+				&& filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+			throw new BadRequestException("price", Constant.INVALID_PRICE_RANGE);
+		}
+		if (!catalogFacetIndex.isReady()) {
+			boolean anyBrand = filter.getBrands() == null || filter.getBrands().isEmpty();
+			boolean anyType = filter.getTypes() == null || filter.getTypes().isEmpty();
+			// An empty IN list is not valid SQL, so a skipped facet gets a placeholder.
+			Set<String> brands = anyBrand ? Set.of("")
+					: filter.getBrands().stream().map(brand -> brand.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+			Set<WatchType> types = anyType ? EnumSet.allOf(WatchType.class) : filter.getTypes();
+			return watchDao.findFacetMatchesAfter(afterModelNumber == null ? "" : afterModelNumber, anyBrand, brands,
+					anyType, types, filter.getAvailableStatus(), filter.getMinPrice(), filter.getMaxPrice(),
+					PageRequest.ofSize(pageSize));
+		}
+		List<String> modelNumbers = catalogFacetIndex.filter(filter, afterModelNumber, pageSize + 1);
+		boolean hasNext = modelNumbers.size() > pageSize;
+		List<Watch> watches = new ArrayList<>();
+		if (!modelNumbers.isEmpty()) {
+			watches.addAll(watchDao.findAllById(modelNumbers.subList(0, Math.min(pageSize, modelNumbers.size()))));
+		}
+		watches.sort(Comparator.comparing(Watch::getModelNumber));
+		return new SliceImpl<>(watches, PageRequest.ofSize(pageSize), hasNext);
+	}
+
+	@Override
+	@Transactional
+	public List<Watch> addWatches(List<Watch> watches) {
+		Set<String> modelNumbers = new HashSet<>();
+		for (Watch watch : watches) {
+			modelNumbers.add(watch.getModelNumber());
+		}
+		Set<String> existing = watchBatchDao.findExistingModelNumbers(modelNumbers);
+		Set<String> seen = new HashSet<>();
+		List<Watch> skipped = new ArrayList<>();
+		List<Watch> newWatches = new ArrayList<>(watches.size());
+		for (Watch watch : watches) {
+			if (existing.contains(watch.getModelNumber()) || !seen.add(watch.getModelNumber())) {
+				skipped.add(watch);
+			} else {
+				newWatches.add(watch);
+			}
+		}
+		if (!newWatches.isEmpty()) {
+			long firstVersion = catalogVersionClock.reserve(newWatches.size());
+			for (int i = 0; i < newWatches.size(); i++) {
+				newWatches.get(i).setCatalogVersion(firstVersion + i);
+			}
+			watchBatchDao.insertWatches(newWatches);
+			newWatches.forEach(watch -> eventPublisher.publishEvent(new WatchChangedEvent(watch, true)));
+		}
+		return skipped;
+	}
+
+	@Override
+	@Transactional
+	public Map<String, String> adjustStock(Map<String, Integer> deltas) {
+		Map<String, String> rejected = new LinkedHashMap<>();
+		Map<String, StockLevel> levels = watchBatchDao.lockStockLevels(deltas.keySet());
+		List<StockLevel> newLevels = new ArrayList<>();
+		Set<String> backInStock = new HashSet<>();
+		deltas.forEach((modelNumber, delta) -> {
+			StockLevel level = levels.get(modelNumber);
+			if (level == null) {
+				rejected.put(modelNumber, Constant.NO_WATCH);
+				return;
+			}
+			int stockQuantity = level.getStockQuantity() + delta;
+			if (stockQuantity < 0) {
+				rejected.put(modelNumber, Constant.STOCK_BELOW_ZERO);
+				return;
+			}
+			if (delta == 0) {
+				return;
+			}
+			boolean availableStatus = stockQuantity > 0 && (level.getStockQuantity() == 0 || level.isAvailableStatus());
+			if (availableStatus && !level.isAvailableStatus()) {
+				backInStock.add(modelNumber);
+			}
+			newLevels.add(new StockLevel(modelNumber, stockQuantity, availableStatus));
+		});
+		if (newLevels.isEmpty()) {
+			return rejected;
+		}
+		watchBatchDao.updateStockLevels(newLevels, catalogVersionClock.reserve(newLevels.size()));
+		List<String> changedModels = newLevels.stream().map(StockLevel::getModelNumber).toList();
+		List<Watch> changedWatches = watchDao.findAllById(changedModels);
+		changedWatches.forEach(watch -> eventPublisher.publishEvent(new WatchChangedEvent(watch)));
+		notificationService.updateNotifications(
+				changedWatches.stream().filter(watch -> backInStock.contains(watch.getModelNumber())).toList());
+		return rejected;
+	}
+
+	@Override
+	public WatchChanges getWatchChanges(long sinceVersion, int pageSize) {
+		validatePageSize(pageSize);
+		if (sinceVersion < 0) {
+			throw new BadRequestException("since", Constant.INVALID_SINCE_VERSION);
+		}
+		long stableVersion = catalogVersionClock.stable();
+		if (sinceVersion >= stableVersion) {
+			return new WatchChanges(List.of(), Math.max(sinceVersion, stableVersion), false);
+		}
+		Slice<Watch> slice = watchDao.findByCatalogVersionBetweenOrderByCatalogVersionAsc(sinceVersion + 1,
+				stableVersion, PageRequest.ofSize(pageSize));
+		List<Watch> watches = slice.getContent();
+		long version = slice.hasNext() ? watches.get(watches.size() - 1).getCatalogVersion() : stableVersion;
+		return new WatchChanges(watches, version, slice.hasNext());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportWatches(Consumer<Watch> consumer) {
+		watchExportDao.streamWatches(consumer);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<TopSeller> getTopSellers(SalesWindow window, String watchBrand, WatchType watchType, int limit) {
+		validatePageSize(limit);
+		List<SalesRank> ranks = salesRankingIndex.isReady()
+				? salesRankingIndex.getTopSellers(window, watchBrand, watchType, limit)
+				: findTopSellers(window, watchBrand, watchType, limit);
+		Map<String, Long> unitsByModel = new HashMap<>();
+		ranks.forEach(rank -> unitsByModel.put(rank.getModelNumber(), rank.getUnitsSold()));
+		return findInOrder(ranks.stream().map(SalesRank::getModelNumber).collect(Collectors.toList())).stream()
+				.map(watch -> new TopSeller(watch, unitsByModel.get(watch.getModelNumber())))
+				.collect(Collectors.toList());
+	}
+
+	private List<SalesRank> findTopSellers(SalesWindow window, String watchBrand, WatchType watchType, int limit) {
+		LocalDateTime since = LocalDateTime.now().minus(window.getLength());
+		List<WatchSales> sales = orderDao.findTopSellersSince(since, watchBrand, watchType, PageRequest.ofSize(limit));
+		return sales.stream().map(sale -> new SalesRank(sale.getModelNumber(), sale.getUnitsSold()))
+				.collect(Collectors.toList());
+	}
+
+	private List<Watch> findInOrder(List<String> modelNumbers) {
+		if (modelNumbers.isEmpty()) {
+			return List.of();
+		}
+		Map<String, Watch> watchesByModel = new HashMap<>();
+		watchDao.findAllById(modelNumbers).forEach(watch -> watchesByModel.put(watch.getModelNumber(), watch));
+		List<Watch> watches = new ArrayList<>(modelNumbers.size());
+		for (String modelNumber : modelNumbers) {
+			Watch watch = watchesByModel.get(modelNumber);
+			if (watch != null) {
+				watches.add(watch);
+			}
+		}
+		return watches;
+	}
 
+	private void validatePageSize(int pageSize) {
+		if (pageSize < 1 || pageSize > Constant.MAX_PAGE_SIZE) {
+			throw new BadRequestException("size", Constant.INVALID_PAGE_SIZE + Constant.MAX_PAGE_SIZE);
+		}
+	}
 
 }
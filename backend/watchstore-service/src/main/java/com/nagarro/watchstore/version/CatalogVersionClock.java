@@ -0,0 +1,136 @@
+package com.nagarro.watchstore.version;
+
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.nagarro.watchstore.dao.WatchDao;
+
+/**
+ * Hands out the catalog versions stamped on watches as they change. Versions
+ * increase strictly and survive restarts, the clock starting after the highest
+ * version found in the database.
+ * <p>
+ * Versions are taken inside the transaction making the change, which may commit
+ * after a transaction that took a later version. The clock therefore tracks the
+ * versions of transactions still running and only reports as
+ * {@link #stable() stable} the versions below all of them, so a client reading
+ * changes up to the stable version can never miss one committed later.
+ * <p>
+ * The stable version is also the version of the catalog as a whole: every
+ * committed change to a watch moves it forward once the listeners ordered at
+ * {@link #LISTENER_ORDER} have made the change visible, so two reads made at
+ * the same stable version see the same catalog.
+ * <p>
+ * The clock lives in the memory of one application instance, like the catalog
+ * indexes and the write-behind cart store, so the application must run as a
+ * single instance. A second instance writing the same database would seed its
+ * own clock, hand out the same versions again and know nothing of the other's
+ * running transactions, and the change feed could then skip changes.
+ * 
+ * @author karan
+ */
+@Component
+public class CatalogVersionClock {
+
+	/**
+	 * The order of the listeners that bring in-memory views of the catalog up to
+	 * date after a transaction changed watches. The versions of the transaction
+	 * are released after them, so the stable version only moves once every view
+	 * shows the change.
+	 */
+	public static final int LISTENER_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+	private final WatchDao watchDao;
+
+	private final TreeSet<Long> pending = new TreeSet<>();
+
+	private long last = -1;
+
+	private final long bootEpoch = System.currentTimeMillis();
+
+	@Autowired
+	public CatalogVersionClock(WatchDao watchDao) {
+		super();
+		this.watchDao = watchDao;
+	}
+
+	/**
+	 * Takes the next version for a change made by the current transaction.
+	 *
+	 * @return the version to stamp
+	 */
+	public long next() {
+		return reserve(1);
+	}
+
+	/**
+	 * Takes a run of consecutive versions for changes made by the current
+	 * transaction.
+	 *
+	 * @param count the number of versions to take
+	 * @return the first version of the run
+	 * @throws IllegalStateException if no transaction is active
+	 */
+	public long reserve(int count) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("Catalog versions can only be taken inside a transaction");
+		}
+		long first;
+		synchronized (this) {
+			seed();
+			first = last + 1;
+			last += count;
+			pending.add(first);
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public int getOrder() {
+				return Ordered.LOWEST_PRECEDENCE;
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				release(first);
+			}
+		});
+		return first;
+	}
+
+	/**
+	 * Returns the highest version below which every change is committed or
+	 * rolled back.
+	 *
+	 * @return the stable version
+	 */
+	public synchronized long stable() {
+		seed();
+		return pending.isEmpty() ? last : pending.first() - 1;
+	}
+
+	/**
+	 * Returns the time this clock started at. A stable version may be reported
+	 * again after a restart for a different catalog, when the changes that last
+	 * reached it were rolled back or their watches deleted, so the version alone
+	 * only identifies the catalog together with this epoch.
+	 *
+	 * @return the boot time in milliseconds
+	 */
+	public long getBootEpoch() {
+		return bootEpoch;
+	}
+
+	private synchronized void release(long first) {
+		pending.remove(first);
+	}
+
+	private void seed() {
+		if (last < 0) {
+			last = watchDao.findMaxCatalogVersion();
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package com.nagarro.watchstore.version;
+
+import java.util.List;
+
+import com.nagarro.watchstore.entity.Watch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A page of the watches changed after a catalog version, oldest change first.
+ * 
+ * @author karan
+ */
+@Getter
+@AllArgsConstructor
+public class WatchChanges {
+
+	/**
+	 * The changed watches.
+	 */
+	private final List<Watch> watches;
+
+	/**
+	 * The version to ask for changes after next time: the version of the last
+	 * watch when more changes follow, otherwise the stable catalog version.
+	 */
+	private final long version;
+
+	/**
+	 * Whether more changes follow this page.
+	 */
+	private final boolean hasMore;
+}
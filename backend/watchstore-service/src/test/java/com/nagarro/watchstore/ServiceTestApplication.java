@@ -0,0 +1,12 @@
+package com.nagarro.watchstore;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Boot configuration for the tests of this module that run against a
+ * database, the module having no application class of its own.
+ */
+@SpringBootApplication
+public class ServiceTestApplication {
+
+}
@@ -0,0 +1,129 @@
+package com.nagarro.watchstore.cache;
+
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dao.projection.CartLineView;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.event.CartChangedEvent;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test cases for CartViewCacheEvictionListener class.
+ */
+class CartViewCacheEvictionListenerTest {
+
+    private CaffeineCacheManager cacheManager;
+
+    private CartViewIndex cartViewIndex;
+
+    private CartViewCacheEvictionListener listener;
+
+    @BeforeEach
+    void setup() {
+        cacheManager = new CaffeineCacheManager(Constant.CART_VIEW_CACHE);
+        cartViewIndex = new CartViewIndex();
+        listener = new CartViewCacheEvictionListener(cacheManager, cartViewIndex);
+        cache("first@mail.com", List.of(line(1, "A1"), line(2, "B1")));
+        cache("second@mail.com", List.of(line(3, "B1")));
+    }
+
+    @Test
+    void onCartChanged_WithCachedView_ShouldEvictOnlyThatUser() {
+        // Act
+        listener.onCartChanged(new CartChangedEvent("first@mail.com"));
+
+        // Assert
+        Assertions.assertNull(cacheManager.getCache(Constant.CART_VIEW_CACHE).get("first@mail.com"));
+        Assertions.assertNotNull(cacheManager.getCache(Constant.CART_VIEW_CACHE).get("second@mail.com"));
+    }
+
+    @Test
+    void onWatchChanged_WithWatchInEveryCart_ShouldEvictEveryUser() {
+        // Act
+        listener.onWatchChanged(new WatchChangedEvent(watch("B1")));
+
+        // Assert
+        Assertions.assertNull(cacheManager.getCache(Constant.CART_VIEW_CACHE).get("first@mail.com"));
+        Assertions.assertNull(cacheManager.getCache(Constant.CART_VIEW_CACHE).get("second@mail.com"));
+    }
+
+    @Test
+    void onWatchChanged_WithWatchInOneCart_ShouldEvictOnlyThatUser() {
+        // Act
+        listener.onWatchChanged(new WatchChangedEvent(watch("A1")));
+        listener.onWatchChanged(new WatchChangedEvent(watch("C1")));
+
+        // Assert
+        Assertions.assertNull(cacheManager.getCache(Constant.CART_VIEW_CACHE).get("first@mail.com"));
+        Assertions.assertNotNull(cacheManager.getCache(Constant.CART_VIEW_CACHE).get("second@mail.com"));
+        Assertions.assertEquals(Set.of("second@mail.com"), cartViewIndex.findUsersShowing("B1"));
+    }
+
+    @Test
+    void onWatchChanged_AfterViewRebuiltWithoutTheWatch_ShouldLeaveTheViewCached() {
+        // Arrange
+        listener.onCartChanged(new CartChangedEvent("first@mail.com"));
+        cache("first@mail.com", List.of(line(1, "A1")));
+
+        // Act
+        listener.onWatchChanged(new WatchChangedEvent(watch("B1")));
+
+        // Assert
+        Assertions.assertNotNull(cacheManager.getCache(Constant.CART_VIEW_CACHE).get("first@mail.com"));
+        Assertions.assertNull(cacheManager.getCache(Constant.CART_VIEW_CACHE).get("second@mail.com"));
+    }
+
+    @Test
+    void onWatchChanged_WithCreatedWatch_ShouldEvictNothing() {
+        // Act
+        listener.onWatchChanged(new WatchChangedEvent(watch("B1"), true));
+
+        // Assert
+        Assertions.assertNotNull(cacheManager.getCache(Constant.CART_VIEW_CACHE).get("first@mail.com"));
+        Assertions.assertNotNull(cacheManager.getCache(Constant.CART_VIEW_CACHE).get("second@mail.com"));
+    }
+
+    @Test
+    void forget_WithViewCachedAgainSince_ShouldKeepTheNewView() {
+        // Arrange
+        List<CartLineView> first = List.of(line(3, "B1"));
+        List<CartLineView> second = List.of(line(3, "B1"));
+        cartViewIndex.record("third@mail.com", first);
+        cartViewIndex.record("third@mail.com", second);
+
+        // Act
+        cartViewIndex.forget("third@mail.com", first);
+
+        // Assert
+        Assertions.assertTrue(cartViewIndex.findUsersShowing("B1").contains("third@mail.com"));
+        cartViewIndex.forget("third@mail.com", second);
+        Assertions.assertFalse(cartViewIndex.findUsersShowing("B1").contains("third@mail.com"));
+    }
+
+    /**
+     * Caches a view the way the cart service does.
+     */
+    private void cache(String userId, List<CartLineView> views) {
+        cartViewIndex.record(userId, views);
+        cacheManager.getCache(Constant.CART_VIEW_CACHE).put(userId, views);
+    }
+
+    private static CartLineView line(int cartId, String modelNumber) {
+        return new CartLineView(cartId, 1, modelNumber, "Diver", "Seiko", WatchType.AUTOMATIC, new BigDecimal("100"),
+                5, true, null);
+    }
+
+    private static Watch watch(String modelNumber) {
+        Watch watch = new Watch();
+        watch.setModelNumber(modelNumber);
+        return watch;
+    }
+}
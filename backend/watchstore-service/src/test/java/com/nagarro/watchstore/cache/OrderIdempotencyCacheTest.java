@@ -0,0 +1,117 @@
+package com.nagarro.watchstore.cache;
+
+import com.nagarro.watchstore.dao.OrderDao;
+import com.nagarro.watchstore.entity.Order;
+import com.nagarro.watchstore.exception.BadRequestException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for OrderIdempotencyCache class.
+ */
+class OrderIdempotencyCacheTest {
+
+    private static final String USER = "buyer@mail.com";
+
+    @Mock
+    private OrderDao orderDao;
+
+    private OrderIdempotencyCache cache;
+
+    private final AtomicInteger placements = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        cache = new OrderIdempotencyCache(orderDao, 100, Duration.ofHours(1));
+    }
+
+    @Test
+    void placeOnce_WithRetriedKey_ShouldPlaceOnceAndAnswerRetriesFromMemory() {
+        // Arrange
+        Order placed = new Order();
+        when(orderDao.findByUserEmailIdAndIdempotencyKey(USER, "key-1")).thenReturn(Optional.empty());
+
+        // Act
+        Order first = cache.placeOnce(USER, "key-1", placing(placed));
+        Order retry = cache.placeOnce(USER, "key-1", placing(new Order()));
+
+        // Assert
+        Assertions.assertSame(placed, first);
+        Assertions.assertSame(placed, retry);
+        Assertions.assertEquals(1, placements.get());
+        verify(orderDao, times(1)).findByUserEmailIdAndIdempotencyKey(USER, "key-1");
+    }
+
+    @Test
+    void placeOnce_WithKeyOnlyInDatabase_ShouldAnswerWithStoredOrder() {
+        // Arrange
+        Order stored = new Order();
+        when(orderDao.findByUserEmailIdAndIdempotencyKey(USER, "key-2")).thenReturn(Optional.of(stored));
+
+        // Act
+        Order order = cache.placeOnce(USER, "key-2", placing(new Order()));
+
+        // Assert
+        Assertions.assertSame(stored, order);
+        Assertions.assertEquals(0, placements.get());
+    }
+
+    @Test
+    void placeOnce_WhenConcurrentRequestWonTheKey_ShouldAnswerWithItsOrder() {
+        // Arrange
+        Order winner = new Order();
+        when(orderDao.findByUserEmailIdAndIdempotencyKey(USER, "key-3")).thenReturn(Optional.empty(),
+                Optional.of(winner));
+
+        // Act
+        Order order = cache.placeOnce(USER, "key-3", () -> {
+            throw new DataIntegrityViolationException("uk_orders_user_idempotency_key");
+        });
+
+        // Assert
+        Assertions.assertSame(winner, order);
+    }
+
+    @Test
+    void placeOnce_WithSameKeyForAnotherUser_ShouldPlaceAgain() {
+        // Arrange
+        when(orderDao.findByUserEmailIdAndIdempotencyKey(USER, "key-4")).thenReturn(Optional.empty());
+        when(orderDao.findByUserEmailIdAndIdempotencyKey("other@mail.com", "key-4")).thenReturn(Optional.empty());
+
+        // Act
+        cache.placeOnce(USER, "key-4", placing(new Order()));
+        cache.placeOnce("other@mail.com", "key-4", placing(new Order()));
+
+        // Assert
+        Assertions.assertEquals(2, placements.get());
+    }
+
+    @Test
+    void placeOnce_WithTooLongKey_ShouldThrowBadRequest() {
+        Assertions.assertThrows(BadRequestException.class,
+                () -> cache.placeOnce(USER, "k".repeat(65), placing(new Order())));
+        Assertions.assertThrows(BadRequestException.class, () -> cache.placeOnce(USER, " ", placing(new Order())));
+        Assertions.assertEquals(0, placements.get());
+    }
+
+    private Supplier<Order> placing(Order order) {
+        return () -> {
+            placements.incrementAndGet();
+            return order;
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.nagarro.watchstore.cache;
+
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+/**
+ * Test cases for WatchCacheEvictionListener class.
+ */
+class WatchCacheEvictionListenerTest {
+
+    private CaffeineCacheManager cacheManager;
+
+    private WatchCacheEvictionListener listener;
+
+    @BeforeEach
+    void setup() {
+        cacheManager = new CaffeineCacheManager(Constant.WATCH_CACHE);
+        listener = new WatchCacheEvictionListener(cacheManager);
+    }
+
+    @Test
+    void onWatchChanged_WithCachedWatch_ShouldEvictOnlyThatWatch() {
+        // Arrange
+        Watch changed = new Watch();
+        changed.setModelNumber("123");
+        cacheManager.getCache(Constant.WATCH_CACHE).put("123", changed);
+        cacheManager.getCache(Constant.WATCH_CACHE).put("456", new Watch());
+
+        // Act
+        listener.onWatchChanged(new WatchChangedEvent(changed));
+
+        // Assert
+        Assertions.assertNull(cacheManager.getCache(Constant.WATCH_CACHE).get("123"));
+        Assertions.assertNotNull(cacheManager.getCache(Constant.WATCH_CACHE).get("456"));
+    }
+}
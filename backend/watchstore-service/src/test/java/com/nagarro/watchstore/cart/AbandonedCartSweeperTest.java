@@ -0,0 +1,124 @@
+package com.nagarro.watchstore.cart;
+
+import com.nagarro.watchstore.dao.CartBatchDao;
+import com.nagarro.watchstore.event.CartChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for AbandonedCartSweeper class.
+ */
+class AbandonedCartSweeperTest {
+
+    @Mock
+    private CartBatchDao cartBatchDao;
+
+    @Mock
+    private CartStore cartStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AbandonedCartSweeper sweeper;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new AbandonedCartSweeper(cartBatchDao, cartStore, eventPublisher, meterRegistry, Duration.ofDays(30), 2);
+    }
+
+    @Test
+    void sweep_ShouldDeleteChunksUntilOneComesBackShort() {
+        // Arrange
+        when(cartBatchDao.findUntouchedSince(any(), eq(2))).thenReturn(Map.of(1, "first@mail.com", 2, "first@mail.com"),
+                Map.of(3, "second@mail.com", 4, "third@mail.com"), Map.of(5, "third@mail.com"));
+        when(cartBatchDao.deleteUntouchedSince(any(), any())).thenReturn(2, 2, 1);
+
+        // Act
+        int swept = sweeper.sweep();
+
+        // Assert
+        Assertions.assertEquals(5, swept);
+        LocalDateTime monthAgo = LocalDateTime.now().minusDays(30);
+        verify(cartBatchDao, times(3)).findUntouchedSince(
+                argThat(cutoff -> !cutoff.isAfter(monthAgo) && cutoff.isAfter(monthAgo.minusMinutes(1))), eq(2));
+        verify(cartBatchDao).deleteUntouchedSince(eq(Set.of(5)), any());
+        verify(cartStore).flush("first@mail.com");
+        verify(cartStore).flush("second@mail.com");
+        verify(cartStore, times(2)).flush("third@mail.com");
+        verify(eventPublisher, times(4)).publishEvent(any(CartChangedEvent.class));
+        Assertions.assertEquals(5, meterRegistry.get(AbandonedCartSweeper.ROWS_METER).counter().count());
+        Assertions.assertEquals(1, meterRegistry.get(AbandonedCartSweeper.TIMER).timer().count());
+    }
+
+    @Test
+    void sweep_ShouldFlushTheCartsBeforeDeletingWithTheSameCutoff() {
+        // Arrange
+        when(cartBatchDao.findUntouchedSince(any(), eq(2))).thenReturn(Map.of(1, "first@mail.com"));
+        when(cartBatchDao.deleteUntouchedSince(any(), any())).thenReturn(0);
+
+        // Act
+        int swept = sweeper.sweep();
+
+        // Assert
+        Assertions.assertEquals(0, swept);
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        InOrder inOrder = inOrder(cartBatchDao, cartStore);
+        inOrder.verify(cartBatchDao).findUntouchedSince(cutoff.capture(), eq(2));
+        inOrder.verify(cartStore).flush("first@mail.com");
+        inOrder.verify(cartBatchDao).deleteUntouchedSince(Set.of(1), cutoff.getValue());
+    }
+
+    @Test
+    void sweep_WithUntrackedLines_ShouldTouchThemInChunksFirst() {
+        // Arrange
+        when(cartBatchDao.touchUntracked(any(), eq(2))).thenReturn(2, 2, 0);
+        when(cartBatchDao.findUntouchedSince(any(), eq(2))).thenReturn(Map.of());
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        verify(cartBatchDao, times(3)).touchUntracked(any(), eq(2));
+    }
+
+    @Test
+    void sweep_WithNothingToSweep_ShouldStillRecordTheRun() {
+        // Arrange
+        when(cartBatchDao.findUntouchedSince(any(), eq(2))).thenReturn(Map.of());
+
+        // Act
+        int swept = sweeper.sweep();
+
+        // Assert
+        Assertions.assertEquals(0, swept);
+        verify(cartBatchDao).findUntouchedSince(any(), eq(2));
+        verifyNoInteractions(cartStore, eventPublisher);
+        Assertions.assertEquals(0, meterRegistry.get(AbandonedCartSweeper.ROWS_METER).counter().count());
+        Assertions.assertEquals(1, meterRegistry.get(AbandonedCartSweeper.TIMER).timer().count());
+    }
+}
@@ -0,0 +1,67 @@
+package com.nagarro.watchstore.cart;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Test cases for CartWriteAheadLog class.
+ */
+class CartWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_ShouldKeepLastQuantityOfEveryLineAcrossSegments() {
+        try (CartWriteAheadLog log = new CartWriteAheadLog(directory)) {
+            log.append(1, 2);
+            log.append(2, 5);
+            long first = log.rotate();
+            log.append(1, 3);
+            log.append(2, 0);
+            long second = log.rotate();
+            log.append(1, 9);
+
+            Assertions.assertEquals(Map.of(1, 2, 2, 5), log.read(first));
+            Assertions.assertEquals(Map.of(1, 3, 2, 0), log.read(second));
+        }
+    }
+
+    @Test
+    void release_ShouldOnlyDeleteReleasedSegments() {
+        try (CartWriteAheadLog log = new CartWriteAheadLog(directory)) {
+            log.append(1, 2);
+            long first = log.rotate();
+            log.append(1, 3);
+            long second = log.rotate();
+
+            log.release(first);
+
+            Assertions.assertEquals(Map.of(1, 3), log.read(second));
+        }
+    }
+
+    @Test
+    void newLog_ShouldKeepSegmentsOfPreviousRunAndSkipTornEntry() throws IOException {
+        long crashed;
+        try (CartWriteAheadLog log = new CartWriteAheadLog(directory)) {
+            log.append(1, 2);
+            log.append(2, 4);
+            crashed = log.rotate() + 1;
+        }
+        Files.writeString(directory.resolve("cart-" + crashed + ".wal"), "3 7\n2 1", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        try (CartWriteAheadLog log = new CartWriteAheadLog(directory)) {
+            Assertions.assertEquals(Map.of(1, 2, 2, 4, 3, 7), log.read(log.rotate()));
+        }
+    }
+}
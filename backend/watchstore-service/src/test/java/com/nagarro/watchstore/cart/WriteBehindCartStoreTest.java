@@ -0,0 +1,343 @@
+package com.nagarro.watchstore.cart;
+
+import com.nagarro.watchstore.cache.CartViewIndex;
+import com.nagarro.watchstore.dao.CartBatchDao;
+import com.nagarro.watchstore.dao.CartRepository;
+import com.nagarro.watchstore.dao.OrderDao;
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.entity.Address;
+import com.nagarro.watchstore.entity.Cart;
+import com.nagarro.watchstore.entity.Order;
+import com.nagarro.watchstore.entity.User;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.event.CartChangedEvent;
+import com.nagarro.watchstore.exception.BadRequestException;
+import com.nagarro.watchstore.service.AddressService;
+import com.nagarro.watchstore.service.CartService;
+import com.nagarro.watchstore.service.DeliveryAddressService;
+import com.nagarro.watchstore.service.OrderService;
+import com.nagarro.watchstore.service.UserService;
+import com.nagarro.watchstore.service.WatchService;
+import com.nagarro.watchstore.service.impl.CartServiceImpl;
+import com.nagarro.watchstore.service.impl.OrderServiceImpl;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for WriteBehindCartStore class against a real database, each
+ * change committing on its own as it does behind the controller, including an
+ * add-to-cart throughput benchmark against the JPA store.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ CartBatchDao.class, JpaCartStore.class })
+class WriteBehindCartStoreTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindCartStoreTest.class);
+
+    private static final String USER = "buyer@mail.com";
+
+    @TempDir
+    Path logDirectory;
+
+    @MockBean
+    private WatchService watchService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartBatchDao cartBatchDao;
+
+    @Autowired
+    private WatchDao watchDao;
+
+    @Autowired
+    private JpaCartStore jpaCartStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Watch> watches = new HashMap<>();
+
+    private final ApplicationEventPublisher eventPublisher = event -> {
+    };
+
+    @BeforeEach
+    void setup() {
+        when(watchService.getWatchByModel(anyString())).thenAnswer(invocation -> watches.get(invocation.getArgument(0)));
+    }
+
+    @AfterEach
+    void cleanup() {
+        cartRepository.deleteAll();
+        watchDao.deleteAll();
+    }
+
+    @Test
+    void addCart_ShouldCoalesceIncrementsUntilFlush() {
+        stockWatch("WB-1", 100);
+        WriteBehindCartStore store = newStore();
+        CartService cartService = new CartServiceImpl(watchService, store, eventPublisher, new CartViewIndex());
+
+        for (int i = 0; i < 20; i++) {
+            cartService.addCart(USER, "WB-1");
+        }
+
+        Assertions.assertEquals(20, cartService.retrieveCartByUserId(USER).get(0).getWatchQty());
+        Assertions.assertEquals(20, cartService.retrieveCartViewByUserId(USER).get(0).getWatchQty());
+        Assertions.assertEquals(1, storedQuantity("WB-1"));
+        store.flush();
+        Assertions.assertEquals(20, storedQuantity("WB-1"));
+        store.close();
+    }
+
+    @Test
+    void addCart_ShouldStopAtStock() {
+        stockWatch("WB-2", 3);
+        WriteBehindCartStore store = newStore();
+        CartService cartService = new CartServiceImpl(watchService, store, eventPublisher, new CartViewIndex());
+
+        for (int i = 0; i < 3; i++) {
+            cartService.addCart(USER, "WB-2");
+        }
+
+        Assertions.assertThrows(BadRequestException.class, () -> cartService.addCart(USER, "WB-2"));
+        store.close();
+        Assertions.assertEquals(3, storedQuantity("WB-2"));
+    }
+
+    @Test
+    void newStore_ShouldWriteBackChangesLoggedBeforeCrash() {
+        stockWatch("WB-3", 100);
+        stockWatch("WB-4", 100);
+        WriteBehindCartStore crashed = newStore();
+        CartService cartService = new CartServiceImpl(watchService, crashed, eventPublisher, new CartViewIndex());
+        cartService.addCart(USER, "WB-3");
+        cartService.addCart(USER, "WB-4");
+        int removedId = cartService.retrieveCartByUserId(USER).stream()
+                .filter(cart -> cart.getWatch().getModelNumber().equals("WB-4")).findFirst().orElseThrow().getCartId();
+        cartService.updateCartQty(cartService.retrieveCartByUserId(USER).stream()
+                .filter(cart -> cart.getWatch().getModelNumber().equals("WB-3")).findFirst().orElseThrow()
+                .getCartId(), 7);
+        cartService.deleteCartById(removedId);
+        Assertions.assertEquals(2, cartRepository.findByUserId(USER).size());
+
+        WriteBehindCartStore restarted = newStore();
+
+        List<Cart> carts = cartRepository.findByUserId(USER);
+        Assertions.assertEquals(1, carts.size());
+        Assertions.assertEquals(7, carts.get(0).getWatchQty());
+        restarted.close();
+    }
+
+    @Test
+    void applyOperations_ShouldInsertNewLinesAndWriteBackTheRest() {
+        stockWatch("WB-5", 100);
+        stockWatch("WB-6", 100);
+        WriteBehindCartStore store = newStore();
+        CartService cartService = new CartServiceImpl(watchService, store, eventPublisher, new CartViewIndex());
+        cartService.addCart(USER, "WB-5");
+
+        List<Cart> carts = cartService.applyCartOperations(USER, List.of(
+                new CartOperation(CartOperation.Type.SET, "WB-5", 4),
+                new CartOperation(CartOperation.Type.ADD, "WB-6", 2)));
+
+        Assertions.assertEquals(2, carts.size());
+        Assertions.assertEquals(2, storedQuantity("WB-6"));
+        Assertions.assertEquals(1, storedQuantity("WB-5"));
+        Assertions.assertThrows(BadRequestException.class, () -> cartService.applyCartOperations(USER, List.of(
+                new CartOperation(CartOperation.Type.REMOVE, "WB-5", 0),
+                new CartOperation(CartOperation.Type.SET, "WB-6", 1000))));
+        store.flush(USER);
+        Assertions.assertEquals(4, storedQuantity("WB-5"));
+        Assertions.assertEquals(2, storedQuantity("WB-6"));
+        store.close();
+    }
+
+    @Test
+    void addCart_AfterRemoveBeforeFlush_ShouldReuseTheLine() {
+        stockWatch("WB-7", 100);
+        WriteBehindCartStore store = newStore();
+        CartService cartService = new CartServiceImpl(watchService, store, eventPublisher, new CartViewIndex());
+        cartService.addCart(USER, "WB-7");
+        cartService.addCart(USER, "WB-7");
+        int cartId = cartService.retrieveCartByUserId(USER).get(0).getCartId();
+
+        cartService.deleteCartById(cartId);
+        cartService.addCart(USER, "WB-7");
+
+        List<Cart> carts = cartService.retrieveCartByUserId(USER);
+        Assertions.assertEquals(1, carts.size());
+        Assertions.assertEquals(cartId, carts.get(0).getCartId());
+        Assertions.assertEquals(1, carts.get(0).getWatchQty());
+        store.flush();
+        Assertions.assertEquals(1, storedQuantity("WB-7"));
+
+        cartService.applyCartOperations(USER, List.of(new CartOperation(CartOperation.Type.REMOVE, "WB-7", 0)));
+        cartService.applyCartOperations(USER, List.of(new CartOperation(CartOperation.Type.ADD, "WB-7", 3)));
+        store.flush();
+        Assertions.assertEquals(3, storedQuantity("WB-7"));
+        Assertions.assertEquals(cartId, cartRepository.findByUserId(USER).get(0).getCartId());
+        store.close();
+    }
+
+    @Test
+    void sweep_ShouldDropSweptLinesFromTheStore() {
+        stockWatch("WB-8", 100);
+        WriteBehindCartStore store = newStore();
+        CartService cartService = new CartServiceImpl(watchService, store, eventPublisher, new CartViewIndex());
+        cartService.addCart(USER, "WB-8");
+        cartService.addCart(USER, "WB-8");
+        store.flush();
+        jdbcTemplate.update("update carts set last_touched = ?", Timestamp.valueOf(LocalDateTime.now().minusDays(40)));
+        List<Object> events = new ArrayList<>();
+        AbandonedCartSweeper sweeper = new AbandonedCartSweeper(cartBatchDao, store, events::add,
+                new SimpleMeterRegistry(), Duration.ofDays(30), 500);
+
+        Assertions.assertEquals(1, sweeper.sweep());
+        cartService.addCart(USER, "WB-8");
+        store.flush();
+
+        Assertions.assertEquals(1, storedQuantity("WB-8"));
+        Assertions.assertEquals(1, cartService.retrieveCartByUserId(USER).get(0).getWatchQty());
+        Assertions.assertEquals(List.of(USER), events.stream().map(event -> ((CartChangedEvent) event).getUserId()).toList());
+        store.close();
+    }
+
+    @Test
+    void checkout_WithAddDuringCheckout_ShouldKeepOnlyTheLinesNotOrdered() {
+        stockWatch("WB-9", 100);
+        stockWatch("WB-10", 100);
+        WriteBehindCartStore store = newStore();
+        CartService cartService = new CartServiceImpl(watchService, store, eventPublisher, new CartViewIndex());
+        cartService.addCart(USER, "WB-9");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        UserService userService = mock(UserService.class);
+        // Looked up once the checkout has flushed the cart and read its watches.
+        when(userService.findUserById(USER)).thenAnswer(invocation -> {
+            executor.submit(() -> {
+                cartService.addCart(USER, "WB-9");
+                cartService.addCart(USER, "WB-10");
+            }).get();
+            return new User();
+        });
+        Address address = new Address();
+        address.setAddressId(1L);
+        AddressService addressService = mock(AddressService.class);
+        when(addressService.findByIdAndUserId(1L, USER)).thenReturn(address);
+        OrderDao orderDao = mock(OrderDao.class);
+        when(orderDao.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        OrderService orderService = new OrderServiceImpl(orderDao, userService, addressService,
+                mock(DeliveryAddressService.class), watchDao, cartRepository, store, new CatalogVersionClock(watchDao),
+                eventPublisher);
+
+        Order order = new TransactionTemplate(transactionManager).execute(status -> orderService.checkout(1L, USER));
+        executor.shutdown();
+        store.flush();
+
+        Assertions.assertEquals(1, order.getLines().size());
+        Assertions.assertEquals(List.of("WB-10"), cartService.retrieveCartByUserId(USER).stream()
+                .map(line -> line.getWatch().getModelNumber()).toList());
+        Assertions.assertEquals(1, storedQuantity("WB-10"));
+        Assertions.assertEquals(1, cartRepository.findByUserId(USER).size());
+        store.close();
+    }
+
+    @Test
+    void addCart_ThroughputAgainstJpaStore() {
+        int adds = 2000;
+        stockWatch("WB-JPA", adds);
+        stockWatch("WB-MEM", adds);
+        WriteBehindCartStore store = newStore();
+
+        double jpaPerSecond = addsPerSecond(
+                new CartServiceImpl(watchService, jpaCartStore, eventPublisher, new CartViewIndex()), "WB-JPA", adds);
+        double writeBehindPerSecond = addsPerSecond(
+                new CartServiceImpl(watchService, store, eventPublisher, new CartViewIndex()), "WB-MEM", adds);
+        store.flush();
+        LOGGER.info("Add-to-cart throughput over {} adds: {} per second with the JPA store, {} per second write-behind",
+                adds, Math.round(jpaPerSecond), Math.round(writeBehindPerSecond));
+
+        Assertions.assertEquals(adds, storedQuantity("WB-JPA"));
+        Assertions.assertEquals(adds, storedQuantity("WB-MEM"));
+        Assertions.assertTrue(writeBehindPerSecond > jpaPerSecond);
+        store.close();
+    }
+
+    private double addsPerSecond(CartService cartService, String watchModel, int adds) {
+        cartService.addCart(USER, watchModel);
+        long start = System.nanoTime();
+        for (int i = 1; i < adds; i++) {
+            cartService.addCart(USER, watchModel);
+        }
+        return (adds - 1) * 1e9 / (System.nanoTime() - start);
+    }
+
+    private WriteBehindCartStore newStore() {
+        return new WriteBehindCartStore(cartRepository, cartBatchDao, watchService, transactionManager,
+                logDirectory.toString(), Duration.ofMinutes(10));
+    }
+
+    private int storedQuantity(String watchModel) {
+        return cartRepository.findByUserId(USER).stream()
+                .filter(cart -> cart.getWatch().getModelNumber().equals(watchModel)).findFirst().orElseThrow()
+                .getWatchQty();
+    }
+
+    /**
+     * Saves a watch and serves it from memory, as the watch cache does.
+     */
+    private void stockWatch(String modelNumber, int stockQuantity) {
+        Watch watch = new Watch();
+        watch.setModelNumber(modelNumber);
+        watch.setWatchName("Write-behind " + modelNumber);
+        watch.setWatchBrand("Brand");
+        watch.setWatchType(WatchType.AUTOMATIC);
+        watch.setPrice(BigDecimal.valueOf(100));
+        watch.setStockQuantity(stockQuantity);
+        watch.setAvailableStatus(true);
+        watch.setImages(new ArrayList<>());
+        watches.put(modelNumber, watchDao.save(watch));
+    }
+}
@@ -0,0 +1,130 @@
+package com.nagarro.watchstore.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Test cases for ReplicaRoutingDataSource class, with a second in-memory
+ * database standing in for the replica.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = database("primary");
+
+    private final DataSource replica = database("replica");
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setup() {
+        use(new ReadYourWritesTracker(Duration.ofMinutes(1)));
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldReadFromReplica() {
+        signIn("a@mail.com");
+
+        Assertions.assertEquals("replica", readOnly.execute(status -> route()));
+    }
+
+    @Test
+    void readWriteTransactionAndNoTransaction_ShouldUsePrimary() {
+        Assertions.assertEquals("primary", readWrite.execute(status -> route()));
+        Assertions.assertEquals("primary", route());
+    }
+
+    @Test
+    void readOnlyTransactionAfterOwnWrite_ShouldReadFromPrimary() {
+        signIn("a@mail.com");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("insert into writes values (1)"));
+
+        Assertions.assertEquals("primary", readOnly.execute(status -> route()));
+        signIn("b@mail.com");
+        Assertions.assertEquals("replica", readOnly.execute(status -> route()));
+    }
+
+    @Test
+    void readOnlyTransactionAfterRolledBackWrite_ShouldReadFromReplica() {
+        signIn("a@mail.com");
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("insert into writes values (1)");
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertEquals("replica", readOnly.execute(status -> route()));
+    }
+
+    @Test
+    void readOnlyTransactionAfterStickinessWindow_ShouldReadFromReplica() {
+        use(new ReadYourWritesTracker(Duration.ZERO));
+        signIn("a@mail.com");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("insert into writes values (1)"));
+
+        Assertions.assertEquals("replica", readOnly.execute(status -> route()));
+    }
+
+    @Test
+    void readOnlyTransactionOnPinnedThread_ShouldReadFromPrimary() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+        use(tracker);
+
+        tracker.pinThread();
+        try {
+            Assertions.assertEquals("primary", readOnly.execute(status -> route()));
+        } finally {
+            tracker.releaseThread();
+        }
+        Assertions.assertEquals("replica", readOnly.execute(status -> route()));
+    }
+
+    private void use(ReadYourWritesTracker tracker) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, tracker));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String route() {
+        return jdbcTemplate.queryForObject("select name from route", String.class);
+    }
+
+    private static void signIn(String emailId) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(emailId, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table if not exists route (name varchar(16))");
+        template.execute("create table if not exists writes (id int)");
+        template.update("delete from route");
+        template.update("insert into route values (?)", name);
+        return dataSource;
+    }
+}
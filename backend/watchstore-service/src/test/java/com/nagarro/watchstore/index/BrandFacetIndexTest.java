@@ -0,0 +1,67 @@
+package com.nagarro.watchstore.index;
+
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.dao.projection.BrandCount;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+/**
+ * Test cases for BrandFacetIndex class.
+ */
+class BrandFacetIndexTest {
+
+    @Mock
+    private WatchDao watchDao;
+
+    private BrandFacetIndex brandFacetIndex;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        brandFacetIndex = new BrandFacetIndex(watchDao);
+        brandFacetIndex.update("A1", "Seiko", true);
+        brandFacetIndex.update("A2", "Seiko", false);
+        brandFacetIndex.update("B1", "Casio", true);
+    }
+
+    @Test
+    void getBrandCounts_ShouldCountTotalAndInStockPerBrand() {
+        List<BrandCount> counts = brandFacetIndex.getBrandCounts();
+
+        Assertions.assertEquals(List.of("Casio", "Seiko"), brandFacetIndex.getBrands());
+        Assertions.assertEquals(1, counts.get(0).getTotal());
+        Assertions.assertEquals(2, counts.get(1).getTotal());
+        Assertions.assertEquals(1, counts.get(1).getInStock());
+    }
+
+    @Test
+    void onWatchChanged_WithLastWatchOfBrandSoldOut_ShouldKeepBrandWithNoStock() {
+        Watch watch = new Watch();
+        watch.setModelNumber("B1");
+        watch.setWatchBrand("Casio");
+        watch.setStockQuantity(0);
+        watch.setAvailableStatus(false);
+
+        brandFacetIndex.onWatchChanged(new WatchChangedEvent(watch));
+
+        BrandCount casio = brandFacetIndex.getBrandCounts().get(0);
+        Assertions.assertEquals(1, casio.getTotal());
+        Assertions.assertEquals(0, casio.getInStock());
+    }
+
+    @Test
+    void update_WithBrandChanged_ShouldDropEmptyBrand() {
+        brandFacetIndex.update("B1", "Seiko", true);
+
+        Assertions.assertEquals(List.of("Seiko"), brandFacetIndex.getBrands());
+        Assertions.assertEquals(3, brandFacetIndex.getBrandCounts().get(0).getTotal());
+        Assertions.assertEquals(2, brandFacetIndex.getBrandCounts().get(0).getInStock());
+    }
+}
@@ -0,0 +1,137 @@
+package com.nagarro.watchstore.index;
+
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.dao.projection.WatchSummary;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for CatalogFacetIndex class.
+ */
+class CatalogFacetIndexTest {
+
+    @Mock
+    private WatchDao watchDao;
+
+    private CatalogFacetIndex catalogFacetIndex;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(watchDao.findAllSummaries()).thenReturn(List.of());
+        catalogFacetIndex = new CatalogFacetIndex(watchDao,
+                new BigDecimal[] { new BigDecimal("1000"), new BigDecimal("5000") });
+        catalogFacetIndex.rebuild();
+        catalogFacetIndex.index("A1", "Seiko", WatchType.AUTOMATIC, new BigDecimal("900"), true);
+        catalogFacetIndex.index("A2", "Seiko", WatchType.QUARTZ, new BigDecimal("3000"), false);
+        catalogFacetIndex.index("B1", "Casio", WatchType.DIGITAL, new BigDecimal("1200"), true);
+        catalogFacetIndex.index("B2", "Casio", WatchType.QUARTZ, new BigDecimal("7000"), true);
+    }
+
+    @Test
+    void filter_WithoutCriteria_ShouldReturnEveryWatchInOrder() {
+        Assertions.assertEquals(List.of("A1", "A2", "B1", "B2"), catalogFacetIndex.filter(new CatalogFilter(), null, 10));
+    }
+
+    @Test
+    void filter_WithCursorAndLimit_ShouldStopAfterThePage() {
+        catalogFacetIndex.index("A0", "Seiko", WatchType.AUTOMATIC, new BigDecimal("100"), true);
+        catalogFacetIndex.index("AB", "Seiko", WatchType.AUTOMATIC, new BigDecimal("100"), true);
+        CatalogFilter filter = new CatalogFilter();
+        filter.setAvailableStatus(true);
+
+        Assertions.assertEquals(List.of("A0", "A1"), catalogFacetIndex.filter(filter, null, 2));
+        Assertions.assertEquals(List.of("AB", "B1"), catalogFacetIndex.filter(filter, "A1", 2));
+        Assertions.assertEquals(List.of("AB", "B1", "B2"), catalogFacetIndex.filter(filter, "AA", 5));
+        Assertions.assertTrue(catalogFacetIndex.filter(filter, "B2", 2).isEmpty());
+    }
+
+    @Test
+    void rebuild_WithUnsortedSummaries_ShouldReturnWatchesInModelOrder() {
+        WatchSummary b = summary("B", "Casio", true);
+        WatchSummary a = summary("A", "Seiko", false);
+        when(watchDao.findAllSummaries()).thenReturn(List.of(b, a));
+
+        catalogFacetIndex.rebuild();
+
+        Assertions.assertTrue(catalogFacetIndex.isReady());
+        Assertions.assertEquals(List.of("A", "B"), catalogFacetIndex.filter(new CatalogFilter(), null, 10));
+        CatalogFilter filter = new CatalogFilter();
+        filter.setBrands(Set.of("seiko"));
+        Assertions.assertEquals(List.of("A"), catalogFacetIndex.filter(filter, null, 10));
+    }
+
+    @Test
+    void index_WithNewLowestModelNumber_ShouldKeepTheOtherWatchesInTheirBitmaps() {
+        catalogFacetIndex.index("0", "Casio", WatchType.QUARTZ, new BigDecimal("7000"), false);
+        CatalogFilter filter = new CatalogFilter();
+        filter.setBrands(Set.of("casio"));
+        filter.setTypes(Set.of(WatchType.QUARTZ));
+
+        Assertions.assertEquals(List.of("0", "B2"), catalogFacetIndex.filter(filter, null, 10));
+        Assertions.assertEquals(List.of("B2"), catalogFacetIndex.filter(filter, "0", 1));
+        filter.setAvailableStatus(true);
+        Assertions.assertEquals(List.of("B2"), catalogFacetIndex.filter(filter, null, 10));
+    }
+
+    @Test
+    void filter_WithSeveralFacets_ShouldIntersectThem() {
+        CatalogFilter filter = new CatalogFilter();
+        filter.setBrands(Set.of("casio", "Seiko"));
+        filter.setTypes(Set.of(WatchType.QUARTZ));
+        filter.setAvailableStatus(true);
+
+        Assertions.assertEquals(List.of("B2"), catalogFacetIndex.filter(filter, null, 10));
+    }
+
+    @Test
+    void filter_WithPriceRangeCuttingBands_ShouldCheckExactPrices() {
+        CatalogFilter filter = new CatalogFilter();
+        filter.setMinPrice(new BigDecimal("1000"));
+        filter.setMaxPrice(new BigDecimal("6999"));
+
+        Assertions.assertEquals(List.of("A2", "B1"), catalogFacetIndex.filter(filter, null, 10));
+    }
+
+    @Test
+    void onWatchChanged_WithNewTypeAndPrice_ShouldMoveWatchBetweenBitmaps() {
+        Watch watch = new Watch();
+        watch.setModelNumber("A1");
+        watch.setWatchBrand("Seiko");
+        watch.setWatchType(WatchType.SOLAR);
+        watch.setPrice(new BigDecimal("8000"));
+        watch.setAvailableStatus(true);
+
+        catalogFacetIndex.onWatchChanged(new WatchChangedEvent(watch));
+
+        CatalogFilter filter = new CatalogFilter();
+        filter.setMinPrice(new BigDecimal("5000"));
+        Assertions.assertEquals(List.of("A1", "B2"), catalogFacetIndex.filter(filter, null, 10));
+        filter = new CatalogFilter();
+        filter.setTypes(Set.of(WatchType.AUTOMATIC));
+        Assertions.assertTrue(catalogFacetIndex.filter(filter, null, 10).isEmpty());
+    }
+
+    private static WatchSummary summary(String modelNumber, String watchBrand, boolean availableStatus) {
+        WatchSummary summary = mock(WatchSummary.class);
+        when(summary.getModelNumber()).thenReturn(modelNumber);
+        when(summary.getWatchBrand()).thenReturn(watchBrand);
+        when(summary.getWatchType()).thenReturn(WatchType.QUARTZ);
+        when(summary.getPrice()).thenReturn(new BigDecimal("500"));
+        when(summary.isAvailableStatus()).thenReturn(availableStatus);
+        return summary;
+    }
+}
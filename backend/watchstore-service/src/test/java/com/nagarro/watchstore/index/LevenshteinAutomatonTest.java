@@ -0,0 +1,125 @@
+package com.nagarro.watchstore.index;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Test cases for LevenshteinAutomaton class, including a latency benchmark
+ * over a dictionary of 100k terms.
+ */
+class LevenshteinAutomatonTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LevenshteinAutomatonTest.class);
+
+    @Test
+    void intersect_ShouldAcceptEditsAndTranspositionsWithinLimit() {
+        TreeSet<String> dictionary = new TreeSet<>(List.of("skx007", "skx009", "skx", "srpd", "ska007", "sxk007",
+                "diver", "driver", "skx0077"));
+
+        Assertions.assertEquals(List.of("ska007", "skx007", "skx0077", "skx009", "sxk007"),
+                new LevenshteinAutomaton("skx007", 1, 0).intersect(dictionary));
+        Assertions.assertEquals(List.of("diver"), new LevenshteinAutomaton("divr", 1, 0).intersect(dictionary));
+        Assertions.assertEquals(List.of("diver", "driver"), new LevenshteinAutomaton("divr", 2, 0).intersect(dictionary));
+        Assertions.assertTrue(new LevenshteinAutomaton("rolex", 2, 0).intersect(dictionary).isEmpty());
+    }
+
+    @Test
+    void intersect_WithPrefixLength_ShouldOnlyAcceptTermsSharingThePrefix() {
+        TreeSet<String> dictionary = new TreeSet<>(List.of("askx007", "skx007", "skx07", "sxk007", "tkx007"));
+
+        Assertions.assertEquals(List.of("skx007", "skx07"),
+                new LevenshteinAutomaton("skx007", 2, 2).intersect(dictionary));
+    }
+
+    @Test
+    void intersect_ShouldMatchBruteForceOnRandomDictionary() {
+        Random random = new Random(7);
+        TreeSet<String> dictionary = new TreeSet<>();
+        for (int i = 0; i < 3000; i++) {
+            dictionary.add(randomTerm(random, "abcd", 1 + random.nextInt(7)));
+        }
+        for (int i = 0; i < 200; i++) {
+            String term = randomTerm(random, "abcd", 1 + random.nextInt(7));
+            int maxEdits = 1 + random.nextInt(2);
+            int prefixLength = random.nextInt(2);
+            List<String> expected = new ArrayList<>();
+            for (String candidate : dictionary) {
+                if (distance(term, candidate) <= maxEdits
+                        && candidate.startsWith(term.substring(0, Math.min(prefixLength, term.length())))) {
+                    expected.add(candidate);
+                }
+            }
+            Assertions.assertEquals(expected,
+                    new LevenshteinAutomaton(term, maxEdits, prefixLength).intersect(dictionary), term);
+        }
+    }
+
+    @Test
+    void intersect_With100kTerms_ShouldVisitOnlyNeighbourhood() {
+        Random random = new Random(11);
+        String alphabet = "abcdefghijklmnopqrstuvwxyz0123456789";
+        TreeSet<String> dictionary = new TreeSet<>();
+        while (dictionary.size() < 100_000) {
+            dictionary.add(randomTerm(random, alphabet, 4 + random.nextInt(8)));
+        }
+        List<String> queries = new ArrayList<>();
+        for (String term : dictionary) {
+            if (queries.size() == 1000) {
+                break;
+            }
+            if (random.nextInt(50) == 0) {
+                char[] typo = term.toCharArray();
+                typo[1 + random.nextInt(typo.length - 1)] = alphabet.charAt(random.nextInt(alphabet.length()));
+                queries.add(new String(typo));
+            }
+        }
+
+        for (int maxEdits = 1; maxEdits <= 2; maxEdits++) {
+            long visited = 0;
+            long start = System.nanoTime();
+            for (String query : queries) {
+                LevenshteinAutomaton automaton = new LevenshteinAutomaton(query, maxEdits, 1);
+                Assertions.assertFalse(automaton.intersect(dictionary).isEmpty(), query);
+                visited += automaton.getVisited();
+            }
+            long averageMicros = (System.nanoTime() - start) / queries.size() / 1000;
+            LOGGER.info("Fuzzy lookup within {} edits over {} terms: {} us and {} terms visited on average",
+                    maxEdits, dictionary.size(), averageMicros, visited / queries.size());
+
+            Assertions.assertTrue(visited / queries.size() < dictionary.size() / 20);
+        }
+    }
+
+    private static String randomTerm(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    private static int distance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    d[i][j] = i + j;
+                    continue;
+                }
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1),
+                        d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1));
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,171 @@
+package com.nagarro.watchstore.index;
+
+import com.nagarro.watchstore.dao.OrderDao;
+import com.nagarro.watchstore.dao.projection.OrderSale;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for SalesRankingIndex class.
+ */
+class SalesRankingIndexTest {
+
+    private static final Instant START = Instant.parse("2023-06-01T10:30:00Z");
+
+    @Mock
+    private OrderDao orderDao;
+
+    private MovingClock clock;
+
+    private SalesRankingIndex salesRankingIndex;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        clock = new MovingClock(START);
+        salesRankingIndex = new SalesRankingIndex(orderDao, clock);
+        salesRankingIndex.record("SKX-007", "Seiko", WatchType.AUTOMATIC, 3, START);
+        salesRankingIndex.record("F-91W", "Casio", WatchType.DIGITAL, 5, START);
+        salesRankingIndex.record("SNK-809", "Seiko", WatchType.AUTOMATIC, 1, START);
+        salesRankingIndex.record("GA-100", "Casio", WatchType.DIGITAL, 2, START);
+        salesRankingIndex.record("SNK-809", "Seiko", WatchType.AUTOMATIC, 4, START);
+    }
+
+    @Test
+    void getTopSellers_ShouldRankEveryScopeByUnitsSold() {
+        Assertions.assertEquals(List.of("F-91W 5", "SNK-809 5", "SKX-007 3"),
+                top(SalesWindow.DAY, null, null, 3));
+        Assertions.assertEquals(List.of("SNK-809 5", "SKX-007 3"), top(SalesWindow.WEEK, "seiko", null, 10));
+        Assertions.assertEquals(List.of("F-91W 5", "GA-100 2"), top(SalesWindow.MONTH, null, WatchType.DIGITAL, 10));
+        Assertions.assertEquals(List.of("F-91W 5"), top(SalesWindow.DAY, "Casio", WatchType.DIGITAL, 1));
+        Assertions.assertEquals(List.of(), top(SalesWindow.DAY, "Casio", WatchType.AUTOMATIC, 10));
+    }
+
+    @Test
+    void getTopSellers_ShouldDropSalesLeavingTheWindow() {
+        clock.advance(Duration.ofHours(20));
+        salesRankingIndex.record("GA-100", "Casio", WatchType.DIGITAL, 4, clock.instant());
+
+        clock.advance(Duration.ofHours(4));
+        Assertions.assertEquals(List.of("GA-100 4"), top(SalesWindow.DAY, null, null, 10));
+        Assertions.assertEquals(List.of("GA-100 6", "F-91W 5", "SNK-809 5", "SKX-007 3"),
+                top(SalesWindow.WEEK, null, null, 10));
+
+        clock.advance(Duration.ofDays(40));
+        Assertions.assertEquals(List.of(), top(SalesWindow.MONTH, null, null, 10));
+    }
+
+    @Test
+    void record_WithSaleOlderThanWindow_ShouldCountItOnlyInLongerWindows() {
+        salesRankingIndex.record("OLD-1", "Orient", WatchType.AUTOMATIC, 9, START.minus(Duration.ofDays(3)));
+
+        Assertions.assertEquals(List.of(), top(SalesWindow.DAY, "Orient", null, 10));
+        Assertions.assertEquals(List.of("OLD-1 9"), top(SalesWindow.WEEK, "Orient", null, 10));
+    }
+
+    @Test
+    void onWatchChanged_WithNewBrand_ShouldMoveSalesToTheBrand() {
+        Watch watch = new Watch();
+        watch.setModelNumber("GA-100");
+        watch.setWatchBrand("G-Shock");
+        watch.setWatchType(WatchType.DIGITAL);
+
+        salesRankingIndex.onWatchChanged(new WatchChangedEvent(watch));
+
+        Assertions.assertEquals(List.of("F-91W 5"), top(SalesWindow.DAY, "Casio", null, 10));
+        Assertions.assertEquals(List.of("GA-100 2"), top(SalesWindow.DAY, "G-Shock", null, 10));
+    }
+
+    @Test
+    void rebuild_ShouldRankTheOrdersOfTheLongestWindow() {
+        OrderSale sale = mock(OrderSale.class);
+        when(sale.getModelNumber()).thenReturn("PRX-1");
+        when(sale.getWatchBrand()).thenReturn("Tissot");
+        when(sale.getWatchType()).thenReturn(WatchType.QUARTZ);
+        when(sale.getQuantity()).thenReturn(2);
+        when(sale.getTimestamp()).thenReturn(LocalDateTime.ofInstant(START.minus(Duration.ofDays(2)), ZoneOffset.UTC));
+        when(orderDao.findSalesBetween(any(), any())).thenReturn(List.of(sale, sale));
+
+        salesRankingIndex.rebuild();
+
+        Assertions.assertTrue(salesRankingIndex.isReady());
+        Assertions.assertEquals(List.of("PRX-1 4"), top(SalesWindow.WEEK, null, null, 10));
+        Assertions.assertEquals(List.of(), top(SalesWindow.DAY, null, null, 10));
+    }
+
+    @Test
+    void rebuild_WithOrdersPlacedDuringTheRead_ShouldCountEachOrderOnce() {
+        OrderSale sale = mock(OrderSale.class);
+        when(sale.getModelNumber()).thenReturn("PRX-1");
+        when(sale.getWatchBrand()).thenReturn("Tissot");
+        when(sale.getWatchType()).thenReturn(WatchType.QUARTZ);
+        when(sale.getQuantity()).thenReturn(2);
+        when(sale.getTimestamp()).thenReturn(LocalDateTime.ofInstant(START.minus(Duration.ofHours(1)), ZoneOffset.UTC));
+        when(orderDao.findSalesBetween(any(), any())).thenAnswer(invocation -> {
+            // The event of an order the snapshot holds, then of one placed after it.
+            salesRankingIndex.record("PRX-1", "Tissot", WatchType.QUARTZ, 2, START.minus(Duration.ofHours(1)));
+            salesRankingIndex.record("PRX-1", "Tissot", WatchType.QUARTZ, 3, START);
+            return List.of(sale);
+        });
+
+        salesRankingIndex.rebuild();
+
+        Assertions.assertEquals(List.of("PRX-1 5"), top(SalesWindow.DAY, "Tissot", null, 10));
+        verify(orderDao).findSalesBetween(LocalDateTime.ofInstant(START.minus(Duration.ofDays(30)), ZoneOffset.UTC),
+                LocalDateTime.ofInstant(START, ZoneOffset.UTC));
+    }
+
+    private List<String> top(SalesWindow window, String brand, WatchType type, int limit) {
+        return salesRankingIndex.getTopSellers(window, brand, type, limit).stream()
+                .map(rank -> rank.getModelNumber() + " " + rank.getUnitsSold())
+                .collect(Collectors.toList());
+    }
+
+    private static final class MovingClock extends Clock {
+
+        private Instant now;
+
+        private MovingClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.nagarro.watchstore.index;
+
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.dao.projection.WatchSummary;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for WatchSearchIndex class.
+ */
+class WatchSearchIndexTest {
+
+    @Mock
+    private WatchDao watchDao;
+
+    private WatchSearchIndex watchSearchIndex;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        watchSearchIndex = new WatchSearchIndex(watchDao, true);
+        watchSearchIndex.index("SKX-007", "Diver Automatic", "Seiko", WatchType.AUTOMATIC);
+        watchSearchIndex.index("GA2100", "CasiOak", "Casio", WatchType.DIGITAL);
+    }
+
+    @Test
+    void search_WithModelNumberParts_ShouldMatchWatch() {
+        Assertions.assertEquals(Set.of("SKX-007"), watchSearchIndex.search("skx007"));
+        Assertions.assertEquals(Set.of("SKX-007"), watchSearchIndex.search("SKX 007"));
+        Assertions.assertEquals(Set.of("GA2100"), watchSearchIndex.search("2100"));
+    }
+
+    @Test
+    void search_WithSeveralTerms_ShouldRequireEveryTerm() {
+        Assertions.assertEquals(Set.of("SKX-007"), watchSearchIndex.search("seiko dive"));
+        Assertions.assertTrue(watchSearchIndex.search("seiko casio").isEmpty());
+    }
+
+    @Test
+    void onWatchChanged_WithRenamedWatch_ShouldDropOldTerms() {
+        Watch watch = new Watch();
+        watch.setModelNumber("GA2100");
+        watch.setWatchName("Carbon Core");
+        watch.setWatchBrand("Casio");
+        watch.setWatchType(WatchType.DIGITAL);
+
+        watchSearchIndex.onWatchChanged(new WatchChangedEvent(watch));
+
+        Assertions.assertTrue(watchSearchIndex.search("casioak").isEmpty());
+        Assertions.assertEquals(Set.of("GA2100"), watchSearchIndex.search("carbon"));
+    }
+
+    @Test
+    void rebuild_WithWatchChangedWhileReading_ShouldKeepTheChange() {
+        WatchSummary stale = mock(WatchSummary.class);
+        when(stale.getModelNumber()).thenReturn("GA2100");
+        when(stale.getWatchName()).thenReturn("CasiOak");
+        when(stale.getWatchBrand()).thenReturn("Casio");
+        when(stale.getWatchType()).thenReturn(WatchType.DIGITAL);
+        when(watchDao.findAllSummaries()).thenAnswer(invocation -> {
+            watchSearchIndex.index("GA2100", "Carbon Core", "Casio", WatchType.DIGITAL);
+            return List.of(stale);
+        });
+
+        watchSearchIndex.rebuild();
+
+        Assertions.assertTrue(watchSearchIndex.isReady());
+        Assertions.assertEquals(Set.of("GA2100"), watchSearchIndex.search("carbon"));
+        Assertions.assertTrue(watchSearchIndex.search("casioak").isEmpty());
+        Assertions.assertTrue(watchSearchIndex.search("seiko").isEmpty());
+    }
+
+    @Test
+    void rank_ShouldPreferModelNumberOverNameOverBrand() {
+        watchSearchIndex.index("DIVER-1", "Field", "Hamilton", WatchType.AUTOMATIC);
+        watchSearchIndex.index("H-2", "Diver", "Hamilton", WatchType.QUARTZ);
+        watchSearchIndex.index("H-3", "Khaki", "Diver Co", WatchType.QUARTZ);
+
+        Assertions.assertEquals(List.of("DIVER-1", "H-2", "SKX-007", "H-3"), watchSearchIndex.rank("diver", 10));
+    }
+
+    @Test
+    void rank_ShouldKeepOnlyTheBestMatchesAndWeighRareTermsHigher() {
+        watchSearchIndex.index("H-2", "Diver Seiko Style", "Hamilton", WatchType.QUARTZ);
+
+        Assertions.assertEquals(List.of("SKX-007"), watchSearchIndex.rank("seiko diver", 1));
+        Assertions.assertEquals(List.of("SKX-007", "H-2"), watchSearchIndex.rank("seiko diver", 5));
+        Assertions.assertTrue(watchSearchIndex.rank("rolex", 5).isEmpty());
+    }
+
+    @Test
+    void search_WithTypos_ShouldFallBackToFuzzyModelAndNameMatches() {
+        Assertions.assertEquals(Set.of("SKX-007"), watchSearchIndex.search("skx070"));
+        Assertions.assertEquals(Set.of("SKX-007"), watchSearchIndex.search("skx-07"));
+        Assertions.assertEquals(Set.of("SKX-007"), watchSearchIndex.search("seiko divr"));
+        Assertions.assertEquals(List.of("GA2100"), watchSearchIndex.rank("casoak", 5));
+        Assertions.assertTrue(watchSearchIndex.search("sieko").isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package com.nagarro.watchstore.index;
+
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.entity.Image;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Compares searching the catalog through WatchSearchIndex, then loading the
+ * matched watches by ID, with the LIKE query it replaces, over the same
+ * catalog and queries. The index matches terms by prefix rather than
+ * substrings, so it finds every watch the LIKE query finds and possibly more.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class WatchSearchIndexThroughputTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WatchSearchIndexThroughputTest.class);
+
+    private static final int WATCHES = 2000;
+
+    private static final int ROUNDS = 50;
+
+    private static final List<String> QUERIES = List.of("MODEL-1234", "Chrono 777", "Brand7", "Chrono 42");
+
+    private static final String[] NAMES = { "Diver", "Chrono", "Pilot", "Field" };
+
+    @Autowired
+    private WatchDao watchDao;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private WatchSearchIndex watchSearchIndex;
+
+    @BeforeEach
+    void setup() {
+        List<Watch> watches = new ArrayList<>(WATCHES);
+        for (int i = 0; i < WATCHES; i++) {
+            Watch watch = new Watch();
+            watch.setModelNumber("MODEL-" + i);
+            watch.setWatchName(NAMES[i % NAMES.length] + " " + i);
+            watch.setWatchBrand("Brand" + (i % 50));
+            watch.setWatchType(WatchType.values()[i % WatchType.values().length]);
+            watch.setPrice(BigDecimal.valueOf(1000 + i));
+            watch.setStockQuantity(5);
+            watch.setAvailableStatus(true);
+            List<Image> images = new ArrayList<>();
+            Image image = new Image();
+            image.setImagePath("/images/" + i);
+            images.add(image);
+            watch.setImages(images);
+            watches.add(watch);
+        }
+        watchDao.saveAll(watches);
+        entityManager.flush();
+        entityManager.clear();
+        watchSearchIndex = new WatchSearchIndex(watchDao, true);
+        watchSearchIndex.rebuild();
+    }
+
+    @Test
+    void search_ThroughputAgainstLikeQuery() {
+        Function<String, List<Watch>> indexed = query -> watchDao
+                .findAllById(watchSearchIndex.rank(query, Integer.MAX_VALUE));
+        Function<String, List<Watch>> like = watchDao::searchWatch;
+        for (String query : QUERIES) {
+            Set<String> liked = modelNumbers(like.apply(query));
+            Assertions.assertFalse(liked.isEmpty(), query);
+            Assertions.assertTrue(modelNumbers(indexed.apply(query)).containsAll(liked), query);
+        }
+
+        double likePerSecond = searchesPerSecond(like);
+        double indexPerSecond = searchesPerSecond(indexed);
+        LOGGER.info("Search throughput over {} watches: {} per second with the LIKE query, {} per second with the index",
+                WATCHES, Math.round(likePerSecond), Math.round(indexPerSecond));
+
+        Assertions.assertTrue(indexPerSecond > likePerSecond);
+    }
+
+    private double searchesPerSecond(Function<String, List<Watch>> search) {
+        QUERIES.forEach(search::apply);
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String query : QUERIES) {
+                search.apply(query);
+                entityManager.clear();
+            }
+        }
+        return ROUNDS * QUERIES.size() * 1e9 / (System.nanoTime() - start);
+    }
+
+    private static Set<String> modelNumbers(List<Watch> watches) {
+        Set<String> modelNumbers = new HashSet<>();
+        watches.forEach(watch -> modelNumbers.add(watch.getModelNumber()));
+        return modelNumbers;
+    }
+}
@@ -0,0 +1,131 @@
+package com.nagarro.watchstore.index;
+
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Test cases for WatchSuggestionIndex class.
+ */
+class WatchSuggestionIndexTest {
+
+    @Mock
+    private WatchDao watchDao;
+
+    private WatchSuggestionIndex watchSuggestionIndex;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        watchSuggestionIndex = new WatchSuggestionIndex(watchDao, 3);
+        watchSuggestionIndex.index("SKX-007", "Prospex Diver", "Seiko");
+        watchSuggestionIndex.index("SRPD", "Prospex Turtle", "Seiko");
+        watchSuggestionIndex.index("GA-2100", "Casioak", "Casio");
+    }
+
+    @Test
+    void suggest_ShouldRankByNumberOfWatchesThenAlphabetically() {
+        List<WatchSuggestion> suggestions = watchSuggestionIndex.suggest("s", 3);
+
+        Assertions.assertEquals(List.of("Seiko", "SKX-007", "SRPD"), texts(suggestions));
+        Assertions.assertEquals(WatchSuggestion.Type.BRAND, suggestions.get(0).getType());
+        Assertions.assertEquals(2, suggestions.get(0).getWatches());
+    }
+
+    @Test
+    void suggest_ShouldMatchAnyWordAndModelWithoutPunctuation() {
+        Assertions.assertEquals(List.of("Prospex Turtle"), texts(watchSuggestionIndex.suggest("TURT", 3)));
+        Assertions.assertEquals(List.of("SKX-007"), texts(watchSuggestionIndex.suggest("skx00", 3)));
+        Assertions.assertEquals(List.of("SKX-007"), texts(watchSuggestionIndex.suggest("skx 0", 3)));
+        Assertions.assertEquals(List.of("Casio", "Casioak"), texts(watchSuggestionIndex.suggest("cas", 3)));
+        Assertions.assertTrue(watchSuggestionIndex.suggest("rolex", 3).isEmpty());
+        Assertions.assertTrue(watchSuggestionIndex.suggest(" - ", 3).isEmpty());
+    }
+
+    @Test
+    void onWatchChanged_WithRenamedWatch_ShouldDropOldSuggestion() {
+        Watch watch = new Watch();
+        watch.setModelNumber("SRPD");
+        watch.setWatchName("Samurai");
+        watch.setWatchBrand("Seiko");
+
+        watchSuggestionIndex.onWatchChanged(new WatchChangedEvent(watch));
+
+        Assertions.assertEquals(List.of("Prospex Diver"), texts(watchSuggestionIndex.suggest("prosp", 3)));
+        Assertions.assertEquals(List.of("Samurai"), texts(watchSuggestionIndex.suggest("sam", 3)));
+        Assertions.assertEquals(2, watchSuggestionIndex.suggest("seik", 1).get(0).getWatches());
+    }
+
+    @Test
+    void onWatchChanged_WithRenamedWatchOfSingleWatchBrand_ShouldKeepOneBrandSuggestion() {
+        watchSuggestionIndex.index("A1", "Solo Name", "Zenith");
+        watchSuggestionIndex.index("A1", "Other Name", "Zenith");
+        watchSuggestionIndex.index("B2", "Third", "Zenith");
+
+        List<WatchSuggestion> suggestions = watchSuggestionIndex.suggest("zen", 3);
+        Assertions.assertEquals(List.of("Zenith"), texts(suggestions));
+        Assertions.assertEquals(2, suggestions.get(0).getWatches());
+        Assertions.assertTrue(watchSuggestionIndex.suggest("solo", 3).isEmpty());
+    }
+
+    @Test
+    void suggest_AfterRandomChanges_ShouldMatchFullScan() {
+        Random random = new Random(42);
+        String[] words = { "sea", "seal", "season", "star", "start", "stab", "dive", "diver", "d", "sk", "skx" };
+        Map<String, String[]> watches = new HashMap<>();
+        WatchSuggestionIndex index = new WatchSuggestionIndex(watchDao, 4);
+        for (int i = 0; i < 2000; i++) {
+            String modelNumber = "M" + random.nextInt(60);
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            String brand = words[random.nextInt(words.length)];
+            watches.put(modelNumber, new String[] { name, brand });
+            index.index(modelNumber, name, brand);
+        }
+
+        for (String prefix : List.of("s", "se", "sea", "seal", "st", "star", "d", "div", "sk", "skx", "m1", "x")) {
+            Assertions.assertEquals(fullScan(watches, prefix, 4), texts(index.suggest(prefix, 4)), prefix);
+        }
+    }
+
+    private static List<String> fullScan(Map<String, String[]> watches, String prefix, int limit) {
+        Map<String, Integer> counts = new HashMap<>();
+        watches.forEach((modelNumber, fields) -> {
+            count(counts, modelNumber, prefix);
+            count(counts, fields[0], prefix);
+            count(counts, fields[1], prefix);
+        });
+        return counts.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<String, Integer> entry) -> -entry.getValue())
+                        .thenComparing(Map.Entry::getKey, String.CASE_INSENSITIVE_ORDER))
+                .limit(limit).map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+    private static void count(Map<String, Integer> counts, String text, String prefix) {
+        String normalized = text.toLowerCase();
+        List<String> starts = new ArrayList<>();
+        starts.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            starts.add(normalized.substring(i + 1));
+        }
+        if (starts.stream().anyMatch(start -> start.startsWith(prefix))) {
+            counts.merge(text, 1, Integer::sum);
+        }
+    }
+
+    private static List<String> texts(List<WatchSuggestion> suggestions) {
+        return suggestions.stream().map(WatchSuggestion::getText).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,170 @@
+package com.nagarro.watchstore.service.impl;
+
+import com.nagarro.watchstore.cache.CartViewIndex;
+import com.nagarro.watchstore.cart.CartOperation;
+import com.nagarro.watchstore.cart.JpaCartStore;
+import com.nagarro.watchstore.dao.CartRepository;
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.entity.Cart;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.exception.BadRequestException;
+import com.nagarro.watchstore.service.CartService;
+import com.nagarro.watchstore.service.WatchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stress test of add-to-cart and bulk cart operations from parallel requests
+ * against a real database, each request committing on its own as it does
+ * behind the controller.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ CartServiceImpl.class, JpaCartStore.class, CartViewIndex.class })
+class CartServiceImplConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private static final int ADDS_PER_THREAD = 25;
+
+    @MockBean
+    private WatchService watchService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private WatchDao watchDao;
+
+    @BeforeEach
+    void setup() {
+        when(watchService.getWatchByModel(anyString()))
+                .thenAnswer(invocation -> watchDao.findById(invocation.getArgument(0)).orElseThrow());
+    }
+
+    @AfterEach
+    void cleanup() {
+        cartRepository.deleteAll();
+        watchDao.deleteAll();
+    }
+
+    @Test
+    void addCart_FromParallelRequests_ShouldCountEveryAddInOneLine() throws Exception {
+        saveWatch("STRESS-1", 1000);
+
+        int rejected = addInParallel("buyer@mail.com", "STRESS-1");
+
+        Assertions.assertEquals(0, rejected);
+        List<Cart> carts = cartRepository.findByUserId("buyer@mail.com");
+        Assertions.assertEquals(1, carts.size());
+        Assertions.assertEquals(THREADS * ADDS_PER_THREAD, carts.get(0).getWatchQty());
+    }
+
+    @Test
+    void addCart_FromParallelRequests_ShouldStopAtStock() throws Exception {
+        saveWatch("STRESS-2", 50);
+
+        int rejected = addInParallel("buyer@mail.com", "STRESS-2");
+
+        Assertions.assertEquals(THREADS * ADDS_PER_THREAD - 50, rejected);
+        List<Cart> carts = cartRepository.findByUserId("buyer@mail.com");
+        Assertions.assertEquals(1, carts.size());
+        Assertions.assertEquals(50, carts.get(0).getWatchQty());
+    }
+
+    @Test
+    void applyCartOperations_FromParallelRequests_ShouldAddToOneLine() throws Exception {
+        saveWatch("STRESS-3", 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cartService.applyCartOperations("buyer@mail.com",
+                            List.of(new CartOperation(CartOperation.Type.ADD, "STRESS-3", 2)));
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Cart> carts = cartRepository.findByUserId("buyer@mail.com");
+        Assertions.assertEquals(1, carts.size());
+        Assertions.assertEquals(THREADS * 2, carts.get(0).getWatchQty());
+    }
+
+    private int addInParallel(String userId, String watchModel) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                        try {
+                            cartService.addCart(userId, watchModel);
+                        } catch (BadRequestException exception) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return rejected.get();
+    }
+
+    private void saveWatch(String modelNumber, int stockQuantity) {
+        Watch watch = new Watch();
+        watch.setModelNumber(modelNumber);
+        watch.setWatchName("Stress " + modelNumber);
+        watch.setWatchBrand("Brand");
+        watch.setWatchType(WatchType.AUTOMATIC);
+        watch.setPrice(BigDecimal.valueOf(100));
+        watch.setStockQuantity(stockQuantity);
+        watch.setAvailableStatus(true);
+        watch.setImages(new ArrayList<>());
+        watchDao.save(watch);
+    }
+}
@@ -4,23 +4,37 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import com.nagarro.watchstore.cache.CartViewIndex;
+import com.nagarro.watchstore.cart.CartOperation;
+import com.nagarro.watchstore.cart.JpaCartStore;
 import com.nagarro.watchstore.dao.CartRepository;
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.dao.projection.CartLineView;
 import com.nagarro.watchstore.entity.Cart;
 import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.event.CartChangedEvent;
 import com.nagarro.watchstore.exception.BadRequestException;
 import com.nagarro.watchstore.exception.NotFoundException;
 import com.nagarro.watchstore.service.WatchService;
@@ -38,12 +52,19 @@ public class CartServiceImplTest {
     @Mock
     private WatchService watchService;
 
-    @InjectMocks
+    @Mock
+    private WatchDao watchDao;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private CartServiceImpl cartService;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        cartService = new CartServiceImpl(watchService, new JpaCartStore(cartRepository, watchDao), eventPublisher,
+                new CartViewIndex());
     }
     
     /**
@@ -66,6 +87,30 @@ public class CartServiceImplTest {
         verify(cartRepository).findByUserId(userId);
     }
 
+    /**
+     * Test case for retrieving the cart view by user ID when the cart has lines.
+     */
+    @Test
+    public void retrieveCartViewByUserId_WhenCartsExist_ReturnsViews() {
+        String userId = "Yogesh123";
+        List<CartLineView> views = List.of(new CartLineView(1, 2, "W1", "Watch", "Brand", WatchType.AUTOMATIC,
+                BigDecimal.TEN, 5, true, "/images/w1"));
+        when(cartRepository.findViewsByUserId(userId)).thenReturn(views);
+
+        assertEquals(views, cartService.retrieveCartViewByUserId(userId));
+        verify(cartRepository, never()).findByUserId(any());
+    }
+
+    /**
+     * Test case for retrieving the cart view by user ID when the cart is empty.
+     */
+    @Test
+    public void retrieveCartViewByUserId_WhenNoCartsExist_ThrowsNotFoundException() {
+        when(cartRepository.findViewsByUserId("Yogesh123")).thenReturn(List.of());
+
+        assertThrows(NotFoundException.class, () -> cartService.retrieveCartViewByUserId("Yogesh123"));
+    }
+
     /**
      * Test case for retrieving carts by user ID when no carts exist.
      */
@@ -84,58 +129,73 @@ public class CartServiceImplTest {
      * Test case for adding a cart when the cart exists.
      */
     @Test
-    public void addCart_WhenCartExists_ReturnsCart() {
+    public void addCart_WhenCartExists_IncrementsInOneStatement() {
         String userId = "Yogesh123";
         String watchModel = "Analog-123";
+
+        when(cartRepository.incrementWatchQty(userId, watchModel)).thenReturn(1);
+
+        cartService.addCart(userId, watchModel);
+
+        verify(watchService, never()).getWatchByModel(any());
+        verify(cartRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof CartChangedEvent changed
+                && userId.equals(changed.getUserId())));
+    }
+    
+    /**
+     * Test case for adding a cart when the cart is not exists.
+     */
+    @Test
+    public void addCart_WhenCartIsNotExists_SavesNewCart() {
+        String userId = "Yogesh";
+        String watchModel = "Analog-123";
         Watch watch = new Watch();
         watch.setStockQuantity(10);
-        
-        Cart expectedCart=new Cart();
-        expectedCart.setWatch(watch);
-        expectedCart.setUserId("Yogesh123");
-        expectedCart.setWatchQty(1);
 
         when(watchService.getWatchByModel(watchModel)).thenReturn(watch);
-        when(cartRepository.findByUserIdAndWatch("Yogeshs", watch)).thenReturn(Optional.of(expectedCart));
-        when(cartRepository.save(expectedCart)).thenReturn(expectedCart);
-        
-        Cart cart = cartService.addCart(userId, watchModel);
-        
-        assertNotNull(cart);
-        assertEquals(watch, cart.getWatch());
-        assertEquals(userId, cart.getUserId());
-        assertEquals(1, cart.getWatchQty());
 
-        verify(cartRepository).save(cart);
+        cartService.addCart(userId, watchModel);
+
+        verify(cartRepository).save(argThat(cart -> cart.getWatch() == watch && userId.equals(cart.getUserId())
+                && cart.getWatchQty() == 1));
     }
-    
+
     /**
-     * Test case for adding a cart when the cart is not exists.
+     * Test case for adding a cart when the cart exists but the stock is used up.
      */
     @Test
-    public void addCart_WhenCartIsNotExists_ReturnsCart() {
+    public void addCart_WhenCartExistsAndStockUsedUp_ThrowsBadRequestException() {
+        String userId = "Yogesh";
+        String watchModel = "Analog-123";
+        Watch watch = new Watch();
+        watch.setStockQuantity(2);
+
+        when(watchService.getWatchByModel(watchModel)).thenReturn(watch);
+        when(cartRepository.save(any())).thenThrow(new DataIntegrityViolationException("uk_carts_user_watch"));
+
+        assertThrows(BadRequestException.class, () -> cartService.addCart(userId, watchModel));
+
+        verify(cartRepository, times(2)).incrementWatchQty(userId, watchModel);
+    }
+
+    /**
+     * Test case for adding a cart when a parallel add created the cart first.
+     */
+    @Test
+    public void addCart_WhenParallelAddCreatedCart_IncrementsThatCart() {
         String userId = "Yogesh";
         String watchModel = "Analog-123";
         Watch watch = new Watch();
         watch.setStockQuantity(10);
-        
-        Cart expectedCart=new Cart();
-        expectedCart.setWatch(watch);
-        expectedCart.setUserId("Yogesh");
-        expectedCart.setWatchQty(1);
 
         when(watchService.getWatchByModel(watchModel)).thenReturn(watch);
-        when(cartRepository.findByUserIdAndWatch(userId, watch)).thenReturn(Optional.of(expectedCart));
-        when(cartRepository.save(expectedCart)).thenReturn(expectedCart);
-        
-        Cart cart = cartService.addCart(userId, watchModel);
-        
-        assertNotNull(cart);
-        assertEquals(watch, cart.getWatch());
-        assertEquals(userId, cart.getUserId());
-        assertEquals(2, cart.getWatchQty());
+        when(cartRepository.incrementWatchQty(userId, watchModel)).thenReturn(0, 1);
+        when(cartRepository.save(any())).thenThrow(new DataIntegrityViolationException("uk_carts_user_watch"));
 
-        verify(cartRepository).save(cart);
+        cartService.addCart(userId, watchModel);
+
+        verify(cartRepository, times(2)).incrementWatchQty(userId, watchModel);
     }
 
     /**
@@ -207,4 +267,124 @@ public class CartServiceImplTest {
 
         verify(cartRepository, never()).save(any());
     }
+
+    /**
+     * Test case for applying cart operations that add, set and remove lines.
+     */
+    @Test
+    public void applyCartOperations_WhenOperationsAreValid_SavesAndDeletesLines() {
+        String userId = "Yogesh";
+        Watch newWatch = watch("Analog-123", 10);
+        Watch setWatch = watch("Digital-456", 10);
+        Watch removeWatch = watch("Smart-789", 10);
+        Cart setLine = line(userId, setWatch, 1);
+        Cart removeLine = line(userId, removeWatch, 2);
+
+        when(watchDao.findAllById(anyCollection())).thenReturn(List.of(newWatch, setWatch, removeWatch));
+        when(cartRepository.findByUserIdAndWatchModelNumberIn(eq(userId), anyCollection()))
+                .thenReturn(List.of(setLine, removeLine));
+
+        cartService.applyCartOperations(userId, List.of(new CartOperation(CartOperation.Type.ADD, "Analog-123", 2),
+                new CartOperation(CartOperation.Type.SET, "Digital-456", 4),
+                new CartOperation(CartOperation.Type.REMOVE, "Smart-789", 0)));
+
+        assertEquals(4, setLine.getWatchQty());
+        verify(cartRepository).saveAll(argThat((Collection<Cart> carts) -> carts.size() == 2 && carts.contains(setLine)
+                && carts.stream().anyMatch(cart -> cart.getWatch() == newWatch && cart.getWatchQty() == 2)));
+        verify(cartRepository).deleteAll(argThat((Collection<Cart> carts) -> carts.size() == 1 && carts.contains(removeLine)));
+        verify(cartRepository).findByUserId(userId);
+    }
+
+    /**
+     * Test case for applying cart operations whose new line was just created by a parallel request.
+     */
+    @Test
+    public void applyCartOperations_WhenParallelRequestCreatedTheLine_RetriesAsIncrement() {
+        String userId = "Yogesh";
+        Watch newWatch = watch("Analog-123", 10);
+        Cart createdLine = line(userId, newWatch, 1);
+
+        when(watchDao.findAllById(anyCollection())).thenReturn(List.of(newWatch));
+        when(cartRepository.findByUserIdAndWatchModelNumberIn(eq(userId), anyCollection())).thenReturn(List.of(),
+                List.of(createdLine));
+        when(cartRepository.findByUserId(userId))
+                .thenThrow(new DataIntegrityViolationException("uk_carts_user_watch"))
+                .thenReturn(List.of(createdLine));
+
+        List<Cart> carts = cartService.applyCartOperations(userId,
+                List.of(new CartOperation(CartOperation.Type.ADD, "Analog-123", 2)));
+
+        assertEquals(List.of(createdLine), carts);
+        assertEquals(3, createdLine.getWatchQty());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof CartChangedEvent));
+    }
+
+    /**
+     * Test case for applying cart operations that remove a line and add the watch again.
+     */
+    @Test
+    public void applyCartOperations_WhenRemovedLineIsAddedAgain_KeepsLineWithNewQuantity() {
+        String userId = "Yogesh";
+        Watch watch = watch("Analog-123", 10);
+        Cart line = line(userId, watch, 5);
+
+        when(watchDao.findAllById(anyCollection())).thenReturn(List.of(watch));
+        when(cartRepository.findByUserIdAndWatchModelNumberIn(eq(userId), anyCollection())).thenReturn(List.of(line));
+
+        cartService.applyCartOperations(userId, List.of(new CartOperation(CartOperation.Type.REMOVE, "Analog-123", 0),
+                new CartOperation(CartOperation.Type.ADD, "Analog-123", 1)));
+
+        assertEquals(1, line.getWatchQty());
+        verify(cartRepository).saveAll(argThat((Collection<Cart> carts) -> carts.size() == 1 && carts.contains(line)));
+        verify(cartRepository).deleteAll(argThat((Collection<Cart> carts) -> carts.isEmpty()));
+    }
+
+    /**
+     * Test case for applying cart operations that exceed the stock of a watch.
+     */
+    @Test
+    public void applyCartOperations_WhenQuantityExceedsStock_ThrowsBadRequestException() {
+        String userId = "Yogesh";
+        Watch watch = watch("Analog-123", 3);
+        Cart line = line(userId, watch, 2);
+
+        when(watchDao.findAllById(anyCollection())).thenReturn(List.of(watch));
+        when(cartRepository.findByUserIdAndWatchModelNumberIn(eq(userId), anyCollection())).thenReturn(List.of(line));
+
+        assertThrows(BadRequestException.class, () -> cartService.applyCartOperations(userId,
+                List.of(new CartOperation(CartOperation.Type.ADD, "Analog-123", 2))));
+
+        verify(cartRepository, never()).saveAll(any());
+    }
+
+    /**
+     * Test case for applying cart operations that set the quantity of a line not in the cart.
+     */
+    @Test
+    public void applyCartOperations_WhenLineDoesNotExist_ThrowsBadRequestException() {
+        String userId = "Yogesh";
+
+        when(watchDao.findAllById(anyCollection())).thenReturn(List.of(watch("Analog-123", 10)));
+        when(cartRepository.findByUserIdAndWatchModelNumberIn(eq(userId), anyCollection())).thenReturn(List.of());
+
+        assertThrows(BadRequestException.class, () -> cartService.applyCartOperations(userId,
+                List.of(new CartOperation(CartOperation.Type.SET, "Analog-123", 2))));
+
+        verify(cartRepository, never()).saveAll(any());
+    }
+
+    private static Watch watch(String modelNumber, int stockQuantity) {
+        Watch watch = new Watch();
+        watch.setModelNumber(modelNumber);
+        watch.setStockQuantity(stockQuantity);
+        return watch;
+    }
+
+    private static Cart line(String userId, Watch watch, int watchQty) {
+        Cart cart = new Cart();
+        cart.setUserId(userId);
+        cart.setWatch(watch);
+        cart.setWatchQty(watchQty);
+        return cart;
+    }
 }
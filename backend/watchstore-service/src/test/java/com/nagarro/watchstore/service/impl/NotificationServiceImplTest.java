@@ -109,4 +109,21 @@ class NotificationServiceImplTest {
 
 		assertEquals(allNotifications, result);
 	}
+
+	@Test
+	void testUpdateNotificationUpdatesAllWaitingUsersAtOnce() {
+		String modelNumber = "123";
+		Watch watch = new Watch();
+		watch.setModelNumber(modelNumber);
+		watch.setWatchName("Diver");
+		watch.setAvailableStatus(true);
+
+		when(watchDao.findById(modelNumber)).thenReturn(Optional.of(watch));
+
+		String result = notificationService.updateNotification(modelNumber);
+
+		verify(notificationDao).markInStock(modelNumber, "Diver" + Constant.ADDED_IN_STOCK);
+		verify(notificationDao, never()).save(any(Notifications.class));
+		assertEquals(Constant.NOTIFICATION_UPDATE_SUCCESS, result);
+	}
 }
@@ -0,0 +1,190 @@
+package com.nagarro.watchstore.service.impl;
+
+import com.nagarro.watchstore.cart.CartStore;
+import com.nagarro.watchstore.dao.DeliveryAddressDao;
+import com.nagarro.watchstore.dao.OrderDao;
+import com.nagarro.watchstore.dao.UserRepository;
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.entity.Address;
+import com.nagarro.watchstore.entity.DeliveryAddress;
+import com.nagarro.watchstore.entity.User;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.enums.WatchType;
+import com.nagarro.watchstore.exception.BadRequestException;
+import com.nagarro.watchstore.service.AddressService;
+import com.nagarro.watchstore.service.DeliveryAddressService;
+import com.nagarro.watchstore.service.OrderService;
+import com.nagarro.watchstore.service.UserService;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stress test and benchmark of placing orders for a single hot watch from
+ * parallel requests against a real database, each order committing on its own
+ * as it does behind the controller.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ OrderServiceImpl.class, CatalogVersionClock.class })
+class OrderServiceImplConcurrencyTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderServiceImplConcurrencyTest.class);
+
+    private static final int THREADS = 8;
+
+    private static final int ORDERS_PER_THREAD = 25;
+
+    private static final String BUYER = "buyer@mail.com";
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private AddressService addressService;
+
+    @MockBean
+    private DeliveryAddressService deliveryAddressService;
+
+    @MockBean
+    private CartStore cartStore;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderDao orderDao;
+
+    @Autowired
+    private WatchDao watchDao;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeliveryAddressDao deliveryAddressDao;
+
+    @BeforeEach
+    void setup() {
+        User user = new User();
+        user.setEmailId(BUYER);
+        user.setName("Buyer");
+        userRepository.save(user);
+        DeliveryAddress deliveryAddress = new DeliveryAddress();
+        deliveryAddress.setId(1L);
+        deliveryAddressDao.save(deliveryAddress);
+        Address address = new Address();
+        address.setAddressId(1L);
+
+        when(userService.findUserById(BUYER)).thenReturn(user);
+        when(addressService.findByIdAndUserId(anyLong(), anyString())).thenReturn(address);
+        when(deliveryAddressService.findByAddressId(1L)).thenReturn(Optional.of(deliveryAddress));
+    }
+
+    @AfterEach
+    void cleanup() {
+        orderDao.deleteAll();
+        watchDao.deleteAll();
+        deliveryAddressDao.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void add_FromParallelRequests_ShouldSellExactlyTheStock() throws Exception {
+        saveWatch("HOT-1", 50);
+
+        int rejected = orderInParallel("HOT-1");
+
+        Assertions.assertEquals(THREADS * ORDERS_PER_THREAD - 50, rejected);
+        Assertions.assertEquals(50, orderDao.count());
+        Watch watch = watchDao.findById("HOT-1").orElseThrow();
+        Assertions.assertEquals(0, watch.getStockQuantity());
+        Assertions.assertFalse(watch.isAvailableStatus());
+    }
+
+    @Test
+    void add_FromParallelRequests_ThroughputOnOneHotWatch() throws Exception {
+        int stock = 10 * THREADS * ORDERS_PER_THREAD;
+        saveWatch("HOT-2", stock);
+
+        long start = System.nanoTime();
+        int rejected = orderInParallel("HOT-2");
+        double ordersPerSecond = THREADS * ORDERS_PER_THREAD * 1e9 / (System.nanoTime() - start);
+        LOGGER.info("Placed {} orders for one watch from {} threads at {} orders per second",
+                THREADS * ORDERS_PER_THREAD, THREADS, Math.round(ordersPerSecond));
+
+        Assertions.assertEquals(0, rejected);
+        Assertions.assertEquals(THREADS * ORDERS_PER_THREAD, orderDao.count());
+        Assertions.assertEquals(stock - THREADS * ORDERS_PER_THREAD,
+                watchDao.findById("HOT-2").orElseThrow().getStockQuantity());
+    }
+
+    private int orderInParallel(String watchModel) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        try {
+                            orderService.add(watchModel, 1L, BUYER, 1, null);
+                        } catch (BadRequestException exception) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return rejected.get();
+    }
+
+    private void saveWatch(String modelNumber, int stockQuantity) {
+        Watch watch = new Watch();
+        watch.setModelNumber(modelNumber);
+        watch.setWatchName("Hot " + modelNumber);
+        watch.setWatchBrand("Brand");
+        watch.setWatchType(WatchType.AUTOMATIC);
+        watch.setPrice(BigDecimal.valueOf(100));
+        watch.setStockQuantity(stockQuantity);
+        watch.setAvailableStatus(true);
+        watch.setImages(new ArrayList<>());
+        watchDao.save(watch);
+    }
+}
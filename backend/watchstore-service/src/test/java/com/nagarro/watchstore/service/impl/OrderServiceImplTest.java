@@ -7,6 +7,12 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
@@ -19,12 +25,18 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.nagarro.watchstore.cart.CartStore;
 import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.dao.CartRepository;
 import com.nagarro.watchstore.dao.OrderDao;
+import com.nagarro.watchstore.dao.WatchDao;
 import com.nagarro.watchstore.entity.Address;
+import com.nagarro.watchstore.entity.Cart;
 import com.nagarro.watchstore.entity.DeliveryAddress;
 import com.nagarro.watchstore.entity.Order;
+import com.nagarro.watchstore.entity.OrderLine;
 import com.nagarro.watchstore.entity.User;
 import com.nagarro.watchstore.entity.Watch;
 import com.nagarro.watchstore.enums.OrderStatus;
@@ -34,7 +46,7 @@ import com.nagarro.watchstore.exception.NotFoundException;
 import com.nagarro.watchstore.service.AddressService;
 import com.nagarro.watchstore.service.DeliveryAddressService;
 import com.nagarro.watchstore.service.UserService;
-import com.nagarro.watchstore.service.WatchService;
+import com.nagarro.watchstore.version.CatalogVersionClock;
 
 
 /**
@@ -46,9 +58,6 @@ import com.nagarro.watchstore.service.WatchService;
 
 public class OrderServiceImplTest {
 
-	@Mock
-	private WatchService watchService;
-
 	@Mock
 	private UserService userService;
 
@@ -61,6 +70,21 @@ public class OrderServiceImplTest {
 	@Mock
 	private OrderDao orderDao;
 
+	@Mock
+	private WatchDao watchDao;
+
+	@Mock
+	private CartRepository cartRepository;
+
+	@Mock
+	private CartStore cartStore;
+
+	@Mock
+	private CatalogVersionClock catalogVersionClock;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	@InjectMocks
 	private OrderServiceImpl orderService;
 
@@ -162,6 +186,50 @@ public class OrderServiceImplTest {
 		thenVerify();
 	}
 	
+	/**
+	 * This test case is used to test checkout() method when every line
+	 * of the cart is covered by the stock.
+	 */
+	@Test
+	public void testCheckoutWhenStockCoversCart() {
+		givenCart(2, 3);
+		whenCheckoutIsCalled();
+		List<OrderLine> lines = actualOrder.getLines();
+		assertEquals(2, lines.size());
+		assertEquals(2, lines.get(0).getQuantity());
+		assertEquals(3, lines.get(1).getQuantity());
+		assertEquals(BigDecimal.valueOf(500), actualOrder.getAmount());
+		assertEquals(3, lines.get(0).getWatch().getStockQuantity());
+		assertEquals(0, lines.get(1).getWatch().getStockQuantity());
+		assertFalse(lines.get(1).getWatch().isAvailableStatus());
+		assertEquals(11L, lines.get(1).getWatch().getCatalogVersion());
+		verify(this.orderDao).save(actualOrder);
+		verify(this.cartRepository).deleteByCartIdIn(anyCollection());
+	}
+
+	/**
+	 * This test case is used to test checkout() method when a line of the
+	 * cart asks for more than the stock of its watch.
+	 */
+	@Test
+	public void testCheckoutWhenQuantityGreaterThanStock() {
+		givenCart(2, 4);
+		assertThrows(BadRequestException.class, () -> whenCheckoutIsCalled(), Constant.QUANTITY_GREATER_THAN_STOCKS);
+		verify(this.orderDao, never()).save(any());
+		verify(this.cartRepository, never()).deleteByCartIdIn(anyCollection());
+	}
+
+	/**
+	 * This test case is used to test checkout() method when the cart is empty.
+	 */
+	@Test
+	public void testCheckoutWhenCartIsEmpty() {
+		when(this.cartRepository.findWatchModelsByUserId("user@example.com")).thenReturn(new ArrayList<>());
+		assertThrows(BadRequestException.class, () -> this.orderService.checkout(1L, "user@example.com"),
+				Constant.EMPTY_CART);
+		verify(this.watchDao, never()).findAllForUpdate(anyCollection());
+	}
+
 	/**
 	 * This test case is used to test findById() method for user
 	 * whose role is customer.
@@ -387,8 +455,6 @@ public class OrderServiceImplTest {
 		expectedOrders=new ArrayList<>();
 		
 		Order order1=new Order();
-		order1.setAmount(BigDecimal.valueOf(400));
-		order1.setQuantiy(4);
 		order1.setStatus(OrderStatus.BOOKED);
 		
 		DeliveryAddress deliveryAddress=new DeliveryAddress();
@@ -396,13 +462,14 @@ public class OrderServiceImplTest {
 		
 		Watch watch=new Watch();
 		watch.setModelNumber("model");
+		watch.setPrice(BigDecimal.valueOf(100));
 		
 		User user=new User();
 		user.setEmailId("user@example.com");
 		
 		order1.setDeliveryAddress(deliveryAddress);
 		order1.setUser(user);
-		order1.setWatch(watch);
+		order1.addLine(watch, 4);
 		
 		expectedOrders.add(order1);
  	}
@@ -440,11 +507,12 @@ public class OrderServiceImplTest {
 
 	private void thenVerifyNull() {
 		assertNull(actualOrder);
+		verify(orderDao, never()).save(any());
 	}
 
 	private void whenAddisCalledForInvalidWatchModel() throws BadRequestException{
-		when(watchService.getWatchByModel(this.watch.getModelNumber())).thenThrow(new NotFoundException("modelNumber", "Watch Not Found"));
-		this.actualOrder=this.orderService.add(this.watch.getModelNumber(), this.deliveryAddress.getId(), this.user.getEmailId(), this.quantity);
+		when(watchDao.existsById(this.watch.getModelNumber())).thenReturn(false);
+		this.actualOrder=this.orderService.add(this.watch.getModelNumber(), this.deliveryAddress.getId(), this.user.getEmailId(), this.quantity, null);
 	}
 
 	private void whenAddIsCalledAndQuantityGreaterThanStock() {
@@ -452,46 +520,56 @@ public class OrderServiceImplTest {
 	}
 
 	private void whenAddIsCalledForInvalidQuantity() throws BadRequestException {
-		when(watchService.getWatchByModel(this.watch.getModelNumber())).thenReturn(this.watch);
-		when(watchService.getWatchByModel(this.watch.getModelNumber())).thenReturn(this.watch);
+		when(watchDao.existsById(this.watch.getModelNumber())).thenReturn(true);
 		when(addressService.findByIdAndUserId(this.address.getAddressId(),this.user.getEmailId())).thenReturn(this.address);
 		when(userService.findUserById(this.user.getEmailId())).thenReturn(this.user);
-		this.actualOrder=this.orderService.add(this.watch.getModelNumber(), this.deliveryAddress.getId(), this.user.getEmailId(), this.quantity);
+		this.actualOrder=this.orderService.add(this.watch.getModelNumber(), this.deliveryAddress.getId(), this.user.getEmailId(), this.quantity, null);
 		
 	}
 
 	private void thenVerify() {
 		assertNotNull(actualOrder);
 		assertEquals(OrderStatus.BOOKED, actualOrder.getStatus());
-		assertEquals(watch.getModelNumber(), actualOrder.getWatch().getModelNumber());
+		assertEquals(1, actualOrder.getLines().size());
+		assertEquals(watch.getModelNumber(), actualOrder.getLines().get(0).getWatch().getModelNumber());
 		assertEquals(user.getEmailId(), actualOrder.getUser().getEmailId());
 		assertEquals(deliveryAddress.getId(), actualOrder.getDeliveryAddress().getId());
-		assertEquals(watch.getPrice(), actualOrder.getAmount());
-		assertEquals(quantity, actualOrder.getQuantiy());
-		assertEquals(watch.isAvailableStatus(), actualOrder.getWatch().isAvailableStatus());
+		assertEquals(watch.getPrice(), actualOrder.getLines().get(0).getAmount());
+		assertEquals(watch.getPrice().multiply(BigDecimal.valueOf(quantity)), actualOrder.getAmount());
+		assertEquals(quantity, actualOrder.getLines().get(0).getQuantity());
+		assertEquals(watch.isAvailableStatus(), actualOrder.getLines().get(0).getWatch().isAvailableStatus());
 	}
 
 	private void whenAddIsCalledAndDeliveryAddressNotExists() {
 		
-		when(watchService.getWatchByModel(this.watch.getModelNumber())).thenReturn(this.watch);
+		givenStockReserved();
 		when(addressService.findByIdAndUserId(this.address.getAddressId(),this.user.getEmailId())).thenReturn(this.address);
 		when(userService.findUserById(this.user.getEmailId())).thenReturn(this.user);
 		when(deliveryAddressService.findByAddressId(this.deliveryAddress.getId())).thenReturn(Optional.empty());
 		when(deliveryAddressService.save(this.deliveryAddress)).thenReturn(this.deliveryAddress);
 		when(orderDao.save(expectedOrder)).thenReturn(expectedOrder);
 		
-		this.actualOrder=this.orderService.add(this.watch.getModelNumber(), this.deliveryAddress.getId(), this.user.getEmailId(), this.quantity);
+		this.actualOrder=this.orderService.add(this.watch.getModelNumber(), this.deliveryAddress.getId(), this.user.getEmailId(), this.quantity, null);
 	}
 
 	private void whenAddIsCalledAndDeliveryAddressExists() {
 		
-		when(watchService.getWatchByModel(this.watch.getModelNumber())).thenReturn(this.watch);
+		givenStockReserved();
 		when(addressService.findByIdAndUserId(this.address.getAddressId(),this.user.getEmailId())).thenReturn(this.address);
 		when(userService.findUserById(this.user.getEmailId())).thenReturn(this.user);
 		when(deliveryAddressService.findByAddressId(this.deliveryAddress.getId())).thenReturn(Optional.of(this.deliveryAddress));
 		when(orderDao.save(expectedOrder)).thenReturn(expectedOrder);
 		
-		this.actualOrder=this.orderService.add(this.watch.getModelNumber(), this.deliveryAddress.getId(), this.user.getEmailId(), this.quantity);
+		this.actualOrder=this.orderService.add(this.watch.getModelNumber(), this.deliveryAddress.getId(), this.user.getEmailId(), this.quantity, null);
+	}
+
+	private void givenStockReserved() {
+		when(watchDao.reserveStock(eq(this.watch.getModelNumber()), eq(this.quantity), anyLong())).thenAnswer(invocation -> {
+			this.watch.setStockQuantity(this.watch.getStockQuantity() - this.quantity);
+			this.watch.setAvailableStatus(this.watch.getStockQuantity() > 0);
+			return 1;
+		});
+		when(watchDao.findById(this.watch.getModelNumber())).thenReturn(Optional.of(this.watch));
 	}
 
 	private void givenValues(String watchModel, long deliveryAddressId, String userEmailId, int quantity) {
@@ -501,6 +579,7 @@ public class OrderServiceImplTest {
 		
 		this.watch = new Watch();
 		watch.setModelNumber(watchModel);
+		watch.setPrice(BigDecimal.valueOf(100));
 		watch.setStockQuantity(stockQuantity);
 		watch.setAvailableStatus(true);
 		
@@ -516,12 +595,48 @@ public class OrderServiceImplTest {
 		
 		expectedOrder=new Order();
 		expectedOrder.setStatus(OrderStatus.BOOKED);
-		expectedOrder.setWatch(watch);
+		expectedOrder.addLine(watch, quantity);
 		expectedOrder.setUser(user);
 		expectedOrder.setDeliveryAddress(deliveryAddress);
-		expectedOrder.setAmount(watch.getPrice());
-		expectedOrder.setQuantiy(quantity);
 
 
 	}
+
+	private void givenCart(int firstQuantity, int secondQuantity) {
+		userEmailId = "user@example.com";
+		user = new User();
+		user.setEmailId(userEmailId);
+		address = new Address();
+		address.setAddressId(1L);
+		List<Watch> watches = new ArrayList<>();
+		List<Cart> lines = new ArrayList<>();
+		int[] quantities = { firstQuantity, secondQuantity };
+		for (int i = 0; i < quantities.length; i++) {
+			Watch cartWatch = new Watch();
+			cartWatch.setModelNumber("model-" + i);
+			cartWatch.setPrice(BigDecimal.valueOf(100));
+			cartWatch.setStockQuantity(i == 0 ? 5 : 3);
+			cartWatch.setAvailableStatus(true);
+			watches.add(cartWatch);
+			Cart line = new Cart();
+			line.setCartId(i + 1);
+			line.setUserId(userEmailId);
+			line.setWatch(cartWatch);
+			line.setWatchQty(quantities[i]);
+			lines.add(line);
+		}
+		List<String> watchModels = List.of("model-0", "model-1");
+		when(this.cartRepository.findWatchModelsByUserId(userEmailId)).thenReturn(watchModels);
+		when(this.userService.findUserById(userEmailId)).thenReturn(user);
+		when(this.addressService.findByIdAndUserId(1L, userEmailId)).thenReturn(address);
+		when(this.deliveryAddressService.findByAddressId(1L)).thenReturn(Optional.empty());
+		when(this.watchDao.findAllForUpdate(watchModels)).thenReturn(watches);
+		when(this.cartRepository.findByUserIdAndWatchModelNumberIn(userEmailId, watchModels)).thenReturn(lines);
+		when(this.catalogVersionClock.reserve(2)).thenReturn(10L);
+		when(this.orderDao.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	private void whenCheckoutIsCalled() {
+		this.actualOrder = this.orderService.checkout(1L, userEmailId);
+	}
 }
@@ -1,21 +1,47 @@
 package com.nagarro.watchstore.service.impl;
+import com.nagarro.watchstore.dao.OrderDao;
+import com.nagarro.watchstore.dao.WatchBatchDao;
 import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.dao.WatchExportDao;
+import com.nagarro.watchstore.dao.projection.StockLevel;
+import com.nagarro.watchstore.dao.projection.WatchSales;
 import com.nagarro.watchstore.entity.Watch;
 import com.nagarro.watchstore.exception.BadRequestException;
 import com.nagarro.watchstore.exception.NotFoundException;
+import com.nagarro.watchstore.index.BrandFacetIndex;
+import com.nagarro.watchstore.index.CatalogFacetIndex;
+import com.nagarro.watchstore.index.CatalogFilter;
+import com.nagarro.watchstore.index.SalesRank;
+import com.nagarro.watchstore.index.SalesRankingIndex;
+import com.nagarro.watchstore.index.SalesWindow;
+import com.nagarro.watchstore.index.TopSeller;
+import com.nagarro.watchstore.index.WatchSearchIndex;
+import com.nagarro.watchstore.index.WatchSuggestionIndex;
+import com.nagarro.watchstore.service.NotificationService;
 import com.nagarro.watchstore.service.WatchService;
 import com.nagarro.watchstore.service.impl.WatchServiceImpl;
+import com.nagarro.watchstore.version.CatalogVersionClock;
+import com.nagarro.watchstore.version.WatchChanges;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -29,6 +55,39 @@ class WatchServiceImplTest {
     @Mock
     private WatchDao watchDao;
 
+    @Mock
+    private WatchBatchDao watchBatchDao;
+
+    @Mock
+    private WatchSearchIndex watchSearchIndex;
+
+    @Mock
+    private BrandFacetIndex brandFacetIndex;
+
+    @Mock
+    private CatalogFacetIndex catalogFacetIndex;
+
+    @Mock
+    private WatchExportDao watchExportDao;
+
+    @Mock
+    private OrderDao orderDao;
+
+    @Mock
+    private WatchSuggestionIndex watchSuggestionIndex;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private SalesRankingIndex salesRankingIndex;
+
+    @Mock
+    private CatalogVersionClock catalogVersionClock;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private WatchServiceImpl watchService;
 
@@ -93,6 +152,27 @@ class WatchServiceImplTest {
         verify(watchDao, times(1)).findAll();
     }
 
+    @Test
+    void getWatchPage_WithoutCursor_ShouldStartFromFirstModel() {
+        // Arrange
+        Slice<Watch> slice = new SliceImpl<>(List.of(new Watch()), PageRequest.ofSize(1), true);
+        when(watchDao.findByModelNumberGreaterThanOrderByModelNumberAsc("", PageRequest.ofSize(1))).thenReturn(slice);
+
+        // Act
+        Slice<Watch> result = watchService.getWatchPage(null, 1);
+
+        // Assert
+        verify(watchDao, times(1)).findByModelNumberGreaterThanOrderByModelNumberAsc("", PageRequest.ofSize(1));
+        Assertions.assertTrue(result.hasNext());
+    }
+
+    @Test
+    void getWatchPage_WithOversizedPage_ShouldThrowBadRequestException() {
+        // Act & Assert
+        Assertions.assertThrows(BadRequestException.class, () -> watchService.getWatchPage("123", 1000));
+        verify(watchDao, never()).findByModelNumberGreaterThanOrderByModelNumberAsc(anyString(), any());
+    }
+
     @Test
     void getWatchByModel_WithExistingModel_ShouldReturnWatch() {
         // Arrange
@@ -185,6 +265,26 @@ class WatchServiceImplTest {
         verify(watchDao, times(1)).searchWatch(query);
     }
 
+    @Test
+    void searchWatch_WithReadyIndex_ShouldLoadMatchedModelsOnly() {
+        // Arrange
+        String query = "seiko";
+        List<Watch> watches = new ArrayList<>();
+        Watch watch = new Watch();
+        watch.setModelNumber("SKX007");
+        watches.add(watch);
+        when(watchSearchIndex.isReady()).thenReturn(true);
+        when(watchSearchIndex.rank(query, Integer.MAX_VALUE)).thenReturn(List.of("SKX007"));
+        when(watchDao.findAllById(List.of("SKX007"))).thenReturn(watches);
+
+        // Act
+        List<Watch> result = watchService.searchWatch(query);
+
+        // Assert
+        verify(watchDao, never()).searchWatch(anyString());
+        Assertions.assertEquals(watches, result);
+    }
+
     @Test
     void getBrand_WithExistingBrands_ShouldReturnListOfBrands() {
         // Arrange
@@ -211,5 +311,236 @@ class WatchServiceImplTest {
         verify(watchDao, times(1)).getBrand();
     }
 
-  
+    @Test
+    void getBrand_WithReadyFacet_ShouldNotQueryDatabase() {
+        // Arrange
+        List<String> brands = List.of("Casio", "Seiko");
+        when(brandFacetIndex.isReady()).thenReturn(true);
+        when(brandFacetIndex.getBrands()).thenReturn(brands);
+
+        // Act
+        List<String> result = watchService.getBrand();
+
+        // Assert
+        verify(watchDao, never()).getBrand();
+        Assertions.assertEquals(brands, result);
+    }
+
+    @Test
+    void getBrandCounts_WithFacetNotReady_ShouldCountInDatabase() {
+        // Arrange
+        when(watchDao.countByBrand()).thenReturn(new ArrayList<>());
+
+        // Act & Assert
+        Assertions.assertThrows(NotFoundException.class, () -> watchService.getBrandCounts());
+        verify(watchDao, times(1)).countByBrand();
+    }
+
+    @Test
+    void filterWatches_WithCursor_ShouldLoadOnlyTheNextPage() {
+        // Arrange
+        CatalogFilter filter = new CatalogFilter();
+        Watch watch = new Watch();
+        watch.setModelNumber("C");
+        when(catalogFacetIndex.isReady()).thenReturn(true);
+        when(catalogFacetIndex.filter(filter, "B", 2)).thenReturn(List.of("C", "D"));
+        when(watchDao.findAllById(List.of("C"))).thenReturn(List.of(watch));
+
+        // Act
+        Slice<Watch> result = watchService.filterWatches(filter, "B", 1);
+
+        // Assert
+        Assertions.assertEquals(List.of(watch), result.getContent());
+        Assertions.assertTrue(result.hasNext());
+    }
+
+    @Test
+    void filterWatches_WithColdIndex_ShouldQueryTheDatabase() {
+        // Arrange
+        CatalogFilter filter = new CatalogFilter();
+        filter.setBrands(Set.of("Seiko"));
+        Slice<Watch> page = new SliceImpl<>(List.of(new Watch()));
+        when(catalogFacetIndex.isReady()).thenReturn(false);
+        when(watchDao.findFacetMatchesAfter(eq("B"), eq(false), eq(Set.of("seiko")), eq(true), any(), any(), any(),
+                any(), eq(PageRequest.ofSize(2)))).thenReturn(page);
+
+        // Act
+        Slice<Watch> result = watchService.filterWatches(filter, "B", 2);
+
+        // Assert
+        Assertions.assertSame(page, result);
+        verify(catalogFacetIndex, never()).filter(any(), any(), anyInt());
+    }
+
+    @Test
+    void filterWatches_WithInvertedPriceRange_ShouldThrowBadRequestException() {
+        // Arrange
+        CatalogFilter filter = new CatalogFilter();
+        filter.setMinPrice(new BigDecimal("500"));
+        filter.setMaxPrice(new BigDecimal("100"));
+
+        // Act & Assert
+        Assertions.assertThrows(BadRequestException.class, () -> watchService.filterWatches(filter, null, 10));
+        verify(catalogFacetIndex, never()).filter(any(), any(), anyInt());
+    }
+
+    @Test
+    void addWatches_WithExistingAndRepeatedModels_ShouldInsertOnlyNewOnes() {
+        // Arrange
+        Watch existing = new Watch();
+        existing.setModelNumber("A");
+        Watch fresh = new Watch();
+        fresh.setModelNumber("B");
+        Watch repeated = new Watch();
+        repeated.setModelNumber("B");
+        when(watchBatchDao.findExistingModelNumbers(Set.of("A", "B"))).thenReturn(new HashSet<>(Set.of("A")));
+
+        // Act
+        List<Watch> skipped = watchService.addWatches(List.of(existing, fresh, repeated));
+
+        // Assert
+        Assertions.assertEquals(List.of(existing, repeated), skipped);
+        verify(watchBatchDao, times(1)).insertWatches(List.of(fresh));
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void adjustStock_ShouldUpdateValidModelsAndNotifyThoseBackInStock() {
+        // Arrange
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        deltas.put("SOLD-OUT", 4);
+        deltas.put("IN-STOCK", -2);
+        deltas.put("LOW", -5);
+        deltas.put("UNKNOWN", 1);
+        when(watchBatchDao.lockStockLevels(deltas.keySet())).thenReturn(Map.of(
+                "SOLD-OUT", new StockLevel("SOLD-OUT", 0, false),
+                "IN-STOCK", new StockLevel("IN-STOCK", 2, true),
+                "LOW", new StockLevel("LOW", 3, true)));
+        Watch soldOut = new Watch();
+        soldOut.setModelNumber("SOLD-OUT");
+        Watch inStock = new Watch();
+        inStock.setModelNumber("IN-STOCK");
+        when(watchDao.findAllById(List.of("SOLD-OUT", "IN-STOCK"))).thenReturn(List.of(soldOut, inStock));
+
+        // Act
+        Map<String, String> rejected = watchService.adjustStock(deltas);
+
+        // Assert
+        Assertions.assertEquals(Set.of("LOW", "UNKNOWN"), rejected.keySet());
+        verify(watchBatchDao).updateStockLevels(argThat(levels -> levels.size() == 2
+                && levels.get(0).getStockQuantity() == 4 && levels.get(0).isAvailableStatus()
+                && levels.get(1).getStockQuantity() == 0 && !levels.get(1).isAvailableStatus()), anyLong());
+        verify(notificationService).updateNotifications(List.of(soldOut));
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void suggest_WithLimitAboveIndexMaximum_ShouldThrowBadRequestException() {
+        when(watchSuggestionIndex.getMaxSuggestions()).thenReturn(10);
+
+        Assertions.assertThrows(BadRequestException.class, () -> watchService.suggest("sei", 11));
+        verify(watchSuggestionIndex, never()).suggest(anyString(), anyInt());
+    }
+
+    @Test
+    void searchWatches_WithReadyIndex_ShouldLoadOnlyRequestedPageInRankOrder() {
+        // Arrange
+        Watch second = new Watch();
+        second.setModelNumber("B");
+        Watch third = new Watch();
+        third.setModelNumber("C");
+        when(watchSearchIndex.isReady()).thenReturn(true);
+        when(watchSearchIndex.rank("dive", 4)).thenReturn(List.of("A", "D", "C", "B"));
+        when(watchDao.findAllById(List.of("C", "B"))).thenReturn(List.of(second, third));
+
+        // Act
+        List<Watch> result = watchService.searchWatches("dive", 1, 2);
+
+        // Assert
+        Assertions.assertEquals(List.of(third, second), result);
+    }
+
+    @Test
+    void getWatchChanges_WithMoreChanges_ShouldContinueFromLastWatchVersion() {
+        // Arrange
+        Watch first = new Watch();
+        first.setCatalogVersion(6);
+        Watch second = new Watch();
+        second.setCatalogVersion(9);
+        when(catalogVersionClock.stable()).thenReturn(20L);
+        when(watchDao.findByCatalogVersionBetweenOrderByCatalogVersionAsc(6, 20, PageRequest.ofSize(2)))
+                .thenReturn(new SliceImpl<>(List.of(first, second), PageRequest.ofSize(2), true));
+
+        // Act
+        WatchChanges changes = watchService.getWatchChanges(5, 2);
+
+        // Assert
+        Assertions.assertEquals(List.of(first, second), changes.getWatches());
+        Assertions.assertEquals(9, changes.getVersion());
+        Assertions.assertTrue(changes.isHasMore());
+    }
+
+    @Test
+    void getWatchChanges_WithLastPage_ShouldContinueFromStableVersion() {
+        // Arrange
+        Watch changed = new Watch();
+        changed.setCatalogVersion(12);
+        when(catalogVersionClock.stable()).thenReturn(20L);
+        when(watchDao.findByCatalogVersionBetweenOrderByCatalogVersionAsc(10, 20, PageRequest.ofSize(5)))
+                .thenReturn(new SliceImpl<>(List.of(changed), PageRequest.ofSize(5), false));
+
+        // Act
+        WatchChanges changes = watchService.getWatchChanges(9, 5);
+
+        // Assert
+        Assertions.assertEquals(20, changes.getVersion());
+        Assertions.assertFalse(changes.isHasMore());
+    }
+
+    @Test
+    void getWatchChanges_WithNegativeVersion_ShouldThrowBadRequestException() {
+        Assertions.assertThrows(BadRequestException.class, () -> watchService.getWatchChanges(-1, 5));
+        verify(catalogVersionClock, never()).stable();
+    }
+
+    @Test
+    void getTopSellers_ShouldReturnRankedWatchesWithUnitsSold() {
+        // Arrange
+        Watch best = new Watch();
+        best.setModelNumber("BEST");
+        Watch second = new Watch();
+        second.setModelNumber("SECOND");
+        when(salesRankingIndex.isReady()).thenReturn(true);
+        when(salesRankingIndex.getTopSellers(SalesWindow.WEEK, "Seiko", null, 2))
+                .thenReturn(List.of(new SalesRank("BEST", 9), new SalesRank("SECOND", 4)));
+        when(watchDao.findAllById(List.of("BEST", "SECOND"))).thenReturn(List.of(second, best));
+
+        // Act
+        List<TopSeller> topSellers = watchService.getTopSellers(SalesWindow.WEEK, "Seiko", null, 2);
+
+        // Assert
+        Assertions.assertEquals(List.of(best, second), topSellers.stream().map(TopSeller::getWatch).toList());
+        Assertions.assertEquals(List.of(9L, 4L), topSellers.stream().map(TopSeller::getUnitsSold).toList());
+    }
+
+    @Test
+    void getTopSellers_BeforeRankingIsBuilt_ShouldRankFromTheDatabase() {
+        // Arrange
+        Watch best = new Watch();
+        best.setModelNumber("BEST");
+        WatchSales sales = mock(WatchSales.class);
+        when(sales.getModelNumber()).thenReturn("BEST");
+        when(sales.getUnitsSold()).thenReturn(9L);
+        when(orderDao.findTopSellersSince(any(LocalDateTime.class), eq("Seiko"), isNull(), eq(PageRequest.ofSize(2))))
+                .thenReturn(List.of(sales));
+        when(watchDao.findAllById(List.of("BEST"))).thenReturn(List.of(best));
+
+        // Act
+        List<TopSeller> topSellers = watchService.getTopSellers(SalesWindow.WEEK, "Seiko", null, 2);
+
+        // Assert
+        Assertions.assertEquals(List.of(best), topSellers.stream().map(TopSeller::getWatch).toList());
+        Assertions.assertEquals(List.of(9L), topSellers.stream().map(TopSeller::getUnitsSold).toList());
+        verify(salesRankingIndex, never()).getTopSellers(any(), any(), any(), anyInt());
+    }
 }
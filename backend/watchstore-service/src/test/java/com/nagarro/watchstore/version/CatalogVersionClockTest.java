@@ -0,0 +1,158 @@
+package com.nagarro.watchstore.version;
+
+import com.nagarro.watchstore.dao.WatchDao;
+import com.nagarro.watchstore.entity.Watch;
+import com.nagarro.watchstore.event.WatchChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for CatalogVersionClock class.
+ */
+class CatalogVersionClockTest {
+
+    @Mock
+    private WatchDao watchDao;
+
+    private CatalogVersionClock clock;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(watchDao.findMaxCatalogVersion()).thenReturn(10L);
+        clock = new CatalogVersionClock(watchDao);
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserve_ShouldContinueAfterHighestStoredVersion() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        Assertions.assertEquals(11, clock.next());
+        Assertions.assertEquals(12, clock.reserve(3));
+        Assertions.assertEquals(15, clock.next());
+        verify(watchDao, times(1)).findMaxCatalogVersion();
+    }
+
+    @Test
+    void stable_ShouldStayBelowVersionsOfRunningTransactions() {
+        Assertions.assertEquals(10, clock.stable());
+
+        List<TransactionSynchronization> slow = inTransaction(() -> clock.next());
+        List<TransactionSynchronization> fast = inTransaction(() -> clock.reserve(2));
+        complete(fast);
+        Assertions.assertEquals(10, clock.stable());
+
+        complete(slow);
+        Assertions.assertEquals(13, clock.stable());
+    }
+
+    @Test
+    void reserve_OutsideTransaction_ShouldThrowIllegalStateException() {
+        Assertions.assertThrows(IllegalStateException.class, () -> clock.next());
+    }
+
+    @Test
+    void stable_InsideListenerOfTheChange_ShouldNotHaveMovedYet() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ListenerConfig.class)) {
+            CatalogVersionClock clock = context.getBean(CatalogVersionClock.class);
+            StableVersionListener listener = context.getBean(StableVersionListener.class);
+
+            new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+                clock.next();
+                context.publishEvent(new WatchChangedEvent(new Watch()));
+            });
+
+            Assertions.assertEquals(List.of(10L), listener.seen);
+            Assertions.assertEquals(11, clock.stable());
+        }
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations) {
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    /**
+     * A view of the catalog brought up to date after commit, recording the
+     * stable version it sees.
+     */
+    static class StableVersionListener {
+
+        private final CatalogVersionClock clock;
+
+        private final List<Long> seen = new ArrayList<>();
+
+        StableVersionListener(CatalogVersionClock clock) {
+            this.clock = clock;
+        }
+
+        @TransactionalEventListener
+        @Order(CatalogVersionClock.LISTENER_ORDER)
+        public void onWatchChanged(WatchChangedEvent event) {
+            seen.add(clock.stable());
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class ListenerConfig {
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new DataSourceTransactionManager(
+                    new DriverManagerDataSource("jdbc:h2:mem:clock;DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+
+        @Bean
+        CatalogVersionClock catalogVersionClock() {
+            WatchDao watchDao = mock(WatchDao.class);
+            when(watchDao.findMaxCatalogVersion()).thenReturn(10L);
+            return new CatalogVersionClock(watchDao);
+        }
+
+        @Bean
+        StableVersionListener stableVersionListener(CatalogVersionClock clock) {
+            return new StableVersionListener(clock);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.nagarro.watchstore.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.nagarro.watchstore.constants.Constant;
+import com.nagarro.watchstore.exception.BadRequestException;
+
+/**
+ * CursorCodec converts the last key of a page into an opaque cursor handed to
+ * clients, and back. Clients must treat the cursor as an opaque token.
+ */
+public class CursorCodec {
+
+	private CursorCodec() {
+	}
+
+	/**
+	 * Encodes a page key into an opaque cursor.
+	 *
+	 * @param key the last key of the current page
+	 * @return the url-safe cursor
+	 */
+	public static String encode(String key) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a cursor previously returned by {@link #encode(String)}.
+	 *
+	 * @param cursor the cursor sent by the client, may be null or blank
+	 * @return the page key, or null when no cursor was given
+	 * @throws BadRequestException if the cursor is malformed
+	 */
+	public static String decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException exception) {
+			throw new BadRequestException("cursor", Constant.INVALID_CURSOR + cursor);
+		}
+	}
+}